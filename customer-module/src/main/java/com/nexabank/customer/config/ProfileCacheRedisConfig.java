@@ -0,0 +1,31 @@
+package com.nexabank.customer.config;
+
+import com.nexabank.customer.service.ProfileCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes to profile cache invalidations published by other instances, so their
+ * writes also drop this instance's local copies. Only active with the shared Redis tier.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.profile-cache.redis.enabled", havingValue = "true")
+public class ProfileCacheRedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer profileCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                          ProfileCache profileCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> profileCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(ProfileCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nexabank.customer.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users committed a write recently. Their reads are pinned to the
+ * primary for the sticky window so they never observe a replica that has not
+ * caught up with their own change yet.
+ *
+ * The window is kept per node: a read served by another instance than the one that took
+ * the write can still go to a lagging replica. Deployments with several instances should
+ * route each user to one instance (e.g. load balancer affinity on the userId or session).
+ */
+public class ReadYourWritesTracker {
+
+    private final long stickyWindowMillis;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyWindowSeconds) {
+        this.stickyWindowMillis = stickyWindowSeconds * 1000;
+    }
+
+    public void recordWrite(String userId) {
+        if (userId != null) {
+            lastWriteAt.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public boolean isSticky(String userId) {
+        Long writtenAt = lastWriteAt.get(userId);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < stickyWindowMillis;
+    }
+
+    /**
+     * Drop entries whose sticky window has passed
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - stickyWindowMillis;
+        lastWriteAt.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nexabank.customer.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically measures replication lag of every replica and publishes the set of
+ * replicas that are within the configured tolerance. Until the first check has run
+ * no replica is considered healthy, so reads start out on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagSeconds;
+    private final boolean lagCheckEnabled;
+    private final Map<String, Long> observedLagSeconds = new ConcurrentHashMap<>();
+
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagSeconds, boolean lagCheckEnabled) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheckEnabled = lagCheckEnabled;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> healthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public Map<String, Long> getObservedLagSeconds() {
+        return Collections.unmodifiableMap(observedLagSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval-ms:2000}")
+    public void refresh() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (!lagCheckEnabled) {
+                healthy.add(replica.getKey());
+                continue;
+            }
+            Long lag = measureLagSeconds(replica.getValue());
+            if (lag == null) {
+                observedLagSeconds.remove(replica.getKey());
+                log.warn("Replica {} is not replicating or unreachable, routing its reads to primary", replica.getKey());
+            } else {
+                observedLagSeconds.put(replica.getKey(), lag);
+                if (lag <= maxLagSeconds) {
+                    healthy.add(replica.getKey());
+                } else {
+                    log.warn("Replica {} is {}s behind (tolerance {}s), skipping it", replica.getKey(), lag, maxLagSeconds);
+                }
+            }
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    /**
+     * Seconds behind the source as reported by the replica, or null when replication
+     * is stopped or the replica cannot be queried
+     */
+    private Long measureLagSeconds(DataSource replica) {
+        try {
+            List<Map<String, Object>> rows = new JdbcTemplate(replica).queryForList("SHOW REPLICA STATUS");
+            if (rows.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> status = rows.get(0);
+            Object lag = status.containsKey("Seconds_Behind_Source")
+                    ? status.get("Seconds_Behind_Source")
+                    : status.get("Seconds_Behind_Master");
+            return lag instanceof Number ? ((Number) lag).longValue() : null;
+        } catch (Exception e) {
+            log.debug("Lag check failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nexabank.customer.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the user the current request acts on, so the routing DataSource can
+ * keep that user's reads on the primary right after they wrote (read-your-writes)
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {}
+
+    public static void bindUser(String userId) {
+        if (userId != null) {
+            CURRENT_USER.set(userId);
+        }
+    }
+
+    /**
+     * Run work (including the commit of a transaction it starts) with userId bound, restoring
+     * the previous binding afterwards; for writes whose userId is not a path variable
+     */
+    public static <T> T callAsUser(String userId, Supplier<T> work) {
+        String previous = CURRENT_USER.get();
+        bindUser(userId);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_USER.remove();
+            } else {
+                CURRENT_USER.set(previous);
+            }
+        }
+    }
+
+    public static String currentUserId() {
+        return CURRENT_USER.get();
+    }
+
+    public static void clear() {
+        CURRENT_USER.remove();
+    }
+}
@@ -0,0 +1,49 @@
+package com.nexabank.customer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for routing read-only transactions to MySQL read replicas
+ * (prefix {@code app.datasource.routing})
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Enables the routing DataSource; when false everything uses spring.datasource
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replicas lagging further behind the primary than this are skipped
+     */
+    private long maxLagSeconds = 5;
+
+    /**
+     * Query replication lag with SHOW REPLICA STATUS; disable for replicas that
+     * are not real MySQL replicas (e.g. local embedded databases)
+     */
+    private boolean lagCheckEnabled = true;
+
+    private long lagCheckIntervalMs = 2000;
+
+    /**
+     * After a user writes, their reads stay on the primary for this long
+     */
+    private long stickyWindowSeconds = 10;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nexabank.customer.config;
+
+import com.nexabank.customer.entity.Customer;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Generates customer IDs through {@link ShardRouter#newCustomerId(String)}
+ */
+public class ShardAwareIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        String userId = owner instanceof Customer customer ? customer.getUserId() : null;
+        return ShardRouter.newCustomerId(userId);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
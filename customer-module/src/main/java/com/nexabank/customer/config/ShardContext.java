@@ -0,0 +1,35 @@
+package com.nexabank.customer.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard index read by {@link ShardRoutingDataSource}. Unbound threads use shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Run work with the given shard bound, restoring the previous binding afterwards
+     */
+    public static <T> T callOnShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.nexabank.customer.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Maps customers to shards by a hash of userId and runs repository work on the right shard.
+ * Customer IDs are generated on the same shard as their userId (see {@link ShardAwareIdGenerator}),
+ * so a customerId routes exactly like the userId it belongs to and child rows, which are
+ * saved by customerId, are co-located with their customer.
+ *
+ * With sharding disabled there is a single shard and every call runs inline.
+ */
+@Component
+public class ShardRouter implements DisposableBean {
+
+    // Read by the Hibernate ID generator, which is not a Spring bean
+    private static volatile int configuredShardCount = 1;
+
+    @Autowired
+    private ShardingProperties shardingProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int shardCount;
+    private ExecutorService scatterExecutor;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        shardCount = shardingProperties.isEnabled() ? shardingProperties.getShards().size() + 1 : 1;
+        configuredShardCount = shardCount;
+        if (shardCount > 1) {
+            scatterExecutor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(shardingProperties.getScatterThreads(), shardCount)));
+            readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(String key) {
+        return shardOf(key, shardCount);
+    }
+
+    /**
+     * Run work on the shard that owns the given userId or customerId. A transaction stays on the
+     * shard of its first statement, so writes must be flushed inside work rather than at commit.
+     */
+    public <T> T onShardFor(String key, Supplier<T> work) {
+        if (shardCount == 1 || key == null) {
+            return work.get();
+        }
+        return ShardContext.callOnShard(shardFor(key), work);
+    }
+
+    public void onShardFor(String key, Runnable work) {
+        onShardFor(key, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the same read-only query on every shard in parallel, one result per shard
+     */
+    public <T> List<T> scatter(Supplier<T> query) {
+        if (shardCount == 1) {
+            return Collections.singletonList(query.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOnShard(target, () -> readOnlyTransaction.execute(status -> query.get())),
+                    scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    public <T> List<T> scatterList(Supplier<List<T>> query) {
+        List<T> merged = new ArrayList<>();
+        for (List<T> shardResult : scatter(query)) {
+            merged.addAll(shardResult);
+        }
+        return merged;
+    }
+
+    public <T> Optional<T> scatterFirst(Supplier<Optional<T>> query) {
+        return scatter(query).stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    public boolean scatterAny(Supplier<Boolean> query) {
+        return scatter(query).stream().anyMatch(Boolean.TRUE::equals);
+    }
+
+    /**
+     * New customer ID that hashes to the same shard as the owning userId
+     */
+    public static String newCustomerId(String userId) {
+        int shards = configuredShardCount;
+        String id = UUID.randomUUID().toString();
+        if (shards == 1 || userId == null) {
+            return id;
+        }
+        int target = shardOf(userId, shards);
+        while (shardOf(id, shards) != target) {
+            id = UUID.randomUUID().toString();
+        }
+        return id;
+    }
+
+    static int shardOf(String key, int shards) {
+        if (shards == 1) {
+            return 0;
+        }
+        // Murmur3 finalizer to spread String.hashCode before taking the modulus
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shards);
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.nexabank.customer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for hash-sharding customers across several databases (prefix {@code app.sharding}).
+ * Shard 0 is always spring.datasource; the entries under {@code shards} become shards 1..n.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Threads used for scatter-gather queries across shards
+     */
+    private int scatterThreads = 8;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
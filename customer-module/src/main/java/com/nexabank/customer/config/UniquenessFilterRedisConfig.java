@@ -0,0 +1,31 @@
+package com.nexabank.customer.config;
+
+import com.nexabank.customer.service.CustomerUniquenessFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes to uniqueness filter inserts published by other instances, so values they
+ * record are also added to this instance's Bloom filters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bloom.redis.enabled", havingValue = "true")
+public class UniquenessFilterRedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer uniquenessFilterInsertListener(RedisConnectionFactory connectionFactory,
+                                                                        CustomerUniquenessFilter uniquenessFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> uniquenessFilter.applyRemoteInsert(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(CustomerUniquenessFilter.INSERT_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,48 @@
+package com.nexabank.customer.config;
+
+import com.nexabank.customer.entity.Transaction.TransactionType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Velocity checks on postings (prefix {@code app.velocity}). Windows are kept in
+ * {@code buckets} buckets of {@code bucket-seconds}, so no rule can look back further than
+ * their product; rule windows are rounded up to whole buckets.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = true;
+
+    private long bucketSeconds = 300;
+
+    private int buckets = 12;
+
+    /**
+     * Posting types fed into the windows; the rest are neither counted nor held
+     */
+    private List<TransactionType> transactionTypes = new ArrayList<>(List.of(TransactionType.DEBIT, TransactionType.TRANSFER_OUT));
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        private Scope scope = Scope.ACCOUNT;
+        private long windowSeconds = 3600;
+
+        // Limits that are not set (0 / null) are not checked
+        private long maxCount;
+        private BigDecimal maxAmount;
+        private int maxDistinctTargets;
+    }
+
+    public enum Scope {
+        ACCOUNT, CUSTOMER
+    }
+}
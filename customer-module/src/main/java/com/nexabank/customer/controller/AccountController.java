@@ -0,0 +1,289 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.dto.PostingRequest;
+import com.nexabank.customer.entity.AccountBalance;
+import com.nexabank.customer.entity.Transaction;
+import com.nexabank.customer.service.TransactionHistoryService;
+import com.nexabank.customer.service.TransactionHistoryService.ExportFormat;
+import com.nexabank.customer.service.TransactionPostingService;
+import com.nexabank.customer.service.TransactionPostingService.PostingResult;
+import com.nexabank.customer.service.VelocityEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@RestController
+@RequestMapping("/api/accounts")
+@CrossOrigin(origins = "*")
+@Tag(name = "Accounts", description = "Transaction posting, history and account balances")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class AccountController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private TransactionPostingService postingService;
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Value("${app.posting.timeout-ms:5000}")
+    private long timeoutMs;
+
+    /**
+     * Post one transaction; replaying the same referenceNumber returns the original posting.
+     * A posting held by a velocity rule is returned as PENDING with 202.
+     */
+    @Operation(summary = "Post a transaction to an account")
+    @PostMapping("/{accountId}/transactions")
+    public ResponseEntity<?> postTransaction(@PathVariable String accountId, @RequestBody PostingRequest request) {
+        try {
+            request.setAccountId(accountId);
+            PostingResult result = postingService.post(request).get(timeoutMs, TimeUnit.MILLISECONDS);
+            Transaction transaction = result.getTransaction();
+            if (transaction.getStatus() == Transaction.TransactionStatus.FAILED) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(transaction);
+            }
+            if (transaction.getStatus() == Transaction.TransactionStatus.PENDING) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(transaction);
+            }
+            return ResponseEntity.status(result.isDuplicate() ? HttpStatus.OK : HttpStatus.CREATED).body(transaction);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable(e.getMessage());
+        } catch (TimeoutException e) {
+            // Still queued or committing: the client can safely retry with the same referenceNumber
+            return serviceUnavailable("Posting did not complete in time, retry with the same referenceNumber");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return serviceUnavailable("Posting was interrupted");
+        } catch (ExecutionException e) {
+            log.error("Error posting transaction to account {}", accountId, e.getCause());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Post up to 1000 transactions, possibly to different accounts; results are in request order
+     */
+    @Operation(summary = "Post a batch of transactions")
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<?> postTransactions(@RequestBody List<PostingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one posting is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " postings per batch");
+        }
+        List<CompletableFuture<PostingResult>> futures = new ArrayList<>(requests.size());
+        for (PostingRequest request : requests) {
+            try {
+                futures.add(postingService.post(request));
+            } catch (IllegalArgumentException | RejectedExecutionException e) {
+                futures.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Map<String, Object>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("referenceNumber", requests.get(i).getReferenceNumber());
+            try {
+                PostingResult result = futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                item.put("status", result.getTransaction().getStatus());
+                item.put("duplicate", result.isDuplicate());
+                if (result.getHeldBy() != null) {
+                    item.put("heldBy", result.getHeldBy());
+                }
+                item.put("transaction", result.getTransaction());
+            } catch (TimeoutException e) {
+                item.put("status", "TIMEOUT");
+                item.put("error", "Posting did not complete in time, retry with the same referenceNumber");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return serviceUnavailable("Posting was interrupted");
+            } catch (ExecutionException e) {
+                item.put("status", e.getCause() instanceof RejectedExecutionException ? "REJECTED" : "ERROR");
+                item.put("error", e.getCause().getMessage());
+            }
+            results.add(item);
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Transaction history, newest first; pass the returned nextCursor to get the following page
+     */
+    @Operation(summary = "Get account transaction history")
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<?> getTransactions(@PathVariable String accountId,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(historyService.getPage(accountId, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error fetching transactions for account {}", accountId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stream the account's history between two dates as CSV or NDJSON
+     */
+    @Operation(summary = "Export account transaction history")
+    @GetMapping("/{accountId}/transactions/export")
+    public ResponseEntity<?> exportTransactions(@PathVariable String accountId,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                @RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("format must be csv or ndjson");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().body("to must not be before from");
+        }
+        StreamingResponseBody body = out -> historyService.export(accountId, from, to, exportFormat, out);
+        String extension = exportFormat == ExportFormat.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+            .contentType(exportFormat == ExportFormat.CSV ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions-" + accountId.replaceAll("[^A-Za-z0-9_-]", "_") + "." + extension + "\"")
+            .body(body);
+    }
+
+    /**
+     * Current balance snapshot of an account
+     */
+    @Operation(summary = "Get account balance")
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<?> getBalance(@PathVariable String accountId) {
+        try {
+            Optional<AccountBalance> balance = postingService.getBalance(accountId);
+            if (balance.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No postings found for account ID: " + accountId);
+            }
+            return ResponseEntity.ok(balance.get());
+        } catch (Exception e) {
+            log.error("Error fetching balance for account {}", accountId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Postings of the account held by a velocity rule, oldest first
+     */
+    @Operation(summary = "List held postings of an account")
+    @GetMapping("/{accountId}/transactions/held")
+    public ResponseEntity<?> getHeldTransactions(@PathVariable String accountId,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(postingService.getHeld(accountId, limit));
+        } catch (Exception e) {
+            log.error("Error fetching held postings for account {}", accountId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Approve a held posting: it is applied to the balance now, or FAILED (422) if a debit no longer fits
+     */
+    @Operation(summary = "Approve a held posting")
+    @PostMapping("/{accountId}/transactions/{transactionId}/approve")
+    public ResponseEntity<?> approveHeld(@PathVariable String accountId, @PathVariable String transactionId) {
+        return reviewHeld(accountId, transactionId, true);
+    }
+
+    /**
+     * Reject a held posting: it is CANCELLED and its reference stays taken
+     */
+    @Operation(summary = "Reject a held posting")
+    @PostMapping("/{accountId}/transactions/{transactionId}/reject")
+    public ResponseEntity<?> rejectHeld(@PathVariable String accountId, @PathVariable String transactionId) {
+        return reviewHeld(accountId, transactionId, false);
+    }
+
+    private ResponseEntity<?> reviewHeld(String accountId, String transactionId, boolean approve) {
+        try {
+            Transaction transaction = postingService.reviewHeld(accountId, transactionId, approve);
+            if (transaction.getStatus() == Transaction.TransactionStatus.FAILED) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(transaction);
+            }
+            return ResponseEntity.ok(transaction);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Transaction not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+            }
+            log.error("Error reviewing held posting {} on account {}", transactionId, accountId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * The account's current velocity window totals per rule, as seen by this node
+     */
+    @Operation(summary = "Get account velocity windows")
+    @GetMapping("/{accountId}/velocity")
+    public ResponseEntity<?> getVelocity(@PathVariable String accountId) {
+        return ResponseEntity.ok(velocityEngine.getAccountWindows(accountId));
+    }
+
+    /**
+     * Velocity check counts, rule hits and check latency
+     */
+    @Operation(summary = "Velocity check statistics")
+    @GetMapping("/velocity/stats")
+    public ResponseEntity<?> getVelocityStats() {
+        return ResponseEntity.ok(velocityEngine.getStats());
+    }
+
+    /**
+     * Posting throughput, batch sizes, queue depths and latency percentiles
+     */
+    @Operation(summary = "Transaction posting statistics")
+    @GetMapping("/posting/stats")
+    public ResponseEntity<?> getPostingStats() {
+        return ResponseEntity.ok(postingService.getStats());
+    }
+
+    private static ResponseEntity<?> serviceUnavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(message);
+    }
+}
@@ -0,0 +1,85 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.dto.ImportJobRequest;
+import com.nexabank.customer.entity.ImportJob;
+import com.nexabank.customer.service.TransactionImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "*")
+@Tag(name = "Imports", description = "Bulk import of settlement files")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class ImportController {
+
+    @Autowired
+    private TransactionImportService importService;
+
+    /**
+     * Start importing a settlement file from the import directory; progress is polled with GET /{jobId}
+     */
+    @Operation(summary = "Start a settlement file import")
+    @PostMapping
+    public ResponseEntity<?> startImport(@RequestBody ImportJobRequest request) {
+        try {
+            ImportJob job = importService.start(request.getFileName(), request.getFormat(), request.getRequestedBy());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.describe(job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error starting import of {}", request.getFileName(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Recent import jobs")
+    @GetMapping
+    public ResponseEntity<?> getImports(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(importService.getRecentJobs(limit));
+    }
+
+    /**
+     * Checkpoint, counters and current rows per second of an import
+     */
+    @Operation(summary = "Get import job progress")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getImport(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(importService.getJob(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Continue an import from its last checkpoint
+     */
+    @Operation(summary = "Resume an import job")
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeImport(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.describe(importService.resume(jobId)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Cancel a running import job")
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<?> cancelImport(@PathVariable String jobId) {
+        if (!importService.cancel(jobId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Import job " + jobId + " is not running on this node");
+        }
+        return ResponseEntity.ok(importService.getJob(jobId));
+    }
+}
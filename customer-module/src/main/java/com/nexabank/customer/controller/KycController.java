@@ -0,0 +1,105 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.entity.CustomerMatchCluster;
+import com.nexabank.customer.service.CustomerMatchingService;
+import com.nexabank.customer.service.KycWorkQueue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/kyc")
+@CrossOrigin(origins = "*")
+@Tag(name = "KYC Processing", description = "KYC verification work queue")
+@SecurityRequirement(name = "bearerAuth")
+public class KycController {
+
+    @Autowired
+    private KycWorkQueue kycWorkQueue;
+
+    @Autowired
+    private CustomerMatchingService customerMatchingService;
+
+    /**
+     * KYC queue depth, outcome counters, throughput and verification latency (for admin modules)
+     */
+    @Operation(summary = "KYC queue statistics")
+    @GetMapping("/queue/stats")
+    public ResponseEntity<?> getQueueStats() {
+        try {
+            return ResponseEntity.ok(kycWorkQueue.stats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Run duplicate matching over all customers and replace the OPEN review clusters
+     */
+    @Operation(summary = "Run duplicate customer matching")
+    @PostMapping("/duplicates/run")
+    public ResponseEntity<?> runDuplicateMatching() {
+        try {
+            return ResponseEntity.ok(customerMatchingService.runBatch());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Candidate duplicate clusters with the given review status, newest first
+     */
+    @Operation(summary = "List duplicate customer clusters")
+    @GetMapping("/duplicates")
+    public ResponseEntity<?> getDuplicateClusters(
+            @RequestParam(defaultValue = "OPEN") CustomerMatchCluster.ReviewStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().body("page must be >= 0 and size between 1 and 100");
+        }
+        try {
+            return ResponseEntity.ok(customerMatchingService.getClusters(status, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Record the review decision (CONFIRMED, DISMISSED, or OPEN to reopen) for a cluster
+     */
+    @Operation(summary = "Review a duplicate customer cluster")
+    @PutMapping("/duplicates/{clusterId}/review")
+    public ResponseEntity<?> reviewDuplicateCluster(
+            @PathVariable String clusterId,
+            @RequestParam CustomerMatchCluster.ReviewStatus status,
+            @RequestParam(required = false) String reviewedBy) {
+        try {
+            return ResponseEntity.ok(customerMatchingService.reviewCluster(clusterId, status, reviewedBy));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Match cluster not found")) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+            }
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Cluster counts by review status and the summary of the last batch run
+     */
+    @Operation(summary = "Duplicate matching statistics")
+    @GetMapping("/duplicates/stats")
+    public ResponseEntity<?> getDuplicateStats() {
+        try {
+            return ResponseEntity.ok(customerMatchingService.stats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.service.CustomerDormancySweeper;
+import com.nexabank.customer.service.TransactionPartitionMaintainer;
+import com.nexabank.customer.service.TransactionRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/maintenance")
+@CrossOrigin(origins = "*")
+@Tag(name = "Maintenance", description = "Scheduled maintenance jobs")
+@SecurityRequirement(name = "bearerAuth")
+public class MaintenanceController {
+
+    @Autowired
+    private CustomerDormancySweeper dormancySweeper;
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private TransactionPartitionMaintainer partitionMaintainer;
+
+    /**
+     * Dormancy sweeper progress and totals (for admin modules)
+     */
+    @Operation(summary = "Dormancy sweeper statistics")
+    @GetMapping("/sweepers/dormancy")
+    public ResponseEntity<?> getDormancySweeperStats() {
+        return ResponseEntity.ok(dormancySweeper.getStats());
+    }
+
+    /**
+     * Run the dormancy sweep now instead of waiting for its schedule
+     */
+    @Operation(summary = "Run the dormancy sweeper")
+    @PostMapping("/sweepers/dormancy/run")
+    public ResponseEntity<?> runDormancySweeper() {
+        try {
+            if (!dormancySweeper.sweep()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Dormancy sweep is already running on this or another node");
+            }
+            return ResponseEntity.ok(dormancySweeper.getStats());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Last rollup reconciliation run and the differences it found
+     */
+    @Operation(summary = "Transaction rollup reconciliation statistics")
+    @GetMapping("/rollups/reconciliation")
+    public ResponseEntity<?> getRollupReconciliationStats() {
+        return ResponseEntity.ok(rollupService.getReconciliationStats());
+    }
+
+    /**
+     * Reconcile the last days of transaction rollups against the ledger now
+     */
+    @Operation(summary = "Run the transaction rollup reconciliation")
+    @PostMapping("/rollups/reconciliation/run")
+    public ResponseEntity<?> runRollupReconciliation(@RequestParam(defaultValue = "7") int days) {
+        try {
+            if (!rollupService.reconcile(days)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Rollup reconciliation is already running on this or another node");
+            }
+            return ResponseEntity.ok(rollupService.getReconciliationStats());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Monthly partitions of the transactions table and the last maintenance run
+     */
+    @Operation(summary = "Transaction partition status")
+    @GetMapping("/partitions/transactions")
+    public ResponseEntity<?> getTransactionPartitions() {
+        try {
+            return ResponseEntity.ok(partitionMaintainer.getStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Create upcoming monthly partitions (and drop expired ones) now
+     */
+    @Operation(summary = "Run transaction partition maintenance")
+    @PostMapping("/partitions/transactions/run")
+    public ResponseEntity<?> runTransactionPartitionMaintenance() {
+        try {
+            if (!partitionMaintainer.maintain()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Partition maintenance is running on another node");
+            }
+            return ResponseEntity.ok(partitionMaintainer.getStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.service.StatementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/statements")
+@CrossOrigin(origins = "*")
+@Tag(name = "Statements", description = "Monthly account statements")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class StatementController {
+
+    @Autowired
+    private StatementService statementService;
+
+    /**
+     * Generate (or resume) the statements of a completed month, e.g. period=2025-01
+     */
+    @Operation(summary = "Start a monthly statement run")
+    @PostMapping("/runs")
+    public ResponseEntity<?> startRun(@RequestParam String period) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(statementService.start(YearMonth.parse(period)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error starting statement run for {}", period, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Recent statement runs")
+    @GetMapping("/runs")
+    public ResponseEntity<?> getRuns(@RequestParam(defaultValue = "12") int limit) {
+        return ResponseEntity.ok(statementService.getRecentRuns(limit));
+    }
+
+    /**
+     * Per-shard checkpoints and counters of a run, with throughput while it is running on this node
+     */
+    @Operation(summary = "Get statement run progress")
+    @GetMapping("/runs/{period}")
+    public ResponseEntity<?> getRun(@PathVariable String period) {
+        try {
+            return ResponseEntity.ok(statementService.describe(YearMonth.parse(period)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Cancel a running statement run")
+    @PostMapping("/runs/{period}/cancel")
+    public ResponseEntity<?> cancelRun(@PathVariable String period) {
+        try {
+            if (!statementService.cancel(YearMonth.parse(period))) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Statements for " + period + " are not being generated on this node");
+            }
+            return ResponseEntity.ok("Cancellation requested for " + period);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Download an account's statement for a month as pdf (default) or csv
+     */
+    @Operation(summary = "Download an account statement")
+    @GetMapping("/{period}/accounts/{accountId}")
+    public ResponseEntity<?> getStatement(@PathVariable String period, @PathVariable String accountId,
+                                          @RequestParam(defaultValue = "pdf") String format) {
+        Path file;
+        try {
+            file = statementService.getStatementFile(YearMonth.parse(period), accountId, format.toLowerCase());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+        StreamingResponseBody body = out -> Files.copy(file, out);
+        return ResponseEntity.ok()
+            .contentType("pdf".equalsIgnoreCase(format) ? MediaType.APPLICATION_PDF : new MediaType("text", "csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+            .body(body);
+    }
+}
@@ -0,0 +1,80 @@
+package com.nexabank.customer.controller;
+
+import com.nexabank.customer.dto.AdminStatsResponse;
+import com.nexabank.customer.service.TransactionRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/api/transactions/stats")
+@CrossOrigin(origins = "*")
+@Tag(name = "Transaction Statistics", description = "Transaction totals read from maintained rollups")
+@SecurityRequirement(name = "bearerAuth")
+@Slf4j
+public class TransactionStatsController {
+
+    private static final long MAX_DAYS = 366;
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    /**
+     * Count and volume of completed transactions, overall and per type
+     */
+    @Operation(summary = "Transaction totals")
+    @GetMapping
+    public ResponseEntity<?> getTotals() {
+        try {
+            return ResponseEntity.ok(rollupService.getTotals());
+        } catch (Exception e) {
+            log.error("Error reading transaction totals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Transaction fields of the admin dashboard
+     */
+    @Operation(summary = "Transaction totals for the admin dashboard")
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboardStats() {
+        try {
+            AdminStatsResponse stats = new AdminStatsResponse();
+            rollupService.fillTransactionStats(stats);
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("Error reading transaction totals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Per-day totals by type and category, at most one year per request
+     */
+    @Operation(summary = "Daily transaction totals")
+    @GetMapping("/daily")
+    public ResponseEntity<?> getDaily(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+                return ResponseEntity.badRequest().body("At most " + MAX_DAYS + " days per request");
+            }
+            return ResponseEntity.ok(rollupService.getDaily(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading daily transaction totals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+}
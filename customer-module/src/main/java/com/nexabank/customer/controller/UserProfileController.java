@@ -1,13 +1,20 @@
 package com.nexabank.customer.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexabank.customer.config.ReplicaRoutingContext;
 import com.nexabank.customer.dto.CreateUserProfileRequest;
+import com.nexabank.customer.dto.ProfileLookupRequest;
+import com.nexabank.customer.dto.ProfileSearchResponse;
 import com.nexabank.customer.dto.UserProfileResponse;
 import com.nexabank.customer.entity.Customer;
-import com.nexabank.customer.entity.CustomerIdentification;
-import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.repository.CustomerRepository;
 import com.nexabank.customer.service.CustomerService;
-import com.nexabank.customer.service.CustomerIdentificationService;
-import com.nexabank.customer.service.CustomerNameComponentService;
+import com.nexabank.customer.service.CustomerProfileProjector;
+import com.nexabank.customer.service.CustomerProfileService;
+import com.nexabank.customer.service.CustomerSearchService;
+import com.nexabank.customer.service.CustomerSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,14 +24,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Normalized Customer Controller
@@ -41,10 +58,35 @@ public class UserProfileController {
     private CustomerService customerService;
     
     @Autowired
-    private CustomerIdentificationService identificationService;
+    private CustomerProfileService customerProfileService;
     
     @Autowired
-    private CustomerNameComponentService nameComponentService;
+    private CustomerProfileProjector customerProfileProjector;
+    
+    @Autowired
+    private CustomerSearchService customerSearchService;
+    
+    @Autowired
+    private CustomerSuggestService customerSuggestService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Customer columns a full update (PUT) replaces
+    private static final Set<String> CUSTOMER_COLUMN_FIELDS = Set.of(
+        "email", "dateOfBirth", "gender", "nationality", "phoneNumber", "alternatePhone",
+        "addressLine1", "addressLine2", "city", "state", "country", "postalCode");
+    
+    // Upper bound on userIds + emails in one bulk lookup
+    private static final int MAX_LOOKUP_KEYS = 5000;
+    
+    private static final int MAX_USER_ID_PAGE = 10000;
+    private static final int MAX_BATCH_PROFILES = 500;
+    
+    // Properties a merge patch may touch
+    private static final Set<String> PATCHABLE_FIELDS = Stream.concat(
+        CUSTOMER_COLUMN_FIELDS.stream(), Stream.of("firstName", "middleName", "lastName"))
+        .collect(Collectors.toUnmodifiableSet());
     
     /**
      * Create new customer profile (called by auth-module during registration)
@@ -59,6 +101,8 @@ public class UserProfileController {
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserProfileResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid request data or customer already exists", 
                     content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "409", description = "Customer profile was created concurrently", 
+                    content = @Content(mediaType = "application/json")),
         @ApiResponse(responseCode = "500", description = "Internal server error", 
                     content = @Content(mediaType = "application/json"))
     })
@@ -71,95 +115,19 @@ public class UserProfileController {
                 return ResponseEntity.badRequest().body("Customer profile already exists for user: " + request.getUserId());
             }
             
-            // Create main customer record
-            Customer customer = new Customer();
-            customer.setUserId(request.getUserId());
-            customer.setEmailId(request.getEmail()); // Note: using emailId field
-            customer.setDateOfBirth(request.getDateOfBirth());
-            customer.setGender(request.getGender());
-            customer.setNationality(request.getNationality());
-            customer.setPhoneNumber(request.getPhoneNumber());
-            customer.setAlternatePhone(request.getAlternatePhone());
-            customer.setAddressLine1(request.getAddressLine1());
-            customer.setAddressLine2(request.getAddressLine2());
-            customer.setCity(request.getCity());
-            customer.setState(request.getState());
-            customer.setCountry(request.getCountry());
-            customer.setPostalCode(request.getPostalCode());
-            
-            Customer savedCustomer = customerService.createCustomer(customer);
+            // Build the customer with its name components and identifications and save it in one flush;
+            // the userId is bound through the commit so this user's follow-up reads stay on the primary
+            Customer savedCustomer = ReplicaRoutingContext.callAsUser(request.getUserId(),
+                () -> customerService.createCustomerProfile(request));
             
-            // Create name component
-            if (request.getFirstName() != null || request.getLastName() != null || request.getMiddleName() != null) {
-                if (request.getFirstName() != null) {
-                    CustomerNameComponent firstName = new CustomerNameComponent();
-                    firstName.setCustomer(savedCustomer);
-                    firstName.setNameComponentType(CustomerNameComponent.NameComponentType.FIRST_NAME);
-                    firstName.setNameValue(request.getFirstName());
-                    firstName.setEffectiveDate(LocalDateTime.now());
-                    nameComponentService.save(firstName);
-                }
-                
-                if (request.getLastName() != null) {
-                    CustomerNameComponent lastName = new CustomerNameComponent();
-                    lastName.setCustomer(savedCustomer);
-                    lastName.setNameComponentType(CustomerNameComponent.NameComponentType.LAST_NAME);
-                    lastName.setNameValue(request.getLastName());
-                    lastName.setEffectiveDate(LocalDateTime.now());
-                    nameComponentService.save(lastName);
-                }
-                
-                if (request.getMiddleName() != null) {
-                    CustomerNameComponent middleName = new CustomerNameComponent();
-                    middleName.setCustomer(savedCustomer);
-                    middleName.setNameComponentType(CustomerNameComponent.NameComponentType.MIDDLE_NAME);
-                    middleName.setNameValue(request.getMiddleName());
-                    middleName.setEffectiveDate(LocalDateTime.now());
-                    nameComponentService.save(middleName);
-                }
-            }
-            
-            // Create identification documents
-            if (request.getAadharNumber() != null) {
-                CustomerIdentification aadhar = new CustomerIdentification();
-                aadhar.setCustomer(savedCustomer);
-                aadhar.setIdentificationType(CustomerIdentification.AADHAR_CARD);
-                aadhar.setIdentificationItem(request.getAadharNumber());
-                aadhar.setEffectiveDate(LocalDateTime.now());
-                identificationService.save(aadhar);
-            }
-            
-            if (request.getPanNumber() != null) {
-                CustomerIdentification pan = new CustomerIdentification();
-                pan.setCustomer(savedCustomer);
-                pan.setIdentificationType(CustomerIdentification.PAN_CARD);
-                pan.setIdentificationItem(request.getPanNumber());
-                pan.setEffectiveDate(LocalDateTime.now());
-                identificationService.save(pan);
-            }
-            
-            // Note: Passport and driving license now stored as CustomerIdentification
-            if (request.getPassportNumber() != null) {
-                CustomerIdentification passport = new CustomerIdentification();
-                passport.setCustomer(savedCustomer);
-                passport.setIdentificationType(CustomerIdentification.PASSPORT);
-                passport.setIdentificationItem(request.getPassportNumber());
-                passport.setEffectiveDate(LocalDateTime.now());
-                identificationService.save(passport);
-            }
-            
-            if (request.getDrivingLicense() != null) {
-                CustomerIdentification license = new CustomerIdentification();
-                license.setCustomer(savedCustomer);
-                license.setIdentificationType(CustomerIdentification.DRIVING_LICENSE);
-                license.setIdentificationItem(request.getDrivingLicense());
-                license.setEffectiveDate(LocalDateTime.now());
-                identificationService.save(license);
-            }
-            
-            // Create response using normalized data
-            UserProfileResponse response = createUserProfileResponse(savedCustomer);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            // Create response from the in-memory aggregate, no need to read the children back
+            UserProfileResponse response = customerProfileService.toResponse(savedCustomer,
+                new ArrayList<>(savedCustomer.getNameComponents()),
+                new ArrayList<>(savedCustomer.getIdentificationDocuments()));
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(response)).body(response);
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently (e.g. on another instance whose filter insert has not arrived yet)
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Customer profile already exists for user: " + request.getUserId());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -183,12 +151,19 @@ public class UserProfileController {
     })
     public ResponseEntity<?> getProfileByUserId(
         @Parameter(description = "User ID from authentication module", required = true, example = "user123")
-        @PathVariable String userId) {
+        @PathVariable String userId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Customer customer = customerService.findByUserId(userId)
+            // Revalidation only needs the version, not the profile itself
+            if (ifNoneMatch != null) {
+                Optional<String> currentTag = customerProfileService.getVersionTag(userId);
+                if (currentTag.isPresent() && etagMatches(ifNoneMatch, etag(currentTag.get()), true)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(currentTag.get())).build();
+                }
+            }
+            UserProfileResponse response = customerProfileService.getProfileByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Customer profile not found for userId: " + userId));
-            UserProfileResponse response = createUserProfileResponse(customer);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(etag(response)).body(response);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -196,87 +171,219 @@ public class UserProfileController {
     
     /**
      * Update profile by userId (for other modules)
+     * Replaces the customer columns; names are only changed when sent
      */
     @PutMapping("/user/{userId}")
     public ResponseEntity<?> updateProfileByUserId(
             @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody CreateUserProfileRequest request) {
         try {
-            Customer customer = customerService.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Customer profile not found for userId: " + userId));
-            
-            // Update customer fields
-            customer.setEmailId(request.getEmail());
-            customer.setDateOfBirth(request.getDateOfBirth());
-            customer.setGender(request.getGender());
-            customer.setNationality(request.getNationality());
-            customer.setPhoneNumber(request.getPhoneNumber());
-            customer.setAlternatePhone(request.getAlternatePhone());
-            customer.setAddressLine1(request.getAddressLine1());
-            customer.setAddressLine2(request.getAddressLine2());
-            customer.setCity(request.getCity());
-            customer.setState(request.getState());
-            customer.setCountry(request.getCountry());
-            customer.setPostalCode(request.getPostalCode());
-            
-            Customer savedCustomer = customerService.updateCustomer(customer);
-            
-            // Update name components
-            // For simplicity, delete and recreate name components
-            nameComponentService.deleteByCustomerCustomerId(customer.getCustomerId());
-            
+            Set<String> fields = new HashSet<>(CUSTOMER_COLUMN_FIELDS);
             if (request.getFirstName() != null) {
-                CustomerNameComponent firstName = new CustomerNameComponent();
-                firstName.setCustomer(savedCustomer);
-                firstName.setNameComponentType(CustomerNameComponent.NameComponentType.FIRST_NAME);
-                firstName.setNameValue(request.getFirstName());
-                firstName.setEffectiveDate(LocalDateTime.now());
-                nameComponentService.save(firstName);
+                fields.add("firstName");
+            }
+            if (request.getMiddleName() != null) {
+                fields.add("middleName");
             }
-            
             if (request.getLastName() != null) {
-                CustomerNameComponent lastName = new CustomerNameComponent();
-                lastName.setCustomer(savedCustomer);
-                lastName.setNameComponentType(CustomerNameComponent.NameComponentType.LAST_NAME);
-                lastName.setNameValue(request.getLastName());
-                lastName.setEffectiveDate(LocalDateTime.now());
-                nameComponentService.save(lastName);
+                fields.add("lastName");
+            }
+            
+            Customer savedCustomer = customerService.updateCustomerProfile(userId, request, fields, ifMatchPrecondition(ifMatch));
+            UserProfileResponse response = customerProfileService.toResponse(savedCustomer);
+            return ResponseEntity.ok().eTag(etag(response)).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(ifMatch, e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Partially update profile by userId using JSON merge patch (RFC 7396):
+     * only the properties present in the body change, and a null value clears the property
+     */
+    @PatchMapping(value = "/user/{userId}", consumes = {"application/merge-patch+json", "application/json"})
+    public ResponseEntity<?> patchProfileByUserId(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        try {
+            if (patch == null || !patch.isObject()) {
+                return ResponseEntity.badRequest().body("Merge patch body must be a JSON object");
+            }
+            
+            Set<String> fields = new HashSet<>();
+            patch.fieldNames().forEachRemaining(fields::add);
+            Set<String> unsupported = new HashSet<>(fields);
+            unsupported.removeAll(PATCHABLE_FIELDS);
+            if (!unsupported.isEmpty()) {
+                return ResponseEntity.badRequest().body("Fields cannot be patched: " + unsupported);
             }
             
-            UserProfileResponse response = createUserProfileResponse(savedCustomer);
-            return ResponseEntity.ok(response);
+            CreateUserProfileRequest values = objectMapper.treeToValue(patch, CreateUserProfileRequest.class);
+            Customer savedCustomer = customerService.updateCustomerProfile(userId, values, fields, ifMatchPrecondition(ifMatch));
+            UserProfileResponse response = customerProfileService.toResponse(savedCustomer);
+            return ResponseEntity.ok().eTag(etag(response)).body(response);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("Invalid merge patch: " + e.getOriginalMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(ifMatch, e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    /**
+     * Bulk lookup of profiles by userIds and/or emails (for other modules joining their own
+     * rows to profile data in one call instead of one GET per row)
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupProfiles(@RequestBody ProfileLookupRequest request) {
+        try {
+            List<String> userIds = request.getUserIds() != null ? request.getUserIds() : List.of();
+            List<String> emails = request.getEmails() != null ? request.getEmails() : List.of();
+            if (userIds.size() + emails.size() > MAX_LOOKUP_KEYS) {
+                return ResponseEntity.badRequest().body("At most " + MAX_LOOKUP_KEYS + " userIds and emails per lookup");
+            }
+            if (userIds.stream().anyMatch(Objects::isNull) || emails.stream().anyMatch(Objects::isNull)) {
+                return ResponseEntity.badRequest().body("userIds and emails must not contain null");
+            }
+            return ResponseEntity.ok(customerProfileService.lookupProfiles(userIds, emails));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Keyset page of userIds in userId order; pass the last userId as after for the next page
+     * (used by auth-module to reconcile its users with the profiles)
+     */
+    @GetMapping("/user-ids")
+    public ResponseEntity<?> getUserIds(
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            List<String> userIds = customerService.getUserIdsAfter(after, Math.min(Math.max(limit, 1), MAX_USER_ID_PAGE));
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("userIds", userIds);
+            page.put("last", userIds.isEmpty() ? null : userIds.get(userIds.size() - 1));
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Create up to 500 profiles in one call, batched per shard; users that already have a profile
+     * are reported as EXISTS
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createProfiles(@RequestBody List<CreateUserProfileRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one profile is required");
+        }
+        if (requests.size() > MAX_BATCH_PROFILES) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_PROFILES + " profiles per batch");
+        }
+        if (requests.stream().anyMatch(request -> request == null || request.getUserId() == null)) {
+            return ResponseEntity.badRequest().body("Every profile needs a userId");
+        }
+        try {
+            Set<String> existing = customerService.findExistingUserIds(
+                requests.stream().map(CreateUserProfileRequest::getUserId).collect(Collectors.toSet()));
+            List<CreateUserProfileRequest> toCreate = new ArrayList<>(requests.size());
+            Set<String> seen = new HashSet<>(existing);
+            for (CreateUserProfileRequest request : requests) {
+                if (seen.add(request.getUserId())) {
+                    toCreate.add(request);
+                }
+            }
+            // One bound transaction per shard; errors come back per userId
+            Map<String, String> errors = toCreate.isEmpty() ? Map.of() : customerService.createCustomerProfiles(toCreate);
+            
+            Set<String> reported = new HashSet<>();
+            List<Map<String, Object>> results = new ArrayList<>(requests.size());
+            for (CreateUserProfileRequest request : requests) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("userId", request.getUserId());
+                if (existing.contains(request.getUserId()) || !reported.add(request.getUserId())) {
+                    result.put("status", "EXISTS");
+                } else if (errors.containsKey(request.getUserId())) {
+                    result.put("status", "ERROR");
+                    result.put("error", errors.get(request.getUserId()));
+                } else {
+                    result.put("status", "CREATED");
+                }
+                results.add(result);
+            }
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+    
     /**
      * Get all profiles (for admin modules)
      */
     @GetMapping
     public ResponseEntity<?> getAllProfiles() {
         try {
-            List<Customer> customers = customerService.findAllCustomers();
-            List<UserProfileResponse> responses = customers.stream()
-                .map(this::createUserProfileResponse)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(customerProfileService.getAllProfiles());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
         }
     }
     
     /**
-     * Search profiles by name (for admin modules)
+     * Search profiles by name (for admin modules), ranked and paginated
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchProfiles(@RequestParam String name) {
+    public ResponseEntity<?> searchProfiles(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Customer> customers = customerService.searchByName(name);
-            List<UserProfileResponse> responses = customers.stream()
-                .map(this::createUserProfileResponse)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(responses);
+            int pageNumber = Math.max(page, 0);
+            int pageSize = Math.min(Math.max(size, 1), 100);
+            CustomerSearchService.SearchPage result = customerSearchService.search(name, pageNumber, pageSize);
+            List<UserProfileResponse> responses = customerProfileService.toResponses(result.getCustomers());
+            return ResponseEntity.ok(new ProfileSearchResponse(responses, pageNumber, pageSize, result.getTotalResults()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Autocomplete for the admin search box over names, emails and phone numbers
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestProfiles(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(customerSuggestService.suggest(query, Math.min(Math.max(limit, 1), 50)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Profile read cache statistics (for admin modules)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(customerProfileService.getCacheStats());
+    }
+    
+    /**
+     * Regenerate the denormalized profile view from the normalized tables (for admin modules)
+     */
+    @PostMapping("/view/rebuild")
+    public ResponseEntity<?> rebuildProfileView() {
+        try {
+            return ResponseEntity.ok(customerProfileProjector.rebuild());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
         }
@@ -286,19 +393,16 @@ public class UserProfileController {
      * Delete profile by userId (for admin modules)
      */
     @DeleteMapping("/user/{userId}")
-    public ResponseEntity<?> deleteProfile(@PathVariable String userId) {
+    public ResponseEntity<?> deleteProfile(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Customer customer = customerService.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Customer profile not found for userId: " + userId));
-            
-            // Delete related records first
-            nameComponentService.deleteByCustomerCustomerId(customer.getCustomerId());
-            identificationService.deleteByCustomerCustomerId(customer.getCustomerId());
-            
-            // Delete customer (soft delete)
-            customerService.deleteCustomer(customer.getCustomerId());
+            // Deletes name components and identifications, then closes the customer (soft delete)
+            customerService.deleteCustomerProfile(userId, ifMatchPrecondition(ifMatch));
             
             return ResponseEntity.ok("Customer profile deleted successfully");
+        } catch (OptimisticLockingFailureException e) {
+            return versionConflict(ifMatch, e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -310,10 +414,9 @@ public class UserProfileController {
     @GetMapping("/email/{email:.+}")
     public ResponseEntity<?> getProfileByEmail(@PathVariable String email) {
         try {
-            Optional<Customer> customerOpt = customerService.findByEmail(email);
-            if (customerOpt.isPresent()) {
-                UserProfileResponse response = createUserProfileResponse(customerOpt.get());
-                return ResponseEntity.ok(response);
+            Optional<UserProfileResponse> response = customerProfileService.getProfileByEmail(email);
+            if (response.isPresent()) {
+                return ResponseEntity.ok().eTag(etag(response.get())).body(response.get());
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer profile not found for email: " + email);
             }
@@ -323,53 +426,54 @@ public class UserProfileController {
     }
     
     /**
-     * Helper method to create UserProfileResponse from normalized Customer data
+     * Version the If-Match header was taken from, or null when the header is absent.
+     * Throws OptimisticLockingFailureException when the header does not match the current ETag.
      */
-    private UserProfileResponse createUserProfileResponse(Customer customer) {
-        UserProfileResponse response = new UserProfileResponse();
-        
-        // Basic customer data
-        response.setProfileId(customer.getCustomerId());
-        response.setUserId(customer.getUserId());
-        response.setEmail(customer.getEmailId()); // Note: using emailId field
-        response.setDateOfBirth(customer.getDateOfBirth());
-        response.setGender(customer.getGender());
-        response.setNationality(customer.getNationality());
-        response.setPhoneNumber(customer.getPhoneNumber());
-        response.setAlternatePhone(customer.getAlternatePhone());
-        response.setAddressLine1(customer.getAddressLine1());
-        response.setAddressLine2(customer.getAddressLine2());
-        response.setCity(customer.getCity());
-        response.setState(customer.getState());
-        response.setCountry(customer.getCountry());
-        response.setPostalCode(customer.getPostalCode());
-        
-        // Get name from normalized table using customer ID
-        List<CustomerNameComponent> nameComponents = nameComponentService.findByCustomerCustomerId(customer.getCustomerId());
-        for (CustomerNameComponent nameComponent : nameComponents) {
-            if (CustomerNameComponent.NameComponentType.FIRST_NAME.equals(nameComponent.getNameComponentType())) {
-                response.setFirstName(nameComponent.getNameValue());
-            } else if (CustomerNameComponent.NameComponentType.LAST_NAME.equals(nameComponent.getNameComponentType())) {
-                response.setLastName(nameComponent.getNameValue());
-            } else if (CustomerNameComponent.NameComponentType.MIDDLE_NAME.equals(nameComponent.getNameComponentType())) {
-                response.setMiddleName(nameComponent.getNameValue());
-            }
+    /**
+     * If-Match as a check on the customer the write transaction loads, so the version is read on
+     * the primary in the same transaction as the write; null when the header is absent
+     */
+    private static Predicate<Customer> ifMatchPrecondition(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
         }
-        
-        // Get identification numbers from normalized table using customer ID
-        List<CustomerIdentification> identifications = identificationService.findByCustomerCustomerId(customer.getCustomerId());
-        for (CustomerIdentification id : identifications) {
-            if (CustomerIdentification.AADHAR_CARD.equals(id.getIdentificationType())) {
-                response.setAadharNumber(id.getIdentificationItem());
-            } else if (CustomerIdentification.PAN_CARD.equals(id.getIdentificationType())) {
-                response.setPanNumber(id.getIdentificationItem());
-            } else if (CustomerIdentification.PASSPORT.equals(id.getIdentificationType())) {
-                response.setPassportNumber(id.getIdentificationItem());
-            } else if (CustomerIdentification.DRIVING_LICENSE.equals(id.getIdentificationType())) {
-                response.setDrivingLicense(id.getIdentificationItem());
+        return customer -> etagMatches(ifMatch,
+            etag(CustomerProfileService.versionTag(customer.getCustomerId(), customer.getVersion())), false);
+    }
+    
+    /**
+     * 412 when the client sent If-Match, otherwise 409 for a concurrent modification
+     */
+    private ResponseEntity<?> versionConflict(String ifMatch, OptimisticLockingFailureException e) {
+        HttpStatus status = ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(e.getMessage());
+    }
+    
+    private static String etag(UserProfileResponse response) {
+        return etag(CustomerProfileService.versionTag(response.getProfileId(), response.getVersion()));
+    }
+    
+    private static String etag(String versionTag) {
+        return "\"" + versionTag + "\"";
+    }
+    
+    /**
+     * Match an If-Match / If-None-Match header value (a list of entity tags or "*") against an ETag.
+     * If-None-Match uses weak comparison, so W/ prefixes added by proxies are ignored there.
+     */
+    private static boolean etagMatches(String header, String etag, boolean weakComparison) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (weakComparison && tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
             }
         }
-        
-        return response;
+        return false;
     }
-}
\ No newline at end of file
+}
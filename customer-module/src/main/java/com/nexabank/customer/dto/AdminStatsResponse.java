@@ -1,5 +1,7 @@
 package com.nexabank.customer.dto;
 
+import java.math.BigDecimal;
+
 public class AdminStatsResponse {
     private int totalUsers;
     private int totalCustomers;
@@ -9,8 +11,8 @@ public class AdminStatsResponse {
     private int lockedUsers;
     private int totalAccounts;
     private double totalDeposits;
-    private int totalTransactions;
-    private double totalTransactionVolume;
+    private long totalTransactions;
+    private BigDecimal totalTransactionVolume;
 
     // Constructors
     public AdminStatsResponse() {}
@@ -18,7 +20,7 @@ public class AdminStatsResponse {
     public AdminStatsResponse(int totalUsers, int totalCustomers, int totalAdmins, 
                              int totalEmployees, int activeUsers, int lockedUsers,
                              int totalAccounts, double totalDeposits, 
-                             int totalTransactions, double totalTransactionVolume) {
+                             long totalTransactions, BigDecimal totalTransactionVolume) {
         this.totalUsers = totalUsers;
         this.totalCustomers = totalCustomers;
         this.totalAdmins = totalAdmins;
@@ -96,19 +98,19 @@ public class AdminStatsResponse {
         this.totalDeposits = totalDeposits;
     }
 
-    public int getTotalTransactions() {
+    public long getTotalTransactions() {
         return totalTransactions;
     }
 
-    public void setTotalTransactions(int totalTransactions) {
+    public void setTotalTransactions(long totalTransactions) {
         this.totalTransactions = totalTransactions;
     }
 
-    public double getTotalTransactionVolume() {
+    public BigDecimal getTotalTransactionVolume() {
         return totalTransactionVolume;
     }
 
-    public void setTotalTransactionVolume(double totalTransactionVolume) {
+    public void setTotalTransactionVolume(BigDecimal totalTransactionVolume) {
         this.totalTransactionVolume = totalTransactionVolume;
     }
 }
@@ -0,0 +1,37 @@
+package com.nexabank.customer.dto;
+
+import com.nexabank.customer.entity.ImportJob.FileFormat;
+
+public class ImportJobRequest {
+    private String fileName;
+    private FileFormat format;
+    private String requestedBy;
+
+    // Constructors
+    public ImportJobRequest() {}
+
+    // Getters and setters
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public FileFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(FileFormat format) {
+        this.format = format;
+    }
+
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+}
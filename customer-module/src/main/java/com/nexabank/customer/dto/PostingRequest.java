@@ -0,0 +1,48 @@
+package com.nexabank.customer.dto;
+
+import com.nexabank.customer.entity.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * One ledger posting. The reference number makes the posting idempotent: posting the same
+ * reference number to the same account again returns the original transaction.
+ */
+public class PostingRequest {
+
+    private String accountId;
+    private Transaction.TransactionType transactionType;
+    private BigDecimal amount;
+    private String referenceNumber;
+    private String description;
+    private String category;
+    private String targetAccountId;
+    // Optional; lets velocity rules track the customer across all of their accounts
+    private String customerId;
+
+    public PostingRequest() {}
+
+    public String getAccountId() { return accountId; }
+    public void setAccountId(String accountId) { this.accountId = accountId; }
+
+    public Transaction.TransactionType getTransactionType() { return transactionType; }
+    public void setTransactionType(Transaction.TransactionType transactionType) { this.transactionType = transactionType; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getReferenceNumber() { return referenceNumber; }
+    public void setReferenceNumber(String referenceNumber) { this.referenceNumber = referenceNumber; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getTargetAccountId() { return targetAccountId; }
+    public void setTargetAccountId(String targetAccountId) { this.targetAccountId = targetAccountId; }
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+}
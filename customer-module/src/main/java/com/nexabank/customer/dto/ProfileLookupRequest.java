@@ -0,0 +1,21 @@
+package com.nexabank.customer.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk profile lookup by user IDs and/or emails
+ */
+public class ProfileLookupRequest {
+
+    private List<String> userIds = new ArrayList<>();
+    private List<String> emails = new ArrayList<>();
+
+    public ProfileLookupRequest() {}
+
+    public List<String> getUserIds() { return userIds; }
+    public void setUserIds(List<String> userIds) { this.userIds = userIds; }
+
+    public List<String> getEmails() { return emails; }
+    public void setEmails(List<String> emails) { this.emails = emails; }
+}
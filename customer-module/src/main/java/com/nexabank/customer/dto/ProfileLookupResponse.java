@@ -0,0 +1,31 @@
+package com.nexabank.customer.dto;
+
+import java.util.List;
+
+/**
+ * Profiles found by a bulk lookup plus the keys that matched no customer
+ */
+public class ProfileLookupResponse {
+
+    private List<UserProfileResponse> profiles;
+    private List<String> notFoundUserIds;
+    private List<String> notFoundEmails;
+
+    public ProfileLookupResponse() {}
+
+    public ProfileLookupResponse(List<UserProfileResponse> profiles, List<String> notFoundUserIds,
+                                 List<String> notFoundEmails) {
+        this.profiles = profiles;
+        this.notFoundUserIds = notFoundUserIds;
+        this.notFoundEmails = notFoundEmails;
+    }
+
+    public List<UserProfileResponse> getProfiles() { return profiles; }
+    public void setProfiles(List<UserProfileResponse> profiles) { this.profiles = profiles; }
+
+    public List<String> getNotFoundUserIds() { return notFoundUserIds; }
+    public void setNotFoundUserIds(List<String> notFoundUserIds) { this.notFoundUserIds = notFoundUserIds; }
+
+    public List<String> getNotFoundEmails() { return notFoundEmails; }
+    public void setNotFoundEmails(List<String> notFoundEmails) { this.notFoundEmails = notFoundEmails; }
+}
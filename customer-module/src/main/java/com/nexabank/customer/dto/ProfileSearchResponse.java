@@ -0,0 +1,35 @@
+package com.nexabank.customer.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked profile search results
+ */
+public class ProfileSearchResponse {
+
+    private List<UserProfileResponse> results;
+    private int page;
+    private int size;
+    private long totalResults;
+
+    public ProfileSearchResponse() {}
+
+    public ProfileSearchResponse(List<UserProfileResponse> results, int page, int size, long totalResults) {
+        this.results = results;
+        this.page = page;
+        this.size = size;
+        this.totalResults = totalResults;
+    }
+
+    public List<UserProfileResponse> getResults() { return results; }
+    public void setResults(List<UserProfileResponse> results) { this.results = results; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalResults() { return totalResults; }
+    public void setTotalResults(long totalResults) { this.totalResults = totalResults; }
+}
@@ -0,0 +1,44 @@
+package com.nexabank.customer.dto;
+
+/**
+ * Autocomplete suggestion: which customer matched and on which field
+ */
+public class ProfileSuggestion {
+
+    private String customerId;
+    private String userId;
+    private String matchedField; // NAME, EMAIL or PHONE
+    private String displayName;
+    private String email;
+    private String phoneNumber;
+
+    public ProfileSuggestion() {}
+
+    public ProfileSuggestion(String customerId, String userId, String matchedField,
+                             String displayName, String email, String phoneNumber) {
+        this.customerId = customerId;
+        this.userId = userId;
+        this.matchedField = matchedField;
+        this.displayName = displayName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getCustomerId() { return customerId; }
+    public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getMatchedField() { return matchedField; }
+    public void setMatchedField(String matchedField) { this.matchedField = matchedField; }
+
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+}
@@ -35,6 +35,7 @@ public class UserProfileResponse {
     private String employerName;
     private Double annualIncome;
     private LocalDateTime createdAt;
+    private Long version;         // Customer version, also carried in the ETag header
     
     // Constructors
     public UserProfileResponse() {}
@@ -255,4 +256,12 @@ public class UserProfileResponse {
     public void setDrivingLicense(String drivingLicense) {
         this.drivingLicense = drivingLicense;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
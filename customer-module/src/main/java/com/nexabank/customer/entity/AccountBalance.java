@@ -0,0 +1,39 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Current balance of an account, updated together with every posting to it
+ */
+@Entity
+@Table(name = "account_balances")
+@Data
+@NoArgsConstructor
+public class AccountBalance {
+
+    @Id
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "balance", precision = 15, scale = 2, nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "last_transaction_id")
+    private String lastTransactionId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AccountBalance(String accountId) {
+        this.accountId = accountId;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A written monthly statement of one account; the files are in the statements directory
+ */
+@Entity
+@Table(name = "account_statements")
+@IdClass(AccountStatement.Key.class)
+@Data
+@NoArgsConstructor
+public class AccountStatement {
+
+    @Id
+    @Column(name = "period")
+    private String period;
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "opening_balance", precision = 15, scale = 2)
+    private BigDecimal openingBalance;
+
+    @Column(name = "closing_balance", precision = 15, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "total_credits", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+
+    @Column(name = "total_debits", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalDebits = BigDecimal.ZERO;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String period;
+        private String accountId;
+    }
+}
@@ -1,10 +1,13 @@
 package com.nexabank.customer.entity;
 
+import com.nexabank.customer.config.ShardAwareId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,6 +15,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "customers")
+@DynamicUpdate
 @Data
 @EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
@@ -19,7 +23,7 @@ import java.util.Set;
 public class Customer extends AuditLoggable {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @ShardAwareId
     @Column(name = "customer_id", updatable = false, nullable = false)
     private String customerId;
     
@@ -77,10 +81,40 @@ public class Customer extends AuditLoggable {
     @Column(name = "kyc_completion_date")
     private LocalDateTime kycCompletionDate;
     
+    // KYC work queue state (see KycWorkQueue)
+    @Column(name = "kyc_attempts", nullable = false)
+    private int kycAttempts;
+    
+    @Column(name = "kyc_next_attempt_at")
+    private LocalDateTime kycNextAttemptAt;
+    
+    @Column(name = "kyc_claimed_at")
+    private LocalDateTime kycClaimedAt;
+    
+    @Column(name = "kyc_claimed_by", length = 64)
+    private String kycClaimedBy;
+    
+    @Column(name = "kyc_claim_token", length = 36)
+    private String kycClaimToken;
+    
+    @Column(name = "kyc_last_error", length = 500)
+    private String kycLastError;
+    
+    // Optimistic lock; every aggregate write goes through CustomerService.updateCustomer,
+    // which always dirties the row, so name and identification changes bump it as well
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // Excluded from equals/hashCode/toString: the children point back at the customer
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<CustomerIdentification> identificationDocuments;
     
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<CustomerNameComponent> nameComponents;
     
     // Utility methods to work with normalized data
@@ -3,7 +3,9 @@ package com.nexabank.customer.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -31,6 +33,8 @@ public class CustomerIdentification {
     // Relationship with Customer
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Customer customer;
     
     @Column(name = "created_at")
@@ -0,0 +1,58 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Group of customers that look like the same person, waiting for (or after) manual review
+ */
+@Entity
+@Table(name = "customer_match_clusters")
+@Data
+@NoArgsConstructor
+public class CustomerMatchCluster {
+
+    @Id
+    @Column(name = "cluster_id", updatable = false, nullable = false)
+    private String clusterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ReviewStatus status = ReviewStatus.OPEN;
+
+    @Column(name = "match_reasons")
+    private String matchReasons;
+
+    @Column(name = "best_score", nullable = false)
+    private double bestScore;
+
+    @Column(name = "member_count", nullable = false)
+    private int memberCount;
+
+    // SHA-256 of the sorted member IDs, used to recognise a member set that was already reviewed
+    @Column(name = "member_signature", nullable = false, length = 64)
+    private String memberSignature;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+
+    @Column(name = "reviewed_at")
+    private LocalDateTime reviewedAt;
+
+    @Column(name = "reviewed_by")
+    private String reviewedBy;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "customer_match_members", joinColumns = @JoinColumn(name = "cluster_id"))
+    @Column(name = "customer_id")
+    private Set<String> customerIds = new HashSet<>();
+
+    public enum ReviewStatus {
+        OPEN, CONFIRMED, DISMISSED
+    }
+}
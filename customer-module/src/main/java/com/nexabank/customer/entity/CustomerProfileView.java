@@ -0,0 +1,100 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized profile row, one per customer. Written only by the projection
+ * queries in CustomerProfileViewRepository, never through the entity manager.
+ */
+@Entity
+@Table(name = "customer_profile_view")
+@Immutable
+@Data
+@NoArgsConstructor
+public class CustomerProfileView {
+
+    @Id
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "email_id")
+    private String emailId;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "middle_name")
+    private String middleName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "date_of_birth")
+    private LocalDate dateOfBirth;
+
+    @Column(name = "gender")
+    private String gender;
+
+    @Column(name = "nationality")
+    private String nationality;
+
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(name = "alternate_phone")
+    private String alternatePhone;
+
+    @Column(name = "address_line_1")
+    private String addressLine1;
+
+    @Column(name = "address_line_2")
+    private String addressLine2;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "state")
+    private String state;
+
+    @Column(name = "country")
+    private String country;
+
+    @Column(name = "postal_code")
+    private String postalCode;
+
+    @Column(name = "customer_status")
+    private String customerStatus;
+
+    @Column(name = "kyc_status")
+    private String kycStatus;
+
+    @Column(name = "aadhar_number")
+    private String aadharNumber;
+
+    @Column(name = "pan_number")
+    private String panNumber;
+
+    @Column(name = "passport_number")
+    private String passportNumber;
+
+    @Column(name = "driving_license")
+    private String drivingLicense;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "projected_at")
+    private LocalDateTime projectedAt;
+
+    @Column(name = "version")
+    private Long version;
+}
@@ -0,0 +1,86 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One settlement file import with its checkpoint and counters (see TransactionImportService)
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    @Column(name = "job_id", updatable = false, nullable = false)
+    private String jobId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "file_format", nullable = false)
+    private FileFormat fileFormat;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ImportStatus status = ImportStatus.PENDING;
+
+    // File offset up to which every line has been posted or rejected
+    @Column(name = "bytes_committed", nullable = false)
+    private long bytesCommitted;
+
+    @Column(name = "lines_committed", nullable = false)
+    private long linesCommitted;
+
+    @Column(name = "rows_posted", nullable = false)
+    private long rowsPosted;
+
+    @Column(name = "rows_duplicate", nullable = false)
+    private long rowsDuplicate;
+
+    @Column(name = "rows_insufficient_funds", nullable = false)
+    private long rowsInsufficientFunds;
+
+    @Column(name = "rows_held", nullable = false)
+    private long rowsHeld;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Column(name = "rows_failed", nullable = false)
+    private long rowsFailed;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public enum FileFormat {
+        CSV, FIXED_WIDTH
+    }
+
+    public enum ImportStatus {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+}
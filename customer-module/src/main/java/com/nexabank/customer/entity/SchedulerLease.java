@@ -0,0 +1,27 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease row for a scheduled job that runs on one node at a time (see SchedulerLeaseRepository)
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "lease_name")
+    private String leaseName;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,71 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one shard's share of a monthly statement run (see StatementService)
+ */
+@Entity
+@Table(name = "statement_runs")
+@IdClass(StatementRun.Key.class)
+@Data
+@NoArgsConstructor
+public class StatementRun {
+
+    @Id
+    @Column(name = "period")
+    private String period;
+
+    @Id
+    @Column(name = "shard_index")
+    private int shardIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RunStatus status = RunStatus.RUNNING;
+
+    // Every account up to and including this one has its statement written
+    @Column(name = "last_account_id", nullable = false)
+    private String lastAccountId = "";
+
+    @Column(name = "accounts_done", nullable = false)
+    private long accountsDone;
+
+    @Column(name = "transactions_done", nullable = false)
+    private long transactionsDone;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public StatementRun(String period, int shardIndex) {
+        this.period = period;
+        this.shardIndex = shardIndex;
+    }
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String period;
+        private int shardIndex;
+    }
+}
@@ -15,6 +15,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Transaction {
     
+    // The table's primary key is (transaction_id, created_at) since the monthly partitioning (V10).
+    // Mapping transaction_id alone is safe: it is a generated UUID, so it identifies one row, and
+    // created_at is never updated, so no row moves between partitions or changes its key.
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     @Column(name = "transaction_id", updatable = false, nullable = false)
@@ -49,7 +52,7 @@ public class Transaction {
     @Column(name = "category")
     private String category;
     
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
     @Column(name = "processed_at")
@@ -0,0 +1,54 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One writer slot's share of the completed transactions of a day, type and category
+ * (see TransactionRollupRepository)
+ */
+@Entity
+@Table(name = "transaction_daily_rollups")
+@IdClass(TransactionDailyRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class TransactionDailyRollup {
+
+    @Id
+    @Column(name = "rollup_date")
+    private LocalDate rollupDate;
+
+    @Id
+    @Column(name = "transaction_type")
+    private String transactionType;
+
+    @Id
+    @Column(name = "category")
+    private String category;
+
+    @Id
+    @Column(name = "slot")
+    private int slot;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate rollupDate;
+        private String transactionType;
+        private String category;
+        private int slot;
+    }
+}
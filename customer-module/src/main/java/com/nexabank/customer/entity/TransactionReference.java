@@ -0,0 +1,43 @@
+package com.nexabank.customer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Reference number used by a posting; the primary key keeps it unique per account
+ */
+@Entity
+@Table(name = "transaction_references")
+@IdClass(TransactionReference.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionReference {
+
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Id
+    @Column(name = "reference_number")
+    private String referenceNumber;
+
+    @Column(name = "transaction_id", nullable = false)
+    private String transactionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String accountId;
+        private String referenceNumber;
+    }
+}
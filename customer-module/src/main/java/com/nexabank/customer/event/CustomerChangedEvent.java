@@ -0,0 +1,19 @@
+package com.nexabank.customer.event;
+
+/**
+ * Published whenever a customer or one of its name components / identifications is
+ * written. Listeners that keep derived data (search indexes etc.) reload the customer
+ * after the surrounding transaction commits.
+ */
+public class CustomerChangedEvent {
+
+    private final String customerId;
+
+    public CustomerChangedEvent(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+}
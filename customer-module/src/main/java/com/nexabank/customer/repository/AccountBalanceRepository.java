@@ -0,0 +1,21 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, String> {
+    
+    // Lock the balance rows of a posting batch, in id order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalance b WHERE b.accountId IN :accountIds ORDER BY b.accountId")
+    List<AccountBalance> lockByAccountIds(@Param("accountIds") Collection<String> accountIds);
+}
@@ -0,0 +1,18 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.AccountStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountStatementRepository extends JpaRepository<AccountStatement, AccountStatement.Key> {
+    
+    // Statements already written beyond a shard's checkpoint; at most max-accounts-in-flight of them
+    @Query("SELECT s FROM AccountStatement s WHERE s.period = :period AND s.shardIndex = :shard AND s.accountId > :after")
+    List<AccountStatement> findWrittenAfter(@Param("period") String period, @Param("shard") int shard,
+                                            @Param("after") String after);
+}
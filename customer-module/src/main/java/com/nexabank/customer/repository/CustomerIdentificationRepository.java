@@ -1,11 +1,13 @@
 package com.nexabank.customer.repository;
 
 import com.nexabank.customer.entity.CustomerIdentification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +29,22 @@ public interface CustomerIdentificationRepository extends JpaRepository<Customer
     List<CustomerIdentification> findByCustomerCustomerId(String customerId);
     
     void deleteByCustomerCustomerId(String customerId);
+    
+    @Query("SELECT c FROM CustomerIdentification c WHERE c.customer.customerId IN :customerIds")
+    List<CustomerIdentification> findByCustomerIds(@Param("customerIds") Collection<String> customerIds);
+    
+    long countByIdentificationTypeIn(Collection<String> identificationTypes);
+    
+    // Page through identification numbers of the given types (used to warm the uniqueness Bloom filters)
+    @Query("SELECT c.identificationId, c.identificationType, c.identificationItem FROM CustomerIdentification c " +
+           "WHERE c.identificationType IN :types AND c.identificationId > :afterId ORDER BY c.identificationId")
+    List<Object[]> findItemsAfter(@Param("types") Collection<String> types, @Param("afterId") String afterId, Pageable pageable);
+    
+    // Page through identification numbers with their customer (used by the duplicate matching batch run)
+    @Query("SELECT c.identificationId, c.customer.customerId, c.identificationType, c.identificationItem FROM CustomerIdentification c " +
+           "WHERE c.identificationType IN :types AND c.identificationId > :afterId ORDER BY c.identificationId")
+    List<Object[]> findCustomerItemsAfter(@Param("types") Collection<String> types, @Param("afterId") String afterId, Pageable pageable);
+    
+    @Query("SELECT c.customer.customerId FROM CustomerIdentification c WHERE c.identificationType = :type AND c.identificationItem = :item")
+    List<String> findCustomerIdsByIdentification(@Param("type") String type, @Param("item") String item);
 }
@@ -0,0 +1,36 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.CustomerMatchCluster;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerMatchClusterRepository extends JpaRepository<CustomerMatchCluster, String> {
+    
+    Page<CustomerMatchCluster> findByStatusOrderByDetectedAtDesc(CustomerMatchCluster.ReviewStatus status, Pageable pageable);
+    
+    long countByStatus(CustomerMatchCluster.ReviewStatus status);
+    
+    // Member signatures of clusters that have already been reviewed
+    @Query("SELECT c.memberSignature FROM CustomerMatchCluster c WHERE c.status <> 'OPEN'")
+    List<String> findReviewedSignatures();
+    
+    boolean existsByMemberSignatureAndStatusNot(String memberSignature, CustomerMatchCluster.ReviewStatus status);
+    
+    // OPEN clusters that contain any of the given customers
+    @Query("SELECT DISTINCT c FROM CustomerMatchCluster c JOIN c.customerIds m WHERE c.status = 'OPEN' AND m IN :customerIds")
+    List<CustomerMatchCluster> findOpenContainingAny(@Param("customerIds") Collection<String> customerIds);
+    
+    // Members go with their cluster through ON DELETE CASCADE
+    @Modifying
+    @Query(value = "DELETE FROM customer_match_clusters WHERE status = 'OPEN'", nativeQuery = true)
+    int deleteAllOpen();
+}
@@ -1,11 +1,13 @@
 package com.nexabank.customer.repository;
 
 import com.nexabank.customer.entity.CustomerNameComponent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +27,26 @@ public interface CustomerNameComponentRepository extends JpaRepository<CustomerN
     List<CustomerNameComponent> findByNameValueContaining(@Param("nameValue") String nameValue);
     
     void deleteByCustomerCustomerId(String customerId);
+    
+    // Page through all name values in (customer, id) order, so a customer's names arrive together
+    // (used to rebuild the in-memory search index)
+    @Query("SELECT c.id, c.customer.customerId, c.nameValue FROM CustomerNameComponent c " +
+           "WHERE c.customer.customerId > :afterCustomerId OR (c.customer.customerId = :afterCustomerId AND c.id > :afterId) " +
+           "ORDER BY c.customer.customerId, c.id")
+    List<Object[]> findNameValuesAfter(@Param("afterCustomerId") String afterCustomerId, @Param("afterId") String afterId,
+                                       Pageable pageable);
+    
+    @Query("SELECT c FROM CustomerNameComponent c WHERE c.customer.customerId IN :customerIds")
+    List<CustomerNameComponent> findByCustomerIds(@Param("customerIds") Collection<String> customerIds);
+    
+    // Page through name components of the given types with their customer (used by the duplicate matching batch run)
+    @Query("SELECT c.id, c.customer.customerId, c.nameComponentType, c.nameValue FROM CustomerNameComponent c " +
+           "WHERE c.nameComponentType IN :types AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findComponentsAfter(@Param("types") Collection<CustomerNameComponent.NameComponentType> types,
+                                       @Param("afterId") String afterId, Pageable pageable);
+    
+    @Query("SELECT c.customer.customerId, c.nameComponentType, c.nameValue FROM CustomerNameComponent c " +
+           "WHERE c.nameComponentType IN :types AND c.customer.customerId IN :customerIds")
+    List<Object[]> findComponentsByCustomerIds(@Param("types") Collection<CustomerNameComponent.NameComponentType> types,
+                                               @Param("customerIds") Collection<String> customerIds);
 }
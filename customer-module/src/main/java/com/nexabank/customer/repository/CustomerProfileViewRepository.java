@@ -0,0 +1,80 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.CustomerProfileView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerProfileViewRepository extends JpaRepository<CustomerProfileView, String> {
+
+    Optional<CustomerProfileView> findByUserId(String userId);
+
+    Optional<CustomerProfileView> findByEmailId(String emailId);
+
+    List<CustomerProfileView> findByUserIdIn(Collection<String> userIds);
+
+    List<CustomerProfileView> findByEmailIdIn(Collection<String> emailIds);
+
+    // Re-project the given customers from customers, customer_name_components and customer_identification
+    @Modifying
+    @Query(value = "INSERT INTO customer_profile_view (" +
+            "customer_id, user_id, email_id, first_name, middle_name, last_name, date_of_birth, gender, " +
+            "nationality, phone_number, alternate_phone, address_line_1, address_line_2, city, state, country, " +
+            "postal_code, customer_status, kyc_status, aadhar_number, pan_number, passport_number, " +
+            "driving_license, created_at, projected_at, version) " +
+            "SELECT c.customer_id, c.user_id, c.email_id, n.first_name, n.middle_name, n.last_name, c.date_of_birth, c.gender, " +
+            "c.nationality, c.phone_number, c.alternate_phone, c.address_line_1, c.address_line_2, c.city, c.state, c.country, " +
+            "c.postal_code, c.customer_status, c.kyc_status, i.aadhar_number, i.pan_number, i.passport_number, " +
+            "i.driving_license, c.CREATED_AT, NOW(6), c.version " +
+            "FROM customers c " +
+            "LEFT JOIN (SELECT customer_id, " +
+            "  MAX(CASE WHEN name_component_type = 'FIRST_NAME' THEN name_value END) AS first_name, " +
+            "  MAX(CASE WHEN name_component_type = 'MIDDLE_NAME' THEN name_value END) AS middle_name, " +
+            "  MAX(CASE WHEN name_component_type = 'LAST_NAME' THEN name_value END) AS last_name " +
+            "  FROM customer_name_components WHERE customer_id IN (:customerIds) GROUP BY customer_id) n " +
+            "  ON n.customer_id = c.customer_id " +
+            "LEFT JOIN (SELECT customer_id, " +
+            "  MAX(CASE WHEN identification_type = 'AADHAR_CARD' THEN identification_item END) AS aadhar_number, " +
+            "  MAX(CASE WHEN identification_type = 'PAN_CARD' THEN identification_item END) AS pan_number, " +
+            "  MAX(CASE WHEN identification_type = 'PASSPORT' THEN identification_item END) AS passport_number, " +
+            "  MAX(CASE WHEN identification_type = 'DRIVING_LICENSE' THEN identification_item END) AS driving_license " +
+            "  FROM customer_identification WHERE customer_id IN (:customerIds) GROUP BY customer_id) i " +
+            "  ON i.customer_id = c.customer_id " +
+            "WHERE c.customer_id IN (:customerIds) " +
+            "ON DUPLICATE KEY UPDATE user_id = c.user_id, email_id = c.email_id, first_name = n.first_name, " +
+            "middle_name = n.middle_name, last_name = n.last_name, date_of_birth = c.date_of_birth, gender = c.gender, " +
+            "nationality = c.nationality, phone_number = c.phone_number, alternate_phone = c.alternate_phone, " +
+            "address_line_1 = c.address_line_1, address_line_2 = c.address_line_2, city = c.city, state = c.state, " +
+            "country = c.country, postal_code = c.postal_code, customer_status = c.customer_status, " +
+            "kyc_status = c.kyc_status, aadhar_number = i.aadhar_number, pan_number = i.pan_number, " +
+            "passport_number = i.passport_number, driving_license = i.driving_license, created_at = c.CREATED_AT, " +
+            "projected_at = NOW(6), version = c.version",
+            nativeQuery = true)
+    int projectCustomers(@Param("customerIds") Collection<String> customerIds);
+
+    // Drop view rows whose customer no longer exists
+    @Modifying
+    @Query(value = "DELETE FROM customer_profile_view WHERE customer_id IN (:customerIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM customers c WHERE c.customer_id = customer_profile_view.customer_id)",
+            nativeQuery = true)
+    int deleteOrphans(@Param("customerIds") Collection<String> customerIds);
+
+    @Modifying
+    @Query(value = "DELETE v FROM customer_profile_view v LEFT JOIN customers c ON c.customer_id = v.customer_id " +
+            "WHERE c.customer_id IS NULL",
+            nativeQuery = true)
+    int deleteAllOrphans();
+
+    // Page through customer ids in id order (used to rebuild the projection in chunks)
+    @Query(value = "SELECT customer_id FROM customers WHERE customer_id > :afterId ORDER BY customer_id",
+            nativeQuery = true)
+    List<String> findCustomerIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+}
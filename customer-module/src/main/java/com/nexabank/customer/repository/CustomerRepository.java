@@ -1,11 +1,16 @@
 package com.nexabank.customer.repository;
 
 import com.nexabank.customer.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -15,9 +20,17 @@ public interface CustomerRepository extends JpaRepository<Customer, String> {
     // Find customer by user ID (from auth module)
     Optional<Customer> findByUserId(String userId);
     
+    // Current version of a customer, without loading the entity (ETag checks)
+    Optional<CustomerVersion> findVersionByUserId(String userId);
+    
     // Find customer by email
     Optional<Customer> findByEmailId(String emailId);
     
+    // Bulk lookups (POST /api/profiles/lookup); callers keep the IN lists to a bounded size
+    List<Customer> findByUserIdIn(Collection<String> userIds);
+    
+    List<Customer> findByEmailIdIn(Collection<String> emailIds);
+    
     // Find customer by Aadhar number - using join with CustomerIdentification
     @Query("SELECT c FROM Customer c JOIN c.identificationDocuments id WHERE id.identificationType = 'AADHAR_CARD' AND id.identificationItem = :aadharNumber")
     Optional<Customer> findByAadharNumber(@Param("aadharNumber") String aadharNumber);
@@ -51,6 +64,38 @@ public interface CustomerRepository extends JpaRepository<Customer, String> {
     @Query("SELECT c FROM Customer c WHERE c.kycStatus IN ('PENDING', 'IN_PROGRESS')")
     List<Customer> findCustomersRequiringKyc();
     
+    // Count customers requiring KYC completion
+    @Query("SELECT COUNT(c) FROM Customer c WHERE c.kycStatus IN ('PENDING', 'IN_PROGRESS')")
+    long countCustomersRequiringKyc();
+    
+    // Lock a batch of PENDING customers whose next KYC attempt is due; rows locked by other workers are skipped
+    @Query(value = "SELECT customer_id FROM customers WHERE kyc_status = 'PENDING' " +
+                   "AND (kyc_next_attempt_at IS NULL OR kyc_next_attempt_at <= :now) " +
+                   "ORDER BY kyc_next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<String> claimDueKyc(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    // Lock a batch of IN_PROGRESS KYC claims whose lease has expired
+    @Query(value = "SELECT customer_id FROM customers WHERE kyc_status = 'IN_PROGRESS' " +
+                   "AND kyc_claimed_at < :staleBefore LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<String> claimStaleKyc(@Param("staleBefore") LocalDateTime staleBefore, @Param("limit") int limit);
+    
+    // Record the outcome of a KYC claim and release it, only while the caller still owns the claim
+    @Modifying
+    @Query(value = "UPDATE customers SET kyc_status = :kycStatus, kyc_last_error = :error, kyc_next_attempt_at = :nextAttemptAt, " +
+                   "kyc_completion_date = CASE WHEN :kycStatus = 'COMPLETED' THEN NOW(6) ELSE kyc_completion_date END, " +
+                   "kyc_claimed_by = NULL, kyc_claim_token = NULL, version = version + 1, LOCAL_TS = NOW(6) " +
+                   "WHERE customer_id = :customerId AND kyc_status = 'IN_PROGRESS' " +
+                   "AND kyc_claimed_by = :claimedBy AND kyc_claim_token = :claimToken",
+           nativeQuery = true)
+    int recordKycOutcome(@Param("customerId") String customerId,
+                         @Param("claimedBy") String claimedBy,
+                         @Param("claimToken") String claimToken,
+                         @Param("kycStatus") String kycStatus,
+                         @Param("error") String error,
+                         @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+    
     // Count customers by status
     long countByCustomerStatus(Customer.CustomerStatus status);
     
@@ -67,4 +112,52 @@ public interface CustomerRepository extends JpaRepository<Customer, String> {
     // Check if PAN number exists - using join with CustomerIdentification
     @Query("SELECT COUNT(c) > 0 FROM Customer c JOIN c.identificationDocuments id WHERE id.identificationType = 'PAN_CARD' AND id.identificationItem = :panNumber")
     boolean existsByPanNumber(@Param("panNumber") String panNumber);
-}
\ No newline at end of file
+    
+    // Page through customers in id order (used to rebuild in-memory lookup structures)
+    @Query("SELECT c FROM Customer c WHERE c.customerId > :afterId ORDER BY c.customerId")
+    List<Customer> findPageAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Page through the unique keys of customers (used to warm the uniqueness Bloom filters)
+    @Query("SELECT c.customerId, c.userId, c.emailId FROM Customer c WHERE c.customerId > :afterId ORDER BY c.customerId")
+    List<Object[]> findUniqueKeysAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    // Page through userIds in userId order (login-module's profile reconciliation merge-joins them with auth_users)
+    @Query("SELECT c.userId FROM Customer c WHERE c.userId > :afterId ORDER BY c.userId")
+    List<String> findUserIdsAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    @Query("SELECT c.userId FROM Customer c WHERE c.userId IN :userIds")
+    List<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+    
+    // Page through customer birth dates (used by the duplicate matching batch run)
+    @Query("SELECT c.customerId, c.dateOfBirth FROM Customer c WHERE c.customerId > :afterId ORDER BY c.customerId")
+    List<Object[]> findDatesOfBirthAfter(@Param("afterId") String afterId, Pageable pageable);
+    
+    @Query("SELECT c.customerId FROM Customer c WHERE c.dateOfBirth = :dateOfBirth")
+    List<String> findCustomerIdsByDateOfBirth(@Param("dateOfBirth") LocalDate dateOfBirth);
+    
+    // Next chunk of ACTIVE customers not updated since :cutoff, after the (LOCAL_TS, customer_id) cursor
+    @Query(value = "SELECT customer_id, LOCAL_TS FROM customers WHERE customer_status = 'ACTIVE' AND LOCAL_TS < :cutoff " +
+                   "AND (LOCAL_TS > :afterTs OR (LOCAL_TS = :afterTs AND customer_id > :afterId)) " +
+                   "ORDER BY LOCAL_TS, customer_id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findDormancyCandidatesAfter(@Param("cutoff") LocalDateTime cutoff,
+                                               @Param("afterTs") LocalDateTime afterTs,
+                                               @Param("afterId") String afterId,
+                                               @Param("limit") int limit);
+    
+    // Lock the candidates that are still idle, so the sweep marks (and reports) exactly these
+    @Query(value = "SELECT customer_id FROM customers WHERE customer_id IN :customerIds " +
+                   "AND customer_status = 'ACTIVE' AND LOCAL_TS < :cutoff FOR UPDATE", nativeQuery = true)
+    List<String> lockDormancyCandidates(@Param("customerIds") Collection<String> customerIds, @Param("cutoff") LocalDateTime cutoff);
+    
+    // Mark the given customers DORMANT in one statement, re-checking that they are still idle
+    @Modifying
+    @Query(value = "UPDATE customers SET customer_status = 'DORMANT', version = version + 1, LOCAL_TS = NOW(6) " +
+                   "WHERE customer_id IN :customerIds AND customer_status = 'ACTIVE' AND LOCAL_TS < :cutoff",
+           nativeQuery = true)
+    int markDormant(@Param("customerIds") Collection<String> customerIds, @Param("cutoff") LocalDateTime cutoff);
+    
+    interface CustomerVersion {
+        String getCustomerId();
+        Long getVersion();
+    }
+}
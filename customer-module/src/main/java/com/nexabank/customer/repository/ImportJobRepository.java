@@ -0,0 +1,33 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.ImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+    
+    @Query("SELECT j FROM ImportJob j ORDER BY j.createdAt DESC")
+    List<ImportJob> findRecent(Pageable pageable);
+    
+    // Advance the checkpoint and add the counters of the blocks committed since the last one
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.bytesCommitted = :bytesCommitted, j.linesCommitted = :linesCommitted, " +
+           "j.rowsPosted = j.rowsPosted + :posted, j.rowsDuplicate = j.rowsDuplicate + :duplicate, " +
+           "j.rowsInsufficientFunds = j.rowsInsufficientFunds + :insufficientFunds, j.rowsHeld = j.rowsHeld + :held, " +
+           "j.rowsRejected = j.rowsRejected + :rejected, j.rowsFailed = j.rowsFailed + :failed, " +
+           "j.updatedAt = :now WHERE j.jobId = :jobId")
+    int checkpoint(@Param("jobId") String jobId, @Param("bytesCommitted") long bytesCommitted,
+                   @Param("linesCommitted") long linesCommitted, @Param("posted") long posted,
+                   @Param("duplicate") long duplicate, @Param("insufficientFunds") long insufficientFunds,
+                   @Param("held") long held, @Param("rejected") long rejected, @Param("failed") long failed, @Param("now") LocalDateTime now);
+}
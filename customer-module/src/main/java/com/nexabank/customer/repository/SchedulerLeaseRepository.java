@@ -0,0 +1,27 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    
+    // Take the lease if it has expired, or extend it if we already hold it; 1 when this node owns it afterwards.
+    // Uses the database clock so nodes with skewed clocks agree on expiry.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_leases SET owner = :owner, lease_until = NOW(6) + INTERVAL :seconds SECOND " +
+                   "WHERE lease_name = :name AND (owner = :owner OR lease_until < NOW(6))", nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("seconds") long seconds);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE scheduler_leases SET lease_until = NOW(6) WHERE lease_name = :name AND owner = :owner",
+           nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -0,0 +1,32 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.StatementRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StatementRunRepository extends JpaRepository<StatementRun, StatementRun.Key> {
+    
+    @Query("SELECT r FROM StatementRun r WHERE r.period = :period ORDER BY r.shardIndex")
+    List<StatementRun> findByPeriod(@Param("period") String period);
+    
+    @Query("SELECT DISTINCT r.period FROM StatementRun r ORDER BY r.period DESC")
+    List<String> findRecentPeriods(Pageable pageable);
+    
+    // Advance a shard's checkpoint and add the accounts written since the last one
+    @Modifying
+    @Transactional
+    @Query("UPDATE StatementRun r SET r.lastAccountId = :lastAccountId, r.accountsDone = r.accountsDone + :accounts, " +
+           "r.transactionsDone = r.transactionsDone + :transactions, r.updatedAt = :now " +
+           "WHERE r.period = :period AND r.shardIndex = :shard")
+    int checkpoint(@Param("period") String period, @Param("shard") int shard, @Param("lastAccountId") String lastAccountId,
+                   @Param("accounts") long accounts, @Param("transactions") long transactions, @Param("now") LocalDateTime now);
+}
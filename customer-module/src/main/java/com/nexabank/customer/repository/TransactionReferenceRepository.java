@@ -0,0 +1,26 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.TransactionReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionReferenceRepository extends JpaRepository<TransactionReference, TransactionReference.Key> {
+    
+    // Candidates for reference number dedupe; callers match (accountId, referenceNumber) pairs exactly
+    @Query("SELECT r FROM TransactionReference r WHERE r.accountId IN :accountIds AND r.referenceNumber IN :referenceNumbers")
+    List<TransactionReference> findByAccountIdsAndReferenceNumbers(@Param("accountIds") Collection<String> accountIds,
+                                                                   @Param("referenceNumbers") Collection<String> referenceNumbers);
+    
+    // One chunk of the references of months being dropped by the partition maintainer
+    @Modifying
+    @Query(value = "DELETE FROM transaction_references WHERE created_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,16 +1,40 @@
 package com.nexabank.customer.repository;
 
 import com.nexabank.customer.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, String> {
+    
+    // Original postings of replayed references; the created_at bounds let MySQL prune to the months involved
+    @Query("SELECT t FROM Transaction t WHERE t.transactionId IN :transactionIds AND t.createdAt BETWEEN :from AND :to")
+    List<Transaction> findByIdsCreatedBetween(@Param("transactionIds") Collection<String> transactionIds,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // One history page, newest first, strictly before the (createdAt, transactionId) cursor
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.createdAt >= :from " +
+           "AND (t.createdAt < :beforeTs OR (t.createdAt = :beforeTs AND t.transactionId < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.transactionId DESC")
+    List<Transaction> findHistoryPage(@Param("accountId") String accountId, @Param("from") LocalDateTime from,
+                                      @Param("beforeTs") LocalDateTime beforeTs, @Param("beforeId") String beforeId,
+                                      Pageable pageable);
     
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t")
-    double getTotalTransactionVolume();
+    // Completed transactions of one day grouped like transaction_daily_rollups: [transaction_type, category, count, amount]
+    @Query(value = "SELECT transaction_type, COALESCE(category, ''), COUNT(*), SUM(amount) FROM transactions " +
+                   "WHERE created_at >= :from AND created_at < :to AND status = 'COMPLETED' " +
+                   "GROUP BY transaction_type, COALESCE(category, '')", nativeQuery = true)
+    List<Object[]> aggregateCompletedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
-    @Query("SELECT COUNT(t) FROM Transaction t")
-    long count();
+    // Postings of an account in one status, oldest first (held postings awaiting review)
+    @Query("SELECT t FROM Transaction t WHERE t.accountId = :accountId AND t.status = :status ORDER BY t.createdAt, t.transactionId")
+    List<Transaction> findByAccountIdAndStatus(@Param("accountId") String accountId,
+                                               @Param("status") Transaction.TransactionStatus status, Pageable pageable);
 }
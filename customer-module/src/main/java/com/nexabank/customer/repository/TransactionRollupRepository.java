@@ -0,0 +1,55 @@
+package com.nexabank.customer.repository;
+
+import com.nexabank.customer.entity.TransactionDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransactionRollupRepository extends JpaRepository<TransactionDailyRollup, TransactionDailyRollup.Key> {
+    
+    // Add completed postings to a day/type/category bucket; runs in the posting transaction
+    @Modifying
+    @Query(value = "INSERT INTO transaction_daily_rollups (rollup_date, transaction_type, category, slot, transaction_count, total_amount) " +
+                   "VALUES (:date, :type, :category, :slot, :count, :amount) " +
+                   "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + :count, total_amount = total_amount + :amount",
+           nativeQuery = true)
+    int addToDaily(@Param("date") LocalDate date, @Param("type") String type, @Param("category") String category,
+                   @Param("slot") int slot, @Param("count") long count, @Param("amount") BigDecimal amount);
+    
+    @Modifying
+    @Query(value = "INSERT INTO transaction_totals (transaction_type, slot, transaction_count, total_amount) " +
+                   "VALUES (:type, :slot, :count, :amount) " +
+                   "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + :count, total_amount = total_amount + :amount",
+           nativeQuery = true)
+    int addToTotals(@Param("type") String type, @Param("slot") int slot, @Param("count") long count,
+                    @Param("amount") BigDecimal amount);
+    
+    // Rows are [transaction_type, count, amount]
+    @Query(value = "SELECT transaction_type, SUM(transaction_count), SUM(total_amount) FROM transaction_totals " +
+                   "GROUP BY transaction_type", nativeQuery = true)
+    List<Object[]> findTotals();
+    
+    // Rows are [rollup_date, transaction_type, category, count, amount]
+    @Query(value = "SELECT rollup_date, transaction_type, category, SUM(transaction_count), SUM(total_amount) " +
+                   "FROM transaction_daily_rollups WHERE rollup_date BETWEEN :from AND :to " +
+                   "GROUP BY rollup_date, transaction_type, category ORDER BY rollup_date", nativeQuery = true)
+    List<Object[]> findDaily(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Reconciliation: rows are [transaction_type, category, count, amount]
+    @Query(value = "SELECT transaction_type, category, SUM(transaction_count), SUM(total_amount) " +
+                   "FROM transaction_daily_rollups WHERE rollup_date = :date GROUP BY transaction_type, category",
+           nativeQuery = true)
+    List<Object[]> findDayBuckets(@Param("date") LocalDate date);
+    
+    // Reconciliation: rows are [transaction_type, count, amount] summed over every day
+    @Query(value = "SELECT transaction_type, SUM(transaction_count), SUM(total_amount) FROM transaction_daily_rollups " +
+                   "GROUP BY transaction_type", nativeQuery = true)
+    List<Object[]> sumDailyByType();
+}
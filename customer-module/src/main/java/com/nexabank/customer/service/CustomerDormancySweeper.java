@@ -0,0 +1,236 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerRepository;
+import com.nexabank.customer.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks ACTIVE customers DORMANT once their record has not changed for inactive-days.
+ * LOCAL_TS only moves on writes to the customer record, not on logins or transactions, so
+ * the sweeper is disabled by default; enable it only where record changes track activity.
+ * Each shard is walked in index order with a keyset cursor and every chunk is updated with
+ * one UPDATE; the changed customers are re-projected and evicted from the profile cache
+ * through CustomerChangedEvents like any other write. Only the node holding the scheduler
+ * lease sweeps, and it pauses between chunks so the sweep uses at most max-duty-cycle of
+ * the time it runs.
+ */
+@Service
+@Slf4j
+public class CustomerDormancySweeper {
+
+    private static final String LEASE_NAME = "customer-dormancy-sweeper";
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.sweeper.dormancy.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.sweeper.dormancy.inactive-days:365}")
+    private long inactiveDays;
+
+    @Value("${app.sweeper.dormancy.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.sweeper.dormancy.min-pause-ms:100}")
+    private long minPauseMs;
+
+    @Value("${app.sweeper.dormancy.max-duty-cycle:0.25}")
+    private double maxDutyCycle;
+
+    @Value("${app.sweeper.dormancy.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private TransactionTemplate chunkTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedWithoutLease = new AtomicLong();
+    private final AtomicLong totalMarkedDormant = new AtomicLong();
+    private final AtomicLong currentRunScanned = new AtomicLong();
+    private final AtomicLong currentRunMarked = new AtomicLong();
+    private volatile int currentShard = -1;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunChunks;
+    private volatile long lastRunDurationMs;
+    private volatile String lastError;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.sweeper.dormancy.cron:0 30 2 * * *}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Run one sweep now; false when a sweep is already running here or another node holds the lease
+     */
+    public boolean sweep() {
+        if (!enabled) {
+            throw new IllegalStateException("Dormancy sweeper is disabled");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+                skippedWithoutLease.incrementAndGet();
+                return false;
+            }
+            runWithLease();
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runWithLease() {
+        long start = System.currentTimeMillis();
+        lastRunStartedAt = LocalDateTime.now();
+        currentRunScanned.set(0);
+        currentRunMarked.set(0);
+        long chunks = 0;
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(inactiveDays);
+        try {
+            shards:
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                currentShard = shard;
+                Cursor cursor = new Cursor();
+                while (true) {
+                    long chunkStart = System.currentTimeMillis();
+                    int scanned = ShardContext.callOnShard(shard, () -> chunkTransaction.execute(status -> sweepChunk(cutoff, cursor)));
+                    chunks++;
+                    if (scanned < chunkSize) {
+                        break;
+                    }
+                    // Renew the lease for the next chunk; stop if another node has taken over
+                    if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+                        break shards;
+                    }
+                    pause(System.currentTimeMillis() - chunkStart);
+                }
+            }
+            lastError = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Customer dormancy sweep failed", e);
+        } finally {
+            currentShard = -1;
+            totalMarkedDormant.addAndGet(currentRunMarked.get());
+            runs.incrementAndGet();
+            lastRunChunks = chunks;
+            lastRunDurationMs = System.currentTimeMillis() - start;
+            lastRunFinishedAt = LocalDateTime.now();
+            leaseRepository.release(LEASE_NAME, nodeId);
+        }
+        log.info("Customer dormancy sweep: {} of {} scanned customers marked DORMANT in {} chunks, {} ms",
+                currentRunMarked.get(), currentRunScanned.get(), chunks, lastRunDurationMs);
+    }
+
+    /**
+     * Mark one chunk of idle customers DORMANT in the caller's transaction and advance the cursor
+     */
+    private int sweepChunk(LocalDateTime cutoff, Cursor cursor) {
+        List<Object[]> rows = customerRepository.findDormancyCandidatesAfter(cutoff, cursor.afterTs, cursor.afterId, chunkSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> customerIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            customerIds.add((String) row[0]);
+        }
+        Object[] last = rows.get(rows.size() - 1);
+        cursor.afterId = (String) last[0];
+        cursor.afterTs = toLocalDateTime(last[1]);
+
+        // Customers changed since the candidate read drop out here and are neither marked nor published
+        List<String> idle = customerRepository.lockDormancyCandidates(customerIds, cutoff);
+        int marked = idle.isEmpty() ? 0 : customerRepository.markDormant(idle, cutoff);
+        // Re-project the view rows and drop cached profiles at commit, as for any other customer write
+        idle.forEach(customerId -> eventPublisher.publishEvent(new CustomerChangedEvent(customerId)));
+        currentRunScanned.addAndGet(rows.size());
+        currentRunMarked.addAndGet(marked);
+        return rows.size();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    /**
+     * Sleep long enough that work / (work + pause) stays at or below max-duty-cycle
+     */
+    private void pause(long chunkMillis) throws InterruptedException {
+        double dutyCycle = Math.min(Math.max(maxDutyCycle, 0.01), 1.0);
+        long pauseMs = Math.max(minPauseMs, (long) (chunkMillis * (1.0 / dutyCycle - 1.0)));
+        Thread.sleep(pauseMs);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("running", running.get());
+        stats.put("currentShard", currentShard);
+        stats.put("inactiveDays", inactiveDays);
+        stats.put("runs", runs.get());
+        stats.put("skippedWithoutLease", skippedWithoutLease.get());
+        stats.put("totalMarkedDormant", totalMarkedDormant.get());
+        stats.put("currentRunScanned", currentRunScanned.get());
+        stats.put("currentRunMarked", currentRunMarked.get());
+        stats.put("lastRunStartedAt", lastRunStartedAt);
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunChunks", lastRunChunks);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private static final class Cursor {
+        private LocalDateTime afterTs = CURSOR_START;
+        private String afterId = "";
+    }
+}
@@ -1,8 +1,11 @@
 package com.nexabank.customer.service;
 
+import com.nexabank.customer.config.ShardRouter;
 import com.nexabank.customer.entity.CustomerIdentification;
+import com.nexabank.customer.event.CustomerChangedEvent;
 import com.nexabank.customer.repository.CustomerIdentificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +20,24 @@ public class CustomerIdentificationService {
     @Autowired
     private CustomerIdentificationRepository identificationRepository;
     
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CustomerUniquenessFilter uniquenessFilter;
+    
     /**
      * Save an identification document
      */
     public CustomerIdentification save(CustomerIdentification identification) {
-        return identificationRepository.save(identification);
+        String customerId = identification.getCustomer().getCustomerId();
+        uniquenessFilter.recordIdentification(identification);
+        CustomerIdentification saved = shardRouter.onShardFor(customerId, () -> identificationRepository.saveAndFlush(identification));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        return saved;
     }
     
     /**
@@ -29,7 +45,7 @@ public class CustomerIdentificationService {
      */
     @Transactional(readOnly = true)
     public List<CustomerIdentification> findByCustomerCustomerId(String customerId) {
-        return identificationRepository.findByCustomerCustomerId(customerId);
+        return shardRouter.onShardFor(customerId, () -> identificationRepository.findByCustomerCustomerId(customerId));
     }
     
     /**
@@ -37,7 +53,7 @@ public class CustomerIdentificationService {
      */
     @Transactional(readOnly = true)
     public List<CustomerIdentification> findByIdentificationType(String identificationType) {
-        return identificationRepository.findByIdentificationType(identificationType);
+        return shardRouter.scatterList(() -> identificationRepository.findByIdentificationType(identificationType));
     }
     
     /**
@@ -45,21 +61,26 @@ public class CustomerIdentificationService {
      */
     @Transactional(readOnly = true)
     public Optional<CustomerIdentification> findById(String id) {
-        return identificationRepository.findById(id);
+        return shardRouter.scatterFirst(() -> identificationRepository.findById(id));
     }
     
     /**
      * Delete identification documents by customer ID
      */
     public void deleteByCustomerCustomerId(String customerId) {
-        identificationRepository.deleteByCustomerCustomerId(customerId);
+        shardRouter.onShardFor(customerId, () -> identificationRepository.deleteByCustomerCustomerId(customerId));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
     }
     
     /**
      * Delete identification document by ID
      */
     public void deleteById(String id) {
-        identificationRepository.deleteById(id);
+        findById(id).ifPresent(existing -> {
+            String customerId = existing.getCustomer().getCustomerId();
+            shardRouter.onShardFor(customerId, () -> identificationRepository.deleteById(id));
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        });
     }
     
     /**
@@ -67,6 +88,10 @@ public class CustomerIdentificationService {
      */
     public CustomerIdentification update(CustomerIdentification identification) {
         identification.setUpdatedAt(LocalDateTime.now());
-        return identificationRepository.save(identification);
+        String customerId = identification.getCustomer().getCustomerId();
+        uniquenessFilter.recordIdentification(identification);
+        CustomerIdentification saved = shardRouter.onShardFor(customerId, () -> identificationRepository.saveAndFlush(identification));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        return saved;
     }
 }
\ No newline at end of file
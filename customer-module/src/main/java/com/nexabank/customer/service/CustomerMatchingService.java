@@ -0,0 +1,663 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerIdentification;
+import com.nexabank.customer.entity.CustomerMatchCluster;
+import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerIdentificationRepository;
+import com.nexabank.customer.repository.CustomerMatchClusterRepository;
+import com.nexabank.customer.repository.CustomerNameComponentRepository;
+import com.nexabank.customer.repository.CustomerRepository;
+import com.nexabank.customer.util.NameMatching;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Finds customers that are probably the same person and records them as clusters for review.
+ * Customers are only compared within blocks that share a blocking key: a hash of a normalized
+ * identification number (Aadhar, PAN, passport, driving license), or the Soundex codes of first
+ * and last name plus the date of birth. Identification blocks match outright; name blocks are
+ * scored pairwise with Jaro-Winkler. Matches are joined into clusters with union-find.
+ *
+ * The batch run loads every shard in parallel, blocks and scores on a dedicated fork-join pool
+ * and replaces all OPEN clusters (reviewed member sets are not raised again). Each committed
+ * customer write is matched incrementally against the database by the same keys; repeated
+ * changes to a queued customer are coalesced and changes beyond the queue capacity are left to
+ * the next batch run.
+ */
+@Service
+@Slf4j
+public class CustomerMatchingService implements DisposableBean {
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+    private static final int WRITE_FLUSH_SIZE = 500;
+    // Incremental matching skips the name comparison for dates of birth shared by more customers
+    private static final int MAX_SAME_DOB_CANDIDATES = 5000;
+
+    private static final List<String> MATCHED_ID_TYPES = List.of(
+            CustomerIdentification.AADHAR_CARD, CustomerIdentification.PAN_CARD,
+            CustomerIdentification.PASSPORT, CustomerIdentification.DRIVING_LICENSE);
+    private static final List<CustomerNameComponent.NameComponentType> MATCHED_NAME_TYPES = List.of(
+            CustomerNameComponent.NameComponentType.FIRST_NAME, CustomerNameComponent.NameComponentType.LAST_NAME);
+
+    private static final String NAME_DOB_REASON = "NAME_DOB";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerNameComponentRepository nameComponentRepository;
+
+    @Autowired
+    private CustomerIdentificationRepository identificationRepository;
+
+    @Autowired
+    private CustomerMatchClusterRepository clusterRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.matching.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.matching.incremental:true}")
+    private boolean incremental;
+
+    @Value("${app.matching.threads:4}")
+    private int threads;
+
+    @Value("${app.matching.name-threshold:0.92}")
+    private double nameThreshold;
+
+    @Value("${app.matching.max-block-size:500}")
+    private int maxBlockSize;
+
+    @Value("${app.matching.incremental-queue-capacity:10000}")
+    private int incrementalQueueCapacity;
+
+    private ForkJoinPool matchPool;
+    private ExecutorService incrementalExecutor;
+    private TransactionTemplate writeTransaction;
+
+    // Customers waiting for incremental matching; a customer is queued at most once
+    private final Set<String> pendingCustomers = ConcurrentHashMap.newKeySet();
+    private final LongAdder coalescedChanges = new LongAdder();
+    private final LongAdder droppedChanges = new LongAdder();
+    private final AtomicBoolean batchRunning = new AtomicBoolean();
+    private final Object clusterWriteLock = new Object();
+    private volatile Map<String, Object> lastBatchRun;
+
+    @PostConstruct
+    public void init() {
+        matchPool = new ForkJoinPool(Math.max(1, threads));
+        incrementalExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-matching");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Match all customers and replace the OPEN review clusters with the result
+     */
+    public Map<String, Object> runBatch() {
+        if (!enabled) {
+            throw new IllegalStateException("Customer matching is disabled");
+        }
+        if (!batchRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("A matching run is already in progress");
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<MatchRecord> records = shardRouter.scatterList(this::loadShard);
+            long loadedAt = System.currentTimeMillis();
+
+            BatchCounters counters = new BatchCounters();
+            List<Match> matches = matchPool.submit(() -> findMatches(records, counters)).join();
+            List<ClusterCandidate> clusters = cluster(matches);
+            int written = replaceOpenClusters(clusters);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("customers", records.size());
+            summary.put("blocks", counters.blocks.sum());
+            summary.put("skippedBlocks", counters.skippedBlocks.sum());
+            summary.put("comparisons", counters.comparisons.sum());
+            summary.put("matches", matches.size());
+            summary.put("clusters", clusters.size());
+            summary.put("openClusters", written);
+            summary.put("loadMs", loadedAt - start);
+            summary.put("durationMs", System.currentTimeMillis() - start);
+            summary.put("finishedAt", LocalDateTime.now().toString());
+            lastBatchRun = summary;
+            log.info("Customer matching run: {}", summary);
+            return summary;
+        } finally {
+            batchRunning.set(false);
+        }
+    }
+
+    private List<MatchRecord> loadShard() {
+        Map<String, MatchRecord> records = new HashMap<>();
+        String afterId = "";
+        List<Object[]> page;
+        do {
+            page = customerRepository.findDatesOfBirthAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                records.put(afterId, new MatchRecord(afterId, (LocalDate) row[1]));
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        afterId = "";
+        do {
+            page = nameComponentRepository.findComponentsAfter(MATCHED_NAME_TYPES, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                MatchRecord record = records.get((String) row[1]);
+                if (record != null) {
+                    record.setName((CustomerNameComponent.NameComponentType) row[2], (String) row[3]);
+                }
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        afterId = "";
+        do {
+            page = identificationRepository.findCustomerItemsAfter(MATCHED_ID_TYPES, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                MatchRecord record = records.get((String) row[1]);
+                if (record != null) {
+                    record.addIdentification((String) row[2], (String) row[3]);
+                }
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return new ArrayList<>(records.values());
+    }
+
+    /**
+     * Group records by blocking key and compare within each block, both in parallel on the match pool
+     */
+    private List<Match> findMatches(List<MatchRecord> records, BatchCounters counters) {
+        Map<String, List<MatchRecord>> blocks = records.parallelStream()
+                .flatMap(record -> record.blockingKeys().stream().map(key -> Map.entry(key, record)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+
+        return blocks.entrySet().parallelStream()
+                .filter(block -> block.getValue().size() > 1)
+                .flatMap(block -> compareBlock(block.getKey(), block.getValue(), counters).stream())
+                .collect(Collectors.toList());
+    }
+
+    private List<Match> compareBlock(String key, List<MatchRecord> block, BatchCounters counters) {
+        counters.blocks.increment();
+        List<Match> matches = new ArrayList<>();
+        if (key.startsWith("I:")) {
+            // Same identification number: every member matches, so chaining them is enough for union-find
+            String reason = key.substring(2, key.indexOf(':', 2));
+            for (int i = 1; i < block.size(); i++) {
+                matches.add(new Match(block.get(0).customerId, block.get(i).customerId, 1.0, reason));
+            }
+            return matches;
+        }
+        if (block.size() > maxBlockSize) {
+            // Very common name and birth date: pairwise scoring would dominate the run
+            counters.skippedBlocks.increment();
+            return matches;
+        }
+        for (int i = 0; i < block.size(); i++) {
+            for (int j = i + 1; j < block.size(); j++) {
+                double score = nameScore(block.get(i), block.get(j));
+                if (score >= nameThreshold) {
+                    matches.add(new Match(block.get(i).customerId, block.get(j).customerId, score, NAME_DOB_REASON));
+                }
+            }
+        }
+        counters.comparisons.add((long) block.size() * (block.size() - 1) / 2);
+        return matches;
+    }
+
+    private static double nameScore(MatchRecord a, MatchRecord b) {
+        String name = a.fullName();
+        // Also try the other order, for first and last name entered the wrong way round
+        return Math.max(NameMatching.jaroWinkler(name, b.fullName()), NameMatching.jaroWinkler(name, b.reversedName()));
+    }
+
+    /**
+     * Union-find over matched pairs; every resulting set has at least two customers
+     */
+    private static List<ClusterCandidate> cluster(List<Match> matches) {
+        Map<String, String> parent = new HashMap<>();
+        for (Match match : matches) {
+            String rootA = find(parent, match.customerA);
+            String rootB = find(parent, match.customerB);
+            if (!rootA.equals(rootB)) {
+                parent.put(rootA, rootB);
+            }
+        }
+        Map<String, ClusterCandidate> byRoot = new HashMap<>();
+        for (Match match : matches) {
+            ClusterCandidate candidate = byRoot.computeIfAbsent(find(parent, match.customerA), root -> new ClusterCandidate());
+            candidate.add(match);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    private static String find(Map<String, String> parent, String customerId) {
+        String root = customerId;
+        String next;
+        while ((next = parent.get(root)) != null) {
+            root = next;
+        }
+        // Path compression
+        String current = customerId;
+        while (!current.equals(root)) {
+            next = parent.get(current);
+            parent.put(current, root);
+            current = next;
+        }
+        return root;
+    }
+
+    private int replaceOpenClusters(List<ClusterCandidate> clusters) {
+        synchronized (clusterWriteLock) {
+            return ShardContext.callOnShard(0, () -> writeTransaction.execute(status -> {
+                Set<String> reviewed = new HashSet<>(clusterRepository.findReviewedSignatures());
+                clusterRepository.deleteAllOpen();
+                LocalDateTime now = LocalDateTime.now();
+                int written = 0;
+                for (ClusterCandidate candidate : clusters) {
+                    String signature = signature(candidate.customerIds);
+                    if (reviewed.contains(signature)) {
+                        continue;
+                    }
+                    CustomerMatchCluster cluster = new CustomerMatchCluster();
+                    cluster.setClusterId(UUID.randomUUID().toString());
+                    cluster.setDetectedAt(now);
+                    candidate.applyTo(cluster, signature);
+                    entityManager.persist(cluster);
+                    if (++written % WRITE_FLUSH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                return written;
+            }));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!enabled || !incremental) {
+            return;
+        }
+        String customerId = event.getCustomerId();
+        if (!pendingCustomers.add(customerId)) {
+            coalescedChanges.increment();
+            return;
+        }
+        // When the worker falls behind, drop the change; the next batch run picks the customer up
+        if (pendingCustomers.size() > incrementalQueueCapacity) {
+            pendingCustomers.remove(customerId);
+            droppedChanges.increment();
+            return;
+        }
+        try {
+            incrementalExecutor.execute(() -> {
+                // Leave the queue before matching so that a change committed meanwhile is matched again
+                pendingCustomers.remove(customerId);
+                try {
+                    matchCustomer(customerId);
+                } catch (RuntimeException e) {
+                    log.warn("Incremental matching failed for customer {}", customerId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingCustomers.remove(customerId);
+            droppedChanges.increment();
+        }
+    }
+
+    /**
+     * Match one customer against the database by its blocking keys and fold the result into
+     * the OPEN clusters that contain it or any of its matches
+     */
+    public void matchCustomer(String customerId) {
+        Optional<MatchRecord> record = shardRouter.onShardFor(customerId, () -> loadRecord(customerId));
+        List<Match> matches = record.map(this::findMatchesFor).orElse(List.of());
+        synchronized (clusterWriteLock) {
+            ShardContext.callOnShard(0, () -> writeTransaction.execute(status -> {
+                mergeIntoOpenClusters(customerId, matches);
+                return null;
+            }));
+        }
+    }
+
+    private Optional<MatchRecord> loadRecord(String customerId) {
+        Optional<Customer> customer = customerRepository.findById(customerId);
+        if (customer.isEmpty()) {
+            return Optional.empty();
+        }
+        MatchRecord record = new MatchRecord(customerId, customer.get().getDateOfBirth());
+        for (Object[] row : nameComponentRepository.findComponentsByCustomerIds(MATCHED_NAME_TYPES, List.of(customerId))) {
+            record.setName((CustomerNameComponent.NameComponentType) row[1], (String) row[2]);
+        }
+        for (CustomerIdentification identification : identificationRepository.findByCustomerCustomerId(customerId)) {
+            if (MATCHED_ID_TYPES.contains(identification.getIdentificationType())) {
+                record.addIdentification(identification.getIdentificationType(), identification.getIdentificationItem());
+            }
+        }
+        return Optional.of(record);
+    }
+
+    private List<Match> findMatchesFor(MatchRecord record) {
+        Map<String, Match> matches = new HashMap<>();
+        for (Map.Entry<String, String> identification : record.identifications.entrySet()) {
+            String type = identification.getKey();
+            List<String> holders = shardRouter.scatterList(
+                    () -> identificationRepository.findCustomerIdsByIdentification(type, identification.getValue()));
+            for (String other : holders) {
+                if (!other.equals(record.customerId)) {
+                    matches.putIfAbsent(other, new Match(record.customerId, other, 1.0, type));
+                }
+            }
+        }
+
+        String nameKey = record.nameBlockingKey();
+        if (nameKey != null) {
+            List<String> sameDob = shardRouter.scatterList(() -> customerRepository.findCustomerIdsByDateOfBirth(record.dateOfBirth));
+            sameDob.remove(record.customerId);
+            if (sameDob.size() > MAX_SAME_DOB_CANDIDATES) {
+                log.debug("Skipping name matching for customer {}: {} customers share the birth date", record.customerId, sameDob.size());
+            } else if (!sameDob.isEmpty()) {
+                Map<String, MatchRecord> candidates = new HashMap<>();
+                for (Object[] row : shardRouter.scatterList(() -> nameComponentRepository.findComponentsByCustomerIds(MATCHED_NAME_TYPES, sameDob))) {
+                    candidates.computeIfAbsent((String) row[0], id -> new MatchRecord(id, record.dateOfBirth))
+                            .setName((CustomerNameComponent.NameComponentType) row[1], (String) row[2]);
+                }
+                for (MatchRecord candidate : candidates.values()) {
+                    if (nameKey.equals(candidate.nameBlockingKey())) {
+                        double score = nameScore(record, candidate);
+                        if (score >= nameThreshold) {
+                            matches.putIfAbsent(candidate.customerId, new Match(record.customerId, candidate.customerId, score, NAME_DOB_REASON));
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    private void mergeIntoOpenClusters(String customerId, List<Match> matches) {
+        Set<String> involved = new HashSet<>();
+        involved.add(customerId);
+        matches.forEach(match -> involved.add(match.customerB));
+        List<CustomerMatchCluster> existing = clusterRepository.findOpenContainingAny(involved);
+
+        if (matches.isEmpty()) {
+            // The customer no longer matches anyone (or was deleted): take it out of its clusters
+            for (CustomerMatchCluster cluster : existing) {
+                cluster.getCustomerIds().remove(customerId);
+                if (cluster.getCustomerIds().size() < 2) {
+                    clusterRepository.delete(cluster);
+                } else {
+                    cluster.setMemberCount(cluster.getCustomerIds().size());
+                    cluster.setMemberSignature(signature(cluster.getCustomerIds()));
+                }
+            }
+            return;
+        }
+
+        ClusterCandidate merged = new ClusterCandidate();
+        matches.forEach(merged::add);
+        for (CustomerMatchCluster cluster : existing) {
+            merged.addCluster(cluster);
+        }
+        String signature = signature(merged.customerIds);
+        if (clusterRepository.existsByMemberSignatureAndStatusNot(signature, CustomerMatchCluster.ReviewStatus.OPEN)) {
+            // The group was already reviewed: withdraw only this customer's own OPEN clusters,
+            // clusters among the other members stand on their own
+            clusterRepository.deleteAll(existing.stream()
+                    .filter(cluster -> cluster.getCustomerIds().contains(customerId))
+                    .collect(Collectors.toList()));
+            return;
+        }
+
+        CustomerMatchCluster target;
+        if (existing.isEmpty()) {
+            target = new CustomerMatchCluster();
+            target.setClusterId(UUID.randomUUID().toString());
+        } else {
+            target = existing.get(0);
+            clusterRepository.deleteAll(existing.subList(1, existing.size()));
+        }
+        target.setDetectedAt(LocalDateTime.now());
+        merged.applyTo(target, signature);
+        clusterRepository.save(target);
+    }
+
+    public Page<CustomerMatchCluster> getClusters(CustomerMatchCluster.ReviewStatus status, int page, int size) {
+        return ShardContext.callOnShard(0, () -> clusterRepository.findByStatusOrderByDetectedAtDesc(status, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Record the review decision for a cluster
+     */
+    public CustomerMatchCluster reviewCluster(String clusterId, CustomerMatchCluster.ReviewStatus status, String reviewedBy) {
+        return ShardContext.callOnShard(0, () -> writeTransaction.execute(tx -> {
+            CustomerMatchCluster cluster = clusterRepository.findById(clusterId)
+                    .orElseThrow(() -> new RuntimeException("Match cluster not found with ID: " + clusterId));
+            cluster.setStatus(status);
+            cluster.setReviewedBy(reviewedBy);
+            cluster.setReviewedAt(status == CustomerMatchCluster.ReviewStatus.OPEN ? null : LocalDateTime.now());
+            return clusterRepository.save(cluster);
+        }));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("batchRunning", batchRunning.get());
+        stats.put("pendingIncremental", pendingCustomers.size());
+        stats.put("coalescedIncremental", coalescedChanges.sum());
+        stats.put("droppedIncremental", droppedChanges.sum());
+        ShardContext.callOnShard(0, () -> {
+            for (CustomerMatchCluster.ReviewStatus status : CustomerMatchCluster.ReviewStatus.values()) {
+                stats.put(status.name().toLowerCase(Locale.ROOT) + "Clusters", clusterRepository.countByStatus(status));
+            }
+            return null;
+        });
+        stats.put("lastBatchRun", lastBatchRun);
+        return stats;
+    }
+
+    private static String signature(Collection<String> customerIds) {
+        return sha256Hex(String.join(",", new TreeSet<>(customerIds)));
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        incrementalExecutor.shutdown();
+        matchPool.shutdown();
+    }
+
+    /**
+     * Matching view of one customer: birth date, first/last name and identification numbers
+     */
+    private static final class MatchRecord {
+        private final String customerId;
+        private final LocalDate dateOfBirth;
+        private String firstName = "";
+        private String lastName = "";
+        // Identification type -> number as stored
+        private final Map<String, String> identifications = new HashMap<>(2);
+
+        private MatchRecord(String customerId, LocalDate dateOfBirth) {
+            this.customerId = customerId;
+            this.dateOfBirth = dateOfBirth;
+        }
+
+        private void setName(CustomerNameComponent.NameComponentType type, String value) {
+            if (type == CustomerNameComponent.NameComponentType.FIRST_NAME) {
+                firstName = NameMatching.normalize(value);
+            } else if (type == CustomerNameComponent.NameComponentType.LAST_NAME) {
+                lastName = NameMatching.normalize(value);
+            }
+        }
+
+        private void addIdentification(String type, String item) {
+            if (item != null && !item.isBlank()) {
+                identifications.put(type, item);
+            }
+        }
+
+        private String fullName() {
+            return (firstName + " " + lastName).trim();
+        }
+
+        private String reversedName() {
+            return (lastName + " " + firstName).trim();
+        }
+
+        /**
+         * Soundex of first and last name in sorted order plus birth date, or null without all three
+         */
+        private String nameBlockingKey() {
+            if (dateOfBirth == null) {
+                return null;
+            }
+            String first = NameMatching.soundex(firstName);
+            String last = NameMatching.soundex(lastName);
+            // A single name plus birth date is too weak to block on
+            if (first.isEmpty() || last.isEmpty()) {
+                return null;
+            }
+            return first.compareTo(last) <= 0
+                    ? "N:" + first + last + ":" + dateOfBirth
+                    : "N:" + last + first + ":" + dateOfBirth;
+        }
+
+        private List<String> blockingKeys() {
+            List<String> keys = new ArrayList<>(identifications.size() + 1);
+            identifications.forEach((type, item) -> keys.add("I:" + type + ":" + identificationHash(item)));
+            String nameKey = nameBlockingKey();
+            if (nameKey != null) {
+                keys.add(nameKey);
+            }
+            return keys;
+        }
+
+        // Hash of the number without spaces, hyphens or case, so formatting differences still block together
+        private static String identificationHash(String item) {
+            return sha256Hex(item.replaceAll("[\\s-]", "").toUpperCase(Locale.ROOT)).substring(0, 32);
+        }
+    }
+
+    private static final class Match {
+        private final String customerA;
+        private final String customerB;
+        private final double score;
+        private final String reason;
+
+        private Match(String customerA, String customerB, double score, String reason) {
+            this.customerA = customerA;
+            this.customerB = customerB;
+            this.score = score;
+            this.reason = reason;
+        }
+    }
+
+    private static final class ClusterCandidate {
+        private final Set<String> customerIds = new HashSet<>();
+        private final Set<String> reasons = new TreeSet<>();
+        private double bestScore;
+
+        private void add(Match match) {
+            customerIds.add(match.customerA);
+            customerIds.add(match.customerB);
+            reasons.add(match.reason);
+            bestScore = Math.max(bestScore, match.score);
+        }
+
+        private void addCluster(CustomerMatchCluster cluster) {
+            customerIds.addAll(cluster.getCustomerIds());
+            if (cluster.getMatchReasons() != null) {
+                reasons.addAll(List.of(cluster.getMatchReasons().split(",")));
+            }
+            bestScore = Math.max(bestScore, cluster.getBestScore());
+        }
+
+        private void applyTo(CustomerMatchCluster cluster, String signature) {
+            cluster.getCustomerIds().clear();
+            cluster.getCustomerIds().addAll(customerIds);
+            cluster.setMemberCount(customerIds.size());
+            cluster.setMemberSignature(signature);
+            cluster.setMatchReasons(String.join(",", reasons));
+            cluster.setBestScore(bestScore);
+        }
+    }
+
+    private static final class BatchCounters {
+        private final LongAdder blocks = new LongAdder();
+        private final LongAdder skippedBlocks = new LongAdder();
+        private final LongAdder comparisons = new LongAdder();
+    }
+}
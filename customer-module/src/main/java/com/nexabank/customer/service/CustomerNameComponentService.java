@@ -1,8 +1,11 @@
 package com.nexabank.customer.service;
 
+import com.nexabank.customer.config.ShardRouter;
 import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.event.CustomerChangedEvent;
 import com.nexabank.customer.repository.CustomerNameComponentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +20,20 @@ public class CustomerNameComponentService {
     @Autowired
     private CustomerNameComponentRepository nameComponentRepository;
     
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     /**
      * Save a name component
      */
     public CustomerNameComponent save(CustomerNameComponent nameComponent) {
-        return nameComponentRepository.save(nameComponent);
+        String customerId = nameComponent.getCustomer().getCustomerId();
+        CustomerNameComponent saved = shardRouter.onShardFor(customerId, () -> nameComponentRepository.saveAndFlush(nameComponent));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        return saved;
     }
     
     /**
@@ -29,7 +41,7 @@ public class CustomerNameComponentService {
      */
     @Transactional(readOnly = true)
     public List<CustomerNameComponent> findByCustomerCustomerId(String customerId) {
-        return nameComponentRepository.findByCustomerCustomerId(customerId);
+        return shardRouter.onShardFor(customerId, () -> nameComponentRepository.findByCustomerCustomerId(customerId));
     }
     
     /**
@@ -37,7 +49,7 @@ public class CustomerNameComponentService {
      */
     @Transactional(readOnly = true)
     public List<CustomerNameComponent> findByNameComponentType(CustomerNameComponent.NameComponentType nameComponentType) {
-        return nameComponentRepository.findByNameComponentType(nameComponentType);
+        return shardRouter.scatterList(() -> nameComponentRepository.findByNameComponentType(nameComponentType));
     }
     
     /**
@@ -45,21 +57,26 @@ public class CustomerNameComponentService {
      */
     @Transactional(readOnly = true)
     public Optional<CustomerNameComponent> findById(String id) {
-        return nameComponentRepository.findById(id);
+        return shardRouter.scatterFirst(() -> nameComponentRepository.findById(id));
     }
     
     /**
      * Delete name components by customer ID
      */
     public void deleteByCustomerCustomerId(String customerId) {
-        nameComponentRepository.deleteByCustomerCustomerId(customerId);
+        shardRouter.onShardFor(customerId, () -> nameComponentRepository.deleteByCustomerCustomerId(customerId));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
     }
     
     /**
      * Delete name component by ID
      */
     public void deleteById(String id) {
-        nameComponentRepository.deleteById(id);
+        findById(id).ifPresent(existing -> {
+            String customerId = existing.getCustomer().getCustomerId();
+            shardRouter.onShardFor(customerId, () -> nameComponentRepository.deleteById(id));
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        });
     }
     
     /**
@@ -67,6 +84,9 @@ public class CustomerNameComponentService {
      */
     public CustomerNameComponent update(CustomerNameComponent nameComponent) {
         nameComponent.setUpdatedAt(LocalDateTime.now());
-        return nameComponentRepository.save(nameComponent);
+        String customerId = nameComponent.getCustomer().getCustomerId();
+        CustomerNameComponent saved = shardRouter.onShardFor(customerId, () -> nameComponentRepository.saveAndFlush(nameComponent));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        return saved;
     }
 }
\ No newline at end of file
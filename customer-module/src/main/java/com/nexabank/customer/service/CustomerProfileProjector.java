@@ -0,0 +1,191 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerProfileViewRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps customer_profile_view in step with the normalized customer tables. Customers
+ * changed in a transaction are collected from CustomerChangedEvents and re-projected just
+ * before that transaction commits, so the view row commits (or rolls back) together with
+ * the write. Writes outside a transaction are projected immediately.
+ */
+@Service
+@Slf4j
+public class CustomerProfileProjector {
+
+    @Autowired
+    private CustomerProfileViewRepository viewRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.profile-view.enabled:true}")
+    private boolean viewEnabled;
+
+    @Value("${app.profile-view.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.profile-view.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    @Value("${app.profile-view.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return viewEnabled;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!viewEnabled) {
+            return;
+        }
+        String customerId = event.getCustomerId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            PendingProjection pending = (PendingProjection) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                pending = new PendingProjection();
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            pending.customerIds.add(customerId);
+        } else {
+            shardRouter.onShardFor(customerId, () -> writeTransaction.executeWithoutResult(
+                    status -> viewRepository.projectCustomers(List.of(customerId))));
+        }
+    }
+
+    /**
+     * Customers changed in the current transaction, projected once each at commit
+     */
+    private class PendingProjection implements TransactionSynchronization {
+
+        private final Set<String> customerIds = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Commit runs after the writer's shard binding is gone; a transaction that has not
+            // touched the database yet would otherwise flush and project on shard 0
+            String anyCustomerId = customerIds.iterator().next();
+            shardRouter.onShardFor(anyCustomerId, () -> {
+                // The projection reads the normalized tables, so pending entity changes must be written first
+                entityManager.flush();
+                viewRepository.projectCustomers(customerIds);
+                viewRepository.deleteOrphans(customerIds);
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CustomerProfileProjector.this);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (viewEnabled && rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Regenerate the whole projection from the normalized tables. Customer ids are read in
+     * keyset pages per shard and each page is projected in its own transaction on a worker pool.
+     * At most two pages per worker are queued or running at a time, so the ids held in memory
+     * stay bounded however many customers there are.
+     */
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        int threads = Math.max(1, rebuildThreads);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Deque<CompletableFuture<Integer>> inFlight = new ArrayDeque<>();
+        long customers = 0;
+        int chunks = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int target = shard;
+                String afterId = "";
+                List<String> page;
+                do {
+                    String from = afterId;
+                    page = ShardContext.callOnShard(target,
+                            () -> viewRepository.findCustomerIdsAfter(from, PageRequest.of(0, rebuildChunkSize)));
+                    if (!page.isEmpty()) {
+                        List<String> chunk = page;
+                        afterId = chunk.get(chunk.size() - 1);
+                        customers += chunk.size();
+                        chunks++;
+                        while (inFlight.size() >= 2 * threads) {
+                            inFlight.removeFirst().join();
+                        }
+                        inFlight.addLast(CompletableFuture.supplyAsync(() -> ShardContext.callOnShard(target,
+                                () -> writeTransaction.execute(status -> viewRepository.projectCustomers(chunk))), workers));
+                    }
+                } while (page.size() == rebuildChunkSize);
+                inFlight.addLast(CompletableFuture.supplyAsync(() -> ShardContext.callOnShard(target,
+                        () -> writeTransaction.execute(status -> viewRepository.deleteAllOrphans())), workers));
+            }
+            while (!inFlight.isEmpty()) {
+                inFlight.removeFirst().join();
+            }
+        } catch (CompletionException e) {
+            log.error("Customer profile view rebuild failed", e.getCause());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            workers.shutdown();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("shards", shardRouter.getShardCount());
+        result.put("customers", customers);
+        result.put("chunks", chunks);
+        result.put("durationMs", System.currentTimeMillis() - start);
+        log.info("Customer profile view rebuilt: {}", result);
+        return result;
+    }
+}
@@ -0,0 +1,353 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.ProfileLookupResponse;
+import com.nexabank.customer.dto.UserProfileResponse;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerIdentification;
+import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.entity.CustomerProfileView;
+import com.nexabank.customer.repository.CustomerIdentificationRepository;
+import com.nexabank.customer.repository.CustomerNameComponentRepository;
+import com.nexabank.customer.repository.CustomerProfileViewRepository;
+import com.nexabank.customer.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves UserProfileResponse reads. With app.profile-view.enabled they come from the
+ * denormalized customer_profile_view (see CustomerProfileProjector); customers missing
+ * from the view are assembled from the normalized tables. Lookups by userId and email
+ * are additionally served through ProfileCache.
+ */
+@Service
+public class CustomerProfileService {
+
+    // Keys per IN list in bulk lookups
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerNameComponentService nameComponentService;
+
+    @Autowired
+    private CustomerIdentificationService identificationService;
+
+    @Autowired
+    private ProfileCache profileCache;
+
+    @Autowired
+    private CustomerProfileViewRepository viewRepository;
+
+    @Autowired
+    private CustomerProfileProjector projector;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerNameComponentRepository nameComponentRepository;
+
+    @Autowired
+    private CustomerIdentificationRepository identificationRepository;
+
+    /**
+     * Get the assembled profile by user ID (from auth module)
+     */
+    public Optional<UserProfileResponse> getProfileByUserId(String userId) {
+        return profileCache.get(ProfileCache.userIdKey(userId), () -> {
+            if (projector.isEnabled()) {
+                Optional<CustomerProfileView> view = shardRouter.onShardFor(userId, () -> viewRepository.findByUserId(userId));
+                if (view.isPresent()) {
+                    return view.map(this::toResponse);
+                }
+            }
+            return customerService.findByUserId(userId).map(this::toResponse);
+        });
+    }
+
+    /**
+     * Current version tag ("customerId-version") of the profile with this user ID, from the
+     * cache when present, otherwise from the customers row alone
+     */
+    public Optional<String> getVersionTag(String userId) {
+        Optional<UserProfileResponse> cached = profileCache.getIfPresent(ProfileCache.userIdKey(userId));
+        if (cached.isPresent()) {
+            return cached.map(response -> versionTag(response.getProfileId(), response.getVersion()));
+        }
+        return customerService.findVersionByUserId(userId)
+            .map(current -> versionTag(current.getCustomerId(), current.getVersion()));
+    }
+
+    public static String versionTag(String customerId, Long version) {
+        return customerId + "-" + version;
+    }
+
+    /**
+     * Get the assembled profile by email
+     */
+    public Optional<UserProfileResponse> getProfileByEmail(String email) {
+        return profileCache.get(ProfileCache.emailKey(email), () -> {
+            if (projector.isEnabled()) {
+                Optional<CustomerProfileView> view = shardRouter.scatterFirst(() -> viewRepository.findByEmailId(email));
+                if (view.isPresent()) {
+                    return view.map(this::toResponse);
+                }
+            }
+            return customerService.findByEmail(email).map(this::toResponse);
+        });
+    }
+
+    /**
+     * Get all profiles (for admin modules)
+     */
+    public List<UserProfileResponse> getAllProfiles() {
+        if (projector.isEnabled()) {
+            return shardRouter.scatterList(viewRepository::findAll).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        }
+        return toResponses(customerService.findAllCustomers());
+    }
+
+    /**
+     * Profiles for the given customers, in the same order, read from the view in one query
+     */
+    public List<UserProfileResponse> toResponses(List<Customer> customers) {
+        Map<String, CustomerProfileView> viewsById = new HashMap<>();
+        if (projector.isEnabled() && !customers.isEmpty()) {
+            List<String> customerIds = customers.stream().map(Customer::getCustomerId).collect(Collectors.toList());
+            for (CustomerProfileView view : shardRouter.scatterList(() -> viewRepository.findAllById(customerIds))) {
+                viewsById.put(view.getCustomerId(), view);
+            }
+        }
+        return customers.stream()
+            .map(customer -> {
+                CustomerProfileView view = viewsById.get(customer.getCustomerId());
+                return view != null ? toResponse(view) : toResponse(customer);
+            })
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Bulk lookup by user IDs and emails. Keys are queried in IN batches (user IDs on their
+     * own shard, emails on all shards), from the profile view when it is enabled; customers
+     * not in the view are assembled with their name components and identifications
+     * prefetched by one IN query each per batch. Profiles come back in request order.
+     */
+    public ProfileLookupResponse lookupProfiles(List<String> userIds, List<String> emails) {
+        Map<String, UserProfileResponse> byUserId = new HashMap<>();
+        Set<String> distinctUserIds = new LinkedHashSet<>(userIds);
+        Map<Integer, List<String>> userIdsByShard = new HashMap<>();
+        for (String userId : distinctUserIds) {
+            userIdsByShard.computeIfAbsent(shardRouter.shardFor(userId), shard -> new ArrayList<>()).add(userId);
+        }
+        for (List<String> shardUserIds : userIdsByShard.values()) {
+            for (List<String> batch : batches(shardUserIds)) {
+                List<UserProfileResponse> found = shardRouter.onShardFor(batch.get(0), () -> loadByUserIds(batch));
+                found.forEach(profile -> byUserId.put(profile.getUserId(), profile));
+            }
+        }
+
+        Map<String, UserProfileResponse> byEmail = new HashMap<>();
+        Set<String> distinctEmails = new LinkedHashSet<>();
+        emails.forEach(email -> distinctEmails.add(email.trim().toLowerCase(Locale.ROOT)));
+        for (List<String> batch : batches(new ArrayList<>(distinctEmails))) {
+            for (UserProfileResponse profile : shardRouter.scatterList(() -> loadByEmails(batch))) {
+                if (profile.getEmail() != null) {
+                    byEmail.put(profile.getEmail().toLowerCase(Locale.ROOT), profile);
+                }
+            }
+        }
+
+        Map<String, UserProfileResponse> profiles = new LinkedHashMap<>();
+        List<String> notFoundUserIds = new ArrayList<>();
+        List<String> notFoundEmails = new ArrayList<>();
+        for (String userId : distinctUserIds) {
+            UserProfileResponse profile = byUserId.get(userId);
+            if (profile == null) {
+                notFoundUserIds.add(userId);
+            } else {
+                profiles.putIfAbsent(profile.getProfileId(), profile);
+            }
+        }
+        for (String email : distinctEmails) {
+            UserProfileResponse profile = byEmail.get(email);
+            if (profile == null) {
+                notFoundEmails.add(email);
+            } else {
+                profiles.putIfAbsent(profile.getProfileId(), profile);
+            }
+        }
+        return new ProfileLookupResponse(new ArrayList<>(profiles.values()), notFoundUserIds, notFoundEmails);
+    }
+
+    private List<UserProfileResponse> loadByUserIds(List<String> userIds) {
+        return loadBatch(userIds, viewRepository::findByUserIdIn, CustomerProfileView::getUserId,
+            customerRepository::findByUserIdIn);
+    }
+
+    private List<UserProfileResponse> loadByEmails(List<String> emails) {
+        return loadBatch(emails, viewRepository::findByEmailIdIn, view -> lowerCase(view.getEmailId()),
+            customerRepository::findByEmailIdIn);
+    }
+
+    private List<UserProfileResponse> loadBatch(List<String> keys,
+                                                Function<Collection<String>, List<CustomerProfileView>> viewQuery,
+                                                Function<CustomerProfileView, String> viewKey,
+                                                Function<Collection<String>, List<Customer>> customerQuery) {
+        List<UserProfileResponse> found = new ArrayList<>();
+        Set<String> missing = new LinkedHashSet<>(keys);
+        if (projector.isEnabled()) {
+            for (CustomerProfileView view : viewQuery.apply(keys)) {
+                found.add(toResponse(view));
+                missing.remove(viewKey.apply(view));
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.addAll(assemble(customerQuery.apply(missing)));
+        }
+        return found;
+    }
+
+    /**
+     * Build responses for a batch of customers, prefetching all their children in two queries
+     */
+    private List<UserProfileResponse> assemble(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return List.of();
+        }
+        List<String> customerIds = customers.stream().map(Customer::getCustomerId).collect(Collectors.toList());
+        Map<String, List<CustomerNameComponent>> names = nameComponentRepository.findByCustomerIds(customerIds).stream()
+            .collect(Collectors.groupingBy(component -> component.getCustomer().getCustomerId()));
+        Map<String, List<CustomerIdentification>> identifications = identificationRepository.findByCustomerIds(customerIds).stream()
+            .collect(Collectors.groupingBy(identification -> identification.getCustomer().getCustomerId()));
+        return customers.stream()
+            .map(customer -> toResponse(customer,
+                names.getOrDefault(customer.getCustomerId(), List.of()),
+                identifications.getOrDefault(customer.getCustomerId(), List.of())))
+            .collect(Collectors.toList());
+    }
+
+    private static List<List<String>> batches(List<String> keys) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += LOOKUP_BATCH_SIZE) {
+            batches.add(keys.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, keys.size())));
+        }
+        return batches;
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return profileCache.stats();
+    }
+
+    /**
+     * Create UserProfileResponse from normalized Customer data, loading its names and identifications
+     */
+    public UserProfileResponse toResponse(Customer customer) {
+        return toResponse(customer,
+            nameComponentService.findByCustomerCustomerId(customer.getCustomerId()),
+            identificationService.findByCustomerCustomerId(customer.getCustomerId()));
+    }
+
+    /**
+     * Create UserProfileResponse from a denormalized view row
+     */
+    public UserProfileResponse toResponse(CustomerProfileView view) {
+        UserProfileResponse response = new UserProfileResponse();
+        response.setProfileId(view.getCustomerId());
+        response.setUserId(view.getUserId());
+        response.setEmail(view.getEmailId());
+        response.setFirstName(view.getFirstName());
+        response.setMiddleName(view.getMiddleName());
+        response.setLastName(view.getLastName());
+        response.setDateOfBirth(view.getDateOfBirth());
+        response.setGender(view.getGender());
+        response.setNationality(view.getNationality());
+        response.setPhoneNumber(view.getPhoneNumber());
+        response.setAlternatePhone(view.getAlternatePhone());
+        response.setAddressLine1(view.getAddressLine1());
+        response.setAddressLine2(view.getAddressLine2());
+        response.setCity(view.getCity());
+        response.setState(view.getState());
+        response.setCountry(view.getCountry());
+        response.setPostalCode(view.getPostalCode());
+        response.setAadharNumber(view.getAadharNumber());
+        response.setPanNumber(view.getPanNumber());
+        response.setPassportNumber(view.getPassportNumber());
+        response.setDrivingLicense(view.getDrivingLicense());
+        response.setVersion(view.getVersion());
+        return response;
+    }
+
+    public UserProfileResponse toResponse(Customer customer,
+                                          List<CustomerNameComponent> nameComponents,
+                                          List<CustomerIdentification> identifications) {
+        UserProfileResponse response = new UserProfileResponse();
+
+        // Basic customer data
+        response.setProfileId(customer.getCustomerId());
+        response.setUserId(customer.getUserId());
+        response.setEmail(customer.getEmailId()); // Note: using emailId field
+        response.setDateOfBirth(customer.getDateOfBirth());
+        response.setGender(customer.getGender());
+        response.setNationality(customer.getNationality());
+        response.setPhoneNumber(customer.getPhoneNumber());
+        response.setAlternatePhone(customer.getAlternatePhone());
+        response.setAddressLine1(customer.getAddressLine1());
+        response.setAddressLine2(customer.getAddressLine2());
+        response.setCity(customer.getCity());
+        response.setState(customer.getState());
+        response.setCountry(customer.getCountry());
+        response.setPostalCode(customer.getPostalCode());
+        response.setVersion(customer.getVersion());
+
+        // Names from the normalized name components
+        for (CustomerNameComponent nameComponent : nameComponents) {
+            if (CustomerNameComponent.NameComponentType.FIRST_NAME.equals(nameComponent.getNameComponentType())) {
+                response.setFirstName(nameComponent.getNameValue());
+            } else if (CustomerNameComponent.NameComponentType.LAST_NAME.equals(nameComponent.getNameComponentType())) {
+                response.setLastName(nameComponent.getNameValue());
+            } else if (CustomerNameComponent.NameComponentType.MIDDLE_NAME.equals(nameComponent.getNameComponentType())) {
+                response.setMiddleName(nameComponent.getNameValue());
+            }
+        }
+
+        // Identification numbers from the normalized identification documents
+        for (CustomerIdentification id : identifications) {
+            if (CustomerIdentification.AADHAR_CARD.equals(id.getIdentificationType())) {
+                response.setAadharNumber(id.getIdentificationItem());
+            } else if (CustomerIdentification.PAN_CARD.equals(id.getIdentificationType())) {
+                response.setPanNumber(id.getIdentificationItem());
+            } else if (CustomerIdentification.PASSPORT.equals(id.getIdentificationType())) {
+                response.setPassportNumber(id.getIdentificationItem());
+            } else if (CustomerIdentification.DRIVING_LICENSE.equals(id.getIdentificationType())) {
+                response.setDrivingLicense(id.getIdentificationItem());
+            }
+        }
+
+        return response;
+    }
+}
@@ -0,0 +1,195 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerNameComponentRepository;
+import com.nexabank.customer.util.InvertedIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranked customer name search backed by an in-memory inverted index.
+ * The index is built from the database when the application is ready and kept current
+ * from CustomerChangedEvents. Until it is built, or if it outgrows its memory budget,
+ * searches fall back to the LIKE query in CustomerService.
+ */
+@Service
+@Slf4j
+public class CustomerSearchService {
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerNameComponentService nameComponentService;
+
+    @Autowired
+    private CustomerNameComponentRepository nameComponentRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean indexEnabled;
+
+    @Value("${app.search.index.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    private volatile InvertedIndex index;
+    private volatile boolean rebuilding;
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexOnStartup() {
+        if (indexEnabled) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Build a fresh index from the database and swap it in
+     */
+    public synchronized void rebuildIndex() {
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        try {
+            InvertedIndex fresh = new InvertedIndex(maxMemoryMb * 1024 * 1024);
+            shardRouter.scatter(() -> loadShardInto(fresh));
+            if (fresh.isOverBudget()) {
+                log.warn("Customer search index exceeds {} MB budget, name search stays on the database", maxMemoryMb);
+                index = null;
+                return;
+            }
+            index = fresh;
+            log.info("Customer search index built: {} customers, ~{} KB in {} ms",
+                    fresh.size(), fresh.getEstimatedBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build customer search index, name search stays on the database", e);
+            index = null;
+        } finally {
+            rebuilding = false;
+            // Apply writes that committed while the snapshot was being read
+            for (String customerId : new ArrayList<>(changedDuringRebuild)) {
+                changedDuringRebuild.remove(customerId);
+                reindexCustomer(customerId);
+            }
+        }
+    }
+
+    private Integer loadShardInto(InvertedIndex target) {
+        // Names come in customer order, so each customer is complete once the next one starts
+        String currentCustomerId = null;
+        List<String> currentNames = new ArrayList<>();
+        int customers = 0;
+        String afterCustomerId = "";
+        String afterId = "";
+        List<Object[]> page;
+        do {
+            page = nameComponentRepository.findNameValuesAfter(afterCustomerId, afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                afterCustomerId = (String) row[1];
+                if (!afterCustomerId.equals(currentCustomerId)) {
+                    if (currentCustomerId != null && !target.put(currentCustomerId, currentNames)) {
+                        return customers;
+                    }
+                    customers++;
+                    currentCustomerId = afterCustomerId;
+                    currentNames = new ArrayList<>();
+                }
+                currentNames.add((String) row[2]);
+            }
+            // Stop reading as soon as any shard has pushed the index past its budget
+            if (target.isOverBudget()) {
+                return customers;
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+
+        if (currentCustomerId != null) {
+            target.put(currentCustomerId, currentNames);
+        }
+        return customers;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getCustomerId());
+        }
+        reindexCustomer(event.getCustomerId());
+    }
+
+    private void reindexCustomer(String customerId) {
+        InvertedIndex current = index;
+        if (current == null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (CustomerNameComponent component : nameComponentService.findByCustomerCustomerId(customerId)) {
+            names.add(component.getNameValue());
+        }
+        if (!current.put(customerId, names)) {
+            log.warn("Customer search index exceeds {} MB budget, name search falls back to the database", maxMemoryMb);
+            index = null;
+        }
+    }
+
+    /**
+     * One page of customers whose names match every word of the query, best matches first
+     */
+    @Transactional(readOnly = true)
+    public SearchPage search(String query, int page, int size) {
+        InvertedIndex current = index;
+        if (current == null) {
+            List<Customer> matches = customerService.searchByName(query);
+            return new SearchPage(slice(matches, page, size), matches.size());
+        }
+        List<String> rankedIds = current.search(query);
+        return new SearchPage(customerService.findAllByIds(slice(rankedIds, page, size)), rankedIds.size());
+    }
+
+    public boolean isIndexReady() {
+        return index != null;
+    }
+
+    private static <T> List<T> slice(List<T> items, int page, int size) {
+        int from = (int) Math.min((long) page * size, items.size());
+        int to = Math.min(from + size, items.size());
+        return items.subList(from, to);
+    }
+
+    /**
+     * Customers on the requested page plus the total number of matches
+     */
+    public static class SearchPage {
+        private final List<Customer> customers;
+        private final long totalResults;
+
+        public SearchPage(List<Customer> customers, long totalResults) {
+            this.customers = customers;
+            this.totalResults = totalResults;
+        }
+
+        public List<Customer> getCustomers() { return customers; }
+        public long getTotalResults() { return totalResults; }
+    }
+}
@@ -1,18 +1,43 @@
 package com.nexabank.customer.service;
 
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.CreateUserProfileRequest;
 import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerIdentification;
 import com.nexabank.customer.entity.CustomerNameComponent;
 import com.nexabank.customer.entity.enums.CrudValue;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerIdentificationRepository;
 import com.nexabank.customer.repository.CustomerRepository;
 import com.nexabank.customer.repository.CustomerNameComponentRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Service
 @Transactional
@@ -24,18 +49,149 @@ public class CustomerService {
     @Autowired
     private CustomerNameComponentRepository nameComponentRepository;
     
+    @Autowired
+    private CustomerIdentificationRepository identificationRepository;
+    
+    @Autowired
+    private ShardRouter shardRouter;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CustomerUniquenessFilter uniquenessFilter;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate shardTransaction;
+    
+    @PostConstruct
+    public void init() {
+        shardTransaction = new TransactionTemplate(transactionManager);
+    }
+    
     /**
      * Create a new customer profile
      */
     public Customer createCustomer(Customer customer) {
-        // Set audit fields
+        prepareNewCustomer(customer);
+        // The id is assigned in memory, so a plain save would leave the INSERT to the commit flush,
+        // after the shard binding is gone; flushing here fixes the transaction to the owning shard
+        Customer savedCustomer = shardRouter.onShardFor(customer.getUserId(), () -> customerRepository.saveAndFlush(customer));
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getCustomerId()));
+        return savedCustomer;
+    }
+    
+    /**
+     * Create a full customer profile (customer, name components and identification documents)
+     * as one aggregate, persisted through the cascade in a single flush on the owning shard
+     */
+    public Customer createCustomerProfile(CreateUserProfileRequest request) {
+        // Children are cascaded from the customer, so this is one save and one batched flush
+        return createCustomer(newCustomerProfile(request));
+    }
+    
+    /**
+     * Create many profiles with one transaction per shard: each shard's customers and their
+     * children are saved together and go out as JDBC batches in a single flush. If a shard's
+     * transaction fails (e.g. a userId created concurrently), its profiles are retried one at a
+     * time so only the offending ones fail. Returns the error message per failed userId.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, String> createCustomerProfiles(List<CreateUserProfileRequest> requests) {
+        Map<Integer, List<CreateUserProfileRequest>> requestsByShard = new TreeMap<>();
+        for (CreateUserProfileRequest request : requests) {
+            requestsByShard.computeIfAbsent(shardRouter.shardFor(request.getUserId()), shard -> new ArrayList<>()).add(request);
+        }
+        Map<String, String> errors = new HashMap<>();
+        for (Map.Entry<Integer, List<CreateUserProfileRequest>> group : requestsByShard.entrySet()) {
+            try {
+                insertProfilesOnShard(group.getKey(), group.getValue());
+            } catch (RuntimeException e) {
+                for (CreateUserProfileRequest request : group.getValue()) {
+                    try {
+                        insertProfilesOnShard(group.getKey(), List.of(request));
+                    } catch (RuntimeException single) {
+                        errors.put(request.getUserId(), single.getMessage());
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+    
+    private void insertProfilesOnShard(int shard, List<CreateUserProfileRequest> requests) {
+        ShardContext.callOnShard(shard, () -> shardTransaction.execute(status -> {
+            List<Customer> customers = new ArrayList<>(requests.size());
+            for (CreateUserProfileRequest request : requests) {
+                Customer customer = newCustomerProfile(request);
+                prepareNewCustomer(customer);
+                customers.add(customer);
+            }
+            customerRepository.saveAll(customers);
+            customerRepository.flush();
+            customers.forEach(customer -> eventPublisher.publishEvent(new CustomerChangedEvent(customer.getCustomerId())));
+            return null;
+        }));
+    }
+    
+    // Audit fields and uniqueness filter entries for a customer about to be inserted
+    private void prepareNewCustomer(Customer customer) {
         customer.setCrudValue(CrudValue.CREATE);
         customer.setUserId(customer.getUserId()); // Use customer's userId for audit
         customer.setUuidReference(UUID.randomUUID());
+        uniquenessFilter.recordCustomer(customer);
+    }
+    
+    private Customer newCustomerProfile(CreateUserProfileRequest request) {
+        Customer customer = new Customer();
+        customer.setUserId(request.getUserId());
+        customer.setEmailId(request.getEmail());
+        customer.setDateOfBirth(request.getDateOfBirth());
+        customer.setGender(request.getGender());
+        customer.setNationality(request.getNationality());
+        customer.setPhoneNumber(request.getPhoneNumber());
+        customer.setAlternatePhone(request.getAlternatePhone());
+        customer.setAddressLine1(request.getAddressLine1());
+        customer.setAddressLine2(request.getAddressLine2());
+        customer.setCity(request.getCity());
+        customer.setState(request.getState());
+        customer.setCountry(request.getCountry());
+        customer.setPostalCode(request.getPostalCode());
         
-        // Generate customer number if not provided - now using customerId
+        Set<CustomerNameComponent> nameComponents = new LinkedHashSet<>();
+        addNameComponent(customer, nameComponents, CustomerNameComponent.NameComponentType.FIRST_NAME, request.getFirstName());
+        addNameComponent(customer, nameComponents, CustomerNameComponent.NameComponentType.LAST_NAME, request.getLastName());
+        addNameComponent(customer, nameComponents, CustomerNameComponent.NameComponentType.MIDDLE_NAME, request.getMiddleName());
+        customer.setNameComponents(nameComponents);
         
-        return customerRepository.save(customer);
+        Set<CustomerIdentification> identifications = new LinkedHashSet<>();
+        addIdentification(customer, identifications, CustomerIdentification.AADHAR_CARD, request.getAadharNumber());
+        addIdentification(customer, identifications, CustomerIdentification.PAN_CARD, request.getPanNumber());
+        addIdentification(customer, identifications, CustomerIdentification.PASSPORT, request.getPassportNumber());
+        addIdentification(customer, identifications, CustomerIdentification.DRIVING_LICENSE, request.getDrivingLicense());
+        customer.setIdentificationDocuments(identifications);
+        identifications.forEach(uniquenessFilter::recordIdentification);
+        return customer;
+    }
+    
+    /**
+     * Next page of userIds after afterId in userId order, across all shards
+     */
+    public List<String> getUserIdsAfter(String afterId, int limit) {
+        List<String> userIds = new ArrayList<>(shardRouter.scatterList(() ->
+            customerRepository.findUserIdsAfter(afterId, PageRequest.of(0, limit))));
+        // Every shard returned its own first page, so the first limit of the merged pages are the global page
+        Collections.sort(userIds);
+        return userIds.size() > limit ? new ArrayList<>(userIds.subList(0, limit)) : userIds;
+    }
+    
+    /**
+     * Which of the given userIds already have a profile
+     */
+    public Set<String> findExistingUserIds(Collection<String> userIds) {
+        return new HashSet<>(shardRouter.scatterList(() -> customerRepository.findExistingUserIds(userIds)));
     }
     
     /**
@@ -43,38 +199,57 @@ public class CustomerService {
      */
     public Customer createCustomerFromRegistration(String userId, String firstName, String lastName, 
                                                  String emailId, String phoneNumber) {
-        Customer customer = new Customer();
-        customer.setUserId(userId);
-        customer.setEmailId(emailId);
-        customer.setPhoneNumber(phoneNumber);
-        customer.setCustomerType(Customer.CustomerType.INDIVIDUAL);
-        customer.setCustomerStatus(Customer.CustomerStatus.ACTIVE);
-        customer.setKycStatus(Customer.KycStatus.PENDING);
+        return shardRouter.onShardFor(userId, () -> {
+            Customer customer = new Customer();
+            customer.setUserId(userId);
+            customer.setEmailId(emailId);
+            customer.setPhoneNumber(phoneNumber);
+            customer.setCustomerType(Customer.CustomerType.INDIVIDUAL);
+            customer.setCustomerStatus(Customer.CustomerStatus.ACTIVE);
+            customer.setKycStatus(Customer.KycStatus.PENDING);
         
-        // Save customer first to get the ID
-        Customer savedCustomer = createCustomer(customer);
-        
-        // Create name components for the saved customer
-        if (firstName != null && !firstName.trim().isEmpty()) {
-            createNameComponent(savedCustomer, CustomerNameComponent.NameComponentType.FIRST_NAME, firstName.trim());
-        }
-        if (lastName != null && !lastName.trim().isEmpty()) {
-            createNameComponent(savedCustomer, CustomerNameComponent.NameComponentType.LAST_NAME, lastName.trim());
-        }
+            // Name components are cascaded with the customer
+            Set<CustomerNameComponent> nameComponents = new LinkedHashSet<>();
+            addNameComponent(customer, nameComponents, CustomerNameComponent.NameComponentType.FIRST_NAME,
+                firstName != null ? firstName.trim() : null);
+            addNameComponent(customer, nameComponents, CustomerNameComponent.NameComponentType.LAST_NAME,
+                lastName != null ? lastName.trim() : null);
+            customer.setNameComponents(nameComponents);
         
-        return savedCustomer;
+            return createCustomer(customer);
+        });
     }
     
     /**
-     * Helper method to create name components
+     * Helper method to attach a name component to a new customer
      */
-    private void createNameComponent(Customer customer, CustomerNameComponent.NameComponentType nameType, String nameValue) {
+    private void addNameComponent(Customer customer, Set<CustomerNameComponent> nameComponents,
+                                  CustomerNameComponent.NameComponentType nameType, String nameValue) {
+        if (nameValue == null || nameValue.isEmpty()) {
+            return;
+        }
         CustomerNameComponent nameComponent = new CustomerNameComponent();
         nameComponent.setCustomer(customer);
         nameComponent.setNameComponentType(nameType);
         nameComponent.setNameValue(nameValue);
         nameComponent.setEffectiveDate(LocalDateTime.now());
-        nameComponentRepository.save(nameComponent);
+        nameComponents.add(nameComponent);
+    }
+    
+    /**
+     * Helper method to attach an identification document to a new customer
+     */
+    private void addIdentification(Customer customer, Set<CustomerIdentification> identifications,
+                                   String identificationType, String identificationItem) {
+        if (identificationItem == null) {
+            return;
+        }
+        CustomerIdentification identification = new CustomerIdentification();
+        identification.setCustomer(customer);
+        identification.setIdentificationType(identificationType);
+        identification.setIdentificationItem(identificationItem);
+        identification.setEffectiveDate(LocalDateTime.now());
+        identifications.add(identification);
     }
     
     /**
@@ -83,7 +258,109 @@ public class CustomerService {
     public Customer updateCustomer(Customer customer) {
         customer.setCrudValue(CrudValue.UPDATE);
         customer.setUuidReference(UUID.randomUUID());
-        return customerRepository.save(customer);
+        uniquenessFilter.recordCustomer(customer);
+        Customer savedCustomer = shardRouter.onShardFor(customer.getUserId(), () -> customerRepository.saveAndFlush(customer));
+        eventPublisher.publishEvent(new CustomerChangedEvent(savedCustomer.getCustomerId()));
+        return savedCustomer;
+    }
+    
+    /**
+     * Apply the given fields of a profile update to the customer with this userId.
+     * Only columns whose value actually changes are written (the entity uses dynamic
+     * update), name components are updated in place, added or removed individually, and
+     * when nothing differs no UPDATE is issued at all.
+     *
+     * @param values new values; only the properties named in {@code fields} are applied
+     * @param fields request property names to apply, e.g. "email", "city", "firstName"
+     * @param precondition If-Match check against the row as read in this transaction, or null for an
+     *                     unconditional update
+     */
+    public Customer updateCustomerProfile(String userId, CreateUserProfileRequest values, Set<String> fields,
+                                          Predicate<Customer> precondition) {
+        return shardRouter.onShardFor(userId, () -> {
+            Customer customer = customerRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Customer profile not found for userId: " + userId));
+            checkPrecondition(customer, precondition);
+            
+            boolean changed = false;
+            changed |= applyField(fields, "email", customer.getEmailId(), values.getEmail(), customer::setEmailId);
+            changed |= applyField(fields, "dateOfBirth", customer.getDateOfBirth(), values.getDateOfBirth(), customer::setDateOfBirth);
+            changed |= applyField(fields, "gender", customer.getGender(), values.getGender(), customer::setGender);
+            changed |= applyField(fields, "nationality", customer.getNationality(), values.getNationality(), customer::setNationality);
+            changed |= applyField(fields, "phoneNumber", customer.getPhoneNumber(), values.getPhoneNumber(), customer::setPhoneNumber);
+            changed |= applyField(fields, "alternatePhone", customer.getAlternatePhone(), values.getAlternatePhone(), customer::setAlternatePhone);
+            changed |= applyField(fields, "addressLine1", customer.getAddressLine1(), values.getAddressLine1(), customer::setAddressLine1);
+            changed |= applyField(fields, "addressLine2", customer.getAddressLine2(), values.getAddressLine2(), customer::setAddressLine2);
+            changed |= applyField(fields, "city", customer.getCity(), values.getCity(), customer::setCity);
+            changed |= applyField(fields, "state", customer.getState(), values.getState(), customer::setState);
+            changed |= applyField(fields, "country", customer.getCountry(), values.getCountry(), customer::setCountry);
+            changed |= applyField(fields, "postalCode", customer.getPostalCode(), values.getPostalCode(), customer::setPostalCode);
+            
+            if (customer.getNameComponents() == null) {
+                customer.setNameComponents(new LinkedHashSet<>());
+            }
+            if (fields.contains("firstName")) {
+                changed |= upsertNameComponent(customer, CustomerNameComponent.NameComponentType.FIRST_NAME, values.getFirstName());
+            }
+            if (fields.contains("middleName")) {
+                changed |= upsertNameComponent(customer, CustomerNameComponent.NameComponentType.MIDDLE_NAME, values.getMiddleName());
+            }
+            if (fields.contains("lastName")) {
+                changed |= upsertNameComponent(customer, CustomerNameComponent.NameComponentType.LAST_NAME, values.getLastName());
+            }
+            
+            if (!changed) {
+                return customer;
+            }
+            return updateCustomer(customer);
+        });
+    }
+    
+    // Checked on the row loaded by the write transaction itself, i.e. on the primary, never a replica
+    private static void checkPrecondition(Customer customer, Predicate<Customer> precondition) {
+        if (precondition != null && !precondition.test(customer)) {
+            throw new OptimisticLockingFailureException("Customer profile " + customer.getCustomerId()
+                + " has changed, it is at version " + customer.getVersion());
+        }
+    }
+    
+    private static <T> boolean applyField(Set<String> fields, String field, T currentValue, T newValue,
+                                          Consumer<T> setter) {
+        if (!fields.contains(field) || Objects.equals(currentValue, newValue)) {
+            return false;
+        }
+        setter.accept(newValue);
+        return true;
+    }
+    
+    /**
+     * Bring one name component in line with the requested value; a null or blank value removes it
+     */
+    private boolean upsertNameComponent(Customer customer, CustomerNameComponent.NameComponentType nameType, String nameValue) {
+        String value = nameValue != null && !nameValue.isBlank() ? nameValue.trim() : null;
+        CustomerNameComponent existing = customer.getNameComponents().stream()
+            .filter(component -> component.getNameComponentType() == nameType)
+            .findFirst()
+            .orElse(null);
+        
+        if (existing == null) {
+            if (value == null) {
+                return false;
+            }
+            addNameComponent(customer, customer.getNameComponents(), nameType, value);
+            return true;
+        }
+        if (value == null) {
+            customer.getNameComponents().remove(existing);
+            nameComponentRepository.delete(existing);
+            return true;
+        }
+        if (value.equals(existing.getNameValue())) {
+            return false;
+        }
+        existing.setNameValue(value);
+        existing.setEffectiveDate(LocalDateTime.now());
+        return true;
     }
     
     /**
@@ -91,7 +368,33 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public Optional<Customer> findById(String customerId) {
-        return customerRepository.findById(customerId);
+        return shardRouter.onShardFor(customerId, () -> customerRepository.findById(customerId));
+    }
+    
+    /**
+     * Find customers by IDs, returned in the order of the given IDs
+     */
+    @Transactional(readOnly = true)
+    public List<Customer> findAllByIds(List<String> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Customer> customersById = new HashMap<>();
+        for (Customer customer : shardRouter.scatterList(() -> customerRepository.findAllById(customerIds))) {
+            customersById.put(customer.getCustomerId(), customer);
+        }
+        return customerIds.stream()
+            .map(customersById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    /**
+     * Current customerId and version for a user ID, without loading the profile
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerRepository.CustomerVersion> findVersionByUserId(String userId) {
+        return shardRouter.onShardFor(userId, () -> customerRepository.findVersionByUserId(userId));
     }
     
     /**
@@ -99,7 +402,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public Optional<Customer> findByUserId(String userId) {
-        return customerRepository.findByUserId(userId);
+        return shardRouter.onShardFor(userId, () -> customerRepository.findByUserId(userId));
     }
     
     /**
@@ -107,7 +410,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public Optional<Customer> findByEmail(String emailId) {
-        return customerRepository.findByEmailId(emailId);
+        return shardRouter.scatterFirst(() -> customerRepository.findByEmailId(emailId));
     }
     
     /**
@@ -115,7 +418,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public List<Customer> findAllCustomers() {
-        return customerRepository.findAll();
+        return shardRouter.scatterList(customerRepository::findAll);
     }
     
     /**
@@ -123,7 +426,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public List<Customer> findActiveCustomers() {
-        return customerRepository.findAllActiveCustomers();
+        return shardRouter.scatterList(customerRepository::findAllActiveCustomers);
     }
     
     /**
@@ -131,7 +434,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public List<Customer> findByStatus(Customer.CustomerStatus status) {
-        return customerRepository.findByCustomerStatus(status);
+        return shardRouter.scatterList(() -> customerRepository.findByCustomerStatus(status));
     }
     
     /**
@@ -139,7 +442,7 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public List<Customer> findCustomersRequiringKyc() {
-        return customerRepository.findCustomersRequiringKyc();
+        return shardRouter.scatterList(customerRepository::findCustomersRequiringKyc);
     }
     
     /**
@@ -147,36 +450,67 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public List<Customer> searchByName(String name) {
-        return customerRepository.findByNameContainingIgnoreCase(name);
+        return shardRouter.scatterList(() -> customerRepository.findByNameContainingIgnoreCase(name));
     }
     
     /**
      * Update customer KYC status
      */
     public Customer updateKycStatus(String customerId, Customer.KycStatus kycStatus) {
-        Optional<Customer> customerOpt = customerRepository.findById(customerId);
-        if (customerOpt.isPresent()) {
-            Customer customer = customerOpt.get();
-            customer.setKycStatus(kycStatus);
-            if (kycStatus == Customer.KycStatus.COMPLETED) {
-                customer.setKycCompletionDate(LocalDateTime.now());
+        return updateKycStatus(customerId, kycStatus, null);
+    }
+    
+    /**
+     * Update customer KYC status, recording the reason (e.g. why verification was rejected)
+     */
+    public Customer updateKycStatus(String customerId, Customer.KycStatus kycStatus, String reason) {
+        return shardRouter.onShardFor(customerId, () -> {
+            Optional<Customer> customerOpt = customerRepository.findById(customerId);
+            if (customerOpt.isPresent()) {
+                Customer customer = customerOpt.get();
+                customer.setKycStatus(kycStatus);
+                customer.setKycLastError(reason);
+                customer.setKycNextAttemptAt(null);
+                if (kycStatus == Customer.KycStatus.COMPLETED) {
+                    customer.setKycCompletionDate(LocalDateTime.now());
+                }
+                return updateCustomer(customer);
             }
-            return updateCustomer(customer);
-        }
-        throw new RuntimeException("Customer not found with ID: " + customerId);
+            throw new RuntimeException("Customer not found with ID: " + customerId);
+        });
+    }
+    
+    /**
+     * Record the outcome of a KYC queue claim (COMPLETED, REJECTED, or PENDING with nextAttemptAt
+     * for a retry) and release the claim. False when the claim is no longer held by claimedBy and
+     * claimToken, e.g. it was taken over after its lease expired; nothing is written then.
+     */
+    public boolean recordKycOutcome(String customerId, String claimedBy, String claimToken,
+                                    Customer.KycStatus kycStatus, String error, LocalDateTime nextAttemptAt) {
+        return shardRouter.onShardFor(customerId, () -> {
+            int updated = customerRepository.recordKycOutcome(customerId, claimedBy, claimToken,
+                kycStatus.name(), error, nextAttemptAt);
+            if (updated == 0) {
+                return false;
+            }
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+            return true;
+        });
     }
     
     /**
      * Update customer status
      */
     public Customer updateCustomerStatus(String customerId, Customer.CustomerStatus status) {
-        Optional<Customer> customerOpt = customerRepository.findById(customerId);
-        if (customerOpt.isPresent()) {
-            Customer customer = customerOpt.get();
-            customer.setCustomerStatus(status);
-            return updateCustomer(customer);
-        }
-        throw new RuntimeException("Customer not found with ID: " + customerId);
+        return shardRouter.onShardFor(customerId, () -> {
+            Optional<Customer> customerOpt = customerRepository.findById(customerId);
+            if (customerOpt.isPresent()) {
+                Customer customer = customerOpt.get();
+                customer.setCustomerStatus(status);
+                return updateCustomer(customer);
+            }
+            throw new RuntimeException("Customer not found with ID: " + customerId);
+        });
     }
     
     /**
@@ -184,7 +518,10 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public boolean existsByUserId(String userId) {
-        return customerRepository.existsByUserId(userId);
+        if (!uniquenessFilter.mightContainUserId(userId)) {
+            return false;
+        }
+        return shardRouter.onShardFor(userId, () -> customerRepository.existsByUserId(userId));
     }
     
     /**
@@ -192,7 +529,10 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public boolean existsByEmail(String emailId) {
-        return customerRepository.existsByEmailId(emailId);
+        if (!uniquenessFilter.mightContainEmail(emailId)) {
+            return false;
+        }
+        return shardRouter.scatterAny(() -> customerRepository.existsByEmailId(emailId));
     }
     
     /**
@@ -200,7 +540,10 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public boolean existsByAadhar(String aadharNumber) {
-        return customerRepository.existsByAadharNumber(aadharNumber);
+        if (!uniquenessFilter.mightContainAadhar(aadharNumber)) {
+            return false;
+        }
+        return shardRouter.scatterAny(() -> customerRepository.existsByAadharNumber(aadharNumber));
     }
     
     /**
@@ -208,7 +551,30 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public boolean existsByPan(String panNumber) {
-        return customerRepository.existsByPanNumber(panNumber);
+        if (!uniquenessFilter.mightContainPan(panNumber)) {
+            return false;
+        }
+        return shardRouter.scatterAny(() -> customerRepository.existsByPanNumber(panNumber));
+    }
+    
+    /**
+     * Delete a customer's name components and identifications and close the customer,
+     * in one transaction
+     *
+     * @param precondition If-Match check against the row as read in this transaction, or null for an
+     *                      unconditional delete
+     */
+    public void deleteCustomerProfile(String userId, Predicate<Customer> precondition) {
+        shardRouter.onShardFor(userId, () -> {
+            Customer customer = customerRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Customer profile not found for userId: " + userId));
+            checkPrecondition(customer, precondition);
+            
+            nameComponentRepository.deleteByCustomerCustomerId(customer.getCustomerId());
+            identificationRepository.deleteByCustomerCustomerId(customer.getCustomerId());
+            customer.setCustomerStatus(Customer.CustomerStatus.CLOSED);
+            updateCustomer(customer);
+        });
     }
     
     /**
@@ -223,11 +589,23 @@ public class CustomerService {
      */
     @Transactional(readOnly = true)
     public CustomerStats getCustomerStats() {
+        // Each shard counts its own customers; the totals are summed here
+        CustomerStats stats = new CustomerStats();
+        for (CustomerStats shardStats : shardRouter.scatter(this::countShardStats)) {
+            stats.setTotalCustomers(stats.getTotalCustomers() + shardStats.getTotalCustomers());
+            stats.setActiveCustomers(stats.getActiveCustomers() + shardStats.getActiveCustomers());
+            stats.setInactiveCustomers(stats.getInactiveCustomers() + shardStats.getInactiveCustomers());
+            stats.setPendingKyc(stats.getPendingKyc() + shardStats.getPendingKyc());
+        }
+        return stats;
+    }
+    
+    private CustomerStats countShardStats() {
         CustomerStats stats = new CustomerStats();
         stats.setTotalCustomers(customerRepository.count());
         stats.setActiveCustomers(customerRepository.countByCustomerStatus(Customer.CustomerStatus.ACTIVE));
         stats.setInactiveCustomers(customerRepository.countByCustomerStatus(Customer.CustomerStatus.INACTIVE));
-        stats.setPendingKyc(customerRepository.findCustomersRequiringKyc().size());
+        stats.setPendingKyc(customerRepository.countCustomersRequiringKyc());
         return stats;
     }
     
@@ -0,0 +1,276 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.ProfileSuggestion;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import com.nexabank.customer.repository.CustomerNameComponentRepository;
+import com.nexabank.customer.repository.CustomerRepository;
+import com.nexabank.customer.util.InvertedIndex;
+import com.nexabank.customer.util.RadixTrie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Type-ahead suggestions for the admin customer search box. First and last names,
+ * emails and E.164 phone numbers are kept in a radix trie, so a keystroke is a
+ * prefix walk in memory rather than a LIKE scan. Built when the application is ready
+ * and kept current from CustomerChangedEvents; a customer that is closed is dropped.
+ */
+@Service
+@Slf4j
+public class CustomerSuggestService {
+
+    private static final int REBUILD_PAGE_SIZE = 2000;
+
+    public static final String FIELD_NAME = "NAME";
+    public static final String FIELD_EMAIL = "EMAIL";
+    public static final String FIELD_PHONE = "PHONE";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerNameComponentRepository nameComponentRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerNameComponentService nameComponentService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${app.suggest.enabled:true}")
+    private boolean suggestEnabled;
+
+    @Value("${app.suggest.default-country-code:91}")
+    private String defaultCountryCode;
+
+    private final RadixTrie<Match> trie = new RadixTrie<>();
+    private final Map<String, Card> cards = new ConcurrentHashMap<>();
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!suggestEnabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        try {
+            int indexed = shardRouter.scatter(this::loadShard).stream().mapToInt(Integer::intValue).sum();
+            log.info("Customer suggest trie built: {} customers, {} keys in {} ms",
+                    indexed, trie.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to build customer suggest trie", e);
+        } finally {
+            rebuilding = false;
+            for (String customerId : new ArrayList<>(changedDuringRebuild)) {
+                changedDuringRebuild.remove(customerId);
+                reloadCustomer(customerId);
+            }
+        }
+    }
+
+    private Integer loadShard() {
+        int indexed = 0;
+        String afterId = "";
+        List<Customer> page;
+        do {
+            page = customerRepository.findPageAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Customer> suggestable = page.stream().filter(CustomerSuggestService::isSuggestable).toList();
+            Map<String, List<CustomerNameComponent>> namesByCustomer = suggestable.isEmpty() ? Map.of()
+                    : nameComponentRepository
+                    .findByCustomerIds(suggestable.stream().map(Customer::getCustomerId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(component -> component.getCustomer().getCustomerId()));
+            for (Customer customer : suggestable) {
+                index(customer, namesByCustomer.getOrDefault(customer.getCustomerId(), List.of()));
+                indexed++;
+            }
+            afterId = page.get(page.size() - 1).getCustomerId();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        return indexed;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!suggestEnabled) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getCustomerId());
+        }
+        reloadCustomer(event.getCustomerId());
+    }
+
+    private void reloadCustomer(String customerId) {
+        customerService.findById(customerId).filter(CustomerSuggestService::isSuggestable).ifPresentOrElse(
+                customer -> index(customer, nameComponentService.findByCustomerCustomerId(customerId)),
+                () -> unindex(customerId));
+    }
+
+    // Closed customers are soft-deleted and must not be offered to the search box
+    private static boolean isSuggestable(Customer customer) {
+        return customer.getCustomerStatus() != Customer.CustomerStatus.CLOSED;
+    }
+
+    /**
+     * Top matches for what has been typed so far, one suggestion per customer
+     */
+    public List<ProfileSuggestion> suggest(String query, int limit) {
+        Map<String, ProfileSuggestion> suggestions = new LinkedHashMap<>();
+        for (String key : queryKeys(query)) {
+            // Fetch a few extra matches since one customer can match on several keys
+            for (Match match : trie.findByPrefix(key, limit * 3)) {
+                if (suggestions.size() == limit) {
+                    break;
+                }
+                Card card = cards.get(match.customerId());
+                if (card != null && !suggestions.containsKey(match.customerId())) {
+                    suggestions.put(match.customerId(), new ProfileSuggestion(match.customerId(), card.userId(),
+                            match.field(), card.displayName(), card.email(), card.phoneNumber()));
+                }
+            }
+        }
+        return new ArrayList<>(suggestions.values());
+    }
+
+    private synchronized void index(Customer customer, List<CustomerNameComponent> nameComponents) {
+        String firstName = null;
+        String lastName = null;
+        for (CustomerNameComponent component : nameComponents) {
+            if (component.getNameComponentType() == CustomerNameComponent.NameComponentType.FIRST_NAME) {
+                firstName = component.getNameValue();
+            } else if (component.getNameComponentType() == CustomerNameComponent.NameComponentType.LAST_NAME) {
+                lastName = component.getNameValue();
+            }
+        }
+
+        Map<String, String> keys = new HashMap<>();
+        List<String> firstTokens = InvertedIndex.tokenize(firstName);
+        List<String> lastTokens = InvertedIndex.tokenize(lastName);
+        firstTokens.forEach(token -> keys.put(token, FIELD_NAME));
+        lastTokens.forEach(token -> keys.put(token, FIELD_NAME));
+        if (!firstTokens.isEmpty() && !lastTokens.isEmpty()) {
+            keys.put(String.join(" ", firstTokens) + " " + String.join(" ", lastTokens), FIELD_NAME);
+        }
+        if (customer.getEmailId() != null && !customer.getEmailId().isBlank()) {
+            // The full address also serves prefixes of the local part
+            keys.put(customer.getEmailId().trim().toLowerCase(Locale.ROOT), FIELD_EMAIL);
+        }
+        String e164 = toE164(customer.getPhoneNumber());
+        if (e164 != null) {
+            keys.put(e164, FIELD_PHONE);
+            String countryPrefix = "+" + defaultCountryCode;
+            if (e164.startsWith(countryPrefix)) {
+                keys.put(e164.substring(countryPrefix.length()), FIELD_PHONE);
+            }
+        }
+
+        String displayName = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        Card card = new Card(customer.getUserId(), displayName, customer.getEmailId(), e164, keys);
+        Card previous = cards.put(customer.getCustomerId(), card);
+        if (previous != null) {
+            previous.keys().forEach((key, field) -> trie.remove(key, new Match(customer.getCustomerId(), field)));
+        }
+        keys.forEach((key, field) -> trie.put(key, new Match(customer.getCustomerId(), field)));
+    }
+
+    private synchronized void unindex(String customerId) {
+        Card previous = cards.remove(customerId);
+        if (previous != null) {
+            previous.keys().forEach((key, field) -> trie.remove(key, new Match(customerId, field)));
+        }
+    }
+
+    /**
+     * Trie keys to look up for a query: phone digits, or the raw and name-normalized text
+     */
+    private Set<String> queryKeys(String query) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (query == null || query.isBlank()) {
+            return keys;
+        }
+        String trimmed = query.trim();
+        if (trimmed.matches("\\+?[\\d\\s()-]+")) {
+            String digits = trimmed.replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                if (!trimmed.startsWith("+")) {
+                    keys.add(digits);
+                }
+                keys.add("+" + digits);
+            }
+            return keys;
+        }
+        keys.add(trimmed.toLowerCase(Locale.ROOT));
+        List<String> tokens = InvertedIndex.tokenize(trimmed);
+        if (!tokens.isEmpty()) {
+            keys.add(String.join(" ", tokens));
+        }
+        return keys;
+    }
+
+    /**
+     * Normalize a stored phone number to E.164, assuming the default country code for
+     * national numbers
+     */
+    private String toE164(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return null;
+        }
+        String trimmed = phoneNumber.trim();
+        String digits = trimmed.replaceAll("\\D", "");
+        if (digits.isEmpty()) {
+            return null;
+        }
+        if (trimmed.startsWith("+")) {
+            return "+" + digits;
+        }
+        if (digits.startsWith("00")) {
+            return "+" + digits.substring(2);
+        }
+        if (digits.length() == 11 && digits.startsWith("0")) {
+            return "+" + defaultCountryCode + digits.substring(1);
+        }
+        if (digits.length() == 10) {
+            return "+" + defaultCountryCode + digits;
+        }
+        return "+" + digits;
+    }
+
+    private record Match(String customerId, String field) {
+    }
+
+    private record Card(String userId, String displayName, String email, String phoneNumber,
+                        Map<String, String> keys) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerIdentification;
+import com.nexabank.customer.repository.CustomerIdentificationRepository;
+import com.nexabank.customer.repository.CustomerRepository;
+import com.nexabank.customer.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bloom filters in front of the userId, email, Aadhar and PAN uniqueness checks.
+ * Nearly every check is for a value that does not exist yet, and a filter miss
+ * answers that without touching the database; possible hits still go to the
+ * indexed query. Values are added before they are written, so a value committed
+ * through this instance is never missing from its filter.
+ *
+ * Values added on other instances arrive over Redis pub/sub when
+ * app.bloom.redis.enabled is set, and every instance tops its filters up from the
+ * database each rewarm interval, so a missed message only lasts until then. The
+ * unique key on customers.user_id remains authoritative for profile creation.
+ */
+@Service
+@Slf4j
+public class CustomerUniquenessFilter {
+
+    public static final String INSERT_CHANNEL = "customer:bloom:inserts";
+
+    private static final int WARM_PAGE_SIZE = 10000;
+    private static final List<String> FILTERED_ID_TYPES =
+            List.of(CustomerIdentification.AADHAR_CARD, CustomerIdentification.PAN_CARD);
+
+    // Message lines are a one letter filter tag, a tab and the normalized value
+    private static final char USER_ID = 'u';
+    private static final char EMAIL = 'e';
+    private static final char AADHAR = 'a';
+    private static final char PAN = 'p';
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerIdentificationRepository identificationRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.bloom.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.bloom.redis.enabled:false}")
+    private boolean publishEnabled;
+
+    private volatile Filters filters;
+    // Larger filters being loaded by rewarm; recorded values go into them as well
+    private volatile Filters growing;
+    private volatile boolean ready;
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * Warm the filters before the web server accepts requests
+     */
+    @PostConstruct
+    public void warm() {
+        if (enabled && publishEnabled) {
+            redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                log.warn("app.bloom.redis.enabled is set but no Redis connection is configured, other instances only see inserts at rewarm");
+            }
+        }
+        rewarm();
+    }
+
+    /**
+     * (Re)load all unique keys from every shard. Adds to the current filters, or builds
+     * larger ones when the tables have outgrown them.
+     */
+    @Scheduled(fixedDelayString = "${app.bloom.rewarm-interval-ms:3600000}",
+               initialDelayString = "${app.bloom.rewarm-interval-ms:3600000}")
+    public synchronized void rewarm() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long customers = shardRouter.scatter(customerRepository::count).stream().mapToLong(Long::longValue).sum();
+            long documents = shardRouter.scatter(() -> identificationRepository.countByIdentificationTypeIn(FILTERED_ID_TYPES))
+                    .stream().mapToLong(Long::longValue).sum();
+            Filters current = filters;
+            if (current == null || customers > current.userIds.getExpectedInsertions()
+                    || documents > current.aadharNumbers.getExpectedInsertions()) {
+                // Leave room for growth so the false positive rate holds until the next resize
+                Filters larger = new Filters(Math.max(expectedInsertions, customers * 2),
+                        Math.max(expectedInsertions, documents * 2), falsePositiveRate);
+                growing = larger;
+                shardRouter.scatter(() -> loadShard(larger));
+                filters = larger;
+                growing = null;
+                if (current != null) {
+                    // Values recorded in the old filters just before the swap have committed by now
+                    shardRouter.scatter(() -> loadShard(larger));
+                }
+            } else {
+                shardRouter.scatter(() -> loadShard(current));
+            }
+            ready = true;
+            Filters loaded = filters;
+            log.info("Uniqueness Bloom filters warmed: {} customers, {} documents, {} KB in {} ms",
+                    customers, documents,
+                    (loaded.userIds.getSizeInBytes() + loaded.emails.getSizeInBytes()
+                            + loaded.aadharNumbers.getSizeInBytes() + loaded.panNumbers.getSizeInBytes()) / 1024,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            growing = null;
+            log.error("Failed to warm uniqueness Bloom filters{}", ready ? "" : ", uniqueness checks go to the database", e);
+        }
+    }
+
+    private Integer loadShard(Filters target) {
+        String afterId = "";
+        List<Object[]> page;
+        do {
+            page = customerRepository.findUniqueKeysAfter(afterId, PageRequest.of(0, WARM_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                putIfPresent(target.userIds, (String) row[1]);
+                putIfPresent(target.emails, (String) row[2]);
+            }
+        } while (page.size() == WARM_PAGE_SIZE);
+
+        afterId = "";
+        do {
+            page = identificationRepository.findItemsAfter(FILTERED_ID_TYPES, afterId, PageRequest.of(0, WARM_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                putIfPresent(CustomerIdentification.AADHAR_CARD.equals(row[1]) ? target.aadharNumbers : target.panNumbers,
+                        (String) row[2]);
+            }
+        } while (page.size() == WARM_PAGE_SIZE);
+        return 0;
+    }
+
+    /**
+     * Record the unique keys of a customer that is about to be saved
+     */
+    public void recordCustomer(Customer customer) {
+        StringBuilder message = new StringBuilder();
+        record(USER_ID, customer.getUserId(), message);
+        record(EMAIL, customer.getEmailId(), message);
+        publish(message);
+    }
+
+    /**
+     * Record an identification document that is about to be saved
+     */
+    public void recordIdentification(CustomerIdentification identification) {
+        StringBuilder message = new StringBuilder();
+        if (CustomerIdentification.AADHAR_CARD.equals(identification.getIdentificationType())) {
+            record(AADHAR, identification.getIdentificationItem(), message);
+        } else if (CustomerIdentification.PAN_CARD.equals(identification.getIdentificationType())) {
+            record(PAN, identification.getIdentificationItem(), message);
+        }
+        publish(message);
+    }
+
+    /**
+     * Values published by another instance
+     */
+    public void applyRemoteInsert(String message) {
+        for (String line : message.split("\n")) {
+            if (line.length() > 2 && line.charAt(1) == '\t') {
+                putLocal(line.charAt(0), line.substring(2));
+            }
+        }
+    }
+
+    private void record(char tag, String value, StringBuilder message) {
+        if (value == null) {
+            return;
+        }
+        String normalized = normalize(value);
+        // Profile updates re-record unchanged keys; only values new to this filter are announced
+        if (putLocal(tag, normalized)) {
+            message.append(tag).append('\t').append(normalized).append('\n');
+        }
+    }
+
+    private boolean putLocal(char tag, String normalized) {
+        boolean added = false;
+        Filters current = filters;
+        if (current != null) {
+            added = current.forTag(tag).put(normalized);
+        }
+        Filters next = growing;
+        if (next != null) {
+            added |= next.forTag(tag).put(normalized);
+        }
+        return added;
+    }
+
+    private void publish(StringBuilder message) {
+        if (redisTemplate == null || message.length() == 0) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INSERT_CHANNEL, message.toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish uniqueness filter insert, other instances catch up at their next rewarm: {}", e.getMessage());
+        }
+    }
+
+    // A false answer means definitely absent; true means "check the database"
+    public boolean mightContainUserId(String userId) {
+        return mightContain(USER_ID, userId);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL, email);
+    }
+
+    public boolean mightContainAadhar(String aadharNumber) {
+        return mightContain(AADHAR, aadharNumber);
+    }
+
+    public boolean mightContainPan(String panNumber) {
+        return mightContain(PAN, panNumber);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("publishing", redisTemplate != null);
+        Filters current = filters;
+        if (ready && current != null) {
+            stats.put("userIds", current.userIds.getInsertions());
+            stats.put("emails", current.emails.getInsertions());
+            stats.put("aadharNumbers", current.aadharNumbers.getInsertions());
+            stats.put("panNumbers", current.panNumbers.getInsertions());
+        }
+        return stats;
+    }
+
+    private boolean mightContain(char tag, String value) {
+        if (!ready || value == null) {
+            return true;
+        }
+        return filters.forTag(tag).mightContain(normalize(value));
+    }
+
+    private static void putIfPresent(BloomFilter filter, String value) {
+        if (value != null) {
+            filter.put(normalize(value));
+        }
+    }
+
+    /**
+     * The database compares case-insensitively, so the filters must as well
+     */
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        private final BloomFilter userIds;
+        private final BloomFilter emails;
+        private final BloomFilter aadharNumbers;
+        private final BloomFilter panNumbers;
+
+        private Filters(long customerCapacity, long documentCapacity, double falsePositiveRate) {
+            userIds = new BloomFilter(customerCapacity, falsePositiveRate);
+            emails = new BloomFilter(customerCapacity, falsePositiveRate);
+            aadharNumbers = new BloomFilter(documentCapacity, falsePositiveRate);
+            panNumbers = new BloomFilter(documentCapacity, falsePositiveRate);
+        }
+
+        private BloomFilter forTag(char tag) {
+            switch (tag) {
+                case USER_ID: return userIds;
+                case EMAIL: return emails;
+                case AADHAR: return aadharNumbers;
+                default: return panNumbers;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.dto.UserProfileResponse;
+
+/**
+ * External identity check used by the KYC work queue. Implementations may block; the
+ * queue calls them from its own bounded worker pool. Throwing is treated like
+ * {@link KycVerificationResult#retry(String)}.
+ */
+public interface KycVerificationProvider {
+
+    KycVerificationResult verify(UserProfileResponse profile);
+}
@@ -0,0 +1,36 @@
+package com.nexabank.customer.service;
+
+/**
+ * Outcome of one KYC verification attempt
+ */
+public class KycVerificationResult {
+
+    public enum Outcome {
+        VERIFIED,   // record COMPLETED
+        REJECTED,   // record REJECTED
+        RETRY       // transient failure, try again after a backoff
+    }
+
+    private final Outcome outcome;
+    private final String reason;
+
+    private KycVerificationResult(Outcome outcome, String reason) {
+        this.outcome = outcome;
+        this.reason = reason;
+    }
+
+    public static KycVerificationResult verified() {
+        return new KycVerificationResult(Outcome.VERIFIED, null);
+    }
+
+    public static KycVerificationResult rejected(String reason) {
+        return new KycVerificationResult(Outcome.REJECTED, reason);
+    }
+
+    public static KycVerificationResult retry(String reason) {
+        return new KycVerificationResult(Outcome.RETRY, reason);
+    }
+
+    public Outcome getOutcome() { return outcome; }
+    public String getReason() { return reason; }
+}
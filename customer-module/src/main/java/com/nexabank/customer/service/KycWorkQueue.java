@@ -0,0 +1,288 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.UserProfileResponse;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.repository.CustomerRepository;
+import com.nexabank.customer.util.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * KYC work queue over the customers table. Each poll claims batches of due PENDING customers
+ * with SELECT ... FOR UPDATE SKIP LOCKED (so several instances never claim the same row),
+ * marks them IN_PROGRESS and hands them to a fixed worker pool. Claims are limited to free
+ * worker capacity, so nothing sits IN_PROGRESS waiting for a thread. Workers call the
+ * KycVerificationProvider and record COMPLETED / REJECTED through recordKycOutcome; transient
+ * failures go back to PENDING with an exponential backoff. IN_PROGRESS claims older than the
+ * lease (crashed worker) are claimed again; every claim carries the claiming node and a token,
+ * and an outcome is only written while both still match, so a worker whose claim was taken
+ * over cannot overwrite the new owner's result.
+ */
+@Service
+@Slf4j
+public class KycWorkQueue implements DisposableBean {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerProfileService customerProfileService;
+
+    @Autowired
+    private KycVerificationProvider verificationProvider;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.kyc.queue.enabled:false}")
+    private boolean queueEnabled;
+
+    @Value("${app.kyc.queue.workers:4}")
+    private int workers;
+
+    @Value("${app.kyc.queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.kyc.queue.base-backoff-seconds:30}")
+    private long baseBackoffSeconds;
+
+    @Value("${app.kyc.queue.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${app.kyc.queue.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private ExecutorService workerPool;
+    private Semaphore capacity;
+    private TransactionTemplate claimTransaction;
+    // Claims made here carry this id and a per-claim token; outcomes are written only while both match
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder lostClaims = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyHistogram verificationLatency = new LatencyHistogram();
+    private final LatencyHistogram processingLatency = new LatencyHistogram();
+    private final long startedAt = System.currentTimeMillis();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = Math.max(1, workers);
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "kyc-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        capacity = new Semaphore(poolSize);
+        claimTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.kyc.queue.poll-interval-ms:1000}")
+    public void poll() {
+        if (!queueEnabled) {
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            try {
+                drainShard(shard);
+            } catch (RuntimeException e) {
+                log.error("KYC queue poll failed on shard {}", shard, e);
+            }
+        }
+    }
+
+    private void drainShard(int shard) {
+        while (true) {
+            int wanted = Math.min(capacity.availablePermits(), batchSize);
+            if (wanted == 0 || !capacity.tryAcquire(wanted)) {
+                return;
+            }
+            List<Claim> claims;
+            try {
+                claims = ShardContext.callOnShard(shard, () -> claimTransaction.execute(status -> claimBatch(wanted)));
+            } catch (RuntimeException e) {
+                capacity.release(wanted);
+                throw e;
+            }
+            capacity.release(wanted - claims.size());
+            for (Claim claim : claims) {
+                inFlight.incrementAndGet();
+                workerPool.execute(() -> {
+                    try {
+                        process(claim);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        capacity.release();
+                    }
+                });
+            }
+            if (claims.size() < wanted) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lock up to limit due customers (expired claims first) and move them to IN_PROGRESS,
+     * in the caller's transaction
+     */
+    private List<Claim> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> customerIds = new ArrayList<>(customerRepository.claimStaleKyc(now.minusSeconds(leaseSeconds), limit));
+        reclaimed.add(customerIds.size());
+        if (customerIds.size() < limit) {
+            customerIds.addAll(customerRepository.claimDueKyc(now, limit - customerIds.size()));
+        }
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Customer> customers = customerRepository.findAllById(customerIds);
+        for (Customer customer : customers) {
+            customer.setKycStatus(Customer.KycStatus.IN_PROGRESS);
+            customer.setKycClaimedAt(now);
+            customer.setKycClaimedBy(nodeId);
+            customer.setKycClaimToken(UUID.randomUUID().toString());
+            customer.setKycAttempts(customer.getKycAttempts() + 1);
+            customerService.updateCustomer(customer);
+        }
+        claimed.add(customers.size());
+
+        List<UserProfileResponse> profiles = customerProfileService.toResponses(customers);
+        List<Claim> claims = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            claims.add(new Claim(customer.getCustomerId(), customer.getKycClaimToken(), customer.getKycAttempts(), profiles.get(i)));
+        }
+        return claims;
+    }
+
+    private void process(Claim claim) {
+        long start = System.nanoTime();
+        KycVerificationResult result;
+        try {
+            result = verificationProvider.verify(claim.profile);
+        } catch (RuntimeException e) {
+            result = KycVerificationResult.retry(e.getMessage());
+        }
+        verificationLatency.record(System.nanoTime() - start);
+
+        try {
+            Customer.KycStatus status = switch (result.getOutcome()) {
+                case VERIFIED -> Customer.KycStatus.COMPLETED;
+                case REJECTED -> Customer.KycStatus.REJECTED;
+                case RETRY -> Customer.KycStatus.PENDING;
+            };
+            String error = status == Customer.KycStatus.COMPLETED ? null : truncate(result.getReason());
+            LocalDateTime nextAttemptAt = status == Customer.KycStatus.PENDING
+                    ? LocalDateTime.now().plusSeconds(backoffSeconds(claim.attempt)) : null;
+            if (!customerService.recordKycOutcome(claim.customerId, nodeId, claim.token, status, error, nextAttemptAt)) {
+                // Another worker took the claim over after the lease expired; its outcome stands
+                lostClaims.increment();
+                log.warn("KYC claim on customer {} was lost before its outcome {} was recorded", claim.customerId, result.getOutcome());
+            } else if (status == Customer.KycStatus.COMPLETED) {
+                completed.increment();
+            } else if (status == Customer.KycStatus.REJECTED) {
+                rejected.increment();
+            } else {
+                retried.increment();
+            }
+        } catch (RuntimeException e) {
+            // The claim stays IN_PROGRESS and is picked up again once its lease expires
+            failed.increment();
+            log.error("Failed to record KYC outcome {} for customer {}", result.getOutcome(), claim.customerId, e);
+        }
+        processingLatency.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Exponential backoff with +/-20% jitter, capped at max-backoff-seconds
+     */
+    private long backoffSeconds(int attempt) {
+        long backoff = baseBackoffSeconds << Math.min(Math.max(attempt - 1, 0), 20);
+        backoff = Math.min(backoff, maxBackoffSeconds);
+        double jitter = ThreadLocalRandom.current().nextDouble(0.8, 1.2);
+        return Math.max(1, (long) (backoff * jitter));
+    }
+
+    private static String truncate(String reason) {
+        return reason != null && reason.length() > MAX_ERROR_LENGTH ? reason.substring(0, MAX_ERROR_LENGTH) : reason;
+    }
+
+    public Map<String, Object> stats() {
+        long uptimeSeconds = Math.max(1, (System.currentTimeMillis() - startedAt) / 1000);
+        long finished = completed.sum() + rejected.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", queueEnabled);
+        stats.put("workers", workers);
+        stats.put("inFlight", inFlight.get());
+        stats.put("pending", shardRouter.scatter(customerRepository::countCustomersRequiringKyc).stream()
+                .mapToLong(Long::longValue).sum());
+        stats.put("claimed", claimed.sum());
+        stats.put("reclaimedAfterLease", reclaimed.sum());
+        stats.put("completed", completed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        stats.put("lostClaims", lostClaims.sum());
+        stats.put("throughputPerMinute", finished * 60.0 / uptimeSeconds);
+        stats.put("verificationLatency", verificationLatency.snapshot());
+        stats.put("processingLatency", processingLatency.snapshot());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        workerPool.shutdown();
+    }
+
+    private static final class Claim {
+        private final String customerId;
+        private final String token;
+        private final int attempt;
+        private final UserProfileResponse profile;
+
+        private Claim(String customerId, String token, int attempt, UserProfileResponse profile) {
+            this.customerId = customerId;
+            this.token = token;
+            this.attempt = attempt;
+            this.profile = profile;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.dto.UserProfileResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for a KYC provider (app.kyc.provider=local). Verifies a profile that has a
+ * name, a date of birth and a well-formed Aadhar or PAN number, rejects anything else, and
+ * simulates the provider's response time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kyc.provider", havingValue = "local", matchIfMissing = true)
+public class LocalKycVerificationProvider implements KycVerificationProvider {
+
+    private static final Pattern AADHAR = Pattern.compile("\\d{12}");
+    private static final Pattern PAN = Pattern.compile("[A-Z]{5}\\d{4}[A-Z]");
+
+    @Value("${app.kyc.local.latency-ms:50}")
+    private long latencyMs;
+
+    @Override
+    public KycVerificationResult verify(UserProfileResponse profile) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return KycVerificationResult.retry("Interrupted");
+            }
+        }
+        if (profile.getFirstName() == null || profile.getLastName() == null) {
+            return KycVerificationResult.rejected("Name is incomplete");
+        }
+        if (profile.getDateOfBirth() == null) {
+            return KycVerificationResult.rejected("Date of birth is missing");
+        }
+        boolean validAadhar = profile.getAadharNumber() != null && AADHAR.matcher(profile.getAadharNumber()).matches();
+        boolean validPan = profile.getPanNumber() != null && PAN.matcher(profile.getPanNumber()).matches();
+        if (!validAadhar && !validPan) {
+            return KycVerificationResult.rejected("No valid Aadhar or PAN number");
+        }
+        return KycVerificationResult.verified();
+    }
+}
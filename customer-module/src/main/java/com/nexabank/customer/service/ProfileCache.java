@@ -0,0 +1,328 @@
+package com.nexabank.customer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nexabank.customer.dto.UserProfileResponse;
+import com.nexabank.customer.event.CustomerChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of assembled profile responses. The local tier is a bounded
+ * Caffeine cache; when app.profile-cache.redis.enabled is set, misses consult a shared
+ * Redis tier before going to the database. Concurrent misses for one key wait on a
+ * single load. Every key cached for a customer is dropped from both tiers when a
+ * CustomerChangedEvent for that customer commits, and other instances are told to drop
+ * their local copies over Redis pub/sub.
+ *
+ * A load that overlaps an invalidation of the same customer is returned but not cached.
+ * Locally that is a per-customer invalidation sequence; in Redis the invalidation leaves a
+ * short tombstone, and the shared write is a script that skips the write while it exists,
+ * so a row read before the change cannot be written back after it.
+ */
+@Component
+@Slf4j
+public class ProfileCache {
+
+    public static final String INVALIDATION_CHANNEL = "customer:profile:invalidations";
+
+    private static final String SHARED_KEY_PREFIX = "customer:profile:";
+    private static final String SHARED_INDEX_PREFIX = "customer:profile-keys:";
+    private static final String SHARED_TOMBSTONE_PREFIX = "customer:profile-invalidated:";
+
+    // KEYS: tombstone, entry, customer key index; ARGV: json, ttl seconds
+    private static final RedisScript<Long> WRITE_UNLESS_INVALIDATED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "redis.call('SET', KEYS[2], ARGV[1], 'EX', ARGV[2]) "
+                    + "redis.call('SADD', KEYS[3], KEYS[2]) "
+                    + "redis.call('EXPIRE', KEYS[3], ARGV[2]) "
+                    + "return 1", Long.class);
+
+    // Longer than any profile load, so an invalidation is still known when an overlapping load finishes
+    private static final Duration INVALIDATION_MEMORY = Duration.ofMinutes(1);
+
+    @Autowired
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.profile-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.profile-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.profile-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.profile-cache.redis.enabled:false}")
+    private boolean sharedEnabled;
+
+    @Value("${app.profile-cache.redis.ttl-seconds:900}")
+    private long sharedTtlSeconds;
+
+    @Value("${app.profile-cache.redis.tombstone-seconds:10}")
+    private long tombstoneSeconds;
+
+    private Cache<String, UserProfileResponse> local;
+    private StringRedisTemplate redisTemplate;
+
+    // Cache keys held per customer, so a change can drop the userId and email entries together
+    private final Map<String, Set<String>> keysByCustomer = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<UserProfileResponse>> inFlight = new ConcurrentHashMap<>();
+    // Ticks on every invalidation; invalidatedAt holds the tick of each customer's latest one
+    private final AtomicLong sequence = new AtomicLong();
+    private Cache<String, Long> invalidatedAt;
+    private final LongAdder skippedStaleWrites = new LongAdder();
+
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+    private final LongAdder sharedErrors = new LongAdder();
+    private final LongAdder databaseLoads = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((String key, UserProfileResponse value, RemovalCause cause) -> {
+                    if (key != null && value != null) {
+                        unindex(value.getProfileId(), key);
+                    }
+                })
+                .recordStats()
+                .build();
+        invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(INVALIDATION_MEMORY)
+                .build();
+        if (sharedEnabled) {
+            redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                log.warn("app.profile-cache.redis.enabled is set but no Redis connection is configured, using the local tier only");
+            }
+        }
+    }
+
+    public static String userIdKey(String userId) {
+        return "user:" + userId;
+    }
+
+    public static String emailKey(String email) {
+        return "email:" + email.trim().toLowerCase();
+    }
+
+    /**
+     * Return the cached profile for the key, loading it on a miss. Empty results are not cached.
+     */
+    public Optional<UserProfileResponse> get(String key, Supplier<Optional<UserProfileResponse>> loader) {
+        if (!cacheEnabled) {
+            databaseLoads.increment();
+            return loader.get();
+        }
+        UserProfileResponse cached = local.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        CompletableFuture<UserProfileResponse> flight = new CompletableFuture<>();
+        CompletableFuture<UserProfileResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return Optional.ofNullable(await(existing));
+        }
+        try {
+            UserProfileResponse value = load(key, loader);
+            flight.complete(value);
+            return Optional.ofNullable(value);
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * The locally cached profile for the key, without loading it
+     */
+    public Optional<UserProfileResponse> getIfPresent(String key) {
+        return cacheEnabled ? Optional.ofNullable(local.getIfPresent(key)) : Optional.empty();
+    }
+
+    private UserProfileResponse load(String key, Supplier<Optional<UserProfileResponse>> loader) {
+        long started = sequence.get();
+        UserProfileResponse value = readShared(key);
+        if (value == null) {
+            databaseLoads.increment();
+            value = loader.get().orElse(null);
+            if (value != null && !invalidatedSince(value.getProfileId(), started)) {
+                writeShared(key, value);
+            }
+        }
+        if (value != null && !invalidatedSince(value.getProfileId(), started)) {
+            index(value.getProfileId(), key);
+            local.put(key, value);
+            // An invalidation that slipped in between the check and the put wins
+            if (invalidatedSince(value.getProfileId(), started)) {
+                local.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    private boolean invalidatedSince(String customerId, long started) {
+        Long at = invalidatedAt.getIfPresent(customerId);
+        return at != null && at > started;
+    }
+
+    private UserProfileResponse await(CompletableFuture<UserProfileResponse> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        invalidateCustomer(event.getCustomerId());
+    }
+
+    /**
+     * Drop every cached key of the customer from both tiers and notify other instances
+     */
+    public void invalidateCustomer(String customerId) {
+        evictLocal(customerId);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            // Set before the delete, so a load that read the old row cannot write it back afterwards
+            redisTemplate.opsForValue().set(SHARED_TOMBSTONE_PREFIX + customerId, "1", Duration.ofSeconds(tombstoneSeconds));
+            String indexKey = SHARED_INDEX_PREFIX + customerId;
+            Set<String> sharedKeys = redisTemplate.opsForSet().members(indexKey);
+            List<String> toDelete = new ArrayList<>();
+            toDelete.add(indexKey);
+            if (sharedKeys != null) {
+                toDelete.addAll(sharedKeys);
+            }
+            redisTemplate.delete(toDelete);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, customerId);
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Failed to invalidate shared profile cache for customer {}: {}", customerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the customer's keys from this instance only (also used for pub/sub notifications)
+     */
+    public void evictLocal(String customerId) {
+        invalidatedAt.put(customerId, sequence.incrementAndGet());
+        Set<String> keys = keysByCustomer.remove(customerId);
+        if (keys != null) {
+            local.invalidateAll(keys);
+        }
+    }
+
+    private void index(String customerId, String key) {
+        keysByCustomer.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private void unindex(String customerId, String key) {
+        keysByCustomer.computeIfPresent(customerId, (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private UserProfileResponse readShared(String key) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(SHARED_KEY_PREFIX + key);
+            if (json == null) {
+                sharedMisses.increment();
+                return null;
+            }
+            sharedHits.increment();
+            return objectMapper.readValue(json, UserProfileResponse.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Shared profile cache read failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShared(String key, UserProfileResponse value) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            String customerId = value.getProfileId();
+            Long written = redisTemplate.execute(WRITE_UNLESS_INVALIDATED,
+                    List.of(SHARED_TOMBSTONE_PREFIX + customerId, SHARED_KEY_PREFIX + key, SHARED_INDEX_PREFIX + customerId),
+                    objectMapper.writeValueAsString(value), String.valueOf(sharedTtlSeconds));
+            if (written == null || written == 0) {
+                skippedStaleWrites.increment();
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            sharedErrors.increment();
+            log.warn("Shared profile cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats localStats = local.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cacheEnabled);
+        stats.put("localSize", local.estimatedSize());
+        stats.put("localMaxSize", maxSize);
+        stats.put("localHits", localStats.hitCount());
+        stats.put("localMisses", localStats.missCount());
+        stats.put("localHitRate", localStats.hitRate());
+        stats.put("localEvictions", localStats.evictionCount());
+        stats.put("sharedEnabled", redisTemplate != null);
+        stats.put("sharedHits", sharedHits.sum());
+        stats.put("sharedMisses", sharedMisses.sum());
+        stats.put("sharedErrors", sharedErrors.sum());
+        stats.put("coalescedLoads", coalescedLoads.sum());
+        stats.put("databaseLoads", databaseLoads.sum());
+        stats.put("invalidations", sequence.get());
+        stats.put("skippedStaleWrites", skippedStaleWrites.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,301 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.dto.PostingRequest;
+import com.nexabank.customer.entity.ImportJob.FileFormat;
+import com.nexabank.customer.entity.Transaction.TransactionType;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses and validates blocks of settlement file lines read straight from a mapped file.
+ *
+ * Each line is copied once into a scratch buffer owned by the block (unquoting CSV fields on
+ * the way) and its fields are located by offset; types and amounts are decoded from the bytes,
+ * and strings are only created for the fields of lines that pass validation.
+ *
+ * CSV columns: account_id,transaction_type,amount,reference_number[,description[,category[,target_account_id]]],
+ * with an optional header line. Fixed-width columns (1-based byte positions, space padded): account_id 1-20,
+ * transaction_type 21-32, amount 33-50, reference_number 51-90, category 91-110,
+ * description 111-190, target_account_id 191-210.
+ */
+final class SettlementFileParser {
+
+    private static final int FIELD_COUNT = 7;
+    private static final int ACCOUNT = 0;
+    private static final int TYPE = 1;
+    private static final int AMOUNT = 2;
+    private static final int REFERENCE = 3;
+    private static final int DESCRIPTION = 4;
+    private static final int CATEGORY = 5;
+    private static final int TARGET = 6;
+
+    // Fixed-width [start, end) byte ranges in the order of the field constants above
+    private static final int[][] FIXED_COLUMNS = {
+            {0, 20}, {20, 32}, {32, 50}, {50, 90}, {110, 190}, {90, 110}, {190, 210}
+    };
+    private static final int FIXED_MIN_LENGTH = 90;
+
+    private static final byte[][] TYPE_NAMES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final byte[] CSV_HEADER_PREFIX = "account_id".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_INTEGER_DIGITS = 13;
+
+    static {
+        TYPE_NAMES = new byte[TYPES.length][];
+        for (int i = 0; i < TYPES.length; i++) {
+            TYPE_NAMES[i] = TYPES[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final FileFormat format;
+    private final int maxLineLength;
+
+    SettlementFileParser(FileFormat format, int maxLineLength) {
+        this.format = format;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Parse the complete lines of a block; firstLine is the 1-based line number of its first line
+     */
+    ParsedBlock parse(ByteBuffer block, long firstLine, boolean atFileStart) {
+        ParsedBlock parsed = new ParsedBlock();
+        byte[] scratch = new byte[maxLineLength];
+        int[] starts = new int[FIELD_COUNT];
+        int[] ends = new int[FIELD_COUNT];
+        int limit = block.limit();
+        int position = 0;
+        long line = firstLine;
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && block.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > position && block.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            boolean header = atFileStart && line == firstLine && format == FileFormat.CSV && startsWith(block, position, contentEnd, CSV_HEADER_PREFIX);
+            if (contentEnd > position && !header) {
+                String error = parseLine(block, position, contentEnd, scratch, starts, ends);
+                if (error == null) {
+                    error = validate(scratch, starts, ends);
+                }
+                if (error == null) {
+                    parsed.add(toRequest(scratch, starts, ends), line);
+                } else {
+                    parsed.reject(line, error);
+                }
+            }
+            position = lineEnd + 1;
+            line++;
+        }
+        parsed.lineCount = line - firstLine;
+        return parsed;
+    }
+
+    /**
+     * Copy one line into scratch and record its field offsets; returns an error or null
+     */
+    private String parseLine(ByteBuffer block, int start, int end, byte[] scratch, int[] starts, int[] ends) {
+        if (end - start > scratch.length) {
+            return "line longer than " + scratch.length + " bytes";
+        }
+        Arrays.fill(starts, 0);
+        Arrays.fill(ends, 0);
+        if (format == FileFormat.FIXED_WIDTH) {
+            if (end - start < FIXED_MIN_LENGTH) {
+                return "line shorter than " + FIXED_MIN_LENGTH + " characters";
+            }
+            int length = end - start;
+            block.get(start, scratch, 0, length);
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                int from = Math.min(FIXED_COLUMNS[field][0], length);
+                int to = Math.min(FIXED_COLUMNS[field][1], length);
+                while (from < to && scratch[from] == ' ') {
+                    from++;
+                }
+                while (to > from && scratch[to - 1] == ' ') {
+                    to--;
+                }
+                starts[field] = from;
+                ends[field] = to;
+            }
+            return null;
+        }
+
+        int out = 0;
+        int field = 0;
+        int position = start;
+        while (true) {
+            if (position < end && block.get(position) == '"' && out == starts[field]) {
+                // Quoted field: "" is a literal quote
+                position++;
+                while (true) {
+                    if (position >= end) {
+                        return "unterminated quoted field";
+                    }
+                    byte b = block.get(position++);
+                    if (b == '"') {
+                        if (position < end && block.get(position) == '"') {
+                            scratch[out++] = '"';
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        scratch[out++] = b;
+                    }
+                }
+                if (position < end && block.get(position) != ',') {
+                    return "unexpected character after quoted field";
+                }
+                continue;
+            }
+            if (position == end || block.get(position) == ',') {
+                ends[field++] = out;
+                if (position == end) {
+                    break;
+                }
+                if (field == FIELD_COUNT) {
+                    return "more than " + FIELD_COUNT + " fields";
+                }
+                starts[field] = out;
+                position++;
+                continue;
+            }
+            scratch[out++] = block.get(position++);
+        }
+        if (field < REFERENCE + 1) {
+            return "expected at least " + (REFERENCE + 1) + " fields";
+        }
+        // Fields not present in the line stay empty
+        for (int missing = field; missing < FIELD_COUNT; missing++) {
+            starts[missing] = out;
+            ends[missing] = out;
+        }
+        return null;
+    }
+
+    private static String validate(byte[] scratch, int[] starts, int[] ends) {
+        if (ends[ACCOUNT] == starts[ACCOUNT]) {
+            return "account_id is required";
+        }
+        if (ends[REFERENCE] == starts[REFERENCE]) {
+            return "reference_number is required";
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (ends[field] - starts[field] > MAX_FIELD_LENGTH) {
+                return "field " + (field + 1) + " longer than " + MAX_FIELD_LENGTH + " characters";
+            }
+        }
+        if (type(scratch, starts[TYPE], ends[TYPE]) == null) {
+            return "unknown transaction_type";
+        }
+        long minor = amountMinor(scratch, starts[AMOUNT], ends[AMOUNT]);
+        if (minor <= 0) {
+            return minor == 0 ? "amount must be greater than zero" : "invalid amount";
+        }
+        return null;
+    }
+
+    private static PostingRequest toRequest(byte[] scratch, int[] starts, int[] ends) {
+        PostingRequest request = new PostingRequest();
+        request.setAccountId(string(scratch, starts[ACCOUNT], ends[ACCOUNT]));
+        request.setTransactionType(type(scratch, starts[TYPE], ends[TYPE]));
+        request.setAmount(BigDecimal.valueOf(amountMinor(scratch, starts[AMOUNT], ends[AMOUNT]), 2));
+        request.setReferenceNumber(string(scratch, starts[REFERENCE], ends[REFERENCE]));
+        request.setDescription(string(scratch, starts[DESCRIPTION], ends[DESCRIPTION]));
+        request.setCategory(string(scratch, starts[CATEGORY], ends[CATEGORY]));
+        request.setTargetAccountId(string(scratch, starts[TARGET], ends[TARGET]));
+        return request;
+    }
+
+    private static TransactionType type(byte[] scratch, int start, int end) {
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            byte[] name = TYPE_NAMES[i];
+            if (end - start == name.length && Arrays.equals(scratch, start, end, name, 0, name.length)) {
+                return TYPES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Amount in minor units (at most two decimals), or -1 when it is not a plain decimal
+     */
+    private static long amountMinor(byte[] scratch, int start, int end) {
+        long units = 0;
+        int integerDigits = 0;
+        int decimals = -1;
+        for (int i = start; i < end; i++) {
+            byte b = scratch[i];
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b >= '0' && b <= '9') {
+                if (decimals >= 0) {
+                    if (++decimals > 2) {
+                        return -1;
+                    }
+                } else if (++integerDigits > MAX_INTEGER_DIGITS) {
+                    return -1;
+                }
+                units = units * 10 + (b - '0');
+            } else {
+                return -1;
+            }
+        }
+        if (integerDigits == 0 && decimals <= 0) {
+            return -1;
+        }
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            units *= 10;
+        }
+        return units;
+    }
+
+    private static String string(byte[] scratch, int start, int end) {
+        return end > start ? new String(scratch, start, end - start, StandardCharsets.UTF_8) : null;
+    }
+
+    private static boolean startsWith(ByteBuffer block, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            byte b = block.get(start + i);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accepted postings and rejected lines of one block, in file order
+     */
+    static final class ParsedBlock {
+        final List<PostingRequest> requests = new ArrayList<>();
+        long[] requestLines = new long[64];
+        final List<String> rejects = new ArrayList<>();
+        long lineCount;
+
+        private void add(PostingRequest request, long line) {
+            if (requests.size() == requestLines.length) {
+                requestLines = Arrays.copyOf(requestLines, requestLines.length * 2);
+            }
+            requestLines[requests.size()] = line;
+            requests.add(request);
+        }
+
+        private void reject(long line, String reason) {
+            rejects.add(line + ",," + reason);
+        }
+    }
+}
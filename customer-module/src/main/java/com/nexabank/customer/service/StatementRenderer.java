@@ -0,0 +1,146 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.entity.Transaction.TransactionType;
+import com.nexabank.customer.util.SimplePdfWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Renders one account's monthly statement as CSV and PDF from its completed transactions,
+ * oldest first. Amounts are signed (debits negative); the opening balance is derived from the
+ * first transaction's balance_after, so it is blank for rows posted before balances were kept.
+ */
+final class StatementRenderer {
+
+    private static final String CSV_HEADER = "created_at,transaction_id,reference_number,transaction_type,amount,balance_after,category,description\n";
+    private static final int FONT_SIZE = 8;
+    private static final int LINE_HEIGHT = 11;
+    private static final int MARGIN = 50;
+    private static final String ROW_FORMAT = "%-10s %-18s %-30s %-12s %13s %13s";
+
+    private StatementRenderer() {}
+
+    /**
+     * Totals of a statement; balances are null when they cannot be derived
+     */
+    static Summary summarize(List<StatementLine> lines) {
+        BigDecimal credits = BigDecimal.ZERO;
+        BigDecimal debits = BigDecimal.ZERO;
+        for (StatementLine line : lines) {
+            if (line.signedAmount().signum() >= 0) {
+                credits = credits.add(line.amount());
+            } else {
+                debits = debits.add(line.amount());
+            }
+        }
+        StatementLine first = lines.get(0);
+        StatementLine last = lines.get(lines.size() - 1);
+        BigDecimal opening = first.balanceAfter() != null ? first.balanceAfter().subtract(first.signedAmount()) : null;
+        return new Summary(opening, last.balanceAfter(), credits, debits);
+    }
+
+    static void writeCsv(Path file, List<StatementLine> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            for (StatementLine line : lines) {
+                writer.write(TransactionHistoryService.csv(line.createdAt()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.transactionId()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.referenceNumber()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.type()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.signedAmount().toPlainString()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.balanceAfter() != null ? line.balanceAfter().toPlainString() : null));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.category()));
+                writer.write(',');
+                writer.write(TransactionHistoryService.csv(line.description()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    static void writePdf(Path file, YearMonth period, String accountId, List<StatementLine> lines, Summary summary) throws IOException {
+        try (SimplePdfWriter pdf = new SimplePdfWriter(new BufferedOutputStream(Files.newOutputStream(file)), FONT_SIZE)) {
+            int top = SimplePdfWriter.PAGE_HEIGHT - MARGIN;
+            pdf.beginPage();
+            int y = top;
+            pdf.text(MARGIN, y, "NexaBank - Account Statement");
+            y -= 2 * LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Account:          " + accountId);
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Period:           " + period.atDay(1) + " to " + period.atEndOfMonth());
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Opening balance:  " + amount(summary.openingBalance()));
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Total credits:    " + summary.totalCredits().toPlainString());
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Total debits:     " + summary.totalDebits().toPlainString());
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Closing balance:  " + amount(summary.closingBalance()));
+            y -= LINE_HEIGHT;
+            pdf.text(MARGIN, y, "Transactions:     " + lines.size());
+            y -= 2 * LINE_HEIGHT;
+
+            String header = String.format(ROW_FORMAT, "Date", "Reference", "Description", "Type", "Amount", "Balance");
+            pdf.text(MARGIN, y, header);
+            y -= LINE_HEIGHT;
+            for (StatementLine line : lines) {
+                if (y < MARGIN + LINE_HEIGHT) {
+                    pdf.text(MARGIN, MARGIN - LINE_HEIGHT, "Page " + pdf.getPageCount());
+                    pdf.beginPage();
+                    y = top;
+                    pdf.text(MARGIN, y, header);
+                    y -= LINE_HEIGHT;
+                }
+                pdf.text(MARGIN, y, String.format(ROW_FORMAT,
+                        line.createdAt().toLocalDate(),
+                        fit(line.referenceNumber(), 18),
+                        fit(line.description() != null ? line.description() : line.category(), 30),
+                        line.type().name(),
+                        line.signedAmount().toPlainString(),
+                        amount(line.balanceAfter())));
+                y -= LINE_HEIGHT;
+            }
+            pdf.text(MARGIN, MARGIN - LINE_HEIGHT, "Page " + pdf.getPageCount());
+        }
+    }
+
+    private static String amount(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    private static String fit(String value, int width) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() <= width ? value : value.substring(0, width - 1) + "~";
+    }
+
+    /**
+     * One completed transaction as read from the ledger stream
+     */
+    record StatementLine(String transactionId, TransactionType type, BigDecimal amount, BigDecimal balanceAfter,
+                         String referenceNumber, String description, String category, LocalDateTime createdAt) {
+
+        BigDecimal signedAmount() {
+            return type == TransactionType.CREDIT || type == TransactionType.TRANSFER_IN ? amount : amount.negate();
+        }
+    }
+
+    record Summary(BigDecimal openingBalance, BigDecimal closingBalance, BigDecimal totalCredits, BigDecimal totalDebits) {
+    }
+}
@@ -0,0 +1,524 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.entity.AccountStatement;
+import com.nexabank.customer.entity.StatementRun;
+import com.nexabank.customer.entity.StatementRun.RunStatus;
+import com.nexabank.customer.entity.Transaction.TransactionType;
+import com.nexabank.customer.repository.AccountStatementRepository;
+import com.nexabank.customer.repository.SchedulerLeaseRepository;
+import com.nexabank.customer.repository.StatementRunRepository;
+import com.nexabank.customer.service.StatementRenderer.StatementLine;
+import com.nexabank.customer.service.StatementRenderer.Summary;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the monthly statements (CSV and PDF) of every account with completed transactions in
+ * the month to the statements directory.
+ *
+ * Each shard's month of the ledger is read as one stream in (account_id, created_at) order;
+ * MySQL sends the rows as they are read, so nothing is buffered beyond the current account.
+ * Each account's rows are handed to a pool of render threads, with at most
+ * max-accounts-in-flight accounts held at a time, so memory does not grow with the number of
+ * accounts. The shard's checkpoint (the last account with every statement before it written)
+ * is saved every checkpoint-interval-ms, and every written statement is recorded in
+ * account_statements, so a resumed run restarts after the checkpoint and skips accounts
+ * already written beyond it. Only the node holding the scheduler lease generates statements.
+ */
+@Service
+@Slf4j
+public class StatementService implements DisposableBean {
+
+    private static final String LEASE_NAME = "statement-generator";
+
+    // The index hint keeps the scan in index order inside the month's partition rather than sorting the month
+    private static final String STATEMENT_LINES_SQL =
+        "SELECT transaction_id, account_id, transaction_type, amount, balance_after, reference_number, description, category, created_at " +
+        "FROM transactions FORCE INDEX (idx_transactions_account_created) " +
+        "WHERE account_id > ? AND created_at >= ? AND created_at < ? AND status = 'COMPLETED' " +
+        "ORDER BY account_id, created_at, transaction_id";
+
+    @Autowired
+    private StatementRunRepository runRepository;
+
+    @Autowired
+    private AccountStatementRepository statementRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${app.statements.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.statements.directory:statements}")
+    private String directory;
+
+    @Value("${app.statements.render-threads:4}")
+    private int renderThreads;
+
+    @Value("${app.statements.max-accounts-in-flight:256}")
+    private int maxAccountsInFlight;
+
+    @Value("${app.statements.checkpoint-interval-ms:2000}")
+    private long checkpointIntervalMs;
+
+    @Value("${app.statements.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private ExecutorService jobExecutor;
+    private ExecutorService renderPool;
+    private JdbcTemplate streamingJdbc;
+    private volatile RunningStatements current;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statement-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        renderPool = Executors.newFixedThreadPool(Math.max(1, renderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "statement-render-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        streamingJdbc = new JdbcTemplate(dataSource);
+        // Connector/J streams the result row by row with this fetch size instead of reading it all into memory
+        streamingJdbc.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Scheduled(cron = "${app.statements.cron:0 0 3 1 * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            start(YearMonth.now().minusMonths(1));
+        } catch (IllegalStateException e) {
+            log.info("Scheduled statement run skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start or resume the statements of a completed month; shards already completed are skipped
+     */
+    public synchronized Map<String, Object> start(YearMonth period) {
+        if (!period.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("period must be a completed month");
+        }
+        if (current != null) {
+            throw new IllegalStateException("Statements for " + current.period + " are already being generated on this node");
+        }
+        if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+            throw new IllegalStateException("Statements are being generated on another node");
+        }
+        RunningStatements state = new RunningStatements(period);
+        current = state;
+        jobExecutor.execute(() -> {
+            try {
+                run(state);
+            } finally {
+                current = null;
+                leaseRepository.release(LEASE_NAME, nodeId);
+            }
+        });
+        return describe(period);
+    }
+
+    /**
+     * Stop the run of a period after the statements already being rendered; false if it is not running here
+     */
+    public boolean cancel(YearMonth period) {
+        RunningStatements state = current;
+        if (state == null || !state.period.equals(period)) {
+            return false;
+        }
+        state.cancelled = true;
+        return true;
+    }
+
+    private void run(RunningStatements state) {
+        String period = state.period.toString();
+        for (int shard = 0; shard < shardRouter.getShardCount() && !state.cancelled; shard++) {
+            StatementRun.Key key = new StatementRun.Key(period, shard);
+            int target = shard;
+            StatementRun run = runRepository.findById(key).orElseGet(() -> new StatementRun(period, target));
+            if (run.getStatus() == RunStatus.COMPLETED) {
+                continue;
+            }
+            run.setStatus(RunStatus.RUNNING);
+            if (run.getStartedAt() == null) {
+                run.setStartedAt(LocalDateTime.now());
+            }
+            run.setUpdatedAt(LocalDateTime.now());
+            run.setFinishedAt(null);
+            run.setLastError(null);
+            runRepository.save(run);
+
+            String error = null;
+            try {
+                generateShard(state, shard, run.getLastAccountId());
+            } catch (IOException | RuntimeException e) {
+                log.error("Statement run {} failed on shard {}", period, shard, e);
+                Throwable cause = e.getCause() != null && !(e instanceof IOException) ? e.getCause() : e;
+                error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            }
+
+            run = runRepository.findById(key).orElse(run);
+            if (error != null) {
+                run.setStatus(RunStatus.FAILED);
+                run.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            } else if (state.cancelled) {
+                run.setStatus(RunStatus.CANCELLED);
+            } else {
+                run.setStatus(RunStatus.COMPLETED);
+                run.setFinishedAt(LocalDateTime.now());
+            }
+            run.setUpdatedAt(LocalDateTime.now());
+            runRepository.save(run);
+            if (error != null) {
+                // Later shards are left for the resume
+                break;
+            }
+        }
+        log.info("Statement run {}: {} statements with {} transactions written, {} statements/s", period,
+                state.accounts.get(), state.transactions.get(), String.format("%.0f", state.perSecond(state.accounts.get())));
+    }
+
+    private void generateShard(RunningStatements state, int shard, String checkpoint) throws IOException {
+        Path periodDirectory = baseDirectory().resolve(state.period.toString());
+        Files.createDirectories(periodDirectory);
+        Map<String, Long> written = new HashMap<>();
+        for (AccountStatement statement : statementRepository.findWrittenAfter(state.period.toString(), shard, checkpoint)) {
+            written.put(statement.getAccountId(), statement.getTransactionCount());
+        }
+
+        ShardStream stream = new ShardStream(state, shard, periodDirectory, written);
+        LocalDateTime from = state.period.atDay(1).atStartOfDay();
+        LocalDateTime to = state.period.plusMonths(1).atDay(1).atStartOfDay();
+        try {
+            ShardContext.callOnShard(shard, () -> {
+                streamingJdbc.query(STATEMENT_LINES_SQL, stream, checkpoint, from, to);
+                return null;
+            });
+        } catch (RunCancelledException e) {
+            // Stop reading; statements already handed out are still written and checkpointed
+        }
+        stream.finish();
+    }
+
+    private void render(YearMonth period, int shard, Path periodDirectory, String accountId, List<StatementLine> lines) throws IOException {
+        Summary summary = StatementRenderer.summarize(lines);
+        String fileName = fileName(accountId);
+        Path csvTemp = periodDirectory.resolve(fileName + ".csv.tmp");
+        Path pdfTemp = periodDirectory.resolve(fileName + ".pdf.tmp");
+        StatementRenderer.writeCsv(csvTemp, lines);
+        StatementRenderer.writePdf(pdfTemp, period, accountId, lines, summary);
+        Files.move(csvTemp, periodDirectory.resolve(fileName + ".csv"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(pdfTemp, periodDirectory.resolve(fileName + ".pdf"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        AccountStatement statement = new AccountStatement();
+        statement.setPeriod(period.toString());
+        statement.setAccountId(accountId);
+        statement.setShardIndex(shard);
+        statement.setTransactionCount(lines.size());
+        statement.setOpeningBalance(summary.openingBalance());
+        statement.setClosingBalance(summary.closingBalance());
+        statement.setTotalCredits(summary.totalCredits());
+        statement.setTotalDebits(summary.totalDebits());
+        statement.setGeneratedAt(LocalDateTime.now());
+        statementRepository.save(statement);
+    }
+
+    /**
+     * The written statement file of an account; format is csv or pdf
+     */
+    public Path getStatementFile(YearMonth period, String accountId, String format) throws IOException {
+        if (!"csv".equals(format) && !"pdf".equals(format)) {
+            throw new IllegalArgumentException("format must be csv or pdf");
+        }
+        Path file = baseDirectory().resolve(period.toString()).resolve(fileName(accountId) + "." + format);
+        if (!statementRepository.existsById(new AccountStatement.Key(period.toString(), accountId)) || !Files.isRegularFile(file)) {
+            throw new RuntimeException("Statement for " + period + " not found for account ID: " + accountId);
+        }
+        return file;
+    }
+
+    private static String fileName(String accountId) {
+        return accountId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private Path baseDirectory() throws IOException {
+        Path base = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(base);
+        return base;
+    }
+
+    public Map<String, Object> describe(YearMonth period) {
+        List<StatementRun> runs = runRepository.findByPeriod(period.toString());
+        RunningStatements state = current;
+        boolean runningHere = state != null && state.period.equals(period);
+        long accounts = 0;
+        long transactions = 0;
+        int completed = 0;
+        String status = runs.isEmpty() ? "NOT_STARTED" : "INCOMPLETE";
+        List<Map<String, Object>> shards = new ArrayList<>();
+        for (StatementRun run : runs) {
+            accounts += run.getAccountsDone();
+            transactions += run.getTransactionsDone();
+            if (run.getStatus() == RunStatus.COMPLETED) {
+                completed++;
+            } else if (run.getStatus() == RunStatus.FAILED || run.getStatus() == RunStatus.CANCELLED) {
+                status = run.getStatus().name();
+            }
+            Map<String, Object> shard = new LinkedHashMap<>();
+            shard.put("shard", run.getShardIndex());
+            shard.put("status", run.getStatus());
+            shard.put("lastAccountId", run.getLastAccountId());
+            shard.put("accountsDone", run.getAccountsDone());
+            shard.put("transactionsDone", run.getTransactionsDone());
+            shard.put("startedAt", run.getStartedAt());
+            shard.put("updatedAt", run.getUpdatedAt());
+            shard.put("finishedAt", run.getFinishedAt());
+            shard.put("lastError", run.getLastError());
+            shards.add(shard);
+        }
+        if (runningHere) {
+            status = "RUNNING";
+        } else if (completed == shardRouter.getShardCount()) {
+            status = "COMPLETED";
+        }
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("period", period.toString());
+        view.put("status", status);
+        view.put("accountsDone", accounts);
+        view.put("transactionsDone", transactions);
+        view.put("statementsPerSecond", runningHere ? state.perSecond(state.accounts.get()) : null);
+        view.put("transactionsPerSecond", runningHere ? state.perSecond(state.transactions.get()) : null);
+        view.put("shards", shards);
+        return view;
+    }
+
+    public List<Map<String, Object>> getRecentRuns(int limit) {
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (String period : runRepository.findRecentPeriods(PageRequest.of(0, Math.max(1, Math.min(limit, 60))))) {
+            runs.add(describe(YearMonth.parse(period)));
+        }
+        return runs;
+    }
+
+    @Override
+    public void destroy() {
+        RunningStatements state = current;
+        if (state != null) {
+            state.cancelled = true;
+        }
+        jobExecutor.shutdown();
+        renderPool.shutdown();
+    }
+
+    /**
+     * Receives one shard's ledger stream, hands each account to the render pool and checkpoints
+     * the accounts whose statement and all before it are written
+     */
+    private final class ShardStream implements RowCallbackHandler {
+        private final RunningStatements state;
+        private final int shard;
+        private final Path periodDirectory;
+        private final Map<String, Long> written;
+        private final Deque<PendingStatement> inFlight = new ArrayDeque<>();
+        private String accountId;
+        private List<StatementLine> lines;
+        private String checkpointAccountId;
+        private long uncheckpointedAccounts;
+        private long uncheckpointedTransactions;
+        private long lastCheckpointAt = System.currentTimeMillis();
+
+        private ShardStream(RunningStatements state, int shard, Path periodDirectory, Map<String, Long> written) {
+            this.state = state;
+            this.shard = shard;
+            this.periodDirectory = periodDirectory;
+            this.written = written;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String rowAccountId = rs.getString("account_id");
+            if (!rowAccountId.equals(accountId)) {
+                submitCurrent();
+                if (state.cancelled) {
+                    throw new RunCancelledException();
+                }
+                accountId = rowAccountId;
+                lines = new ArrayList<>();
+            }
+            if (written.containsKey(accountId)) {
+                return;
+            }
+            lines.add(new StatementLine(
+                    rs.getString("transaction_id"),
+                    TransactionType.valueOf(rs.getString("transaction_type")),
+                    rs.getBigDecimal("amount"),
+                    rs.getBigDecimal("balance_after"),
+                    rs.getString("reference_number"),
+                    rs.getString("description"),
+                    rs.getString("category"),
+                    rs.getObject("created_at", LocalDateTime.class)));
+        }
+
+        private void submitCurrent() {
+            if (accountId == null) {
+                return;
+            }
+            Long transactionCount = written.get(accountId);
+            PendingStatement pending;
+            if (transactionCount != null) {
+                // Written before the previous run stopped
+                pending = new PendingStatement(accountId, transactionCount, true, CompletableFuture.completedFuture(null));
+            } else {
+                String account = accountId;
+                List<StatementLine> accountLines = lines;
+                pending = new PendingStatement(account, accountLines.size(), false, CompletableFuture.runAsync(() -> {
+                    try {
+                        render(state.period, shard, periodDirectory, account, accountLines);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, renderPool));
+            }
+            inFlight.addLast(pending);
+            accountId = null;
+            lines = null;
+            drain(inFlight.size() >= maxAccountsInFlight);
+        }
+
+        private void finish() {
+            submitCurrent();
+            while (!inFlight.isEmpty()) {
+                drain(true);
+            }
+            checkpoint(true);
+        }
+
+        /**
+         * Take the leading statements that are written off the queue; with wait, block on the oldest first
+         */
+        private void drain(boolean wait) {
+            if (wait && !inFlight.isEmpty()) {
+                inFlight.peekFirst().done.handle((ignored, e) -> null).join();
+            }
+            while (!inFlight.isEmpty() && inFlight.peekFirst().done.isDone()) {
+                PendingStatement head = inFlight.peekFirst();
+                if (head.done.isCompletedExceptionally()) {
+                    // Fails the shard; the checkpoint stays before this account
+                    checkpoint(true);
+                    head.done.join();
+                }
+                inFlight.removeFirst();
+                checkpointAccountId = head.accountId;
+                uncheckpointedAccounts++;
+                uncheckpointedTransactions += head.transactionCount;
+                if (!head.previouslyWritten) {
+                    state.accounts.incrementAndGet();
+                    state.transactions.addAndGet(head.transactionCount);
+                }
+            }
+            checkpoint(false);
+        }
+
+        private void checkpoint(boolean force) {
+            long now = System.currentTimeMillis();
+            if (uncheckpointedAccounts == 0 || (!force && now - lastCheckpointAt < checkpointIntervalMs)) {
+                return;
+            }
+            String period = state.period.toString();
+            String lastAccountId = checkpointAccountId;
+            long accounts = uncheckpointedAccounts;
+            long transactions = uncheckpointedTransactions;
+            // Run bookkeeping lives on shard 0 while this thread streams from its own shard
+            boolean leaseHeld = ShardContext.callOnShard(0, () -> {
+                runRepository.checkpoint(period, shard, lastAccountId, accounts, transactions, LocalDateTime.now());
+                return leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) > 0;
+            });
+            if (!leaseHeld) {
+                log.warn("Statement run {} lost its lease; stopping", period);
+                state.cancelled = true;
+            }
+            uncheckpointedAccounts = 0;
+            uncheckpointedTransactions = 0;
+            lastCheckpointAt = now;
+        }
+    }
+
+    private static final class RunningStatements {
+        private final YearMonth period;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong accounts = new AtomicLong();
+        private final AtomicLong transactions = new AtomicLong();
+        private volatile boolean cancelled;
+
+        private RunningStatements(YearMonth period) {
+            this.period = period;
+        }
+
+        private double perSecond(long count) {
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            return seconds <= 0 ? 0.0 : count / seconds;
+        }
+    }
+
+    private record PendingStatement(String accountId, long transactionCount, boolean previouslyWritten,
+                                    CompletableFuture<Void> done) {
+    }
+
+    private static final class RunCancelledException extends RuntimeException {
+        private RunCancelledException() {
+            super(null, null, false, false);
+        }
+    }
+}
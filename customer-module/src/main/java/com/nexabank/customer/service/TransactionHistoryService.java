@@ -0,0 +1,194 @@
+package com.nexabank.customer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.entity.Transaction;
+import com.nexabank.customer.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-account transaction history, newest first.
+ *
+ * Pages are read with a keyset cursor on (created_at, transaction_id) from the
+ * (account_id, created_at, transaction_id) index, so page N costs the same as page 1 and a date
+ * range only touches the monthly partitions it covers. Exports walk the same cursor in chunks
+ * and write each chunk to the response as it is read.
+ */
+@Service
+@Slf4j
+public class TransactionHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String CSV_HEADER = "transaction_id,created_at,transaction_type,status,amount,balance_after," +
+            "reference_number,category,target_account_id,description";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * One page of history between from and to (inclusive dates, either may be null), continuing
+     * after the given cursor; nextCursor is null on the last page
+     */
+    public Map<String, Object> getPage(String accountId, LocalDate from, LocalDate to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Range range = range(from, to);
+        Cursor position = cursor == null || cursor.isBlank() ? new Cursor(range.to, "") : Cursor.decode(cursor);
+        // Read one extra row to know whether another page follows
+        List<Transaction> rows = readChunk(accountId, range.from, position, limit + 1);
+        boolean more = rows.size() > limit;
+        List<Transaction> items = more ? rows.subList(0, limit) : rows;
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("accountId", accountId);
+        page.put("items", items);
+        page.put("nextCursor", more ? Cursor.after(items.get(items.size() - 1)).encode() : null);
+        return page;
+    }
+
+    /**
+     * Write the whole history between from and to as CSV or NDJSON, chunk by chunk
+     */
+    public void export(String accountId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        Range range = range(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        Cursor position = new Cursor(range.to, "");
+        long written = 0;
+        while (true) {
+            List<Transaction> rows = readChunk(accountId, range.from, position, EXPORT_CHUNK_SIZE);
+            for (Transaction transaction : rows) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, transaction);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(transaction));
+                    writer.write('\n');
+                }
+            }
+            written += rows.size();
+            writer.flush();
+            if (rows.size() < EXPORT_CHUNK_SIZE) {
+                break;
+            }
+            position = Cursor.after(rows.get(rows.size() - 1));
+        }
+        log.debug("Exported {} transactions of account {} as {}", written, accountId, format);
+    }
+
+    private List<Transaction> readChunk(String accountId, LocalDateTime from, Cursor position, int limit) {
+        return shardRouter.onShardFor(accountId, () -> transactionRepository.findHistoryPage(
+                accountId, from, position.createdAt, position.transactionId, PageRequest.of(0, limit)));
+    }
+
+    private static Range range(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        LocalDateTime start = from != null ? from.atStartOfDay() : HISTORY_START;
+        LocalDateTime end = (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+        return new Range(start, end);
+    }
+
+    private static void writeCsv(Writer writer, Transaction t) throws IOException {
+        writer.write(csv(t.getTransactionId()));
+        writer.write(',');
+        writer.write(csv(t.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(t.getTransactionType()));
+        writer.write(',');
+        writer.write(csv(t.getStatus()));
+        writer.write(',');
+        writer.write(csv(t.getAmount() != null ? t.getAmount().toPlainString() : null));
+        writer.write(',');
+        writer.write(csv(t.getBalanceAfter() != null ? t.getBalanceAfter().toPlainString() : null));
+        writer.write(',');
+        writer.write(csv(t.getReferenceNumber()));
+        writer.write(',');
+        writer.write(csv(t.getCategory()));
+        writer.write(',');
+        writer.write(csv(t.getTargetAccountId()));
+        writer.write(',');
+        writer.write(csv(t.getDescription()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting; a leading formula character is prefixed so spreadsheets show it as text
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !isNumber(text)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static boolean isNumber(String text) {
+        return text.matches("-?\\d+(\\.\\d+)?");
+    }
+
+    public enum ExportFormat {
+        CSV, NDJSON
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * Position after the last row returned; encoded as an opaque URL-safe token
+     */
+    private record Cursor(LocalDateTime createdAt, String transactionId) {
+
+        static Cursor after(Transaction transaction) {
+            return new Cursor(transaction.getCreatedAt(), transaction.getTransactionId());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + transactionId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.dto.PostingRequest;
+import com.nexabank.customer.entity.ImportJob;
+import com.nexabank.customer.entity.ImportJob.FileFormat;
+import com.nexabank.customer.entity.ImportJob.ImportStatus;
+import com.nexabank.customer.entity.Transaction;
+import com.nexabank.customer.repository.ImportJobRepository;
+import com.nexabank.customer.service.SettlementFileParser.ParsedBlock;
+import com.nexabank.customer.service.TransactionPostingService.PostingResult;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports settlement files (CSV or fixed-width) from the import directory into the ledger.
+ *
+ * The file is memory-mapped one window at a time and cut into blocks of block-lines lines on
+ * newline boundaries. Blocks are parsed and validated in parallel (SettlementFileParser), then
+ * handed to TransactionPostingService in file order, where they are written as batched inserts
+ * with the usual reference number dedupe, balance and rollup updates. After every block whose
+ * postings have all completed, the job's checkpoint (file offset and counters) is saved, so an
+ * interrupted import resumes from the last checkpoint. At most max-blocks-in-flight blocks are
+ * parsed or posting at a time, which keeps heap use independent of the file size. Rejected lines
+ * are appended to rejects/{jobId}.csv in the import directory. Any other posting failure fails
+ * the job at that block; resuming re-posts from there and the dedupe skips rows already posted.
+ */
+@Service
+@Slf4j
+public class TransactionImportService implements DisposableBean {
+
+    @Autowired
+    private ImportJobRepository jobRepository;
+
+    @Autowired
+    private TransactionPostingService postingService;
+
+    @Value("${app.import.directory:imports}")
+    private String directory;
+
+    @Value("${app.import.max-concurrent-jobs:1}")
+    private int maxConcurrentJobs;
+
+    @Value("${app.import.validation-threads:4}")
+    private int validationThreads;
+
+    @Value("${app.import.block-lines:5000}")
+    private int blockLines;
+
+    @Value("${app.import.max-blocks-in-flight:8}")
+    private int maxBlocksInFlight;
+
+    @Value("${app.import.window-mb:64}")
+    private int windowMb;
+
+    @Value("${app.import.max-line-length:4096}")
+    private int maxLineLength;
+
+    @Value("${app.import.posting-wait-ms:30000}")
+    private long postingWaitMs;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService validationPool;
+    private final Map<String, RunningImport> running = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger jobThreads = new AtomicInteger();
+        jobExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs), runnable -> {
+            Thread thread = new Thread(runnable, "import-job-" + jobThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger parserThreads = new AtomicInteger();
+        validationPool = Executors.newFixedThreadPool(Math.max(1, validationThreads), runnable -> {
+            Thread thread = new Thread(runnable, "import-parser-" + parserThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue an import of a file in the import directory
+     */
+    public ImportJob start(String fileName, FileFormat format, String createdBy) throws IOException {
+        if (format == null) {
+            throw new IllegalArgumentException("format is required");
+        }
+        Path file = resolve(fileName);
+        ImportJob job = new ImportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setFileName(fileName);
+        job.setFileFormat(format);
+        job.setFileSize(Files.size(file));
+        job.setCreatedBy(createdBy);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    /**
+     * Continue a failed, cancelled or interrupted import from its checkpoint
+     */
+    public ImportJob resume(String jobId) {
+        ImportJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Import job not found with ID: " + jobId));
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new IllegalStateException("Import job " + jobId + " is already completed");
+        }
+        if (running.containsKey(jobId)) {
+            throw new IllegalStateException("Import job " + jobId + " is already running");
+        }
+        job.setStatus(ImportStatus.PENDING);
+        job.setLastError(null);
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    /**
+     * Stop a running import after the blocks already being posted; false if it is not running here
+     */
+    public boolean cancel(String jobId) {
+        RunningImport state = running.get(jobId);
+        if (state == null) {
+            return false;
+        }
+        state.cancelled = true;
+        return true;
+    }
+
+    private void submit(ImportJob job) {
+        RunningImport state = new RunningImport();
+        if (running.putIfAbsent(job.getJobId(), state) != null) {
+            throw new IllegalStateException("Import job " + job.getJobId() + " is already running");
+        }
+        jobExecutor.execute(() -> {
+            try {
+                run(job.getJobId(), state);
+            } finally {
+                running.remove(job.getJobId());
+            }
+        });
+    }
+
+    private void run(String jobId, RunningImport state) {
+        ImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        state.startNanos = System.nanoTime();
+        state.startLines = job.getLinesCommitted();
+        state.committedLines.set(job.getLinesCommitted());
+
+        String error = null;
+        try {
+            importFile(job, state);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "Import was interrupted";
+        } catch (Exception e) {
+            log.error("Import job {} failed", jobId, e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        job = jobRepository.findById(jobId).orElse(job);
+        if (error != null) {
+            job.setStatus(ImportStatus.FAILED);
+            job.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        } else {
+            job.setStatus(state.cancelled ? ImportStatus.CANCELLED : ImportStatus.COMPLETED);
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        job.setFinishedAt(job.getStatus() == ImportStatus.COMPLETED ? LocalDateTime.now() : null);
+        jobRepository.save(job);
+        log.info("Import job {} {}: {} lines, {} posted, {} duplicates, {} rejected, {} failed, {} rows/s",
+                jobId, job.getStatus(), job.getLinesCommitted(), job.getRowsPosted(), job.getRowsDuplicate(),
+                job.getRowsRejected(), job.getRowsFailed(), String.format("%.0f", state.rowsPerSecond(job.getLinesCommitted())));
+    }
+
+    private void importFile(ImportJob job, RunningImport state) throws IOException, InterruptedException {
+        Path file = resolve(job.getFileName());
+        SettlementFileParser parser = new SettlementFileParser(job.getFileFormat(), maxLineLength);
+        long windowBytes = Math.max(1, windowMb) * 1024L * 1024L;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedWriter rejects = openRejects(job.getJobId())) {
+            long size = channel.size();
+            if (job.getBytesCommitted() > 0 && size != job.getFileSize()) {
+                throw new IllegalStateException("File changed since the import started (" + job.getFileSize() + " -> " + size + " bytes)");
+            }
+            Deque<PendingBlock> parsing = new ArrayDeque<>();
+            Deque<PendingBlock> posting = new ArrayDeque<>();
+            long windowStart = job.getBytesCommitted();
+            long nextLine = job.getLinesCommitted() + 1;
+
+            while (windowStart < size && !state.cancelled) {
+                int windowLength = (int) Math.min(windowBytes, size - windowStart);
+                boolean lastWindow = windowStart + windowLength == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+                int blockStart = 0;
+                while (blockStart < windowLength && !state.cancelled) {
+                    // Cut after block-lines newlines; the final line of the file may lack one
+                    int lines = 0;
+                    int end = -1;
+                    for (int i = blockStart; i < windowLength && lines < blockLines; i++) {
+                        if (window.get(i) == '\n') {
+                            lines++;
+                            end = i + 1;
+                        }
+                    }
+                    if (lines < blockLines && lastWindow && (end < 0 ? blockStart : end) < windowLength) {
+                        end = windowLength;
+                        lines++;
+                    }
+                    if (end < 0) {
+                        break;
+                    }
+                    ByteBuffer slice = window.slice(blockStart, end - blockStart);
+                    PendingBlock block = new PendingBlock(windowStart + end, nextLine + lines - 1);
+                    long firstLine = nextLine;
+                    boolean atFileStart = windowStart + blockStart == 0;
+                    block.parsed = CompletableFuture.supplyAsync(() -> parser.parse(slice, firstLine, atFileStart), validationPool);
+                    parsing.addLast(block);
+                    nextLine += lines;
+                    blockStart = end;
+
+                    if (parsing.size() >= maxBlocksInFlight) {
+                        post(job.getJobId(), parsing.removeFirst(), posting, rejects);
+                    }
+                    drainCompleted(job.getJobId(), posting, rejects, posting.size() >= maxBlocksInFlight);
+                }
+                if (blockStart == 0 && windowStart + windowLength < size) {
+                    throw new IllegalStateException("Line at offset " + windowStart + " is longer than the " + windowMb + " MB read window");
+                }
+                windowStart += blockStart;
+            }
+            // On cancel, blocks not yet handed to posting are dropped; those already posting are
+            // drained below, so the checkpoint ends at the last posted block and stays contiguous
+            while (!parsing.isEmpty() && !state.cancelled) {
+                post(job.getJobId(), parsing.removeFirst(), posting, rejects);
+                drainCompleted(job.getJobId(), posting, rejects, posting.size() >= maxBlocksInFlight);
+            }
+            parsing.forEach(block -> block.parsed.cancel(false));
+            while (!posting.isEmpty()) {
+                drainCompleted(job.getJobId(), posting, rejects, true);
+            }
+        }
+    }
+
+    /**
+     * Wait for a block's parse and hand its postings to the posting service in file order
+     */
+    private void post(String jobId, PendingBlock block, Deque<PendingBlock> posting, BufferedWriter rejects)
+            throws InterruptedException, IOException {
+        ParsedBlock parsed = block.parsed.join();
+        block.rejects = parsed.rejects;
+        block.requestLines = parsed.requestLines;
+        block.requests = parsed.requests;
+        block.results = new ArrayList<>(parsed.requests.size());
+        for (PostingRequest request : parsed.requests) {
+            CompletableFuture<PostingResult> result;
+            try {
+                result = postWithBackpressure(jobId, request, posting, rejects);
+            } catch (IllegalArgumentException e) {
+                // Failed validation: recorded as a failed row
+                result = CompletableFuture.failedFuture(e);
+            }
+            block.results.add(result);
+        }
+        block.done = CompletableFuture.allOf(block.results.toArray(new CompletableFuture[0]));
+        posting.addLast(block);
+    }
+
+    /**
+     * Post one request; while the posting queue stays full, wait for the oldest block in flight
+     * and try again. Once nothing is left to wait for the rejection stops the job, before this
+     * block is checkpointed.
+     */
+    private CompletableFuture<PostingResult> postWithBackpressure(String jobId, PostingRequest request, Deque<PendingBlock> posting,
+                                                                  BufferedWriter rejects) throws InterruptedException, IOException {
+        while (true) {
+            try {
+                return postingService.post(request, postingWaitMs);
+            } catch (RejectedExecutionException e) {
+                if (posting.isEmpty()) {
+                    throw e;
+                }
+                drainCompleted(jobId, posting, rejects, true);
+            }
+        }
+    }
+
+    /**
+     * Checkpoint the leading blocks whose postings have all completed; with wait, block on the oldest first.
+     * Rows that failed validation are counted as failed and written to the rejects file. Any other
+     * failure (database error, shutdown) stops the job at the block holding it, so the checkpoint
+     * never passes a row that was not posted and a resume retries it.
+     */
+    private void drainCompleted(String jobId, Deque<PendingBlock> posting, BufferedWriter rejects, boolean wait) throws IOException {
+        if (wait && !posting.isEmpty()) {
+            // Failed postings are handled below, so only wait for completion here
+            posting.peekFirst().done.handle((ignored, e) -> null).join();
+        }
+        long posted = 0, duplicate = 0, insufficientFunds = 0, held = 0, rejected = 0, failed = 0;
+        PendingBlock last = null;
+        try {
+            while (!posting.isEmpty() && posting.peekFirst().done.isDone()) {
+                PendingBlock block = posting.peekFirst();
+                for (int i = 0; i < block.results.size(); i++) {
+                    Throwable failure = failureOf(block.results.get(i));
+                    if (failure != null && !(failure instanceof IllegalArgumentException)) {
+                        throw new IllegalStateException("Posting line " + block.requestLines[i] + " failed: " + failure.getMessage(), failure);
+                    }
+                }
+                posting.removeFirst();
+                for (String reject : block.rejects) {
+                    rejects.write(reject);
+                    rejects.write('\n');
+                }
+                rejected += block.rejects.size();
+                for (int i = 0; i < block.results.size(); i++) {
+                    CompletableFuture<PostingResult> future = block.results.get(i);
+                    Throwable failure = failureOf(future);
+                    if (failure != null) {
+                        failed++;
+                        rejects.write(block.requestLines[i] + "," + csvValue(block.requests.get(i).getReferenceNumber()) + "," + csvValue(failure.getMessage()));
+                        rejects.write('\n');
+                        continue;
+                    }
+                    PostingResult result = future.join();
+                    if (result.isDuplicate()) {
+                        duplicate++;
+                    } else if (result.getTransaction().getStatus() == Transaction.TransactionStatus.FAILED) {
+                        insufficientFunds++;
+                    } else if (result.getHeldBy() != null) {
+                        held++;
+                    } else {
+                        posted++;
+                    }
+                }
+                last = block;
+            }
+        } finally {
+            if (last != null) {
+                rejects.flush();
+                jobRepository.checkpoint(jobId, last.endOffset, last.endLine, posted, duplicate, insufficientFunds,
+                        held, rejected, failed, LocalDateTime.now());
+                RunningImport state = running.get(jobId);
+                if (state != null) {
+                    state.committedLines.set(last.endLine);
+                }
+            }
+        }
+    }
+
+    private static Throwable failureOf(CompletableFuture<PostingResult> future) {
+        if (!future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.handle((result, e) -> e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).join();
+    }
+
+    private BufferedWriter openRejects(String jobId) throws IOException {
+        Path rejectsDir = baseDirectory().resolve("rejects");
+        Files.createDirectories(rejectsDir);
+        Path rejectsFile = rejectsDir.resolve(jobId + ".csv");
+        boolean fresh = !Files.exists(rejectsFile);
+        BufferedWriter writer = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (fresh) {
+            writer.write("line,reference_number,reason\n");
+        }
+        return writer;
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+        }
+        return value;
+    }
+
+    private Path baseDirectory() throws IOException {
+        Path base = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(base);
+        return base.toRealPath();
+    }
+
+    /**
+     * A regular file inside the import directory; names escaping it are rejected
+     */
+    private Path resolve(String fileName) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        Path base = baseDirectory();
+        Path file = base.resolve(fileName).normalize();
+        if (!file.startsWith(base) || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalArgumentException("No import file named " + fileName);
+        }
+        return file;
+    }
+
+    public Map<String, Object> describe(ImportJob job) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", job.getJobId());
+        view.put("fileName", job.getFileName());
+        view.put("fileFormat", job.getFileFormat());
+        view.put("status", job.getStatus());
+        view.put("fileSize", job.getFileSize());
+        view.put("bytesCommitted", job.getBytesCommitted());
+        view.put("percentComplete", job.getFileSize() == 0 ? 100.0 : 100.0 * job.getBytesCommitted() / job.getFileSize());
+        view.put("linesCommitted", job.getLinesCommitted());
+        view.put("rowsPosted", job.getRowsPosted());
+        view.put("rowsDuplicate", job.getRowsDuplicate());
+        view.put("rowsInsufficientFunds", job.getRowsInsufficientFunds());
+        view.put("rowsHeld", job.getRowsHeld());
+        view.put("rowsRejected", job.getRowsRejected());
+        view.put("rowsFailed", job.getRowsFailed());
+        RunningImport state = running.get(job.getJobId());
+        view.put("rowsPerSecond", state != null ? state.rowsPerSecond(state.committedLines.get()) : null);
+        view.put("createdBy", job.getCreatedBy());
+        view.put("createdAt", job.getCreatedAt());
+        view.put("startedAt", job.getStartedAt());
+        view.put("updatedAt", job.getUpdatedAt());
+        view.put("finishedAt", job.getFinishedAt());
+        view.put("lastError", job.getLastError());
+        return view;
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        return describe(jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Import job not found with ID: " + jobId)));
+    }
+
+    public List<Map<String, Object>> getRecentJobs(int limit) {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (ImportJob job : jobRepository.findRecent(PageRequest.of(0, Math.max(1, Math.min(limit, 100))))) {
+            jobs.add(describe(job));
+        }
+        return jobs;
+    }
+
+    @Override
+    public void destroy() {
+        running.values().forEach(state -> state.cancelled = true);
+        jobExecutor.shutdown();
+        validationPool.shutdown();
+    }
+
+    private static final class RunningImport {
+        private volatile boolean cancelled;
+        private volatile long startNanos = System.nanoTime();
+        private volatile long startLines;
+        private final AtomicLong committedLines = new AtomicLong();
+
+        private double rowsPerSecond(long linesCommitted) {
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            return seconds <= 0 ? 0.0 : Math.max(0, linesCommitted - startLines) / seconds;
+        }
+    }
+
+    private static final class PendingBlock {
+        private final long endOffset;
+        private final long endLine;
+        private CompletableFuture<ParsedBlock> parsed;
+        private List<PostingRequest> requests;
+        private long[] requestLines;
+        private List<String> rejects;
+        private List<CompletableFuture<PostingResult>> results;
+        private CompletableFuture<Void> done;
+
+        private PendingBlock(long endOffset, long endLine) {
+            this.endOffset = endOffset;
+            this.endLine = endLine;
+        }
+    }
+}
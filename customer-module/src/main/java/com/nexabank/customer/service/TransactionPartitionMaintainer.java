@@ -0,0 +1,230 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.repository.SchedulerLeaseRepository;
+import com.nexabank.customer.repository.TransactionReferenceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the transactions table (V10) ahead of the calendar.
+ *
+ * New months are created by splitting p_future. Running months-ahead in advance, p_future is
+ * normally still empty when it is split and the split moves no rows; the first run after the
+ * migration, or one after the job was down, moves the rows already posted to those months.
+ * With retention-months set, whole months older than that are dropped, which removes their
+ * rows without a DELETE. Their transaction_references rows are purged first, in chunks, so a
+ * replay of an old reference is posted as new instead of finding a reference whose
+ * transaction is gone. Balances and rollups are kept. Only the node holding the scheduler
+ * lease changes partitions.
+ */
+@Service
+@Slf4j
+public class TransactionPartitionMaintainer {
+
+    private static final String LEASE_NAME = "transaction-partition-maintainer";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionReferenceRepository referenceRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.transactions.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.transactions.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.transactions.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.transactions.partitions.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @Value("${app.transactions.partitions.purge-chunk-size:5000}")
+    private int purgeChunkSize;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile LocalDateTime lastRunAt;
+    private volatile List<String> lastRunChanges = List.of();
+    private volatile String lastError;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduledMaintain();
+    }
+
+    @Scheduled(cron = "${app.transactions.partitions.cron:0 0 4 * * *}")
+    public void scheduledMaintain() {
+        if (enabled) {
+            maintain();
+        }
+    }
+
+    /**
+     * Create missing months up to months-ahead and drop months past retention on every shard;
+     * false when another node holds the lease
+     */
+    public synchronized boolean maintain() {
+        if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+            return false;
+        }
+        List<String> changes = new ArrayList<>();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int target = shard;
+                ShardContext.callOnShard(target, () -> maintainShard(target, transaction, changes));
+            }
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Transaction partition maintenance failed", e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunChanges = changes;
+            leaseRepository.release(LEASE_NAME, nodeId);
+        }
+        if (!changes.isEmpty()) {
+            log.info("Transaction partitions changed: {}", changes);
+        }
+        return true;
+    }
+
+    private Void maintainShard(int shard, TransactionTemplate transaction, List<String> changes) {
+        List<YearMonth> months = new ArrayList<>();
+        LocalDate highestBound = null;
+        for (Object[] row : transaction.execute(status -> listPartitions())) {
+            String name = (String) row[0];
+            String description = (String) row[1];
+            Matcher matcher = MONTH_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+            if (!"p_future".equals(name) && description != null && !description.contains("MAXVALUE")) {
+                LocalDate bound = LocalDate.parse(description.replace("'", "").substring(0, 10));
+                highestBound = highestBound == null || bound.isAfter(highestBound) ? bound : highestBound;
+            }
+        }
+        if (highestBound == null) {
+            // Table is not partitioned (yet) on this shard
+            return null;
+        }
+
+        // Split the next months out of p_future in one statement
+        YearMonth last = YearMonth.now().plusMonths(Math.max(0, monthsAhead));
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(highestBound); !month.isAfter(last); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+            changes.add("shard " + shard + ": created " + month.format(PARTITION_NAME));
+        }
+        if (!definitions.isEmpty()) {
+            definitions.add("PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+            transaction.execute(status -> entityManager.createNativeQuery("ALTER TABLE transactions REORGANIZE PARTITION p_future INTO ("
+                    + String.join(", ", definitions) + ")").executeUpdate());
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            List<String> expired = new ArrayList<>();
+            for (YearMonth month : months) {
+                if (month.isBefore(oldestKept)) {
+                    expired.add(month.format(PARTITION_NAME));
+                }
+            }
+            if (!expired.isEmpty()) {
+                // References first: until the partitions are gone, a replay still finds its original
+                LocalDateTime before = oldestKept.atDay(1).atStartOfDay();
+                long purged = 0;
+                int deleted;
+                do {
+                    deleted = transaction.execute(status -> referenceRepository.deleteCreatedBefore(before, purgeChunkSize));
+                    purged += deleted;
+                } while (deleted == purgeChunkSize);
+                changes.add("shard " + shard + ": purged " + purged + " references before " + oldestKept.atDay(1));
+
+                transaction.execute(status -> entityManager.createNativeQuery(
+                        "ALTER TABLE transactions DROP PARTITION " + String.join(", ", expired)).executeUpdate());
+                expired.forEach(name -> changes.add("shard " + shard + ": dropped " + name));
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> listPartitions() {
+        return entityManager.createNativeQuery("SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION").getResultList();
+    }
+
+    /**
+     * Partitions of the transactions table with their approximate row counts, per shard
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getPartitions() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        List<List<Object[]>> shards = shardRouter.scatter(() -> (List<Object[]>) entityManager.createNativeQuery(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION").getResultList());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (Object[] row : shards.get(shard)) {
+                Map<String, Object> partition = new LinkedHashMap<>();
+                partition.put("shard", shard);
+                partition.put("name", row[0]);
+                partition.put("lessThan", row[1]);
+                partition.put("approximateRows", row[2]);
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("monthsAhead", monthsAhead);
+        stats.put("retentionMonths", retentionMonths);
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunChanges", lastRunChanges);
+        stats.put("lastError", lastError);
+        stats.put("partitions", getPartitions());
+        return stats;
+    }
+}
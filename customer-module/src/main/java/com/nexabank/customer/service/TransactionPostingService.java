@@ -0,0 +1,601 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.PostingRequest;
+import com.nexabank.customer.entity.AccountBalance;
+import com.nexabank.customer.entity.Transaction;
+import com.nexabank.customer.entity.TransactionReference;
+import com.nexabank.customer.repository.AccountBalanceRepository;
+import com.nexabank.customer.repository.TransactionReferenceRepository;
+import com.nexabank.customer.repository.TransactionRepository;
+import com.nexabank.customer.repository.TransactionRollupRepository;
+import com.nexabank.customer.util.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends transactions to the ledger and keeps account_balances in step with it.
+ *
+ * Accounts are hashed onto a fixed number of partitions, each drained by a single writer
+ * thread, so postings to one account are applied strictly in arrival order without locks
+ * inside this node. A writer takes everything queued on its partition (up to max-batch-size)
+ * and commits it as one transaction per shard: dedupe on (accountId, referenceNumber) through
+ * transaction_references, lock the batch's balance rows (which also serializes writers on
+ * other nodes), insert the ledger rows with JDBC batching, update the balances and add the
+ * completed postings to the rollups in the writer's own slot. Postings that break a velocity
+ * rule (VelocityEngine) are recorded as PENDING without touching the balance until they are
+ * approved or rejected through {@link #reviewHeld}. Callers get their
+ * result once the batch has committed. If a batch fails, its postings are retried one by one so a single
+ * bad posting cannot fail the others.
+ */
+@Service
+@Slf4j
+public class TransactionPostingService implements DisposableBean {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalanceRepository balanceRepository;
+
+    @Autowired
+    private TransactionReferenceRepository referenceRepository;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private VelocityEngine velocityEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.posting.partitions:8}")
+    private int partitionCount;
+
+    @Value("${app.posting.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.posting.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.posting.max-batch-delay-ms:0}")
+    private long maxBatchDelayMs;
+
+    private Partition[] partitions;
+    private TransactionTemplate postingTransaction;
+    private volatile boolean running = true;
+
+    private final LongAdder posted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder held = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchRetries = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final LatencyHistogram postingLatency = new LatencyHistogram();
+    private final long startedAt = System.currentTimeMillis();
+
+    @PostConstruct
+    public void init() {
+        postingTransaction = new TransactionTemplate(transactionManager);
+        partitions = new Partition[Math.max(1, partitionCount)];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].thread.start();
+        }
+    }
+
+    /**
+     * Queue a posting on its account's partition; the future completes when the batch holding it commits
+     */
+    public CompletableFuture<PostingResult> post(PostingRequest request) {
+        validate(request);
+        PendingPosting pending = new PendingPosting(request);
+        if (!running || !partitionFor(request).queue.offer(pending)) {
+            throw new RejectedExecutionException("Posting queue is full, retry later");
+        }
+        return pending.future;
+    }
+
+    /**
+     * Like post, but waits up to waitMs for queue space instead of rejecting at once (for bulk producers)
+     */
+    public CompletableFuture<PostingResult> post(PostingRequest request, long waitMs) throws InterruptedException {
+        validate(request);
+        PendingPosting pending = new PendingPosting(request);
+        if (!running || !partitionFor(request).queue.offer(pending, waitMs, TimeUnit.MILLISECONDS)) {
+            throw new RejectedExecutionException("Posting queue is full, retry later");
+        }
+        return pending.future;
+    }
+
+    private Partition partitionFor(PostingRequest request) {
+        return partitions[Math.floorMod(request.getAccountId().hashCode(), partitions.length)];
+    }
+
+    static void validate(PostingRequest request) {
+        if (request.getAccountId() == null || request.getAccountId().isBlank()) {
+            throw new IllegalArgumentException("accountId is required");
+        }
+        if (request.getTransactionType() == null) {
+            throw new IllegalArgumentException("transactionType is required");
+        }
+        if (request.getReferenceNumber() == null || request.getReferenceNumber().isBlank()) {
+            throw new IllegalArgumentException("referenceNumber is required");
+        }
+        BigDecimal amount = request.getAmount();
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be greater than zero");
+        }
+        if (amount.stripTrailingZeros().scale() > 2 || amount.precision() - amount.scale() > 13) {
+            throw new IllegalArgumentException("amount must fit DECIMAL(15, 2)");
+        }
+    }
+
+    /**
+     * Current balance snapshot of an account (a primary key read)
+     */
+    public Optional<AccountBalance> getBalance(String accountId) {
+        return shardRouter.onShardFor(accountId, () -> balanceRepository.findById(accountId));
+    }
+
+    private void commit(int slot, List<PendingPosting> batch) {
+        Map<Integer, List<PendingPosting>> byShard = new LinkedHashMap<>();
+        for (PendingPosting pending : batch) {
+            byShard.computeIfAbsent(shardRouter.shardFor(pending.request.getAccountId()), shard -> new ArrayList<>()).add(pending);
+        }
+        for (Map.Entry<Integer, List<PendingPosting>> entry : byShard.entrySet()) {
+            int shard = entry.getKey();
+            List<PendingPosting> postings = entry.getValue();
+            try {
+                commitOnShard(shard, slot, postings);
+            } catch (RuntimeException e) {
+                if (postings.size() == 1) {
+                    fail(postings.get(0), e);
+                    continue;
+                }
+                // e.g. a concurrent node posted the same reference: isolate the failing posting
+                batchRetries.increment();
+                log.warn("Posting batch of {} failed on shard {}, retrying individually: {}", postings.size(), shard, e.getMessage());
+                for (PendingPosting pending : postings) {
+                    try {
+                        commitOnShard(shard, slot, List.of(pending));
+                    } catch (RuntimeException single) {
+                        fail(pending, single);
+                    }
+                }
+            }
+        }
+    }
+
+    private void commitOnShard(int shard, int slot, List<PendingPosting> postings) {
+        long start = System.nanoTime();
+        List<PostingResult> results = ShardContext.callOnShard(shard, () -> postingTransaction.execute(status -> apply(slot, postings)));
+        long now = System.nanoTime();
+        commitLatency.record(now - start);
+        batches.increment();
+        for (int i = 0; i < postings.size(); i++) {
+            PendingPosting pending = postings.get(i);
+            PostingResult result = results.get(i);
+            if (result.isDuplicate()) {
+                duplicates.increment();
+            } else if (result.getTransaction().getStatus() == Transaction.TransactionStatus.FAILED) {
+                insufficientFunds.increment();
+            } else if (result.getHeldBy() != null) {
+                held.increment();
+            } else {
+                posted.increment();
+            }
+            postingLatency.record(now - pending.enqueuedAt);
+            pending.future.complete(result);
+        }
+    }
+
+    private void fail(PendingPosting pending, RuntimeException e) {
+        errors.increment();
+        log.error("Posting {} to account {} failed", pending.request.getReferenceNumber(), pending.request.getAccountId(), e);
+        pending.future.completeExceptionally(e);
+    }
+
+    /**
+     * Apply a batch in the caller's transaction; results are in posting order
+     */
+    private List<PostingResult> apply(int slot, List<PendingPosting> postings) {
+        Set<String> accountIds = new LinkedHashSet<>();
+        Set<String> referenceNumbers = new LinkedHashSet<>();
+        for (PendingPosting pending : postings) {
+            accountIds.add(pending.request.getAccountId());
+            referenceNumbers.add(pending.request.getReferenceNumber());
+        }
+
+        // Lock the balances first so a concurrent writer cannot post the same reference in between
+        Map<String, AccountBalance> balances = new HashMap<>();
+        for (AccountBalance balance : balanceRepository.lockByAccountIds(accountIds)) {
+            balances.put(balance.getAccountId(), balance);
+        }
+        Map<String, Transaction> byReference = findOriginals(accountIds, referenceNumbers);
+        VelocityEngine.Batch velocityBatch = velocityEngine.newBatch();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        Map<String, RollupDelta> rollups = new TreeMap<>();
+        for (PendingPosting pending : postings) {
+            PostingRequest request = pending.request;
+            String key = referenceKey(request.getAccountId(), request.getReferenceNumber());
+            Transaction original = byReference.get(key);
+            if (original != null) {
+                results.add(new PostingResult(original, true));
+                continue;
+            }
+
+            AccountBalance balance = balances.get(request.getAccountId());
+            BigDecimal current = balance != null ? balance.getBalance() : BigDecimal.ZERO;
+            BigDecimal delta = isCredit(request.getTransactionType()) ? request.getAmount() : request.getAmount().negate();
+            BigDecimal next = current.add(delta);
+
+            Transaction transaction = new Transaction();
+            transaction.setAccountId(request.getAccountId());
+            transaction.setTransactionType(request.getTransactionType());
+            transaction.setAmount(request.getAmount());
+            transaction.setReferenceNumber(request.getReferenceNumber());
+            transaction.setDescription(request.getDescription());
+            transaction.setCategory(request.getCategory());
+            transaction.setTargetAccountId(request.getTargetAccountId());
+            transaction.setCreatedAt(now);
+            transaction.setProcessedAt(now);
+            String heldBy = velocityEngine.check(request, velocityBatch);
+            if (heldBy != null) {
+                // Held for review: in the ledger so the reference is taken, but not applied to the balance
+                transaction.setStatus(Transaction.TransactionStatus.PENDING);
+                transaction.setBalanceAfter(current);
+                persist(transaction);
+            } else if (delta.signum() < 0 && next.signum() < 0) {
+                // Rejected postings stay in the ledger so a retry with the same reference gets the same answer
+                transaction.setStatus(Transaction.TransactionStatus.FAILED);
+                transaction.setBalanceAfter(current);
+                persist(transaction);
+            } else {
+                transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+                transaction.setBalanceAfter(next);
+                persist(transaction);
+                if (balance == null) {
+                    balance = new AccountBalance(request.getAccountId());
+                    entityManager.persist(balance);
+                    balances.put(balance.getAccountId(), balance);
+                }
+                balance.setBalance(next);
+                balance.setTransactionCount(balance.getTransactionCount() + 1);
+                balance.setLastTransactionId(transaction.getTransactionId());
+                balance.setUpdatedAt(now);
+                rollups.computeIfAbsent(rollupKey(request), key -> new RollupDelta(request)).add(request.getAmount());
+            }
+            byReference.put(key, transaction);
+            results.add(new PostingResult(transaction, false, heldBy));
+        }
+
+        // One upsert per bucket, in key order so writers on different nodes lock rollup rows in the same order
+        LocalDate today = now.toLocalDate();
+        Map<String, RollupDelta> totals = new TreeMap<>();
+        for (RollupDelta delta : rollups.values()) {
+            rollupRepository.addToDaily(today, delta.type, delta.category, slot, delta.count, delta.amount);
+            totals.computeIfAbsent(delta.type, type -> new RollupDelta(type, "")).add(delta);
+        }
+        for (RollupDelta total : totals.values()) {
+            rollupRepository.addToTotals(total.type, slot, total.count, total.amount);
+        }
+
+        // Only postings that are actually in the ledger count towards the velocity windows
+        if (!velocityBatch.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    velocityEngine.commit(velocityBatch);
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * PENDING postings of an account held by a velocity rule, oldest first
+     */
+    public List<Transaction> getHeld(String accountId, int limit) {
+        return shardRouter.onShardFor(accountId, () -> transactionRepository.findByAccountIdAndStatus(
+                accountId, Transaction.TransactionStatus.PENDING, PageRequest.of(0, Math.max(1, Math.min(limit, 500)))));
+    }
+
+    /**
+     * Release a held posting: applied to the balance as of now (FAILED if the account can no
+     * longer cover a debit). Rejecting marks it CANCELLED. Either way the reference stays taken.
+     * Runs under the account's balance row lock, like the writers.
+     */
+    public Transaction reviewHeld(String accountId, String transactionId, boolean approve) {
+        Transaction reviewed = shardRouter.onShardFor(accountId,
+                () -> postingTransaction.execute(status -> applyReview(accountId, transactionId, approve)));
+        if (reviewed.getStatus() == Transaction.TransactionStatus.COMPLETED) {
+            released.increment();
+        } else if (reviewed.getStatus() == Transaction.TransactionStatus.CANCELLED) {
+            rejected.increment();
+        } else {
+            insufficientFunds.increment();
+        }
+        log.info("Held posting {} on account {} {} by review: {}", transactionId, accountId,
+                approve ? "approved" : "rejected", reviewed.getStatus());
+        return reviewed;
+    }
+
+    private Transaction applyReview(String accountId, String transactionId, boolean approve) {
+        List<AccountBalance> locked = balanceRepository.lockByAccountIds(List.of(accountId));
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .filter(candidate -> accountId.equals(candidate.getAccountId()))
+                .orElseThrow(() -> new RuntimeException("Transaction not found with ID: " + transactionId));
+        if (transaction.getStatus() != Transaction.TransactionStatus.PENDING) {
+            throw new IllegalStateException("Transaction " + transactionId + " is " + transaction.getStatus()
+                    + ", only held (PENDING) postings can be reviewed");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transaction.setProcessedAt(now);
+        if (!approve) {
+            transaction.setStatus(Transaction.TransactionStatus.CANCELLED);
+            return transaction;
+        }
+
+        AccountBalance balance = locked.isEmpty() ? null : locked.get(0);
+        BigDecimal current = balance != null ? balance.getBalance() : BigDecimal.ZERO;
+        BigDecimal delta = isCredit(transaction.getTransactionType()) ? transaction.getAmount() : transaction.getAmount().negate();
+        BigDecimal next = current.add(delta);
+        if (delta.signum() < 0 && next.signum() < 0) {
+            transaction.setStatus(Transaction.TransactionStatus.FAILED);
+            transaction.setBalanceAfter(current);
+            return transaction;
+        }
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setBalanceAfter(next);
+        if (balance == null) {
+            balance = new AccountBalance(accountId);
+            entityManager.persist(balance);
+        }
+        balance.setBalance(next);
+        balance.setTransactionCount(balance.getTransactionCount() + 1);
+        balance.setLastTransactionId(transaction.getTransactionId());
+        balance.setUpdatedAt(now);
+
+        // Rollups are by posting day, which is the day the posting was created, not approved
+        int slot = Math.floorMod(accountId.hashCode(), partitions.length);
+        String type = transaction.getTransactionType().name();
+        rollupRepository.addToDaily(transaction.getCreatedAt().toLocalDate(), type,
+                transaction.getCategory() != null ? transaction.getCategory() : "", slot, 1, transaction.getAmount());
+        rollupRepository.addToTotals(type, slot, 1, transaction.getAmount());
+        return transaction;
+    }
+
+    private static String rollupKey(PostingRequest request) {
+        return request.getTransactionType().name() + '\u0000' + (request.getCategory() != null ? request.getCategory() : "");
+    }
+
+    /**
+     * Earlier postings for the batch's references, keyed by referenceKey
+     */
+    private Map<String, Transaction> findOriginals(Set<String> accountIds, Set<String> referenceNumbers) {
+        Map<String, Transaction> byReference = new HashMap<>();
+        List<TransactionReference> references = referenceRepository.findByAccountIdsAndReferenceNumbers(accountIds, referenceNumbers);
+        if (references.isEmpty()) {
+            return byReference;
+        }
+        Map<String, String> keyByTransactionId = new HashMap<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (TransactionReference reference : references) {
+            keyByTransactionId.put(reference.getTransactionId(), referenceKey(reference.getAccountId(), reference.getReferenceNumber()));
+            from = reference.getCreatedAt().isBefore(from) ? reference.getCreatedAt() : from;
+            to = reference.getCreatedAt().isAfter(to) ? reference.getCreatedAt() : to;
+        }
+        for (Transaction original : transactionRepository.findByIdsCreatedBetween(keyByTransactionId.keySet(), from, to)) {
+            byReference.put(keyByTransactionId.get(original.getTransactionId()), original);
+        }
+        return byReference;
+    }
+
+    // The reference row's primary key rejects a reference posted concurrently by another node
+    private void persist(Transaction transaction) {
+        entityManager.persist(transaction);
+        entityManager.persist(new TransactionReference(transaction.getAccountId(), transaction.getReferenceNumber(),
+                transaction.getTransactionId(), transaction.getCreatedAt()));
+    }
+
+    private static boolean isCredit(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.CREDIT || type == Transaction.TransactionType.TRANSFER_IN;
+    }
+
+    private static String referenceKey(String accountId, String referenceNumber) {
+        return accountId + '\u0000' + referenceNumber;
+    }
+
+    public Map<String, Object> getStats() {
+        long uptimeSeconds = Math.max(1, (System.currentTimeMillis() - startedAt) / 1000);
+        long batchCount = batches.sum();
+        long applied = posted.sum() + duplicates.sum() + insufficientFunds.sum() + held.sum();
+        List<Integer> queueDepths = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            queueDepths.add(partition.queue.size());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("partitions", partitions.length);
+        stats.put("queueDepths", queueDepths);
+        stats.put("posted", posted.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("insufficientFunds", insufficientFunds.sum());
+        stats.put("held", held.sum());
+        stats.put("heldReleased", released.sum());
+        stats.put("heldRejected", rejected.sum());
+        stats.put("errors", errors.sum());
+        stats.put("batches", batchCount);
+        stats.put("batchRetries", batchRetries.sum());
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) applied / batchCount);
+        stats.put("postingsPerSecond", (double) applied / uptimeSeconds);
+        stats.put("commitLatency", commitLatency.snapshot());
+        stats.put("postingLatency", postingLatency.snapshot());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        for (Partition partition : partitions) {
+            partition.thread.interrupt();
+        }
+    }
+
+    /**
+     * Result of one posting: the ledger row, whether it was already posted earlier and, for a
+     * posting held as PENDING, the velocity rule that held it
+     */
+    public static class PostingResult {
+        private final Transaction transaction;
+        private final boolean duplicate;
+        private final String heldBy;
+
+        public PostingResult(Transaction transaction, boolean duplicate) {
+            this(transaction, duplicate, null);
+        }
+
+        public PostingResult(Transaction transaction, boolean duplicate, String heldBy) {
+            this.transaction = transaction;
+            this.duplicate = duplicate;
+            this.heldBy = heldBy;
+        }
+
+        public Transaction getTransaction() { return transaction; }
+        public boolean isDuplicate() { return duplicate; }
+        public String getHeldBy() { return heldBy; }
+    }
+
+    private static final class RollupDelta {
+        private final String type;
+        private final String category;
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private RollupDelta(PostingRequest request) {
+            this(request.getTransactionType().name(), request.getCategory() != null ? request.getCategory() : "");
+        }
+
+        private RollupDelta(String type, String category) {
+            this.type = type;
+            this.category = category;
+        }
+
+        private void add(BigDecimal value) {
+            count++;
+            amount = amount.add(value);
+        }
+
+        private void add(RollupDelta other) {
+            count += other.count;
+            amount = amount.add(other.amount);
+        }
+    }
+
+    private static final class PendingPosting {
+        private final PostingRequest request;
+        private final CompletableFuture<PostingResult> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private PendingPosting(PostingRequest request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * One account partition: a bounded queue drained by a single writer thread
+     */
+    private final class Partition implements Runnable {
+        private final BlockingQueue<PendingPosting> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        private final int index;
+        private final Thread thread;
+
+        private Partition(int index) {
+            this.index = index;
+            thread = new Thread(this, "posting-writer-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<PendingPosting> batch = new ArrayList<>(maxBatchSize);
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    if (maxBatchDelayMs > 0) {
+                        // Linger briefly for a fuller batch under moderate load
+                        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+                        while (batch.size() < maxBatchSize) {
+                            PendingPosting next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                            if (next == null) {
+                                break;
+                            }
+                            batch.add(next);
+                            queue.drainTo(batch, maxBatchSize - batch.size());
+                        }
+                    }
+                    commit(index, batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (RuntimeException e) {
+                    log.error("Posting writer failed", e);
+                    batch.forEach(pending -> pending.future.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+            // Fail whatever is still queued at shutdown
+            List<PendingPosting> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            batch.addAll(remaining);
+            batch.forEach(pending -> pending.future.completeExceptionally(new RejectedExecutionException("Posting service is shutting down")));
+        }
+    }
+}
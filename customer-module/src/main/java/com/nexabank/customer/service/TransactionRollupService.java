@@ -0,0 +1,361 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.ShardContext;
+import com.nexabank.customer.config.ShardRouter;
+import com.nexabank.customer.dto.AdminStatsResponse;
+import com.nexabank.customer.repository.SchedulerLeaseRepository;
+import com.nexabank.customer.repository.TransactionRepository;
+import com.nexabank.customer.repository.TransactionRollupRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads and checks the transaction rollups maintained by TransactionPostingService.
+ *
+ * Totals and daily breakdowns are summed over the writer slots of every shard. Reconciliation
+ * recomputes recent days from the ledger and compares them with the rollups; both are read in
+ * one transaction, so they come from the same snapshot, and any difference is added back to
+ * slot 0 as a correction. Corrections are additive, so postings committed meanwhile are not
+ * lost. Only the node holding the scheduler lease reconciles.
+ */
+@Service
+@Slf4j
+public class TransactionRollupService {
+
+    private static final String LEASE_NAME = "transaction-rollup-reconciler";
+    private static final int REPAIR_SLOT = 0;
+
+    @Autowired
+    private TransactionRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.rollups.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rollups.reconcile.days:7}")
+    private int reconcileDays;
+
+    @Value("${app.rollups.reconcile.repair:true}")
+    private boolean repair;
+
+    @Value("${app.rollups.reconcile.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private TransactionTemplate reconcileTransaction;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedWithoutLease = new AtomicLong();
+    private final AtomicLong totalMismatches = new AtomicLong();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunDurationMs;
+    private volatile List<Map<String, Object>> lastRunMismatches = List.of();
+    private volatile String lastError;
+
+    @PostConstruct
+    public void init() {
+        reconcileTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count and volume of completed transactions, overall and per type
+     */
+    public Map<String, Object> getTotals() {
+        Map<String, Bucket> byType = new TreeMap<>();
+        for (Object[] row : shardRouter.scatterList(rollupRepository::findTotals)) {
+            byType.computeIfAbsent((String) row[0], type -> new Bucket()).add(toLong(row[1]), toBigDecimal(row[2]));
+        }
+        Bucket overall = new Bucket();
+        Map<String, Object> types = new LinkedHashMap<>();
+        for (Map.Entry<String, Bucket> entry : byType.entrySet()) {
+            overall.add(entry.getValue().count, entry.getValue().amount);
+            types.put(entry.getKey(), entry.getValue().toMap());
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("totalTransactions", overall.count);
+        totals.put("totalTransactionVolume", overall.amount);
+        totals.put("byType", types);
+        return totals;
+    }
+
+    /**
+     * Fill the transaction fields of the admin dashboard from the rollups
+     */
+    public void fillTransactionStats(AdminStatsResponse stats) {
+        Map<String, Object> totals = getTotals();
+        stats.setTotalTransactions((long) totals.get("totalTransactions"));
+        stats.setTotalTransactionVolume((BigDecimal) totals.get("totalTransactionVolume"));
+    }
+
+    /**
+     * Per-day totals between two dates (inclusive), broken down by type and category
+     */
+    public List<Map<String, Object>> getDaily(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        // day -> type -> category
+        Map<LocalDate, Map<String, Map<String, Bucket>>> days = new TreeMap<>();
+        for (Object[] row : shardRouter.scatterList(() -> rollupRepository.findDaily(from, to))) {
+            days.computeIfAbsent(toLocalDate(row[0]), day -> new TreeMap<>())
+                .computeIfAbsent((String) row[1], type -> new TreeMap<>())
+                .computeIfAbsent((String) row[2], category -> new Bucket())
+                .add(toLong(row[3]), toBigDecimal(row[4]));
+        }
+        List<Map<String, Object>> result = new ArrayList<>(days.size());
+        for (Map.Entry<LocalDate, Map<String, Map<String, Bucket>>> day : days.entrySet()) {
+            Bucket dayTotal = new Bucket();
+            Map<String, Object> types = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Bucket>> type : day.getValue().entrySet()) {
+                Bucket typeTotal = new Bucket();
+                Map<String, Object> categories = new LinkedHashMap<>();
+                for (Map.Entry<String, Bucket> category : type.getValue().entrySet()) {
+                    typeTotal.add(category.getValue().count, category.getValue().amount);
+                    categories.put(category.getKey(), category.getValue().toMap());
+                }
+                dayTotal.add(typeTotal.count, typeTotal.amount);
+                Map<String, Object> typeMap = typeTotal.toMap();
+                typeMap.put("byCategory", categories);
+                types.put(type.getKey(), typeMap);
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("date", day.getKey());
+            item.putAll(dayTotal.toMap());
+            item.put("byType", types);
+            result.add(item);
+        }
+        return result;
+    }
+
+    @Scheduled(cron = "${app.rollups.reconcile.cron:0 15 3 * * *}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcile(reconcileDays);
+        }
+    }
+
+    /**
+     * Check the last days of rollups against the ledger; false when a run is already in progress
+     * here or another node holds the lease
+     */
+    public boolean reconcile(int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be at least 1");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+                skippedWithoutLease.incrementAndGet();
+                return false;
+            }
+            runWithLease(days);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runWithLease(int days) {
+        long start = System.currentTimeMillis();
+        lastRunStartedAt = LocalDateTime.now();
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int target = shard;
+                for (int back = 0; back < days; back++) {
+                    LocalDate day = today.minusDays(back);
+                    mismatches.addAll(ShardContext.callOnShard(target,
+                            () -> reconcileTransaction.execute(status -> reconcileDay(target, day))));
+                }
+                // Totals must equal the sum of the daily rows (including any corrections just made)
+                mismatches.addAll(ShardContext.callOnShard(target,
+                        () -> reconcileTransaction.execute(status -> reconcileTotals(target))));
+                leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds);
+            }
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Transaction rollup reconciliation failed", e);
+        } finally {
+            totalMismatches.addAndGet(mismatches.size());
+            lastRunMismatches = mismatches;
+            runs.incrementAndGet();
+            lastRunDurationMs = System.currentTimeMillis() - start;
+            lastRunFinishedAt = LocalDateTime.now();
+            leaseRepository.release(LEASE_NAME, nodeId);
+        }
+        if (mismatches.isEmpty()) {
+            log.info("Transaction rollups reconciled over {} days in {} ms, no differences", days, lastRunDurationMs);
+        } else {
+            log.warn("Transaction rollups differed from the ledger in {} buckets ({}): {}",
+                    mismatches.size(), repair ? "corrected" : "not corrected", mismatches);
+        }
+    }
+
+    /**
+     * Compare one day of rollups with the ledger in the caller's transaction
+     */
+    private List<Map<String, Object>> reconcileDay(int shard, LocalDate day) {
+        Map<String, Bucket> expected = new HashMap<>();
+        for (Object[] row : transactionRepository.aggregateCompletedBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+            expected.computeIfAbsent(key((String) row[0], (String) row[1]), key -> new Bucket()).add(toLong(row[2]), toBigDecimal(row[3]));
+        }
+        Map<String, Bucket> actual = new HashMap<>();
+        for (Object[] row : rollupRepository.findDayBuckets(day)) {
+            actual.computeIfAbsent(key((String) row[0], (String) row[1]), key -> new Bucket()).add(toLong(row[2]), toBigDecimal(row[3]));
+        }
+
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        Set<String> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (String key : keys) {
+            Bucket want = expected.getOrDefault(key, new Bucket());
+            Bucket have = actual.getOrDefault(key, new Bucket());
+            long countDelta = want.count - have.count;
+            BigDecimal amountDelta = want.amount.subtract(have.amount);
+            if (countDelta == 0 && amountDelta.signum() == 0) {
+                continue;
+            }
+            String[] parts = key.split("\u0000", -1);
+            if (repair) {
+                rollupRepository.addToDaily(day, parts[0], parts[1], REPAIR_SLOT, countDelta, amountDelta);
+            }
+            Map<String, Object> mismatch = mismatch(shard, parts[0], want, have);
+            mismatch.put("date", day);
+            mismatch.put("category", parts[1]);
+            mismatches.add(mismatch);
+        }
+        return mismatches;
+    }
+
+    private List<Map<String, Object>> reconcileTotals(int shard) {
+        Map<String, Bucket> expected = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumDailyByType()) {
+            expected.computeIfAbsent((String) row[0], type -> new Bucket()).add(toLong(row[1]), toBigDecimal(row[2]));
+        }
+        Map<String, Bucket> actual = new TreeMap<>();
+        for (Object[] row : rollupRepository.findTotals()) {
+            actual.computeIfAbsent((String) row[0], type -> new Bucket()).add(toLong(row[1]), toBigDecimal(row[2]));
+        }
+        Set<String> types = new TreeSet<>(expected.keySet());
+        types.addAll(actual.keySet());
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (String type : types) {
+            Bucket want = expected.getOrDefault(type, new Bucket());
+            Bucket have = actual.getOrDefault(type, new Bucket());
+            long countDelta = want.count - have.count;
+            BigDecimal amountDelta = want.amount.subtract(have.amount);
+            if (countDelta == 0 && amountDelta.signum() == 0) {
+                continue;
+            }
+            if (repair) {
+                rollupRepository.addToTotals(type, REPAIR_SLOT, countDelta, amountDelta);
+            }
+            mismatches.add(mismatch(shard, type, want, have));
+        }
+        return mismatches;
+    }
+
+    private static Map<String, Object> mismatch(int shard, String type, Bucket expected, Bucket actual) {
+        Map<String, Object> mismatch = new LinkedHashMap<>();
+        mismatch.put("shard", shard);
+        mismatch.put("transactionType", type);
+        mismatch.put("expectedCount", expected.count);
+        mismatch.put("rollupCount", actual.count);
+        mismatch.put("expectedAmount", expected.amount);
+        mismatch.put("rollupAmount", actual.amount);
+        return mismatch;
+    }
+
+    public Map<String, Object> getReconciliationStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("running", running.get());
+        stats.put("days", reconcileDays);
+        stats.put("repair", repair);
+        stats.put("runs", runs.get());
+        stats.put("skippedWithoutLease", skippedWithoutLease.get());
+        stats.put("totalMismatches", totalMismatches.get());
+        stats.put("lastRunStartedAt", lastRunStartedAt);
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastRunMismatches", lastRunMismatches);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private static String key(String type, String category) {
+        return type + '\u0000' + category;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static final class Bucket {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count);
+            map.put("amount", amount);
+            return map;
+        }
+    }
+}
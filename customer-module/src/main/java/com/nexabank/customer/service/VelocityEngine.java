@@ -0,0 +1,236 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.config.VelocityProperties;
+import com.nexabank.customer.config.VelocityProperties.Rule;
+import com.nexabank.customer.config.VelocityProperties.Scope;
+import com.nexabank.customer.dto.PostingRequest;
+import com.nexabank.customer.entity.Transaction.TransactionType;
+import com.nexabank.customer.util.LatencyHistogram;
+import com.nexabank.customer.util.SlidingWindowCounters;
+import com.nexabank.customer.util.SlidingWindowCounters.Totals;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding-window velocity checks for TransactionPostingService.
+ *
+ * Every monitored posting is evaluated against its account's window (and its customer's, when
+ * the request names one) including itself; the first rule exceeded holds the posting as
+ * PENDING. Windows live in memory on each node (SlidingWindowCounters), so a check costs a map
+ * lookup, three compare-and-sets and a scan of at most {@code buckets} buckets per rule.
+ * Postings checked in a posting transaction are staged in its {@link Batch}, where they count
+ * towards the rest of that batch, and reach the node's windows only when the transaction
+ * commits; a batch that rolls back and is retried is counted once.
+ */
+@Service
+@Slf4j
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityEngine {
+
+    @Autowired
+    private VelocityProperties properties;
+
+    private SlidingWindowCounters accountWindows;
+    private SlidingWindowCounters customerWindows;
+    private Set<TransactionType> monitoredTypes;
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder held = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LatencyHistogram checkLatency = new LatencyHistogram();
+
+    @PostConstruct
+    public void init() {
+        long bucketMillis = Math.max(1, properties.getBucketSeconds()) * 1000;
+        int buckets = Math.max(1, properties.getBuckets());
+        accountWindows = new SlidingWindowCounters(bucketMillis, buckets);
+        customerWindows = new SlidingWindowCounters(bucketMillis, buckets);
+        monitoredTypes = properties.getTransactionTypes().isEmpty()
+            ? EnumSet.noneOf(TransactionType.class) : EnumSet.copyOf(properties.getTransactionTypes());
+        for (Rule rule : properties.getRules()) {
+            long windowBuckets = (rule.getWindowSeconds() * 1000 + bucketMillis - 1) / bucketMillis;
+            if (windowBuckets > buckets) {
+                log.warn("Velocity rule {} looks back {} s but windows only keep {} s; using the full window",
+                        rule.getName(), rule.getWindowSeconds(), buckets * bucketMillis / 1000);
+            }
+            rules.add(new CompiledRule(rule, (int) Math.max(1, Math.min(windowBuckets, buckets))));
+        }
+    }
+
+    /**
+     * Staging area for the postings of one posting transaction
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Stage a posting in the batch and return the name of the first rule it breaks, or null to
+     * let it through
+     */
+    public String check(PostingRequest request, Batch batch) {
+        if (!properties.isEnabled() || !monitoredTypes.contains(request.getTransactionType())) {
+            return null;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        long amountMinor = request.getAmount().movePointRight(2).longValue();
+        String customerId = request.getCustomerId();
+        batch.record(request, now, amountMinor);
+
+        String breached = null;
+        for (CompiledRule rule : rules) {
+            String key = rule.scope == Scope.ACCOUNT ? request.getAccountId() : customerId;
+            if (key == null) {
+                continue;
+            }
+            Totals totals = (rule.scope == Scope.ACCOUNT ? accountWindows : customerWindows).totals(key, now, rule.windowBuckets)
+                .plus((rule.scope == Scope.ACCOUNT ? batch.accountWindows : batch.customerWindows).totals(key, now, rule.windowBuckets));
+            if (rule.isBrokenBy(totals)) {
+                rule.hits.increment();
+                breached = rule.name;
+                break;
+            }
+        }
+        checked.increment();
+        if (breached != null) {
+            held.increment();
+            log.info("Posting {} to account {} held by velocity rule {}", request.getReferenceNumber(), request.getAccountId(), breached);
+        }
+        checkLatency.record(System.nanoTime() - start);
+        return breached;
+    }
+
+    /**
+     * Add a committed batch's postings to the node's windows
+     */
+    public void commit(Batch batch) {
+        for (Staged staged : batch.staged) {
+            PostingRequest request = staged.request;
+            accountWindows.record(request.getAccountId(), staged.atMillis, staged.amountMinor, request.getTargetAccountId());
+            if (request.getCustomerId() != null) {
+                customerWindows.record(request.getCustomerId(), staged.atMillis, staged.amountMinor, request.getTargetAccountId());
+            }
+        }
+    }
+
+    /**
+     * Current totals of an account for each account rule's window
+     */
+    public Map<String, Object> getAccountWindows(String accountId) {
+        return windows(Scope.ACCOUNT, accountWindows, accountId);
+    }
+
+    public Map<String, Object> getCustomerWindows(String customerId) {
+        return windows(Scope.CUSTOMER, customerWindows, customerId);
+    }
+
+    private Map<String, Object> windows(Scope scope, SlidingWindowCounters counters, String key) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (CompiledRule rule : rules) {
+            if (rule.scope != scope) {
+                continue;
+            }
+            Totals totals = counters.totals(key, now, rule.windowBuckets);
+            Map<String, Object> window = new LinkedHashMap<>();
+            window.put("windowSeconds", rule.windowBuckets * counters.getBucketMillis() / 1000);
+            window.put("count", totals.getCount());
+            window.put("amount", BigDecimal.valueOf(totals.getAmountMinor(), 2));
+            window.put("distinctTargets", totals.getDistinctTargets());
+            window.put("breached", rule.isBrokenBy(totals));
+            result.put(rule.name, window);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.velocity.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        evicted.add(accountWindows.evictIdle(now) + customerWindows.evictIdle(now));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> ruleHits = new LinkedHashMap<>();
+        rules.forEach(rule -> ruleHits.put(rule.name, rule.hits.sum()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("windowSeconds", accountWindows.getBuckets() * accountWindows.getBucketMillis() / 1000);
+        stats.put("activeAccounts", accountWindows.size());
+        stats.put("activeCustomers", customerWindows.size());
+        stats.put("checked", checked.sum());
+        stats.put("held", held.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("ruleHits", ruleHits);
+        stats.put("checkLatency", checkLatency.snapshot());
+        return stats;
+    }
+
+    /**
+     * Postings checked in one transaction, visible to later checks of that transaction only
+     */
+    public final class Batch {
+        private final SlidingWindowCounters accountWindows =
+            new SlidingWindowCounters(VelocityEngine.this.accountWindows.getBucketMillis(), VelocityEngine.this.accountWindows.getBuckets());
+        private final SlidingWindowCounters customerWindows =
+            new SlidingWindowCounters(VelocityEngine.this.customerWindows.getBucketMillis(), VelocityEngine.this.customerWindows.getBuckets());
+        private final List<Staged> staged = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        private void record(PostingRequest request, long atMillis, long amountMinor) {
+            accountWindows.record(request.getAccountId(), atMillis, amountMinor, request.getTargetAccountId());
+            if (request.getCustomerId() != null) {
+                customerWindows.record(request.getCustomerId(), atMillis, amountMinor, request.getTargetAccountId());
+            }
+            staged.add(new Staged(request, atMillis, amountMinor));
+        }
+
+        public boolean isEmpty() {
+            return staged.isEmpty();
+        }
+    }
+
+    private record Staged(PostingRequest request, long atMillis, long amountMinor) {
+    }
+
+    private static final class CompiledRule {
+        private final String name;
+        private final Scope scope;
+        private final int windowBuckets;
+        private final long maxCount;
+        private final long maxAmountMinor;
+        private final int maxDistinctTargets;
+        private final LongAdder hits = new LongAdder();
+
+        private CompiledRule(Rule rule, int windowBuckets) {
+            this.name = rule.getName();
+            this.scope = rule.getScope();
+            this.windowBuckets = windowBuckets;
+            this.maxCount = rule.getMaxCount();
+            this.maxAmountMinor = rule.getMaxAmount() != null ? rule.getMaxAmount().movePointRight(2).longValue() : 0;
+            this.maxDistinctTargets = rule.getMaxDistinctTargets();
+        }
+
+        private boolean isBrokenBy(Totals totals) {
+            return (maxCount > 0 && totals.getCount() > maxCount)
+                || (maxAmountMinor > 0 && totals.getAmountMinor() > maxAmountMinor)
+                || (maxDistinctTargets > 0 && totals.getDistinctTargets() > maxDistinctTargets);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.nexabank.customer.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over short texts (customer names) keyed by a document key.
+ * Keeps token postings for whole-word matches and trigram postings for substring
+ * matches, both as sorted int arrays of document ordinals. Ordinals of removed
+ * documents are reused, so replacing a customer's names does not grow the index.
+ * Memory use, including the document slots, is estimated as documents are added;
+ * once it passes the budget the index refuses further additions and reports itself
+ * as over budget.
+ */
+public class InvertedIndex {
+
+    private static final int GRAM = 3;
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int SUBSTRING_SCORE = 1;
+
+    // A reference in the document list plus an int on the free list once it is emptied
+    private static final int SLOT_BYTES = 8 + Integer.BYTES;
+
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinalByKey = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<String, Postings> tokenPostings = new HashMap<>();
+    private final Map<String, Postings> gramPostings = new HashMap<>();
+    // Emptied ordinals, handed out again before the document list grows
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+
+    private volatile long estimatedBytes;
+    private volatile boolean overBudget;
+
+    public InvertedIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Add or replace the texts indexed for a key; an empty collection removes the key
+     *
+     * @return false if the index is over its memory budget and the document was not indexed
+     */
+    public boolean put(String key, Collection<String> texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            if (tokens.isEmpty()) {
+                return true;
+            }
+            if (overBudget) {
+                return false;
+            }
+
+            String[] sortedTokens = tokens.toArray(new String[0]);
+            Arrays.sort(sortedTokens);
+            Document document = new Document(key, sortedTokens);
+            int ordinal;
+            if (freeCount > 0) {
+                ordinal = freeOrdinals[--freeCount];
+                documents.set(ordinal, document);
+            } else {
+                ordinal = documents.size();
+                documents.add(document);
+                estimatedBytes += SLOT_BYTES;
+            }
+            ordinalByKey.put(key, ordinal);
+            estimatedBytes += 96 + key.length() * 2L;
+
+            for (String token : sortedTokens) {
+                estimatedBytes += 48 + token.length() * 2L;
+                addPosting(tokenPostings, token, ordinal);
+                for (String gram : grams(token)) {
+                    addPosting(gramPostings, gram, ordinal);
+                }
+            }
+
+            if (estimatedBytes > maxBytes) {
+                overBudget = true;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keys of documents matching every query token (as whole word, prefix or substring),
+     * best matches first
+     */
+    public List<String> search(String query) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String queryToken : new LinkedHashSet<>(queryTokens)) {
+                Map<Integer, Integer> tokenScores = scoreToken(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Integer, Integer> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                        Integer score = tokenScores.get(entry.getKey());
+                        if (score != null) {
+                            combined.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Integer, Integer> finalScores = scores;
+            return finalScores.keySet().stream()
+                    .sorted(Comparator.<Integer>comparingInt(ordinal -> -finalScores.get(ordinal))
+                            .thenComparing(ordinal -> String.join(" ", documents.get(ordinal).tokens)))
+                    .map(ordinal -> documents.get(ordinal).key)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public boolean isOverBudget() {
+        return overBudget;
+    }
+
+    /**
+     * Lowercased, accent-free alphanumeric tokens of a text
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Integer, Integer> scoreToken(String queryToken) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        if (queryToken.length() >= GRAM) {
+            // Intersect trigram postings, then verify the candidates against their tokens
+            Postings candidates = null;
+            for (String gram : grams(queryToken)) {
+                Postings postings = gramPostings.get(gram);
+                if (postings == null) {
+                    return scores;
+                }
+                candidates = candidates == null ? postings : candidates.intersect(postings);
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                int ordinal = candidates.ids[i];
+                int score = bestScore(documents.get(ordinal).tokens, queryToken);
+                if (score > 0) {
+                    scores.put(ordinal, score);
+                }
+            }
+        } else {
+            // Too short for trigrams: walk the token dictionary instead of the documents
+            for (Map.Entry<String, Postings> entry : tokenPostings.entrySet()) {
+                int score = matchScore(entry.getKey(), queryToken);
+                if (score > 0) {
+                    Postings postings = entry.getValue();
+                    for (int i = 0; i < postings.size; i++) {
+                        scores.merge(postings.ids[i], score, Math::max);
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static int bestScore(String[] tokens, String queryToken) {
+        int best = 0;
+        for (String token : tokens) {
+            best = Math.max(best, matchScore(token, queryToken));
+        }
+        return best;
+    }
+
+    private static int matchScore(String token, String queryToken) {
+        if (token.equals(queryToken)) {
+            return EXACT_SCORE;
+        }
+        if (token.startsWith(queryToken)) {
+            return PREFIX_SCORE;
+        }
+        return token.contains(queryToken) ? SUBSTRING_SCORE : 0;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private void addPosting(Map<String, Postings> dictionary, String term, int ordinal) {
+        Postings postings = dictionary.get(term);
+        if (postings == null) {
+            postings = new Postings();
+            dictionary.put(term, postings);
+            estimatedBytes += 64 + term.length() * 2L;
+        }
+        if (postings.add(ordinal)) {
+            estimatedBytes += Integer.BYTES;
+        }
+    }
+
+    private void removePosting(Map<String, Postings> dictionary, String term, int ordinal) {
+        Postings postings = dictionary.get(term);
+        if (postings != null && postings.remove(ordinal)) {
+            estimatedBytes -= Integer.BYTES;
+            if (postings.size == 0) {
+                dictionary.remove(term);
+                estimatedBytes -= 64 + term.length() * 2L;
+            }
+        }
+    }
+
+    private void removeInternal(String key) {
+        Integer ordinal = ordinalByKey.remove(key);
+        if (ordinal == null) {
+            return;
+        }
+        Document document = documents.get(ordinal);
+        for (String token : document.tokens) {
+            estimatedBytes -= 48 + token.length() * 2L;
+            removePosting(tokenPostings, token, ordinal);
+            for (String gram : grams(token)) {
+                removePosting(gramPostings, gram, ordinal);
+            }
+        }
+        estimatedBytes -= 96 + key.length() * 2L;
+        documents.set(ordinal, null);
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    private record Document(String key, String[] tokens) {
+    }
+
+    /**
+     * Sorted, growable int array of document ordinals
+     */
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        boolean add(int ordinal) {
+            if (size > 0 && ids[size - 1] == ordinal) {
+                return false;
+            }
+            int position = size == 0 || ids[size - 1] < ordinal ? size : Arrays.binarySearch(ids, 0, size, ordinal);
+            if (position < 0) {
+                position = -position - 1;
+            } else if (position < size) {
+                return false;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = ordinal;
+            size++;
+            return true;
+        }
+
+        boolean remove(int ordinal) {
+            int position = Arrays.binarySearch(ids, 0, size, ordinal);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        Postings intersect(Postings other) {
+            Postings result = new Postings();
+            result.ids = new int[Math.max(1, Math.min(size, other.size))];
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] == other.ids[j]) {
+                    result.ids[result.size++] = ids[i];
+                    i++;
+                    j++;
+                } else if (ids[i] < other.ids[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
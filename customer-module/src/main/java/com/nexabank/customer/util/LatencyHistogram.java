@@ -0,0 +1,75 @@
+package com.nexabank.customer.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed millisecond buckets. Percentiles are reported as
+ * the upper bound of the bucket they fall in, which is precise enough for monitoring.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_MS = {
+        1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000, Long.MAX_VALUE
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_UPPER_MS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (millis >= BUCKET_UPPER_MS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Upper bound in ms of the bucket holding the given percentile (0-100), or 0 when empty
+     */
+    public long percentileMs(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[buckets.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return BUCKET_UPPER_MS[i] == Long.MAX_VALUE ? maxNanos.get() / 1_000_000 : BUCKET_UPPER_MS[i];
+            }
+        }
+        return maxNanos.get() / 1_000_000;
+    }
+
+    public Map<String, Object> snapshot() {
+        long samples = count.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", samples);
+        stats.put("avgMs", samples == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / samples);
+        stats.put("p50Ms", percentileMs(50));
+        stats.put("p95Ms", percentileMs(95));
+        stats.put("p99Ms", percentileMs(99));
+        stats.put("maxMs", maxNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexabank.customer.util;
+
+import java.util.Locale;
+
+/**
+ * Name comparison helpers for duplicate detection: a normalized form, a Soundex code used
+ * as a blocking key, and Jaro-Winkler similarity for scoring candidates within a block.
+ */
+public final class NameMatching {
+
+    // Soundex digit for each letter a-z; '0' marks vowels and h/w/y, which carry no code
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private NameMatching() {
+    }
+
+    /**
+     * Lowercased, accent-free name with single spaces between words
+     */
+    public static String normalize(String name) {
+        return String.join(" ", InvertedIndex.tokenize(name));
+    }
+
+    /**
+     * Four-character Soundex code of the letters in a name, or an empty string when it has none
+     */
+    public static String soundex(String name) {
+        if (name == null) {
+            return "";
+        }
+        String letters = normalize(name).replaceAll("[^a-z]", "");
+        if (letters.isEmpty()) {
+            return "";
+        }
+        StringBuilder code = new StringBuilder(4);
+        code.append(Character.toUpperCase(letters.charAt(0)));
+        char previous = SOUNDEX_CODES.charAt(letters.charAt(0) - 'a');
+        for (int i = 1; i < letters.length() && code.length() < 4; i++) {
+            char letter = letters.charAt(i);
+            char digit = SOUNDEX_CODES.charAt(letter - 'a');
+            if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            // h and w do not separate letters with the same code; vowels do
+            if (letter != 'h' && letter != 'w') {
+                previous = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Jaro-Winkler similarity between 0 (nothing in common) and 1 (identical)
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        int j = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+}
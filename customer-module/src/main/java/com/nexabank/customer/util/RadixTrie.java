@@ -0,0 +1,195 @@
+package com.nexabank.customer.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Path-compressed prefix tree mapping string keys to sets of values.
+ * Prefix lookups return values of the shortest matching keys first, stopping
+ * as soon as the requested number of values has been collected.
+ */
+public class RadixTrie<V> {
+
+    private final Node<V> root = new Node<>("");
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int keyCount;
+
+    public void put(String key, V value) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node<V> node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node<V> child = node.children.get(rest.charAt(0));
+                if (child == null) {
+                    child = new Node<>(rest);
+                    node.children.put(rest.charAt(0), child);
+                    node = child;
+                    break;
+                }
+                int common = commonPrefixLength(child.label, rest);
+                if (common < child.label.length()) {
+                    // Split the edge at the first differing character
+                    Node<V> split = new Node<>(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children.put(child.label.charAt(0), child);
+                    node.children.put(split.label.charAt(0), split);
+                    child = split;
+                }
+                node = child;
+                rest = rest.substring(common);
+            }
+            if (node.values == null) {
+                node.values = new LinkedHashSet<>(2);
+                keyCount++;
+            }
+            node.values.add(value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key, V value) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Deque<Node<V>> path = new ArrayDeque<>();
+            Node<V> node = root;
+            String rest = key;
+            while (!rest.isEmpty()) {
+                Node<V> child = node.children.get(rest.charAt(0));
+                if (child == null || !rest.startsWith(child.label)) {
+                    return;
+                }
+                path.push(node);
+                node = child;
+                rest = rest.substring(child.label.length());
+            }
+            if (node.values == null || !node.values.remove(value)) {
+                return;
+            }
+            if (node.values.isEmpty()) {
+                node.values = null;
+                keyCount--;
+            }
+            compact(node, path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit values whose key starts with the prefix, shortest keys first (equal lengths in
+     * key order)
+     */
+    public List<V> findByPrefix(String prefix, int limit) {
+        List<V> results = new ArrayList<>(limit);
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            Node<V> node = root;
+            String rest = prefix;
+            StringBuilder path = new StringBuilder();
+            while (!rest.isEmpty()) {
+                Node<V> child = node.children.get(rest.charAt(0));
+                if (child == null) {
+                    return results;
+                }
+                int common = commonPrefixLength(child.label, rest);
+                if (common < rest.length() && common < child.label.length()) {
+                    return results;
+                }
+                node = child;
+                path.append(child.label);
+                rest = rest.substring(common);
+            }
+
+            // Best-first by key length (then key), so the shortest keys are collected first
+            // however deep their nodes sit below compressed edges
+            Set<V> seen = new LinkedHashSet<>();
+            PriorityQueue<Visit<V>> queue = new PriorityQueue<>(
+                Comparator.comparingInt((Visit<V> visit) -> visit.key.length()).thenComparing(visit -> visit.key));
+            queue.add(new Visit<>(node, path.toString()));
+            while (!queue.isEmpty() && seen.size() < limit) {
+                Visit<V> current = queue.poll();
+                if (current.node.values != null) {
+                    for (V value : current.node.values) {
+                        seen.add(value);
+                        if (seen.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                for (Node<V> child : current.node.children.values()) {
+                    queue.add(new Visit<>(child, current.key + child.label));
+                }
+            }
+            results.addAll(seen);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Drop a valueless leaf and merge a valueless node with its only child
+     */
+    private void compact(Node<V> node, Deque<Node<V>> path) {
+        Node<V> parent = path.isEmpty() ? null : path.peek();
+        if (parent == null || node.values != null) {
+            return;
+        }
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            path.pop();
+            if (parent != root) {
+                compact(parent, path);
+            }
+        } else if (node.children.size() == 1) {
+            Node<V> onlyChild = node.children.firstEntry().getValue();
+            onlyChild.label = node.label + onlyChild.label;
+            parent.children.put(onlyChild.label.charAt(0), onlyChild);
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Visit<V>(Node<V> node, String key) {
+    }
+
+    private static final class Node<V> {
+        private String label;
+        private final TreeMap<Character, Node<V>> children = new TreeMap<>();
+        private Set<V> values;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.nexabank.customer.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal PDF 1.4 writer for text-only A4 documents in the built-in Courier font.
+ *
+ * Objects are written to the stream as soon as a page ends, so only the current page's text
+ * is held in memory; the page tree and cross-reference table follow the last page. Characters
+ * outside Latin-1 are written as '?'.
+ */
+public final class SimplePdfWriter implements Closeable {
+
+    public static final int PAGE_WIDTH = 595;
+    public static final int PAGE_HEIGHT = 842;
+
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+
+    private final OutputStream out;
+    private final int fontSize;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pages = new ArrayList<>();
+    private final StringBuilder content = new StringBuilder();
+    private long position;
+    private boolean pageOpen;
+
+    public SimplePdfWriter(OutputStream out, int fontSize) throws IOException {
+        this.out = out;
+        this.fontSize = fontSize;
+        // The comment line of high bytes marks the file as binary for transfer tools
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        for (int i = 0; i < FONT; i++) {
+            offsets.add(0L);
+        }
+        writeObject(CATALOG, "<< /Type /Catalog /Pages " + PAGES + " 0 R >>");
+        writeObject(FONT, "<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>");
+    }
+
+    /**
+     * Width of one character in points
+     */
+    public double charWidth() {
+        return fontSize * 0.6;
+    }
+
+    public void beginPage() throws IOException {
+        if (pageOpen) {
+            endPage();
+        }
+        content.setLength(0);
+        pageOpen = true;
+    }
+
+    /**
+     * Write a line of text with its baseline at (x, y), in points from the bottom-left corner
+     */
+    public void text(int x, int y, String text) {
+        if (!pageOpen) {
+            throw new IllegalStateException("No page is open");
+        }
+        content.append("BT /F1 ").append(fontSize).append(" Tf ").append(x).append(' ').append(y).append(" Td (");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '(' || c == ')') {
+                content.append('\\').append(c);
+            } else {
+                content.append(c < 32 || c > 255 ? '?' : c);
+            }
+        }
+        content.append(") Tj ET\n");
+    }
+
+    public void endPage() throws IOException {
+        if (!pageOpen) {
+            return;
+        }
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+        int contents = allocate();
+        startObject(contents);
+        write("<< /Length " + stream.length + " >>\nstream\n");
+        write(stream);
+        write("\nendstream\nendobj\n");
+        int page = allocate();
+        writeObject(page, "<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "] " +
+                "/Resources << /Font << /F1 " + FONT + " 0 R >> >> /Contents " + contents + " 0 R >>");
+        pages.add(page);
+        pageOpen = false;
+    }
+
+    public int getPageCount() {
+        return pages.size() + (pageOpen ? 1 : 0);
+    }
+
+    /**
+     * Finish the document (an empty one gets a blank page) and close the stream
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pages.isEmpty() && !pageOpen) {
+                beginPage();
+            }
+            endPage();
+            StringBuilder kids = new StringBuilder();
+            for (int page : pages) {
+                kids.append(page).append(" 0 R ");
+            }
+            writeObject(PAGES, "<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>");
+
+            long xref = position;
+            StringBuilder table = new StringBuilder("xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+            for (long offset : offsets) {
+                table.append(String.format("%010d 00000 n \n", offset));
+            }
+            table.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root ").append(CATALOG).append(" 0 R >>\n")
+                 .append("startxref\n").append(xref).append("\n%%EOF\n");
+            write(table.toString());
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private int allocate() {
+        offsets.add(0L);
+        return offsets.size();
+    }
+
+    private void writeObject(int number, String body) throws IOException {
+        startObject(number);
+        write(body);
+        write("\nendobj\n");
+    }
+
+    private void startObject(int number) throws IOException {
+        offsets.set(number - 1, position);
+        write(number + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+}
@@ -0,0 +1,198 @@
+package com.nexabank.customer.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key sliding-window event count, amount sum and approximate distinct targets, kept in
+ * time buckets without locks.
+ *
+ * Each key owns one long[] ring of {@code buckets} buckets of three words:
+ * <ul>
+ *   <li>bucket epoch (high 32 bits) and event count (low 32 bits)</li>
+ *   <li>epoch tag (high 20 bits) and amount in minor units (low 44 bits, saturating)</li>
+ *   <li>epoch tag (high 16 bits) and a 48-bit bitmap of hashed targets (linear counting)</li>
+ * </ul>
+ * Every word carries its own epoch, so a writer landing on a bucket from an older epoch resets
+ * that word with the same compare-and-set that adds to it, and readers ignore words from other
+ * epochs. Old buckets are evicted simply by being reused; keys with no event in the last full
+ * window are dropped by {@link #evictIdle(long)}. A key costs 24 bytes per bucket.
+ */
+public final class SlidingWindowCounters {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int WORDS_PER_BUCKET = 3;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+    private static final int AMOUNT_BITS = 44;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long AMOUNT_TAG_MASK = (1L << (64 - AMOUNT_BITS)) - 1;
+    private static final int TARGET_BITS = 48;
+    private static final long TARGET_MASK = (1L << TARGET_BITS) - 1;
+    private static final long TARGET_TAG_MASK = (1L << (64 - TARGET_BITS)) - 1;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final ConcurrentHashMap<String, long[]> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowCounters(long bucketMillis, int buckets) {
+        if (bucketMillis <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("bucketMillis and buckets must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Add one event; target may be null when the event has no counterparty
+     */
+    public void record(String key, long nowMillis, long amountMinor, String target) {
+        long[] ring = windows.computeIfAbsent(key, k -> new long[buckets * WORDS_PER_BUCKET]);
+        long epoch = nowMillis / bucketMillis;
+        int base = (int) (epoch % buckets) * WORDS_PER_BUCKET;
+
+        while (true) {
+            long word = (long) WORDS.getVolatile(ring, base);
+            long wordEpoch = word >>> 32;
+            if (wordEpoch > epoch) {
+                // A newer event already reused this bucket; this one is older than the window
+                return;
+            }
+            long next = wordEpoch == epoch ? word + 1 : (epoch << 32) | 1;
+            if (WORDS.compareAndSet(ring, base, word, next)) {
+                break;
+            }
+        }
+        long amountTag = epoch & AMOUNT_TAG_MASK;
+        long amount = Math.max(0, Math.min(amountMinor, AMOUNT_MASK));
+        while (true) {
+            long word = (long) WORDS.getVolatile(ring, base + 1);
+            long current = (word >>> AMOUNT_BITS) == amountTag ? word & AMOUNT_MASK : 0;
+            long next = (amountTag << AMOUNT_BITS) | Math.min(AMOUNT_MASK, current + amount);
+            if (WORDS.compareAndSet(ring, base + 1, word, next)) {
+                break;
+            }
+        }
+        long targetTag = epoch & TARGET_TAG_MASK;
+        long targetBit = target == null ? 0 : 1L << Math.floorMod(mix(target.hashCode()), TARGET_BITS);
+        while (true) {
+            long word = (long) WORDS.getVolatile(ring, base + 2);
+            long current = (word >>> TARGET_BITS) == targetTag ? word & TARGET_MASK : 0;
+            long next = (targetTag << TARGET_BITS) | current | targetBit;
+            if (word == next || WORDS.compareAndSet(ring, base + 2, word, next)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Totals of the key over the last windowBuckets buckets (including the current one)
+     */
+    public Totals totals(String key, long nowMillis, int windowBuckets) {
+        Totals totals = new Totals();
+        long[] ring = windows.get(key);
+        if (ring == null) {
+            return totals;
+        }
+        long epoch = nowMillis / bucketMillis;
+        long targets = 0;
+        for (int back = 0; back < Math.min(windowBuckets, buckets); back++) {
+            long bucketEpoch = epoch - back;
+            if (bucketEpoch < 0) {
+                break;
+            }
+            int base = (int) (bucketEpoch % buckets) * WORDS_PER_BUCKET;
+            long countWord = (long) WORDS.getVolatile(ring, base);
+            if ((countWord >>> 32) == bucketEpoch) {
+                totals.count += countWord & COUNT_MASK;
+            }
+            long amountWord = (long) WORDS.getVolatile(ring, base + 1);
+            if ((amountWord >>> AMOUNT_BITS) == (bucketEpoch & AMOUNT_TAG_MASK)) {
+                totals.amountMinor += amountWord & AMOUNT_MASK;
+            }
+            long targetWord = (long) WORDS.getVolatile(ring, base + 2);
+            if ((targetWord >>> TARGET_BITS) == (bucketEpoch & TARGET_TAG_MASK)) {
+                targets |= targetWord & TARGET_MASK;
+            }
+        }
+        totals.targets = targets;
+        totals.distinctTargets = estimateDistinct(targets);
+        return totals;
+    }
+
+    /**
+     * Drop keys without any event in the last full window; returns how many were dropped
+     */
+    public int evictIdle(long nowMillis) {
+        long oldestLive = nowMillis / bucketMillis - buckets + 1;
+        int before = windows.size();
+        windows.values().removeIf(ring -> newestEpoch(ring) < oldestLive);
+        return before - windows.size();
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private static long newestEpoch(long[] ring) {
+        long newest = 0;
+        for (int base = 0; base < ring.length; base += WORDS_PER_BUCKET) {
+            newest = Math.max(newest, (long) WORDS.getVolatile(ring, base) >>> 32);
+        }
+        return newest;
+    }
+
+    // Linear counting over the 48-bit bitmap: accurate to a few percent up to about 50 targets
+    private static int estimateDistinct(long bitmap) {
+        int set = Long.bitCount(bitmap);
+        if (set == 0) {
+            return 0;
+        }
+        int zeros = TARGET_BITS - set;
+        if (zeros == 0) {
+            return (int) Math.round(TARGET_BITS * Math.log(TARGET_BITS));
+        }
+        return (int) Math.round(-TARGET_BITS * Math.log((double) zeros / TARGET_BITS));
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Aggregates of one key over a window
+     */
+    public static final class Totals {
+        private long count;
+        private long amountMinor;
+        private long targets;
+        private int distinctTargets;
+
+        public long getCount() { return count; }
+        public long getAmountMinor() { return amountMinor; }
+        public int getDistinctTargets() { return distinctTargets; }
+
+        /**
+         * Combined totals of two counters with the same bucket layout; targets seen by both count once
+         */
+        public Totals plus(Totals other) {
+            Totals sum = new Totals();
+            sum.count = count + other.count;
+            sum.amountMinor = amountMinor + other.amountMinor;
+            sum.targets = targets | other.targets;
+            sum.distinctTargets = estimateDistinct(sum.targets);
+            return sum;
+        }
+    }
+}
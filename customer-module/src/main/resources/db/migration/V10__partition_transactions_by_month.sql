@@ -0,0 +1,44 @@
+-- Range-partition the ledger by month of created_at so old months can be archived with
+-- EXCHANGE PARTITION or dropped without a DELETE, and history queries with a date range only
+-- touch the months they cover. TransactionPartitionMaintainer keeps monthly partitions
+-- created ahead of time by splitting p_future.
+--
+-- MySQL requires every unique key of a partitioned table to include the partitioning column,
+-- so reference numbers can no longer be kept unique per account on the table itself. They move
+-- to transaction_references, which TransactionPostingService writes with every posting.
+
+CREATE TABLE IF NOT EXISTS transaction_references (
+    account_id VARCHAR(255) NOT NULL,
+    reference_number VARCHAR(255) NOT NULL,
+    transaction_id VARCHAR(36) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (account_id, reference_number)
+) ENGINE = InnoDB;
+
+-- TransactionPartitionMaintainer purges the references of months it drops by created_at
+CREATE INDEX idx_transaction_references_created ON transaction_references (created_at);
+
+UPDATE transactions SET created_at = COALESCE(processed_at, '1970-01-01') WHERE created_at IS NULL;
+
+INSERT INTO transaction_references (account_id, reference_number, transaction_id, created_at)
+SELECT account_id, reference_number, transaction_id, created_at
+FROM transactions
+WHERE reference_number IS NOT NULL;
+
+DROP INDEX uk_transactions_account_reference ON transactions;
+
+ALTER TABLE transactions
+    MODIFY created_at DATETIME(6) NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (transaction_id, created_at);
+
+-- History pages are read newest first in (created_at, transaction_id) order within an account
+DROP INDEX idx_transactions_account_created ON transactions;
+CREATE INDEX idx_transactions_account_created ON transactions (account_id, created_at, transaction_id);
+
+ALTER TABLE transactions PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_start VALUES LESS THAN ('2026-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+INSERT IGNORE INTO scheduler_leases (lease_name) VALUES ('transaction-partition-maintainer');
@@ -0,0 +1,29 @@
+-- Settlement file imports run by TransactionImportService. bytes_committed is the checkpoint:
+-- every line before that file offset has been posted (or rejected), so a resumed import
+-- continues from there; postings are idempotent on reference number, so lines between the
+-- checkpoint and a crash are answered as duplicates. With sharding enabled this table lives
+-- on shard 0 only.
+
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id VARCHAR(36) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_format VARCHAR(20) NOT NULL,
+    file_size BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    bytes_committed BIGINT NOT NULL DEFAULT 0,
+    lines_committed BIGINT NOT NULL DEFAULT 0,
+    rows_posted BIGINT NOT NULL DEFAULT 0,
+    rows_duplicate BIGINT NOT NULL DEFAULT 0,
+    rows_insufficient_funds BIGINT NOT NULL DEFAULT 0,
+    rows_rejected BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    created_by VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    started_at DATETIME(6),
+    updated_at DATETIME(6),
+    finished_at DATETIME(6),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (job_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_import_jobs_created_at ON import_jobs (created_at);
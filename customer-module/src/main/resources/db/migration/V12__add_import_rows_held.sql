@@ -0,0 +1,3 @@
+-- Settlement file rows held as PENDING by a velocity rule (see VelocityEngine)
+
+ALTER TABLE import_jobs ADD COLUMN rows_held BIGINT NOT NULL DEFAULT 0 AFTER rows_insufficient_funds;
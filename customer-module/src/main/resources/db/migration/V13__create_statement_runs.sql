@@ -0,0 +1,37 @@
+-- Monthly statement runs of StatementService, one row per period (YYYY-MM) and shard.
+-- last_account_id is the checkpoint: the statements of every account up to it have been
+-- written, so a resumed run streams the accounts after it. account_statements records each
+-- statement written, so accounts finished beyond the checkpoint are skipped on resume. With
+-- sharding enabled both tables live on shard 0 only.
+
+CREATE TABLE IF NOT EXISTS statement_runs (
+    period CHAR(7) NOT NULL,
+    shard_index INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_account_id VARCHAR(255) NOT NULL DEFAULT '',
+    accounts_done BIGINT NOT NULL DEFAULT 0,
+    transactions_done BIGINT NOT NULL DEFAULT 0,
+    started_at DATETIME(6),
+    updated_at DATETIME(6),
+    finished_at DATETIME(6),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (period, shard_index)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS account_statements (
+    period CHAR(7) NOT NULL,
+    account_id VARCHAR(255) NOT NULL,
+    shard_index INT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    opening_balance DECIMAL(15, 2),
+    closing_balance DECIMAL(15, 2),
+    total_credits DECIMAL(19, 2) NOT NULL,
+    total_debits DECIMAL(19, 2) NOT NULL,
+    generated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (period, account_id)
+) ENGINE = InnoDB;
+
+-- Resume: statements of a shard written beyond its checkpoint
+CREATE INDEX idx_account_statements_shard ON account_statements (period, shard_index, account_id);
+
+INSERT IGNORE INTO scheduler_leases (lease_name) VALUES ('statement-generator');
@@ -0,0 +1,7 @@
+-- Owner of an IN_PROGRESS KYC claim: the claiming instance and a token unique to the claim.
+-- A worker records its outcome only while both still match, so a claim taken over after the
+-- lease expired cannot be overwritten by the worker that lost it.
+
+ALTER TABLE customers
+    ADD COLUMN kyc_claimed_by VARCHAR(64),
+    ADD COLUMN kyc_claim_token CHAR(36);
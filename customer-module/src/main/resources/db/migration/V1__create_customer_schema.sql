@@ -0,0 +1,78 @@
+-- Baseline schema for nexabank_customer, matching the JPA mappings in com.nexabank.customer.entity.
+-- Existing databases created by hibernate ddl-auto are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this script only runs on empty schemas.
+
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    gender VARCHAR(255),
+    nationality VARCHAR(255),
+    phone_number VARCHAR(255),
+    alternate_phone VARCHAR(255),
+    email_id VARCHAR(255),
+    address_line_1 VARCHAR(255),
+    address_line_2 VARCHAR(255),
+    city VARCHAR(255),
+    state VARCHAR(255),
+    country VARCHAR(255),
+    postal_code VARCHAR(255),
+    customer_type ENUM('INDIVIDUAL', 'CORPORATE', 'NRI', 'MINOR', 'JOINT', 'TRUST', 'PARTNERSHIP') NOT NULL,
+    customer_status ENUM('ACTIVE', 'INACTIVE', 'SUSPENDED', 'BLOCKED', 'CLOSED', 'DORMANT') NOT NULL,
+    kyc_status ENUM('PENDING', 'IN_PROGRESS', 'COMPLETED', 'REJECTED', 'EXPIRED'),
+    kyc_completion_date DATETIME(6),
+
+    -- Audit fields from AuditLoggable (USER_ID is shared with user_id above)
+    CREATED_AT DATETIME(6),
+    CRUD_VALUE ENUM('CREATE', 'READ', 'UPDATE', 'DELETE'),
+    WS_ID VARCHAR(255),
+    PRGM_ID VARCHAR(255),
+    HOST_TS DATETIME(6),
+    LOCAL_TS DATETIME(6),
+    ACPT_TS DATETIME(6),
+    ACPT_TS_UTC_OFST DATETIME(6),
+    UUID_REFERENCE BINARY(16),
+
+    PRIMARY KEY (customer_id),
+    CONSTRAINT uk_customers_user_id UNIQUE (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS customer_name_components (
+    id VARCHAR(36) NOT NULL,
+    customer_id VARCHAR(36) NOT NULL,
+    name_component_type ENUM('FIRST_NAME', 'MIDDLE_NAME', 'LAST_NAME', 'MAIDEN_NAME', 'SUFFIX', 'PREFIX') NOT NULL,
+    name_value VARCHAR(255) NOT NULL,
+    effective_date DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_name_components_customer FOREIGN KEY (customer_id) REFERENCES customers (customer_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS customer_identification (
+    identification_id VARCHAR(36) NOT NULL,
+    customer_id VARCHAR(36) NOT NULL,
+    identification_type VARCHAR(255) NOT NULL,
+    identification_item VARCHAR(255) NOT NULL,
+    effective_date DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (identification_id),
+    CONSTRAINT fk_identification_customer FOREIGN KEY (customer_id) REFERENCES customers (customer_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    transaction_id VARCHAR(36) NOT NULL,
+    account_id VARCHAR(255) NOT NULL,
+    transaction_type ENUM('CREDIT', 'DEBIT', 'TRANSFER_IN', 'TRANSFER_OUT') NOT NULL,
+    amount DECIMAL(15, 2) NOT NULL,
+    description VARCHAR(255),
+    balance_after DECIMAL(15, 2),
+    reference_number VARCHAR(255),
+    target_account_id VARCHAR(255),
+    status ENUM('PENDING', 'COMPLETED', 'FAILED', 'CANCELLED'),
+    category VARCHAR(255),
+    created_at DATETIME(6),
+    processed_at DATETIME(6),
+    PRIMARY KEY (transaction_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,22 @@
+-- Indexes for the hot repository queries.
+-- user_id lookups (findByUserId, existsByUserId) are already served by uk_customers_user_id.
+
+-- CustomerRepository.findByEmailId / existsByEmailId (profile lookup by email)
+CREATE INDEX idx_customers_email_id ON customers (email_id);
+
+-- findByCustomerStatus / countByCustomerStatus / findAllActiveCustomers
+CREATE INDEX idx_customers_status ON customers (customer_status);
+
+-- findByKycStatus / findCustomersRequiringKyc
+CREATE INDEX idx_customers_kyc_status ON customers (kyc_status);
+
+-- existsByAadharNumber / existsByPanNumber / findByAadharNumber / findByPanNumber and
+-- findByIdentificationTypeAndIdentificationItem: equality on both columns, then join to customers
+CREATE INDEX idx_identification_type_item ON customer_identification (identification_type, identification_item);
+
+-- findByCustomerCustomerIdAndNameComponentType and the per-customer name lookups;
+-- also replaces the implicit foreign key index on customer_id
+CREATE INDEX idx_name_components_customer_type ON customer_name_components (customer_id, name_component_type);
+
+-- per-account transaction history ordered by time
+CREATE INDEX idx_transactions_account_created ON transactions (account_id, created_at);
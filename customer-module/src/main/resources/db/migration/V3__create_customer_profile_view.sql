@@ -0,0 +1,67 @@
+-- Denormalized read model: one row per customer with names and identification numbers pivoted
+-- into columns, so profile reads are a single primary key / unique key lookup.
+-- Maintained by CustomerProfileProjector in the same transaction as every customer write.
+
+CREATE TABLE IF NOT EXISTS customer_profile_view (
+    customer_id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    email_id VARCHAR(255),
+    first_name VARCHAR(255),
+    middle_name VARCHAR(255),
+    last_name VARCHAR(255),
+    date_of_birth DATE,
+    gender VARCHAR(255),
+    nationality VARCHAR(255),
+    phone_number VARCHAR(255),
+    alternate_phone VARCHAR(255),
+    address_line_1 VARCHAR(255),
+    address_line_2 VARCHAR(255),
+    city VARCHAR(255),
+    state VARCHAR(255),
+    country VARCHAR(255),
+    postal_code VARCHAR(255),
+    customer_status VARCHAR(32),
+    kyc_status VARCHAR(32),
+    aadhar_number VARCHAR(255),
+    pan_number VARCHAR(255),
+    passport_number VARCHAR(255),
+    driving_license VARCHAR(255),
+    created_at DATETIME(6),
+    projected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (customer_id),
+    CONSTRAINT uk_profile_view_user_id UNIQUE (user_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_profile_view_email_id ON customer_profile_view (email_id);
+
+-- Identification lookups per customer for the projection query
+CREATE INDEX idx_identification_customer_type ON customer_identification (customer_id, identification_type);
+
+-- Backfill from the normalized tables
+INSERT INTO customer_profile_view (
+    customer_id, user_id, email_id, first_name, middle_name, last_name, date_of_birth, gender,
+    nationality, phone_number, alternate_phone, address_line_1, address_line_2, city, state, country,
+    postal_code, customer_status, kyc_status, aadhar_number, pan_number, passport_number,
+    driving_license, created_at, projected_at)
+SELECT c.customer_id, c.user_id, c.email_id, n.first_name, n.middle_name, n.last_name, c.date_of_birth, c.gender,
+       c.nationality, c.phone_number, c.alternate_phone, c.address_line_1, c.address_line_2, c.city, c.state, c.country,
+       c.postal_code, c.customer_status, c.kyc_status, i.aadhar_number, i.pan_number, i.passport_number,
+       i.driving_license, c.CREATED_AT, NOW(6)
+FROM customers c
+LEFT JOIN (
+    SELECT customer_id,
+           MAX(CASE WHEN name_component_type = 'FIRST_NAME' THEN name_value END) AS first_name,
+           MAX(CASE WHEN name_component_type = 'MIDDLE_NAME' THEN name_value END) AS middle_name,
+           MAX(CASE WHEN name_component_type = 'LAST_NAME' THEN name_value END) AS last_name
+    FROM customer_name_components
+    GROUP BY customer_id
+) n ON n.customer_id = c.customer_id
+LEFT JOIN (
+    SELECT customer_id,
+           MAX(CASE WHEN identification_type = 'AADHAR_CARD' THEN identification_item END) AS aadhar_number,
+           MAX(CASE WHEN identification_type = 'PAN_CARD' THEN identification_item END) AS pan_number,
+           MAX(CASE WHEN identification_type = 'PASSPORT' THEN identification_item END) AS passport_number,
+           MAX(CASE WHEN identification_type = 'DRIVING_LICENSE' THEN identification_item END) AS driving_license
+    FROM customer_identification
+    GROUP BY customer_id
+) i ON i.customer_id = c.customer_id;
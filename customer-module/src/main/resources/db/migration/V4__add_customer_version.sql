@@ -0,0 +1,6 @@
+-- Optimistic locking version for customers (JPA @Version), also the basis of profile ETags.
+-- Copied into customer_profile_view by the projection so view reads can produce the ETag.
+
+ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE customer_profile_view ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
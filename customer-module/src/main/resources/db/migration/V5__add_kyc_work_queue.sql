@@ -0,0 +1,13 @@
+-- KYC work queue state on customers. Workers claim PENDING customers whose next attempt is due
+-- with SELECT ... FOR UPDATE SKIP LOCKED, mark them IN_PROGRESS and record the claim time so
+-- claims abandoned by a crashed worker can be taken over after the lease expires.
+
+ALTER TABLE customers
+    ADD COLUMN kyc_attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN kyc_next_attempt_at DATETIME(6),
+    ADD COLUMN kyc_claimed_at DATETIME(6),
+    ADD COLUMN kyc_last_error VARCHAR(500);
+
+-- Claim query: kyc_status = 'PENDING' ordered by kyc_next_attempt_at; stale IN_PROGRESS claims by kyc_claimed_at
+CREATE INDEX idx_customers_kyc_queue ON customers (kyc_status, kyc_next_attempt_at);
+CREATE INDEX idx_customers_kyc_claimed ON customers (kyc_status, kyc_claimed_at);
@@ -0,0 +1,35 @@
+-- Candidate duplicate customers found by CustomerMatchingService, kept for manual review.
+-- A cluster groups customers that share an identification number or have a matching name
+-- and date of birth. Reviewed clusters (CONFIRMED / DISMISSED) survive batch re-runs; OPEN
+-- clusters are replaced by every batch run and updated incrementally on customer writes.
+-- With sharding enabled these tables live on shard 0 only.
+
+CREATE TABLE IF NOT EXISTS customer_match_clusters (
+    cluster_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
+    match_reasons VARCHAR(255),
+    best_score DOUBLE NOT NULL,
+    member_count INT NOT NULL,
+    member_signature VARCHAR(64) NOT NULL,
+    detected_at DATETIME(6) NOT NULL,
+    reviewed_at DATETIME(6),
+    reviewed_by VARCHAR(100)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS customer_match_members (
+    cluster_id VARCHAR(36) NOT NULL,
+    customer_id VARCHAR(36) NOT NULL,
+    PRIMARY KEY (cluster_id, customer_id),
+    CONSTRAINT fk_match_members_cluster FOREIGN KEY (cluster_id) REFERENCES customer_match_clusters (cluster_id)
+        ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Review queue listing by status, and skipping member sets that were already reviewed
+CREATE INDEX idx_match_clusters_status ON customer_match_clusters (status, detected_at);
+CREATE INDEX idx_match_clusters_signature ON customer_match_clusters (member_signature);
+
+-- Clusters containing a given customer (incremental matching)
+CREATE INDEX idx_match_members_customer ON customer_match_members (customer_id);
+
+-- Incremental matching looks up customers born on the same day
+CREATE INDEX idx_customers_date_of_birth ON customers (date_of_birth);
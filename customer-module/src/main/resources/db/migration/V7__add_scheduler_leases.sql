@@ -0,0 +1,16 @@
+-- Named leases for scheduled jobs that must run on one node at a time. A node owns a lease
+-- while lease_until is in the future and renews it as it makes progress; expired leases can
+-- be taken over by any node. Rows are seeded here so acquiring is a single guarded UPDATE.
+-- With sharding enabled this table lives on shard 0 only.
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    lease_name VARCHAR(100) NOT NULL,
+    owner VARCHAR(100),
+    lease_until DATETIME(6) NOT NULL DEFAULT '1970-01-01 00:00:00',
+    PRIMARY KEY (lease_name)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO scheduler_leases (lease_name) VALUES ('customer-dormancy-sweeper');
+
+-- CustomerDormancySweeper: ACTIVE customers not updated since the cutoff, walked in (LOCAL_TS, customer_id) order
+CREATE INDEX idx_customers_status_local_ts ON customers (customer_status, LOCAL_TS);
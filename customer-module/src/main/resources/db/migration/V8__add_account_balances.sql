@@ -0,0 +1,25 @@
+-- Per-account balance snapshot maintained by TransactionPostingService in the same transaction
+-- as the ledger rows it appends, so balance reads are a primary key lookup instead of a SUM
+-- over the account's history.
+
+CREATE TABLE IF NOT EXISTS account_balances (
+    account_id VARCHAR(255) NOT NULL,
+    balance DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    last_transaction_id VARCHAR(36),
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (account_id)
+) ENGINE = InnoDB;
+
+-- Snapshot of completed transactions posted before this migration
+INSERT INTO account_balances (account_id, balance, transaction_count, updated_at)
+SELECT account_id,
+       SUM(CASE WHEN transaction_type IN ('CREDIT', 'TRANSFER_IN') THEN amount ELSE -amount END),
+       COUNT(*),
+       NOW(6)
+FROM transactions
+WHERE status = 'COMPLETED'
+GROUP BY account_id;
+
+-- Idempotent posting: a reference number is used at most once per account
+CREATE UNIQUE INDEX uk_transactions_account_reference ON transactions (account_id, reference_number);
@@ -0,0 +1,156 @@
+package com.nexabank.customer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexabank.customer.dto.CreateUserProfileRequest;
+import com.nexabank.customer.support.MySqlTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A primary and a replica as two databases of one MySQL container; "replication" is a copy of
+ * the primary's tables taken by the test. Conditional writes must read the version and write on
+ * the primary, while plain reads are served by the replica.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.lag-check-enabled=false",
+        "app.datasource.routing.sticky-window-seconds=0",
+        "app.profile-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaRoutingIntegrationTest {
+
+    private static final String PRIMARY = "routing_primary";
+    private static final String REPLICA = "routing_replica";
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(PRIMARY));
+        registry.add("spring.datasource.username", MySqlTestDatabase::username);
+        registry.add("spring.datasource.password", MySqlTestDatabase::password);
+        registry.add("app.datasource.routing.replicas[0].url", () -> MySqlTestDatabase.url(REPLICA));
+        registry.add("app.datasource.routing.replicas[0].username", MySqlTestDatabase::username);
+        registry.add("app.datasource.routing.replicas[0].password", MySqlTestDatabase::password);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void replicaIsHealthy() {
+        replicaLagMonitor.refresh();
+    }
+
+    @Test
+    void conditionalUpdateReadsAndWritesThePrimary() throws Exception {
+        String etag = create("routing-writer");
+        replicate();
+
+        CreateUserProfileRequest update = request("routing-writer");
+        update.setCity("Pune");
+        mockMvc.perform(put("/api/profiles/user/routing-writer")
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(update)))
+                .andExpect(status().isOk());
+
+        assertEquals("Pune", city(PRIMARY, "routing-writer"));
+        assertEquals("Chennai", city(REPLICA, "routing-writer"));
+    }
+
+    @Test
+    void readsAreServedByTheReplica() throws Exception {
+        create("routing-reader");
+        replicate();
+        try (Connection connection = MySqlTestDatabase.connect(REPLICA);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE customers SET city = 'Replica' WHERE user_id = 'routing-reader'");
+            statement.executeUpdate("UPDATE customer_profile_view SET city = 'Replica' WHERE user_id = 'routing-reader'");
+        }
+
+        mockMvc.perform(get("/api/profiles/user/routing-reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.city").value("Replica"));
+    }
+
+    private String create(String userId) throws Exception {
+        return mockMvc.perform(post("/api/profiles")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(request(userId))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static CreateUserProfileRequest request(String userId) {
+        CreateUserProfileRequest request = new CreateUserProfileRequest();
+        request.setUserId(userId);
+        request.setEmail(userId + "@example.com");
+        request.setFirstName("Routing");
+        request.setLastName("User");
+        request.setCity("Chennai");
+        return request;
+    }
+
+    /**
+     * Copy every table of the primary into the replica database
+     */
+    private static void replicate() throws SQLException {
+        try (Connection connection = MySqlTestDatabase.connect(PRIMARY);
+             Statement statement = connection.createStatement()) {
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("SELECT table_name FROM information_schema.tables"
+                    + " WHERE table_schema = '" + PRIMARY + "' AND table_type = 'BASE TABLE'")) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+            for (String table : tables) {
+                statement.execute("DROP TABLE IF EXISTS " + REPLICA + "." + table);
+                statement.execute("CREATE TABLE " + REPLICA + "." + table + " LIKE " + PRIMARY + "." + table);
+                statement.execute("INSERT INTO " + REPLICA + "." + table + " SELECT * FROM " + PRIMARY + "." + table);
+            }
+        }
+    }
+
+    private static String city(String database, String userId) throws SQLException {
+        try (Connection connection = MySqlTestDatabase.connect(database);
+             PreparedStatement statement = connection.prepareStatement("SELECT city FROM customers WHERE user_id = ?")) {
+            statement.setString(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nexabank.customer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexabank.customer.dto.CreateUserProfileRequest;
+import com.nexabank.customer.support.MySqlTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Three shards as three databases of one MySQL container. Profiles created through the batch
+ * endpoint must each land on the shard their userId hashes to, even though the whole batch is
+ * handled on one request thread.
+ */
+@SpringBootTest(properties = "app.sharding.enabled=true")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class ShardRoutingIntegrationTest {
+
+    private static final List<String> SHARD_DATABASES = List.of("customer_shard_0", "customer_shard_1", "customer_shard_2");
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(SHARD_DATABASES.get(0)));
+        registry.add("spring.datasource.username", MySqlTestDatabase::username);
+        registry.add("spring.datasource.password", MySqlTestDatabase::password);
+        for (int i = 1; i < SHARD_DATABASES.size(); i++) {
+            String database = SHARD_DATABASES.get(i);
+            registry.add("app.sharding.shards[" + (i - 1) + "].url", () -> MySqlTestDatabase.url(database));
+            registry.add("app.sharding.shards[" + (i - 1) + "].username", MySqlTestDatabase::username);
+            registry.add("app.sharding.shards[" + (i - 1) + "].password", MySqlTestDatabase::password);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void openSessionInViewIsOff() {
+        assertTrue(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+    }
+
+    @Test
+    void batchCreatedProfilesLandOnTheirHomeShards() throws Exception {
+        List<CreateUserProfileRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            CreateUserProfileRequest request = new CreateUserProfileRequest();
+            request.setUserId("shard-user-" + i);
+            request.setEmail("shard-user-" + i + "@example.com");
+            request.setFirstName("Shard");
+            request.setLastName("User" + i);
+            requests.add(request);
+        }
+
+        mockMvc.perform(post("/api/profiles/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(requests)))
+                .andExpect(status().isOk());
+
+        for (CreateUserProfileRequest request : requests) {
+            assertEquals(List.of(shardRouter.shardFor(request.getUserId())), shardsHolding(request.getUserId()),
+                    "Shards holding " + request.getUserId());
+        }
+    }
+
+    private static List<Integer> shardsHolding(String userId) throws SQLException {
+        List<Integer> shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARD_DATABASES.size(); shard++) {
+            try (Connection connection = MySqlTestDatabase.connect(SHARD_DATABASES.get(shard));
+                 PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM customers WHERE user_id = ?")) {
+                statement.setString(1, userId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    if (rs.getInt(1) > 0) {
+                        shards.add(shard);
+                    }
+                }
+            }
+        }
+        return shards;
+    }
+}
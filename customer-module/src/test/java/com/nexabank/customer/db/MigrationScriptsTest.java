@@ -0,0 +1,39 @@
+package com.nexabank.customer.db;
+
+import com.nexabank.customer.support.MySqlTestDatabase;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies the Flyway scripts in db/migration to an empty MySQL database, the way a new
+ * environment is set up: every script must run, validate afterwards, and a second migrate
+ * must have nothing left to do
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MigrationScriptsTest {
+
+    @Test
+    void migrationsApplyToAnEmptyDatabase() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(MySqlTestDatabase.url("customer_migrations"), MySqlTestDatabase.username(),
+                        MySqlTestDatabase.password())
+                .locations("classpath:db/migration")
+                .load();
+
+        int applied = flyway.migrate().migrationsExecuted;
+
+        assertTrue(applied > 0, "No migrations were applied");
+        assertEquals(applied, flyway.info().applied().length);
+        for (MigrationInfo migration : flyway.info().applied()) {
+            assertTrue(migration.getState().isApplied() && !migration.getState().isFailed(),
+                    migration.getVersion() + " is " + migration.getState());
+        }
+        flyway.validate();
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+}
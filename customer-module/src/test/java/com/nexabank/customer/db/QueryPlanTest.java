@@ -0,0 +1,207 @@
+package com.nexabank.customer.db;
+
+import com.nexabank.customer.support.MySqlTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every query method of every repository against the migrated schema, captures the SQL
+ * Hibernate prepares for it and EXPLAINs that SQL. A table read with access type ALL and no
+ * candidate index is a full table scan and fails the test, unless the method is one of the
+ * whole-table passes listed below.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.nexabank.customer.db.RecordingStatementInspector")
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final String DATABASE = "customer_query_plans";
+
+    // Literal bound in place of every parameter; valid as a string, a date and (as 2026) a number
+    private static final String SAMPLE_LITERAL = "'2026-01-01 00:00:00'";
+
+    private static final Set<String> FULL_SCANS_BY_DESIGN = Set.of(
+            // Orphan sweep of the rebuild: visits every view row once
+            "CustomerProfileViewRepository.deleteAllOrphans",
+            // Reconciliation and totals: aggregate whole (small, pre-aggregated) rollup tables
+            "TransactionRollupRepository.findTotals",
+            "TransactionRollupRepository.sumDailyByType",
+            // Substring search (a leading wildcard cannot use an index); only the fallback when the
+            // in-memory InvertedIndex is over its memory budget
+            "CustomerRepository.findByNameContainingIgnoreCase",
+            // Substring searches and low-cardinality listings that no endpoint calls
+            "CustomerRepository.findByPhoneNumberContaining",
+            "CustomerNameComponentRepository.findByNameValueContaining",
+            "CustomerRepository.findByCustomerType",
+            "CustomerIdentificationRepository.findByIdentificationItem",
+            "CustomerNameComponentRepository.findByNameComponentType");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(DATABASE));
+        registry.add("spring.datasource.username", MySqlTestDatabase::username);
+        registry.add("spring.datasource.password", MySqlTestDatabase::password);
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repositoryQueriesDoNotScanWholeTables() throws SQLException {
+        Map<String, List<String>> statements = repositoryStatements();
+        List<String> fullScans = new ArrayList<>();
+        List<String> unverified = new ArrayList<>();
+        try (Connection connection = MySqlTestDatabase.connect(DATABASE);
+             Statement explain = connection.createStatement()) {
+            for (Map.Entry<String, List<String>> method : statements.entrySet()) {
+                if (method.getValue().isEmpty()) {
+                    unverified.add(method.getKey());
+                }
+                if (FULL_SCANS_BY_DESIGN.contains(method.getKey())) {
+                    continue;
+                }
+                for (String sql : method.getValue()) {
+                    for (String table : fullScanTables(explain, sql)) {
+                        fullScans.add(method.getKey() + " scans " + table + ": " + sql);
+                    }
+                }
+            }
+        }
+        assertTrue(unverified.isEmpty(), "No SQL captured for " + unverified);
+        assertTrue(fullScans.isEmpty(), "Full table scans:\n" + String.join("\n", fullScans));
+    }
+
+    /**
+     * SQL prepared by each repository query method, keyed by Repository.method
+     */
+    private Map<String, List<String>> repositoryStatements() {
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        Repositories repositories = new Repositories(applicationContext);
+        Map<String, List<String>> statements = new TreeMap<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            for (Method method : information.getQueryMethods()) {
+                Object[] arguments = sampleArguments(method);
+                List<String> sql = RecordingStatementInspector.record(() -> rollback.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    try {
+                        method.invoke(repository, arguments);
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+                statements.put(information.getRepositoryInterface().getSimpleName() + "." + method.getName(), sql);
+            }
+        }
+        return statements;
+    }
+
+    private static List<String> fullScanTables(Statement explain, String sql) throws SQLException {
+        String bound = sql.replaceAll("(?i)\\blimit\\s+\\?\\s*,\\s*\\?", "limit 0, 1")
+                .replaceAll("(?i)\\blimit\\s+\\?", "limit 1")
+                .replaceAll("(?i)\\boffset\\s+\\?", "offset 0")
+                .replace("?", SAMPLE_LITERAL);
+        List<String> tables = new ArrayList<>();
+        try (ResultSet plan = explain.executeQuery("EXPLAIN " + bound)) {
+            while (plan.next()) {
+                String selectType = plan.getString("select_type");
+                String table = plan.getString("table");
+                boolean insertTarget = "INSERT".equals(selectType) || "REPLACE".equals(selectType);
+                boolean derived = table == null || table.startsWith("<");
+                if (!insertTarget && !derived && "ALL".equals(plan.getString("type"))
+                        && plan.getString("possible_keys") == null) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = sample(types[i]);
+        }
+        return arguments;
+    }
+
+    private static Object sample(Type type) {
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && Collection.class.isAssignableFrom(raw)) {
+            return List.of(sample(parameterized.getActualTypeArguments()[0]));
+        }
+        if (!(type instanceof Class<?> cls)) {
+            return null;
+        }
+        if (cls == String.class) {
+            return "sample";
+        }
+        if (cls == int.class || cls == Integer.class) {
+            return 1;
+        }
+        if (cls == long.class || cls == Long.class) {
+            return 1L;
+        }
+        if (cls == boolean.class || cls == Boolean.class) {
+            return false;
+        }
+        if (cls == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (cls == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (cls == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (cls.isEnum()) {
+            return cls.getEnumConstants()[0];
+        }
+        if (cls == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (cls == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (Collection.class.isAssignableFrom(cls)) {
+            return List.of("sample");
+        }
+        return null;
+    }
+}
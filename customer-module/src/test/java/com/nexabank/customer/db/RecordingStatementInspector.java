@@ -0,0 +1,40 @@
+package com.nexabank.customer.db;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector that records the SQL prepared on the current thread while
+ * a recording is active; registered by QueryPlanTest
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Run work and return the statements it prepared, whether or not it completed
+     */
+    static List<String> record(Runnable work) {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            work.run();
+        } catch (RuntimeException ignored) {
+            // Sample arguments can be rejected at execution; the SQL was still prepared
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+}
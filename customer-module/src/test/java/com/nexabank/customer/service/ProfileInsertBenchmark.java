@@ -0,0 +1,162 @@
+package com.nexabank.customer.service;
+
+import com.nexabank.customer.dto.CreateUserProfileRequest;
+import com.nexabank.customer.entity.Customer;
+import com.nexabank.customer.entity.CustomerIdentification;
+import com.nexabank.customer.entity.CustomerNameComponent;
+import com.nexabank.customer.support.MySqlTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts per second of profile creation, before and after it became one cascaded save. A full
+ * profile is eight rows: the customer, three name components and four identifications.
+ * "Before" replays what createProfile used to do, a createCustomer followed by one service save
+ * (and so one transaction and flush) per child; "after" is createCustomerProfile. The in-memory
+ * indexes fed by change events are switched off so only the write path is measured.
+ *
+ * Not run by surefire; run with {@code mvn test -Dtest=ProfileInsertBenchmark}
+ */
+@SpringBootTest(properties = {
+        "app.search.index.enabled=false",
+        "app.suggest.enabled=false",
+        "app.profile-view.enabled=false",
+        "app.matching.enabled=false"})
+@Testcontainers(disabledWithoutDocker = true)
+class ProfileInsertBenchmark {
+
+    private static final String DATABASE = "customer_insert_benchmark";
+    private static final int ROWS_PER_PROFILE = 8;
+    private static final int WARMUP_PROFILES = 200;
+    private static final int MEASURED_PROFILES = 1000;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> MySqlTestDatabase.url(DATABASE));
+        registry.add("spring.datasource.username", MySqlTestDatabase::username);
+        registry.add("spring.datasource.password", MySqlTestDatabase::password);
+    }
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerNameComponentService nameComponentService;
+
+    @Autowired
+    private CustomerIdentificationService identificationService;
+
+    @Test
+    void insertsPerSecond() throws SQLException {
+        run("warmup-before", WARMUP_PROFILES, this::createOneSaveAtATime);
+        run("warmup-after", WARMUP_PROFILES, customerService::createCustomerProfile);
+
+        double before = run("before", MEASURED_PROFILES, this::createOneSaveAtATime);
+        double after = run("after", MEASURED_PROFILES, customerService::createCustomerProfile);
+
+        System.out.printf("Profile creation, %d profiles of %d rows:%n", MEASURED_PROFILES, ROWS_PER_PROFILE);
+        System.out.printf("  before (save per entity): %,.0f inserts/s%n", before);
+        System.out.printf("  after (cascaded flush):   %,.0f inserts/s (x%.1f)%n", after, after / before);
+    }
+
+    // Inserts per second of creating count profiles with create
+    private double run(String label, int count, Consumer<CreateUserProfileRequest> create) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            create.accept(request(label, i));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(count * ROWS_PER_PROFILE, rowsOf(label));
+        return count * ROWS_PER_PROFILE / seconds;
+    }
+
+    // The create path of UserProfileController before the aggregate was saved in one flush
+    private void createOneSaveAtATime(CreateUserProfileRequest request) {
+        Customer customer = new Customer();
+        customer.setUserId(request.getUserId());
+        customer.setEmailId(request.getEmail());
+        customer.setDateOfBirth(request.getDateOfBirth());
+        customer.setGender(request.getGender());
+        customer.setNationality(request.getNationality());
+        customer.setPhoneNumber(request.getPhoneNumber());
+        customer.setCity(request.getCity());
+        customer.setCountry(request.getCountry());
+        Customer saved = customerService.createCustomer(customer);
+
+        saveName(saved, CustomerNameComponent.NameComponentType.FIRST_NAME, request.getFirstName());
+        saveName(saved, CustomerNameComponent.NameComponentType.LAST_NAME, request.getLastName());
+        saveName(saved, CustomerNameComponent.NameComponentType.MIDDLE_NAME, request.getMiddleName());
+        saveIdentification(saved, CustomerIdentification.AADHAR_CARD, request.getAadharNumber());
+        saveIdentification(saved, CustomerIdentification.PAN_CARD, request.getPanNumber());
+        saveIdentification(saved, CustomerIdentification.PASSPORT, request.getPassportNumber());
+        saveIdentification(saved, CustomerIdentification.DRIVING_LICENSE, request.getDrivingLicense());
+    }
+
+    private void saveName(Customer customer, CustomerNameComponent.NameComponentType type, String value) {
+        CustomerNameComponent name = new CustomerNameComponent();
+        name.setCustomer(customer);
+        name.setNameComponentType(type);
+        name.setNameValue(value);
+        name.setEffectiveDate(LocalDateTime.now());
+        nameComponentService.save(name);
+    }
+
+    private void saveIdentification(Customer customer, String type, String item) {
+        CustomerIdentification identification = new CustomerIdentification();
+        identification.setCustomer(customer);
+        identification.setIdentificationType(type);
+        identification.setIdentificationItem(item);
+        identification.setEffectiveDate(LocalDateTime.now());
+        identificationService.save(identification);
+    }
+
+    private static CreateUserProfileRequest request(String label, int i) {
+        String id = label + "-" + i;
+        CreateUserProfileRequest request = new CreateUserProfileRequest();
+        request.setUserId(id);
+        request.setEmail(id + "@example.com");
+        request.setFirstName("Bench");
+        request.setLastName("User" + i);
+        request.setMiddleName("M");
+        request.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        request.setGender("F");
+        request.setPhoneNumber("+919800000000");
+        request.setCity("Pune");
+        request.setAadharNumber("AAD-" + id);
+        request.setPanNumber("PAN-" + id);
+        request.setPassportNumber("PP-" + id);
+        request.setDrivingLicense("DL-" + id);
+        return request;
+    }
+
+    // Rows inserted for the profiles of one run
+    private static int rowsOf(String label) throws SQLException {
+        String sql = "SELECT (SELECT COUNT(*) FROM customers c WHERE c.user_id LIKE ?)"
+                + " + (SELECT COUNT(*) FROM customer_name_components n JOIN customers c ON c.customer_id = n.customer_id WHERE c.user_id LIKE ?)"
+                + " + (SELECT COUNT(*) FROM customer_identification d JOIN customers c ON c.customer_id = d.customer_id WHERE c.user_id LIKE ?)";
+        try (Connection connection = MySqlTestDatabase.connect(DATABASE);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= 3; i++) {
+                statement.setString(i, label + "-%");
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.nexabank.customer.support;
+
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * One MySQL container shared by the integration tests; each test asks for its own databases
+ * by name, which are created on first connect. Only touched from tests that are skipped
+ * without Docker, so the container is started lazily.
+ */
+public final class MySqlTestDatabase {
+
+    private static final String PASSWORD = "test";
+
+    private static MySQLContainer<?> container;
+
+    private MySqlTestDatabase() {
+    }
+
+    public static synchronized String url(String database) {
+        if (container == null) {
+            container = new MySQLContainer<>("mysql:8.0")
+                    .withUsername("root")
+                    .withPassword(PASSWORD);
+            container.start();
+        }
+        return "jdbc:mysql://" + container.getHost() + ":" + container.getMappedPort(MySQLContainer.MYSQL_PORT)
+                + "/" + database + "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true"
+                + "&rewriteBatchedStatements=true";
+    }
+
+    public static String username() {
+        return "root";
+    }
+
+    public static String password() {
+        return PASSWORD;
+    }
+
+    public static Connection connect(String database) throws SQLException {
+        return DriverManager.getConnection(url(database), username(), password());
+    }
+}
@@ -0,0 +1,55 @@
+package com.nexabank.customer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAddedValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("customer-" + i + "@example.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("customer-" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void putReportsWhetherAnyBitChanged() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertTrue(filter.put("ABCDE1234F"));
+        assertFalse(filter.put("ABCDE1234F"));
+        assertEquals(1, filter.getInsertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("present-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void sizeFollowsExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        assertEquals(10_000, filter.getExpectedInsertions());
+        // About 9.6 bits per value at 1%
+        assertTrue(filter.getSizeInBytes() >= 10_000 * 9.5 / 8);
+        assertFalse(filter.mightContain("anything"));
+    }
+}
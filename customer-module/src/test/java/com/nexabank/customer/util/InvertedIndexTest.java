@@ -0,0 +1,110 @@
+package com.nexabank.customer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex(Long.MAX_VALUE);
+
+    @Test
+    void ranksExactBeforePrefixBeforeSubstringMatches() {
+        index.put("c1", List.of("Ravi", "Kumar"));
+        index.put("c2", List.of("Ravindra", "Singh"));
+        index.put("c3", List.of("Aravind", "Rao"));
+
+        assertEquals(List.of("c1", "c2", "c3"), index.search("ravi"));
+    }
+
+    @Test
+    void everyQueryTokenMustMatch() {
+        index.put("c1", List.of("Anita", "Sharma"));
+        index.put("c2", List.of("Anil", "Kumar"));
+
+        assertEquals(List.of("c1"), index.search("anita sharma"));
+        assertTrue(index.search("anil sharma").isEmpty());
+    }
+
+    @Test
+    void shortQueryTokensMatchWithoutTrigrams() {
+        index.put("c1", List.of("Anita"));
+        index.put("c2", List.of("Anil"));
+        index.put("c3", List.of("Bob"));
+
+        assertEquals(List.of("c2", "c1"), index.search("an"));
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        index.put("c1", List.of("José", "Müller"));
+
+        assertEquals(List.of("c1"), index.search("JOSE muller"));
+        assertEquals(List.of("jose", "muller"), InvertedIndex.tokenize("José-Müller"));
+    }
+
+    @Test
+    void putReplacesAndEmptyTextsRemove() {
+        index.put("c1", List.of("Anita"));
+        index.put("c1", List.of("Bob"));
+
+        assertTrue(index.search("anita").isEmpty());
+        assertEquals(List.of("c1"), index.search("bob"));
+
+        index.put("c1", List.of());
+        assertTrue(index.search("bob").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void removedOrdinalsAreReused() {
+        for (int i = 0; i < 100; i++) {
+            index.put("c" + i, List.of("Customer" + i));
+        }
+        long full = index.getEstimatedBytes();
+
+        for (int i = 0; i < 100; i++) {
+            index.remove("c" + i);
+        }
+        assertEquals(0, index.size());
+        for (int i = 0; i < 100; i++) {
+            index.put("c" + i, List.of("Customer" + i));
+        }
+
+        // No new document slots: the emptied ones were handed out again
+        assertEquals(full, index.getEstimatedBytes());
+        assertEquals(List.of("c42"), index.search("customer42"));
+    }
+
+    @Test
+    void replacingDocumentsDoesNotGrowTheIndex() {
+        index.put("c1", List.of("Anita", "Sharma"));
+        long before = index.getEstimatedBytes();
+
+        for (int i = 0; i < 50; i++) {
+            index.put("c1", List.of("Anita", "Sharma"));
+        }
+        assertEquals(before, index.getEstimatedBytes());
+    }
+
+    @Test
+    void refusesDocumentsOnceOverBudget() {
+        InvertedIndex small = new InvertedIndex(2_000);
+        int indexed = 0;
+        while (small.put("c" + indexed, List.of("Customer" + indexed))) {
+            indexed++;
+            if (small.isOverBudget()) {
+                break;
+            }
+        }
+
+        assertTrue(small.isOverBudget());
+        assertFalse(small.put("late", List.of("Latecomer")));
+        assertTrue(small.search("latecomer").isEmpty());
+        assertEquals(List.of("c0"), small.search("customer0"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.nexabank.customer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RadixTrieTest {
+
+    private final RadixTrie<String> trie = new RadixTrie<>();
+
+    @Test
+    void findsValuesOfKeysStartingWithThePrefix() {
+        trie.put("anita", "c1");
+        trie.put("anil", "c2");
+        trie.put("bob", "c3");
+
+        assertEquals(List.of("c2", "c1"), trie.findByPrefix("ani", 10));
+        assertEquals(List.of("c3"), trie.findByPrefix("b", 10));
+        assertTrue(trie.findByPrefix("x", 10).isEmpty());
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatches() {
+        trie.put("alexander", "c1");
+
+        assertEquals(List.of("c1"), trie.findByPrefix("alexa", 10));
+        assertTrue(trie.findByPrefix("alexo", 10).isEmpty());
+    }
+
+    @Test
+    void shortestKeysComeFirstEvenBelowLongerEdges() {
+        // "alongkeyvalue" hangs off a shallower node than "ab1" and "ab2"
+        trie.put("alongkeyvalue", "long");
+        trie.put("ab1", "short1");
+        trie.put("ab2", "short2");
+
+        assertEquals(List.of("short1", "short2"), trie.findByPrefix("a", 2));
+        assertEquals(List.of("short1", "short2", "long"), trie.findByPrefix("a", 10));
+    }
+
+    @Test
+    void keysOfEqualLengthComeInKeyOrder() {
+        trie.put("carl", "c3");
+        trie.put("cara", "c1");
+        trie.put("cab", "c0");
+        trie.put("carb", "c2");
+
+        assertEquals(List.of("c0", "c1", "c2", "c3"), trie.findByPrefix("ca", 10));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        for (int i = 0; i < 20; i++) {
+            trie.put("name" + i, "c" + i);
+        }
+        assertEquals(5, trie.findByPrefix("name", 5).size());
+        assertTrue(trie.findByPrefix("name", 0).isEmpty());
+        assertTrue(trie.findByPrefix("", 5).isEmpty());
+    }
+
+    @Test
+    void keyHoldsSeveralValues() {
+        trie.put("sharma", "c1");
+        trie.put("sharma", "c2");
+
+        assertEquals(List.of("c1", "c2"), trie.findByPrefix("sha", 10));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void removeDropsTheValueAndKeepsOtherKeys() {
+        trie.put("anita", "c1");
+        trie.put("anil", "c2");
+        trie.put("an", "c3");
+
+        trie.remove("anil", "c2");
+        assertEquals(List.of("c3", "c1"), trie.findByPrefix("an", 10));
+        assertEquals(2, trie.size());
+
+        trie.remove("an", "c3");
+        assertEquals(List.of("c1"), trie.findByPrefix("an", 10));
+        assertEquals(List.of("c1"), trie.findByPrefix("anit", 10));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void removingAnUnknownValueChangesNothing() {
+        trie.put("anita", "c1");
+
+        trie.remove("anita", "c9");
+        trie.remove("anitas", "c1");
+        assertEquals(List.of("c1"), trie.findByPrefix("anita", 10));
+        assertEquals(1, trie.size());
+    }
+}
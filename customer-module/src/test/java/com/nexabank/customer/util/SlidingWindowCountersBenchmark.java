@@ -0,0 +1,93 @@
+package com.nexabank.customer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of the velocity windows as the number of active accounts grows. One operation
+ * is what VelocityEngine does for a monitored posting with the default layout (12 buckets of
+ * 300 s): read the account's totals over a short and the full window, then record the event.
+ * Events go to accounts in random order, so each one lands on a different ring. An event costs a
+ * fixed number of map and ring reads: the score rises while the rings grow out of the CPU caches
+ * and then stays flat, so a million accounts should score about the same as three million.
+ *
+ * Not run by surefire; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.nexabank.customer.util.SlidingWindowCountersBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SlidingWindowCountersBenchmark {
+
+    private static final long BUCKET_MILLIS = 300_000;
+    private static final int BUCKETS = 12;
+    private static final int SHORT_WINDOW_BUCKETS = 2;
+    private static final int EVENTS = 1 << 20;
+    private static final long START_MILLIS = 1_790_000_000_000L;
+
+    @Param({"10000", "1000000", "3000000"})
+    private int activeAccounts;
+
+    private SlidingWindowCounters counters;
+    private String[] accounts;
+    private String[] targets;
+    private int[] order;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        counters = new SlidingWindowCounters(BUCKET_MILLIS, BUCKETS);
+        accounts = new String[activeAccounts];
+        for (int i = 0; i < activeAccounts; i++) {
+            accounts[i] = String.format("ACC%012d", i);
+            counters.record(accounts[i], START_MILLIS, 10_000, "TGT" + (i % 64));
+        }
+        targets = new String[64];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = "TGT" + i;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        order = new int[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            order[i] = random.nextInt(activeAccounts);
+        }
+    }
+
+    @Benchmark
+    public long checkAndRecord() {
+        int event = next++ & (EVENTS - 1);
+        String account = accounts[order[event]];
+        // A millisecond per event, so the buckets roll over during a run as they would in production
+        long now = START_MILLIS + event;
+        long seen = counters.totals(account, now, SHORT_WINDOW_BUCKETS).getCount()
+                + counters.totals(account, now, BUCKETS).getAmountMinor();
+        counters.record(account, now, 2_500, targets[event & (targets.length - 1)]);
+        return seen;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlidingWindowCountersBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
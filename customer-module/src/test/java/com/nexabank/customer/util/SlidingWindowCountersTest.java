@@ -0,0 +1,123 @@
+package com.nexabank.customer.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlidingWindowCountersTest {
+
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final SlidingWindowCounters counters = new SlidingWindowCounters(BUCKET_MILLIS, 10);
+
+    @Test
+    void sumsEventsAcrossTheWindow() {
+        counters.record("acct", 500, 100, "alice");
+        counters.record("acct", 1500, 200, "bob");
+        counters.record("acct", 1700, 50, null);
+
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 1800, 10);
+        assertEquals(3, totals.getCount());
+        assertEquals(350, totals.getAmountMinor());
+        assertEquals(2, totals.getDistinctTargets());
+    }
+
+    @Test
+    void narrowerWindowOnlySeesRecentBuckets() {
+        counters.record("acct", 500, 100, "alice");
+        counters.record("acct", 1500, 200, "bob");
+
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 1500, 1);
+        assertEquals(1, totals.getCount());
+        assertEquals(200, totals.getAmountMinor());
+        assertEquals(1, totals.getDistinctTargets());
+    }
+
+    @Test
+    void bucketsFromAnEarlierLapAreIgnoredAndReset() {
+        counters.record("acct", 500, 100, "alice");
+        // Same ring slot, one full lap of ten buckets later
+        counters.record("acct", 10_500, 40, "bob");
+
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 10_500, 10);
+        assertEquals(1, totals.getCount());
+        assertEquals(40, totals.getAmountMinor());
+        assertEquals(1, totals.getDistinctTargets());
+    }
+
+    @Test
+    void eventOlderThanTheReusedBucketIsDropped() {
+        counters.record("acct", 10_500, 40, "bob");
+        counters.record("acct", 500, 100, "alice");
+
+        assertEquals(1, counters.totals("acct", 10_500, 10).getCount());
+    }
+
+    @Test
+    void repeatedTargetCountsOnce() {
+        for (int i = 0; i < 5; i++) {
+            counters.record("acct", 100 * i, 10, "alice");
+        }
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 500, 10);
+        assertEquals(5, totals.getCount());
+        assertEquals(1, totals.getDistinctTargets());
+    }
+
+    @Test
+    void negativeAmountsAddNothing() {
+        counters.record("acct", 0, -500, null);
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 0, 10);
+        assertEquals(1, totals.getCount());
+        assertEquals(0, totals.getAmountMinor());
+    }
+
+    @Test
+    void unknownKeyHasEmptyTotals() {
+        SlidingWindowCounters.Totals totals = counters.totals("missing", 0, 10);
+        assertEquals(0, totals.getCount());
+        assertEquals(0, totals.getAmountMinor());
+        assertEquals(0, totals.getDistinctTargets());
+    }
+
+    @Test
+    void evictIdleDropsKeysWithoutRecentEvents() {
+        counters.record("idle", 0, 10, null);
+        counters.record("busy", 19_000, 10, null);
+
+        assertEquals(1, counters.evictIdle(19_500));
+        assertEquals(1, counters.size());
+        assertEquals(1, counters.totals("busy", 19_500, 10).getCount());
+    }
+
+    @Test
+    void plusAddsCountsAndAmountsAndUnitesTargets() {
+        SlidingWindowCounters staged = new SlidingWindowCounters(BUCKET_MILLIS, 10);
+        counters.record("acct", 500, 100, "alice");
+        counters.record("acct", 600, 200, "bob");
+        staged.record("acct", 700, 50, "alice");
+
+        SlidingWindowCounters.Totals sum = counters.totals("acct", 700, 10).plus(staged.totals("acct", 700, 10));
+        assertEquals(3, sum.getCount());
+        assertEquals(350, sum.getAmountMinor());
+        // alice is in both and counts once
+        assertEquals(2, sum.getDistinctTargets());
+    }
+
+    @Test
+    void plusWithEmptyTotalsKeepsValues() {
+        counters.record("acct", 500, 100, "alice");
+        SlidingWindowCounters.Totals totals = counters.totals("acct", 500, 10);
+
+        SlidingWindowCounters.Totals sum = totals.plus(new SlidingWindowCounters.Totals());
+        assertEquals(totals.getCount(), sum.getCount());
+        assertEquals(totals.getAmountMinor(), sum.getAmountMinor());
+        assertEquals(totals.getDistinctTargets(), sum.getDistinctTargets());
+    }
+
+    @Test
+    void rejectsNonPositiveLayout() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounters(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounters(1000, 0));
+    }
+}
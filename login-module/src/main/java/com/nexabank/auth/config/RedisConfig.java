@@ -1,12 +1,17 @@
 package com.nexabank.auth.config;
 
+import com.nexabank.auth.service.EmailBloomFilterService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
+
 @Configuration
 public class RedisConfig {
 
@@ -26,4 +31,18 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * Emails registered on other instances, added to this instance's Bloom filter
+     */
+    @Bean
+    public RedisMessageListenerContainer bloomFilterInsertListener(RedisConnectionFactory connectionFactory,
+                                                                   EmailBloomFilterService emailBloomFilterService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> emailBloomFilterService.applyRemoteInsert(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(EmailBloomFilterService.INSERT_CHANNEL));
+        return container;
+    }
+}
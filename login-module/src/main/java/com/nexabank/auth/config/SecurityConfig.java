@@ -1,5 +1,6 @@
 package com.nexabank.auth.config;
 
+import com.nexabank.auth.security.AdmissionControlFilter;
 import com.nexabank.auth.security.JwtAuthenticationFilter;
 import com.nexabank.auth.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
 
@@ -32,6 +34,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -49,7 +54,7 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 // Public endpoints - no authentication required
-                .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
+                .requestMatchers("/api/auth/login", "/api/auth/register", "/api/auth/email-available").permitAll()
                 .requestMatchers("/error", "/").permitAll()
                 .requestMatchers("/health", "/actuator/**").permitAll()
                 
@@ -64,6 +69,8 @@ public class SecurityConfig {
                 // Everything else is permitted
                 .anyRequest().permitAll()
             )
+            // Shed overload right after CORS headers are applied, before any token or credential work
+            .addFilterAfter(admissionControlFilter, CorsFilter.class)
             // Add JWT authentication filter before UsernamePasswordAuthenticationFilter
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -1,8 +1,17 @@
 package com.nexabank.auth.controller;
 
 import com.nexabank.auth.dto.ApiResponse;
+import com.nexabank.auth.dto.BulkUserUpdateRequest;
+import com.nexabank.auth.dto.UserImportRequest;
 import com.nexabank.auth.entity.User;
+import com.nexabank.auth.entity.UserImportJob;
+import com.nexabank.auth.service.AccountUnlockSweeper;
+import com.nexabank.auth.service.AdmissionControlService;
+import com.nexabank.auth.service.BulkUserUpdateService;
+import com.nexabank.auth.service.CustomerProfileClient;
 import com.nexabank.auth.service.JwtTokenService;
+import com.nexabank.auth.service.ProfileReconciliationService;
+import com.nexabank.auth.service.UserImportService;
 import com.nexabank.auth.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,20 +21,45 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"}, allowCredentials = "true")
 public class AdminController {
 
+    // How long a single user view waits for its micro-batched profile lookup
+    private static final long PROFILE_LOOKUP_TIMEOUT_SECONDS = 5;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtTokenService jwtTokenService;
 
+    @Autowired
+    private CustomerProfileClient customerProfileClient;
+
+    @Autowired
+    private AccountUnlockSweeper accountUnlockSweeper;
+
+    @Autowired
+    private ProfileReconciliationService profileReconciliationService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private BulkUserUpdateService bulkUserUpdateService;
+
+    @Autowired
+    private AdmissionControlService admissionControlService;
+
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getAllUsers(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "false") boolean includeProfiles) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -43,17 +77,23 @@ public class AdminController {
             // Get all users (in a real system, you'd paginate this)
             List<User> users = userService.getAllUsers();
             
+            // Profile data for every row in one bulk lookup instead of one request per user
+            Map<String, Map<String, Object>> profiles = new HashMap<>();
+            if (includeProfiles) {
+                try {
+                    profiles = customerProfileClient.getProfilesByUserIds(users.stream().map(User::getUserId).toList());
+                } catch (Exception e) {
+                    System.err.println("Failed to load customer profiles for admin user list: " + e.getMessage());
+                }
+            }
+            Map<String, Map<String, Object>> profilesByUserId = profiles;
+            
             // Remove sensitive information before returning
             List<Map<String, Object>> sanitizedUsers = users.stream().map(user -> {
-                Map<String, Object> userMap = new HashMap<>();
-                userMap.put("userId", user.getUserId());
-                userMap.put("email", user.getEmail());
-                userMap.put("userType", user.getUserType());
-                userMap.put("status", user.getStatus());
-                userMap.put("roles", user.getRoles());
-                userMap.put("lastLogin", user.getLastLogin());
-                userMap.put("failedLoginAttempts", user.getFailedLoginAttempts());
-                userMap.put("createdAt", user.getCreatedAt());
+                Map<String, Object> userMap = sanitize(user);
+                if (includeProfiles) {
+                    userMap.put("profile", profilesByUserId.get(user.getUserId()));
+                }
                 return userMap;
             }).toList();
 
@@ -65,6 +105,67 @@ public class AdminController {
         }
     }
 
+    /**
+     * One user, optionally with its profile; concurrent profile lookups (e.g. a UI filling in
+     * rows one request at a time) are micro-batched into one call to customer-module
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<?> getUser(
+            @PathVariable String userId,
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "false") boolean includeProfile) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            Optional<User> user = userService.findById(userId);
+            if (user.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Map<String, Object> userMap = sanitize(user.get());
+            if (includeProfile) {
+                Map<String, Object> profile = null;
+                try {
+                    profile = customerProfileClient.getProfileByUserId(userId)
+                        .get(PROFILE_LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS).orElse(null);
+                } catch (Exception e) {
+                    System.err.println("Failed to load customer profile for user " + userId + ": " + e.getMessage());
+                }
+                userMap.put("profile", profile);
+            }
+            return ResponseEntity.ok(ApiResponse.success("User retrieved successfully", userMap));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve user: " + e.getMessage()));
+        }
+    }
+
+    // User fields safe to return to admins (no password hash)
+    private static Map<String, Object> sanitize(User user) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("userId", user.getUserId());
+        userMap.put("email", user.getEmail());
+        userMap.put("userType", user.getUserType());
+        userMap.put("status", user.getStatus());
+        userMap.put("roles", user.getRoles());
+        userMap.put("lastLogin", user.getLastLogin());
+        userMap.put("failedLoginAttempts", user.getFailedLoginAttempts());
+        userMap.put("createdAt", user.getCreatedAt());
+        return userMap;
+    }
+
     @PutMapping("/users/{userId}/roles")
     public ResponseEntity<?> updateUserRoles(
             @PathVariable String userId,
@@ -165,6 +266,140 @@ public class AdminController {
         }
     }
 
+    /**
+     * Set the status of many users (userIds or filter) in the background; returns the job to poll
+     */
+    @PostMapping("/users/bulk/status")
+    public ResponseEntity<?> bulkUpdateUserStatus(
+            @RequestBody BulkUserUpdateRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.hasRole(token, User.Role.ADMIN_USER_MANAGEMENT)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. User management access required."));
+            }
+
+            Map<String, Object> job = bulkUserUpdateService.submit(BulkUserUpdateService.Operation.SET_STATUS, request,
+                jwtTokenService.extractUserId(token), jwtTokenService.extractEmail(token));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Bulk status update started", job));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to start bulk status update: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Add or remove a role ("action": "add" or "remove") for many users in the background
+     */
+    @PostMapping("/users/bulk/roles")
+    public ResponseEntity<?> bulkUpdateUserRoles(
+            @RequestBody BulkUserUpdateRequest request,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.hasRole(token, User.Role.ADMIN_USER_MANAGEMENT)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. User management access required."));
+            }
+
+            String action = request.getAction();
+            BulkUserUpdateService.Operation operation;
+            if ("add".equals(action)) {
+                operation = BulkUserUpdateService.Operation.ADD_ROLE;
+            } else if ("remove".equals(action)) {
+                operation = BulkUserUpdateService.Operation.REMOVE_ROLE;
+            } else {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Invalid action. Use 'add' or 'remove'"));
+            }
+
+            Map<String, Object> job = bulkUserUpdateService.submit(operation, request,
+                jwtTokenService.extractUserId(token), jwtTokenService.extractEmail(token));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Bulk role update started", job));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to start bulk role update: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/users/bulk")
+    public ResponseEntity<?> getBulkUserUpdates(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.hasRole(token, User.Role.ADMIN_USER_MANAGEMENT)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. User management access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("Bulk user updates retrieved successfully",
+                bulkUserUpdateService.getRecentJobs()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve bulk user updates: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Progress of a bulk update; jobs are tracked on the node that accepted them
+     */
+    @GetMapping("/users/bulk/{jobId}")
+    public ResponseEntity<?> getBulkUserUpdate(
+            @PathVariable String jobId,
+            @RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.hasRole(token, User.Role.ADMIN_USER_MANAGEMENT)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. User management access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("Bulk user update retrieved successfully",
+                bulkUserUpdateService.getJob(jobId)));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/dashboard/stats")
     public ResponseEntity<?> getDashboardStats(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -190,4 +425,270 @@ public class AdminController {
                 .body(ApiResponse.error("Failed to retrieve dashboard stats: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/sweepers/unlock")
+    public ResponseEntity<?> getUnlockSweeperStats(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("Unlock sweeper stats retrieved successfully",
+                accountUnlockSweeper.getStats()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve unlock sweeper stats: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Current adaptive concurrency limits of the auth endpoints, requests in flight and shed counts
+     */
+    @GetMapping("/admission-limits")
+    public ResponseEntity<?> getAdmissionLimits(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("Admission limits retrieved successfully",
+                admissionControlService.getStats()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve admission limits: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reconciliation/profiles")
+    public ResponseEntity<?> getProfileReconciliation(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("Profile reconciliation stats retrieved successfully",
+                profileReconciliationService.getStats()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve profile reconciliation stats: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Start a reconciliation of users and customer profiles; repair=false only reports the differences
+     */
+    @PostMapping("/reconciliation/profiles/run")
+    public ResponseEntity<?> runProfileReconciliation(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) Boolean repair) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            if (!profileReconciliationService.trigger(repair)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("Profile reconciliation is already running"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Profile reconciliation started", profileReconciliationService.getStats()));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to start profile reconciliation: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Start importing a CSV of users from the user import directory
+     */
+    @PostMapping("/user-imports")
+    public ResponseEntity<?> startUserImport(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody UserImportRequest request) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            UserImportJob job = userImportService.start(request.getFileName(), jwtTokenService.extractEmail(token));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("User import started", userImportService.describe(job)));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to start user import: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/user-imports")
+    public ResponseEntity<?> getUserImports(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("User imports retrieved successfully",
+                userImportService.getRecentJobs(limit)));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve user imports: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Progress, counters and throughput of one user import
+     */
+    @GetMapping("/user-imports/{jobId}")
+    public ResponseEntity<?> getUserImport(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            return ResponseEntity.ok(ApiResponse.success("User import retrieved successfully",
+                userImportService.getJob(jobId)));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Continue a failed or cancelled user import from its last checkpoint
+     */
+    @PostMapping("/user-imports/{jobId}/resume")
+    public ResponseEntity<?> resumeUserImport(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            UserImportJob job = userImportService.resume(jobId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("User import resumed", userImportService.describe(job)));
+            
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to resume user import: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/user-imports/{jobId}/cancel")
+    public ResponseEntity<?> cancelUserImport(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Missing or invalid authorization header"));
+            }
+
+            String token = authHeader.substring(7);
+            
+            // Check if user has admin privileges
+            if (!jwtTokenService.isAdmin(token)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Insufficient privileges. Admin access required."));
+            }
+
+            if (!userImportService.cancel(jobId)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("User import " + jobId + " is not running on this node"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("User import cancelling", userImportService.getJob(jobId)));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to cancel user import: " + e.getMessage()));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.nexabank.auth.service.JwtTokenService;
 import com.nexabank.auth.service.RedisSessionService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -101,7 +102,8 @@ public class AuthController {
             
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(com.nexabank.auth.dto.ApiResponse.success("User registered successfully", authResponse));
-        } catch (UserAlreadyExistsException e) {
+        } catch (UserAlreadyExistsException | DataIntegrityViolationException e) {
+            // A concurrent registration on another node can pass the existence check and hit the unique key
             return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(com.nexabank.auth.dto.ApiResponse.error("User with this email already exists"));
         } catch (Exception e) {
@@ -188,6 +190,28 @@ public class AuthController {
         }
     }
 
+    /**
+     * Email availability check for the signup form
+     */
+    @GetMapping("/email-available")
+    public ResponseEntity<?> isEmailAvailable(@RequestParam String email) {
+        try {
+            if (email == null || email.isBlank()) {
+                return ResponseEntity.badRequest()
+                    .body(com.nexabank.auth.dto.ApiResponse.error("Email is required"));
+            }
+            boolean available = !userService.isEmailRegistered(email.trim());
+            Map<String, Object> availabilityData = new HashMap<>();
+            availabilityData.put("email", email.trim());
+            availabilityData.put("available", available);
+            return ResponseEntity.ok(com.nexabank.auth.dto.ApiResponse.success(
+                available ? "Email is available" : "Email is already registered", availabilityData));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(com.nexabank.auth.dto.ApiResponse.error("Failed to check email availability: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/lockout-status/{email}")
     public ResponseEntity<?> getLockoutStatus(@PathVariable String email) {
         try {
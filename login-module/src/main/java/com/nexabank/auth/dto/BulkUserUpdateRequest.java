@@ -0,0 +1,94 @@
+package com.nexabank.auth.dto;
+
+import java.util.List;
+
+/**
+ * Target users (explicit userIds or a filter) and the new status or role of a bulk admin update
+ */
+public class BulkUserUpdateRequest {
+
+    private List<String> userIds;
+    private Filter filter;
+    private String status;
+    // "add" or "remove", for role updates
+    private String action;
+    private String role;
+
+    public BulkUserUpdateRequest() {}
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<String> userIds) {
+        this.userIds = userIds;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    /**
+     * Users matching all given criteria; criteria left out match everyone
+     */
+    public static class Filter {
+
+        private String status;
+        private String userType;
+        private String role;
+
+        public Filter() {}
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getUserType() {
+            return userType;
+        }
+
+        public void setUserType(String userType) {
+            this.userType = userType;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nexabank.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class UserImportRequest {
+
+    // CSV file inside app.user-import.directory
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    public UserImportRequest() {}
+
+    public UserImportRequest(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+}
@@ -0,0 +1,132 @@
+package com.nexabank.auth.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One bulk user import with its checkpoint and counters (see UserImportService)
+ */
+@Entity
+@Table(name = "user_import_jobs")
+public class UserImportJob {
+
+    @Id
+    @Column(name = "job_id", updatable = false, nullable = false)
+    private String jobId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ImportStatus status = ImportStatus.PENDING;
+
+    // File offset up to which every line has been imported, skipped or rejected
+    @Column(name = "bytes_committed", nullable = false)
+    private long bytesCommitted;
+
+    @Column(name = "lines_committed", nullable = false)
+    private long linesCommitted;
+
+    @Column(name = "users_imported", nullable = false)
+    private long usersImported;
+
+    // Emails seen earlier in the same file
+    @Column(name = "rows_duplicate", nullable = false)
+    private long rowsDuplicate;
+
+    // Emails already registered
+    @Column(name = "rows_existing", nullable = false)
+    private long rowsExisting;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Column(name = "profiles_created", nullable = false)
+    private long profilesCreated;
+
+    @Column(name = "profiles_failed", nullable = false)
+    private long profilesFailed;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public enum ImportStatus {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    public UserImportJob() {}
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public ImportStatus getStatus() { return status; }
+    public void setStatus(ImportStatus status) { this.status = status; }
+
+    public long getBytesCommitted() { return bytesCommitted; }
+    public void setBytesCommitted(long bytesCommitted) { this.bytesCommitted = bytesCommitted; }
+
+    public long getLinesCommitted() { return linesCommitted; }
+    public void setLinesCommitted(long linesCommitted) { this.linesCommitted = linesCommitted; }
+
+    public long getUsersImported() { return usersImported; }
+    public void setUsersImported(long usersImported) { this.usersImported = usersImported; }
+
+    public long getRowsDuplicate() { return rowsDuplicate; }
+    public void setRowsDuplicate(long rowsDuplicate) { this.rowsDuplicate = rowsDuplicate; }
+
+    public long getRowsExisting() { return rowsExisting; }
+    public void setRowsExisting(long rowsExisting) { this.rowsExisting = rowsExisting; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public long getProfilesCreated() { return profilesCreated; }
+    public void setProfilesCreated(long profilesCreated) { this.profilesCreated = profilesCreated; }
+
+    public long getProfilesFailed() { return profilesFailed; }
+    public void setProfilesFailed(long profilesFailed) { this.profilesFailed = profilesFailed; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
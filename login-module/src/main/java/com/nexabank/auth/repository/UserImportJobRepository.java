@@ -0,0 +1,34 @@
+package com.nexabank.auth.repository;
+
+import com.nexabank.auth.entity.UserImportJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, String> {
+
+    @Query("SELECT j FROM UserImportJob j ORDER BY j.createdAt DESC")
+    List<UserImportJob> findRecent(Pageable pageable);
+
+    // Advance the checkpoint and add the counters of the block committed since the last one
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserImportJob j SET j.bytesCommitted = :bytesCommitted, j.linesCommitted = :linesCommitted, " +
+           "j.usersImported = j.usersImported + :imported, j.rowsDuplicate = j.rowsDuplicate + :duplicate, " +
+           "j.rowsExisting = j.rowsExisting + :existing, j.rowsRejected = j.rowsRejected + :rejected, " +
+           "j.profilesCreated = j.profilesCreated + :profilesCreated, j.profilesFailed = j.profilesFailed + :profilesFailed, " +
+           "j.updatedAt = :now WHERE j.jobId = :jobId")
+    int checkpoint(@Param("jobId") String jobId, @Param("bytesCommitted") long bytesCommitted,
+                   @Param("linesCommitted") long linesCommitted, @Param("imported") long imported,
+                   @Param("duplicate") long duplicate, @Param("existing") long existing, @Param("rejected") long rejected,
+                   @Param("profilesCreated") long profilesCreated, @Param("profilesFailed") long profilesFailed,
+                   @Param("now") LocalDateTime now);
+}
@@ -1,11 +1,16 @@
 package com.nexabank.auth.repository;
 
 import com.nexabank.auth.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +27,67 @@ public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findActiveUserById(@Param("userId") String userId);
 
     Optional<User> findByUserId(String userId);
+
+    // Page through registered emails in id order (used to warm the email Bloom filter)
+    @Query("SELECT u.userId, u.email FROM User u WHERE u.userId > :afterId ORDER BY u.userId")
+    List<Object[]> findEmailsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    // Which of the given emails are already registered (bulk user import)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Next chunk of LOCKED users whose lock expired before :now, after the (lockedUntil, userId) cursor
+    @Query("SELECT u.userId, u.accountLockedUntil FROM User u WHERE u.status = 'LOCKED' AND u.accountLockedUntil <= :now " +
+           "AND (u.accountLockedUntil > :afterLockedUntil OR (u.accountLockedUntil = :afterLockedUntil AND u.userId > :afterId)) " +
+           "ORDER BY u.accountLockedUntil, u.userId")
+    List<Object[]> findExpiredLocksAfter(@Param("now") LocalDateTime now,
+                                         @Param("afterLockedUntil") LocalDateTime afterLockedUntil,
+                                         @Param("afterId") String afterId,
+                                         Pageable pageable);
+
+    // Unlock the given users in one statement; the lock is re-checked so a lock renewed meanwhile stays
+    @Modifying
+    @Query(value = "UPDATE auth_users SET status = 'ACTIVE', failed_login_attempts = 0, account_locked_until = NULL, " +
+                   "LOCAL_TS = NOW(6) WHERE user_id IN :userIds AND status = 'LOCKED' AND account_locked_until <= :now",
+           nativeQuery = true)
+    int unlockExpired(@Param("userIds") Collection<String> userIds, @Param("now") LocalDateTime now);
+
+    // ========== BULK ADMIN UPDATES (BulkUserUpdateService) ==========
+
+    // Next page of userIds matching an admin filter, in id order; null criteria match everything
+    @Query(value = "SELECT u.user_id FROM auth_users u WHERE u.user_id > :afterId " +
+                   "AND (:status IS NULL OR u.status = :status) AND (:userType IS NULL OR u.user_type = :userType) " +
+                   "AND (:role IS NULL OR EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.user_id AND r.role = :role)) " +
+                   "ORDER BY u.user_id LIMIT :limit", nativeQuery = true)
+    List<String> findUserIdsMatching(@Param("afterId") String afterId, @Param("status") String status,
+                                     @Param("userType") String userType, @Param("role") String role,
+                                     @Param("limit") int limit);
+
+    // Which of the given users are not in the status yet
+    @Query(value = "SELECT user_id FROM auth_users WHERE user_id IN :userIds AND status <> :status", nativeQuery = true)
+    List<String> findUserIdsNotInStatus(@Param("userIds") Collection<String> userIds, @Param("status") String status);
+
+    // Which of the given users have the role (hasRole=true) or lack it (hasRole=false)
+    @Query(value = "SELECT u.user_id FROM auth_users u WHERE u.user_id IN :userIds AND " +
+                   "EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.user_id AND r.role = :role) = :hasRole",
+           nativeQuery = true)
+    List<String> findUserIdsByRolePresence(@Param("userIds") Collection<String> userIds, @Param("role") String role,
+                                           @Param("hasRole") boolean hasRole);
+
+    // Set the status of a chunk of users in one statement; like updateUserStatus it clears a temporary lock
+    @Modifying
+    @Query(value = "UPDATE auth_users SET status = :status, account_locked_until = NULL, CRUD_VALUE = 'UPDATE', " +
+                   "AUDIT_USER_ID = :auditUserId, LOCAL_TS = NOW(6) WHERE user_id IN :userIds AND status <> :status",
+           nativeQuery = true)
+    int updateStatus(@Param("userIds") Collection<String> userIds, @Param("status") String status,
+                     @Param("auditUserId") String auditUserId);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_roles (user_id, role) SELECT user_id, :role FROM auth_users WHERE user_id IN :userIds",
+           nativeQuery = true)
+    int addRole(@Param("userIds") Collection<String> userIds, @Param("role") String role);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN :userIds AND role = :role", nativeQuery = true)
+    int removeRole(@Param("userIds") Collection<String> userIds, @Param("role") String role);
 }
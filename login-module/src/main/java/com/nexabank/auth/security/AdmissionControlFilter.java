@@ -0,0 +1,61 @@
+package com.nexabank.auth.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexabank.auth.dto.ApiResponse;
+import com.nexabank.auth.service.AdmissionControlService;
+import com.nexabank.auth.util.AdaptiveConcurrencyLimit;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds auth requests beyond the adaptive concurrency limit with an immediate 503 and Retry-After,
+ * before any token parsing, database or bcrypt work. Runs in the security chain right after CORS,
+ * so browsers can read the 503.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AdmissionControlService admissionControlService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimit limit = "POST".equals(request.getMethod())
+            ? admissionControlService.limitFor(request.getServletPath()) : null;
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControlService.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(objectMapper.writeValueAsString(
+                ApiResponse.error("Service is busy, please retry shortly")));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(System.nanoTime() - start);
+        }
+    }
+}
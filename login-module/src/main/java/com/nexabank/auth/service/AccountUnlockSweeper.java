@@ -0,0 +1,173 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.repository.SchedulerLeaseRepository;
+import com.nexabank.auth.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unlocks users whose temporary lock (set after repeated failed logins) has expired.
+ * Expired locks are walked in index order with a keyset cursor and unlocked with one UPDATE
+ * per chunk. Only the node holding the scheduler lease sweeps; it pauses between chunks so
+ * the sweep uses at most max-duty-cycle of the time it runs.
+ */
+@Service
+public class AccountUnlockSweeper {
+
+    private static final String LEASE_NAME = "account-unlock-sweeper";
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.sweeper.unlock.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sweeper.unlock.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.sweeper.unlock.min-pause-ms:50}")
+    private long minPauseMs;
+
+    @Value("${app.sweeper.unlock.max-duty-cycle:0.5}")
+    private double maxDutyCycle;
+
+    @Value("${app.sweeper.unlock.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private TransactionTemplate chunkTransaction;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedWithoutLease = new AtomicLong();
+    private final AtomicLong totalUnlocked = new AtomicLong();
+    private final AtomicLong currentRunScanned = new AtomicLong();
+    private final AtomicLong currentRunUnlocked = new AtomicLong();
+    private volatile boolean running;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunChunks;
+    private volatile long lastRunDurationMs;
+    private volatile String lastError;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sweeper.unlock.interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+            skippedWithoutLease.incrementAndGet();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        running = true;
+        lastRunStartedAt = LocalDateTime.now();
+        currentRunScanned.set(0);
+        currentRunUnlocked.set(0);
+        long chunks = 0;
+        try {
+            // Locks expiring after this point are left for the next run
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime afterLockedUntil = CURSOR_START;
+            String afterId = "";
+            while (true) {
+                long chunkStart = System.currentTimeMillis();
+                List<Object[]> rows = userRepository.findExpiredLocksAfter(now, afterLockedUntil, afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<String> userIds = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    userIds.add((String) row[0]);
+                }
+                Object[] last = rows.get(rows.size() - 1);
+                afterId = (String) last[0];
+                afterLockedUntil = (LocalDateTime) last[1];
+
+                Integer unlocked = chunkTransaction.execute(status -> userRepository.unlockExpired(userIds, now));
+                chunks++;
+                currentRunScanned.addAndGet(rows.size());
+                currentRunUnlocked.addAndGet(unlocked != null ? unlocked : 0);
+
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+                // Renew the lease for the next chunk; stop if another node has taken over
+                if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+                    break;
+                }
+                pause(System.currentTimeMillis() - chunkStart);
+            }
+            lastError = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            System.err.println("Account unlock sweep failed: " + e.getMessage());
+        } finally {
+            totalUnlocked.addAndGet(currentRunUnlocked.get());
+            runs.incrementAndGet();
+            lastRunChunks = chunks;
+            lastRunDurationMs = System.currentTimeMillis() - start;
+            lastRunFinishedAt = LocalDateTime.now();
+            running = false;
+            leaseRepository.release(LEASE_NAME, nodeId);
+        }
+        if (currentRunUnlocked.get() > 0) {
+            System.out.println("Account unlock sweep: unlocked " + currentRunUnlocked.get() + " users in "
+                + chunks + " chunks, " + lastRunDurationMs + " ms");
+        }
+    }
+
+    /**
+     * Sleep long enough that work / (work + pause) stays at or below max-duty-cycle
+     */
+    private void pause(long chunkMillis) throws InterruptedException {
+        double dutyCycle = Math.min(Math.max(maxDutyCycle, 0.01), 1.0);
+        long pauseMs = Math.max(minPauseMs, (long) (chunkMillis * (1.0 / dutyCycle - 1.0)));
+        Thread.sleep(pauseMs);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("running", running);
+        stats.put("runs", runs.get());
+        stats.put("skippedWithoutLease", skippedWithoutLease.get());
+        stats.put("totalUnlocked", totalUnlocked.get());
+        stats.put("currentRunScanned", currentRunScanned.get());
+        stats.put("currentRunUnlocked", currentRunUnlocked.get());
+        stats.put("lastRunStartedAt", lastRunStartedAt);
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunChunks", lastRunChunks);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.util.AdaptiveConcurrencyLimit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits in front of the AuthController endpoints (see AdmissionControlFilter).
+ * /login and /register spend most of their time in bcrypt and the database, /validate and /refresh
+ * are cheap, so each pair has its own limit; otherwise a login storm would also starve token
+ * validation for users who are already signed in.
+ */
+@Service
+public class AdmissionControlService {
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.window-ms:500}")
+    private long windowMs;
+
+    @Value("${app.admission.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.admission.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${app.admission.credentials.initial-limit:16}")
+    private int credentialsInitialLimit;
+
+    @Value("${app.admission.credentials.min-limit:2}")
+    private int credentialsMinLimit;
+
+    @Value("${app.admission.credentials.max-limit:200}")
+    private int credentialsMaxLimit;
+
+    @Value("${app.admission.tokens.initial-limit:100}")
+    private int tokensInitialLimit;
+
+    @Value("${app.admission.tokens.min-limit:10}")
+    private int tokensMinLimit;
+
+    @Value("${app.admission.tokens.max-limit:1000}")
+    private int tokensMaxLimit;
+
+    private AdaptiveConcurrencyLimit credentials;
+    private AdaptiveConcurrencyLimit tokens;
+
+    @PostConstruct
+    public void init() {
+        credentials = new AdaptiveConcurrencyLimit("credentials", credentialsInitialLimit, credentialsMinLimit,
+            credentialsMaxLimit, tolerance, smoothing, windowMs);
+        tokens = new AdaptiveConcurrencyLimit("tokens", tokensInitialLimit, tokensMinLimit,
+            tokensMaxLimit, tolerance, smoothing, windowMs);
+    }
+
+    /**
+     * The limit guarding a request path, or null when the path is not admission controlled
+     */
+    public AdaptiveConcurrencyLimit limitFor(String path) {
+        if (!enabled || path == null) {
+            return null;
+        }
+        switch (path) {
+            case "/api/auth/login":
+            case "/api/auth/register":
+                return credentials;
+            case "/api/auth/validate":
+            case "/api/auth/refresh":
+                return tokens;
+            default:
+                return null;
+        }
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("totalShed", credentials.getShed() + tokens.getShed());
+        stats.put("credentials", credentials.getStats());
+        stats.put("tokens", tokens.getStats());
+        return stats;
+    }
+}
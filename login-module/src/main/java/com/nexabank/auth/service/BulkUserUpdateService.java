@@ -0,0 +1,307 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.dto.BulkUserUpdateRequest;
+import com.nexabank.auth.entity.User;
+import com.nexabank.auth.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Status and role changes for many users at once, e.g. suspending a fraud ring or granting a
+ * role to a team. Targets are an explicit list of userIds or a filter (status, user type, role)
+ * walked as keyset pages in userId order.
+ *
+ * Each chunk is one transaction: a select of the users the change actually affects, then one
+ * set-based UPDATE, INSERT ... SELECT or DELETE for them. The affected users' tokens are then
+ * invalidated with one pipelined Redis write per chunk (JwtTokenService.invalidateUserTokens).
+ * Jobs run in the background and are tracked in memory on the node that accepted them; the
+ * admin running a job is never suspended or stripped of a role by it.
+ */
+@Service
+public class BulkUserUpdateService implements DisposableBean {
+
+    public enum Operation {
+        SET_STATUS, ADD_ROLE, REMOVE_ROLE
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.admin.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.admin.bulk.max-user-ids:50000}")
+    private int maxUserIds;
+
+    @Value("${app.admin.bulk.retained-jobs:100}")
+    private int retainedJobs;
+
+    private TransactionTemplate chunkTransaction;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-user-update");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<String> jobOrder = new ConcurrentLinkedDeque<>();
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Validate the request and queue the job; returns its initial state including the jobId
+     */
+    public Map<String, Object> submit(Operation operation, BulkUserUpdateRequest request, String actorUserId, String actorEmail) {
+        String value;
+        if (operation == Operation.SET_STATUS) {
+            value = parse(User.UserStatus.class, request.getStatus(), "status").name();
+        } else {
+            value = parse(User.Role.class, request.getRole(), "role").name();
+        }
+
+        List<String> userIds = request.getUserIds();
+        BulkUserUpdateRequest.Filter filter = request.getFilter();
+        boolean hasFilter = filter != null && (filter.getStatus() != null || filter.getUserType() != null || filter.getRole() != null);
+        if ((userIds == null || userIds.isEmpty()) == !hasFilter) {
+            throw new IllegalArgumentException("Give either userIds or a filter with at least one of status, userType, role");
+        }
+        if (userIds != null && userIds.size() > maxUserIds) {
+            throw new IllegalArgumentException("At most " + maxUserIds + " userIds per request, use a filter for more");
+        }
+
+        BulkJob job = new BulkJob();
+        job.jobId = UUID.randomUUID().toString();
+        job.operation = operation;
+        job.value = value;
+        job.actorUserId = actorUserId;
+        job.requestedBy = actorEmail;
+        job.createdAt = LocalDateTime.now();
+        if (hasFilter) {
+            job.filterStatus = filter.getStatus() != null ? parse(User.UserStatus.class, filter.getStatus(), "filter.status").name() : null;
+            job.filterUserType = filter.getUserType() != null ? parse(User.UserType.class, filter.getUserType(), "filter.userType").name() : null;
+            job.filterRole = filter.getRole() != null ? parse(User.Role.class, filter.getRole(), "filter.role").name() : null;
+        } else {
+            job.userIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+            job.userIds.removeIf(userId -> userId == null || userId.isBlank());
+        }
+
+        jobs.put(job.jobId, job);
+        jobOrder.addLast(job.jobId);
+        evictOldJobs();
+        runner.execute(() -> run(job));
+        return job.describe();
+    }
+
+    private void run(BulkJob job) {
+        job.status = JobStatus.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            if (job.userIds != null) {
+                for (int from = 0; from < job.userIds.size(); from += chunkSize) {
+                    applyChunk(job, job.userIds.subList(from, Math.min(from + chunkSize, job.userIds.size())));
+                }
+            } else {
+                String afterId = "";
+                while (true) {
+                    List<String> userIds = userRepository.findUserIdsMatching(afterId, job.filterStatus, job.filterUserType,
+                        job.filterRole, chunkSize);
+                    if (userIds.isEmpty()) {
+                        break;
+                    }
+                    afterId = userIds.get(userIds.size() - 1);
+                    applyChunk(job, userIds);
+                    if (userIds.size() < chunkSize) {
+                        break;
+                    }
+                }
+            }
+            job.status = JobStatus.COMPLETED;
+        } catch (Exception e) {
+            job.status = JobStatus.FAILED;
+            job.lastError = e.getMessage();
+            System.err.println("Bulk user update " + job.jobId + " failed: " + e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        System.out.println("Bulk user update " + job.jobId + " " + job.operation + " " + job.value + " " + job.status
+            + ": " + job.processed.get() + " processed, " + job.updated.get() + " updated, "
+            + job.invalidationFailed.get() + " not invalidated");
+    }
+
+    private void applyChunk(BulkJob job, List<String> chunk) {
+        List<String> userIds = new ArrayList<>(chunk);
+        // Admins must not lock themselves out or drop their own roles with a broad filter
+        if (job.operation != Operation.ADD_ROLE && job.actorUserId != null && userIds.remove(job.actorUserId)) {
+            job.skippedSelf.incrementAndGet();
+        }
+        job.processed.addAndGet(chunk.size());
+        if (userIds.isEmpty()) {
+            job.chunks.incrementAndGet();
+            return;
+        }
+
+        List<String> affected = chunkTransaction.execute(status -> {
+            List<String> changing;
+            switch (job.operation) {
+                case SET_STATUS:
+                    changing = userRepository.findUserIdsNotInStatus(userIds, job.value);
+                    if (!changing.isEmpty()) {
+                        userRepository.updateStatus(changing, job.value, job.requestedBy);
+                    }
+                    break;
+                case ADD_ROLE:
+                    changing = userRepository.findUserIdsByRolePresence(userIds, job.value, false);
+                    if (!changing.isEmpty()) {
+                        userRepository.addRole(changing, job.value);
+                    }
+                    break;
+                default:
+                    changing = userRepository.findUserIdsByRolePresence(userIds, job.value, true);
+                    if (!changing.isEmpty()) {
+                        userRepository.removeRole(changing, job.value);
+                    }
+            }
+            return changing;
+        });
+
+        job.chunks.incrementAndGet();
+        if (affected == null || affected.isEmpty()) {
+            return;
+        }
+        job.updated.addAndGet(affected.size());
+        if (!jwtTokenService.invalidateUserTokens(affected)) {
+            job.invalidationFailed.addAndGet(affected.size());
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String name, String field) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + name);
+        }
+    }
+
+    // Finished jobs beyond retained-jobs are forgotten, oldest first
+    private void evictOldJobs() {
+        Iterator<String> oldest = jobOrder.iterator();
+        while (jobs.size() > Math.max(1, retainedJobs) && oldest.hasNext()) {
+            String jobId = oldest.next();
+            BulkJob job = jobs.get(jobId);
+            if (job == null || job.finishedAt != null) {
+                jobs.remove(jobId);
+                oldest.remove();
+            }
+        }
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Bulk user update not found with ID: " + jobId);
+        }
+        return job.describe();
+    }
+
+    public List<Map<String, Object>> getRecentJobs() {
+        List<Map<String, Object>> recent = new ArrayList<>();
+        Iterator<String> newest = jobOrder.descendingIterator();
+        while (newest.hasNext()) {
+            BulkJob job = jobs.get(newest.next());
+            if (job != null) {
+                recent.add(job.describe());
+            }
+        }
+        return recent;
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private static final class BulkJob {
+        private String jobId;
+        private Operation operation;
+        private String value;
+        private String actorUserId;
+        private String requestedBy;
+        private List<String> userIds;
+        private String filterStatus;
+        private String filterUserType;
+        private String filterRole;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private final AtomicLong chunks = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong skippedSelf = new AtomicLong();
+        private final AtomicLong invalidationFailed = new AtomicLong();
+        private LocalDateTime createdAt;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String lastError;
+
+        private Map<String, Object> describe() {
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("jobId", jobId);
+            view.put("operation", operation);
+            view.put("value", value);
+            view.put("status", status);
+            if (userIds != null) {
+                view.put("requestedUsers", userIds.size());
+                view.put("percentComplete", userIds.isEmpty() ? 100.0 : 100.0 * processed.get() / userIds.size());
+            } else {
+                Map<String, Object> filter = new LinkedHashMap<>();
+                filter.put("status", filterStatus);
+                filter.put("userType", filterUserType);
+                filter.put("role", filterRole);
+                view.put("filter", filter);
+            }
+            view.put("chunks", chunks.get());
+            view.put("processed", processed.get());
+            view.put("updated", updated.get());
+            view.put("skippedSelf", skippedSelf.get());
+            view.put("invalidationFailed", invalidationFailed.get());
+            view.put("requestedBy", requestedBy);
+            view.put("createdAt", createdAt);
+            view.put("startedAt", startedAt);
+            view.put("finishedAt", finishedAt);
+            view.put("lastError", lastError);
+            return view;
+        }
+    }
+}
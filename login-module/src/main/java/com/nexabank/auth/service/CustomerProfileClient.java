@@ -0,0 +1,179 @@
+package com.nexabank.auth.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads customer profiles from customer-module through POST /api/profiles/lookup.
+ * Single lookups are micro-batched: concurrent calls are collected for up to
+ * max-delay-ms (or until max-batch-size distinct userIds are waiting) and sent as
+ * one lookup request.
+ */
+@Service
+public class CustomerProfileClient implements DisposableBean {
+
+    // customer-module rejects larger lookups
+    private static final int MAX_KEYS_PER_CALL = 5000;
+
+    private static final ParameterizedTypeReference<Map<String, Object>> LOOKUP_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+
+    @Value("${customer.service.url:http://localhost:8081}")
+    private String customerServiceUrl;
+
+    @Value("${customer.profile-lookup.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${customer.profile-lookup.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    private final RestTemplate restTemplate;
+
+    private final ScheduledExecutorService flushTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-lookup-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "profile-lookup-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<Optional<Map<String, Object>>>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public CustomerProfileClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Profile for one userId, fetched together with other lookups made at about the same time
+     */
+    public CompletableFuture<Optional<Map<String, Object>>> getProfileByUserId(String userId) {
+        synchronized (lock) {
+            CompletableFuture<Optional<Map<String, Object>>> future =
+                pending.computeIfAbsent(userId, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                flushLocked();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = flushTimer.schedule(this::flush, maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Profiles for many userIds in as few calls as possible, keyed by userId (missing users are absent)
+     */
+    public Map<String, Map<String, Object>> getProfilesByUserIds(Collection<String> userIds) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Map<String, Map<String, Object>> profiles = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += MAX_KEYS_PER_CALL) {
+            profiles.putAll(lookup(distinct.subList(from, Math.min(from + MAX_KEYS_PER_CALL, distinct.size()))));
+        }
+        return profiles;
+    }
+
+    /**
+     * One keyset page of the userIds that have a profile, in userId order, after the given userId
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getUserIdsAfter(String afterUserId, int limit) {
+        Map<String, Object> response = restTemplate.exchange(
+            customerServiceUrl + "/api/profiles/user-ids?after={after}&limit={limit}",
+            HttpMethod.GET,
+            null,
+            LOOKUP_RESPONSE,
+            afterUserId,
+            limit
+        ).getBody();
+        if (response != null && response.get("userIds") instanceof List<?> userIds) {
+            return (List<String>) userIds;
+        }
+        return List.of();
+    }
+
+    private void flush() {
+        synchronized (lock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, CompletableFuture<Optional<Map<String, Object>>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        senders.execute(() -> send(batch));
+    }
+
+    private void send(Map<String, CompletableFuture<Optional<Map<String, Object>>>> batch) {
+        try {
+            Map<String, Map<String, Object>> profiles = lookup(new ArrayList<>(batch.keySet()));
+            batch.forEach((userId, future) -> future.complete(Optional.ofNullable(profiles.get(userId))));
+        } catch (Exception e) {
+            System.err.println("Profile lookup for " + batch.size() + " users failed: " + e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> lookup(List<String> userIds) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("userIds", userIds);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> response = restTemplate.exchange(
+            customerServiceUrl + "/api/profiles/lookup",
+            HttpMethod.POST,
+            new HttpEntity<>(body, headers),
+            LOOKUP_RESPONSE
+        ).getBody();
+
+        Map<String, Map<String, Object>> profiles = new HashMap<>();
+        if (response != null && response.get("profiles") instanceof List<?> list) {
+            for (Object item : list) {
+                Map<String, Object> profile = (Map<String, Object>) item;
+                profiles.put((String) profile.get("userId"), profile);
+            }
+        }
+        return profiles;
+    }
+
+    @Override
+    public void destroy() {
+        flushTimer.shutdownNow();
+        senders.shutdown();
+    }
+}
@@ -3,6 +3,7 @@ package com.nexabank.auth.service;
 import com.nexabank.auth.dto.RegisterRequest;
 import com.nexabank.auth.entity.User;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -11,12 +12,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class CustomerRegistrationService {
 
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> BATCH_RESPONSE =
+        new ParameterizedTypeReference<>() {};
+
     @Value("${customer.service.url:http://localhost:8081}")
     private String customerServiceUrl;
 
@@ -130,6 +136,47 @@ public class CustomerRegistrationService {
         }
     }
 
+    /**
+     * Create minimal profiles (userId and email) for many users in one call. Returns the status
+     * customer-module reported per userId (CREATED, EXISTS or ERROR); throws if the call fails.
+     */
+    public Map<String, String> createProfiles(Map<String, String> emailsByUserId) {
+        List<Map<String, Object>> profiles = new ArrayList<>(emailsByUserId.size());
+        emailsByUserId.forEach((userId, email) -> {
+            Map<String, Object> profileData = new HashMap<>();
+            profileData.put("userId", userId);
+            profileData.put("email", email);
+            profiles.add(profileData);
+        });
+        return createProfiles(profiles);
+    }
+
+    /**
+     * Create up to 500 profiles (each with at least a userId) in one call to POST /api/profiles/batch.
+     * Returns the status customer-module reported per userId; throws if the call fails.
+     */
+    public Map<String, String> createProfiles(List<Map<String, Object>> profiles) {
+        String url = customerServiceUrl + "/api/profiles/batch";
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        
+        List<Map<String, Object>> response = restTemplate.exchange(
+            url,
+            HttpMethod.POST,
+            new HttpEntity<>(profiles, headers),
+            BATCH_RESPONSE
+        ).getBody();
+        
+        Map<String, String> statuses = new HashMap<>();
+        if (response != null) {
+            for (Map<String, Object> result : response) {
+                statuses.put((String) result.get("userId"), (String) result.get("status"));
+            }
+        }
+        return statuses;
+    }
+
     /**
      * Create admin/employee profile in customer-module
      */
@@ -20,6 +20,9 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EmailBloomFilterService emailBloomFilterService;
+
     @Override
     public void run(String... args) throws Exception {
         createDefaultAdminIfNotExists();
@@ -49,6 +52,7 @@ public class DataInitializationService implements CommandLineRunner {
             adminRoles.add(User.Role.ADMIN_VIEW);
             admin.setRoles(adminRoles);
             
+            emailBloomFilterService.recordEmail(adminEmail);
             userRepository.save(admin);
             
             System.out.println("Default admin account created successfully!");
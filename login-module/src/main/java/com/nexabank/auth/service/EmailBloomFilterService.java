@@ -0,0 +1,189 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.repository.UserRepository;
+import com.nexabank.auth.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Bloom filter of registered emails. Lets the registration check and the signup
+ * form's availability check answer "not registered" without a database query;
+ * possible hits fall through to the indexed existsByEmail lookup.
+ *
+ * Every node keeps its own filter. Emails recorded on one node are published on
+ * {@link #INSERT_CHANNEL} so the other nodes add them too, and the filter is topped up
+ * from auth_users periodically to cover messages lost while Redis was unreachable.
+ * The unique constraint on auth_users.email stays the final word either way.
+ */
+@Service
+public class EmailBloomFilterService {
+
+    public static final String INSERT_CHANNEL = "auth:bloom:emails";
+
+    private static final int WARM_PAGE_SIZE = 10000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.bloom.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter emails;
+    // Larger filter being loaded by rewarm; recorded emails go into it as well
+    private volatile BloomFilter growing;
+    private volatile boolean ready;
+
+    /**
+     * Warm the filter from auth_users before the web server accepts requests
+     */
+    @PostConstruct
+    public void warm() {
+        rewarm();
+    }
+
+    /**
+     * (Re)load every registered email. Adds to the current filter, or builds a larger one
+     * when auth_users has outgrown it.
+     */
+    @Scheduled(fixedDelayString = "${app.bloom.rewarm-interval-ms:3600000}",
+               initialDelayString = "${app.bloom.rewarm-interval-ms:3600000}")
+    public synchronized void rewarm() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long userCount = userRepository.count();
+            BloomFilter current = emails;
+            if (current == null || userCount > current.getExpectedInsertions()) {
+                BloomFilter larger = new BloomFilter(Math.max(expectedInsertions, userCount * 2), falsePositiveRate);
+                growing = larger;
+                loadInto(larger);
+                emails = larger;
+                growing = null;
+                if (current != null) {
+                    // Emails recorded in the old filter just before the swap have committed by now
+                    loadInto(larger);
+                }
+            } else {
+                loadInto(current);
+            }
+
+            boolean first = !ready;
+            ready = true;
+            System.out.println((first ? "✅ Email Bloom filter warmed with " : "Email Bloom filter rewarmed with ")
+                + userCount + " users in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            growing = null;
+            System.err.println("Failed to warm email Bloom filter" + (ready ? "" : ", email checks will use the database")
+                + ": " + e.getMessage());
+        }
+    }
+
+    private void loadInto(BloomFilter filter) {
+        String afterId = "";
+        List<Object[]> page;
+        do {
+            page = userRepository.findEmailsAfter(afterId, PageRequest.of(0, WARM_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (String) row[0];
+                filter.put(normalize((String) row[1]));
+            }
+        } while (page.size() == WARM_PAGE_SIZE);
+    }
+
+    /**
+     * Record an email that is about to be saved, so it is never missing once committed
+     */
+    public void recordEmail(String email) {
+        if (email != null) {
+            recordEmails(List.of(email));
+        }
+    }
+
+    /**
+     * Record a batch of emails about to be saved, announced to the other nodes in one message
+     */
+    public void recordEmails(Collection<String> newEmails) {
+        if (!enabled || newEmails.isEmpty()) {
+            return;
+        }
+        StringJoiner message = new StringJoiner("\n");
+        for (String email : newEmails) {
+            if (email != null) {
+                String normalized = normalize(email);
+                putLocal(normalized);
+                message.add(normalized);
+            }
+        }
+        try {
+            redisTemplate.convertAndSend(INSERT_CHANNEL, message.toString());
+        } catch (Exception e) {
+            // Other nodes catch up at their next rewarm
+            System.err.println("Failed to publish " + newEmails.size() + " Bloom filter insert(s): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Emails published by another node (newline separated, already normalized)
+     */
+    public void applyRemoteInsert(String message) {
+        for (String email : message.split("\n")) {
+            if (!email.isEmpty()) {
+                putLocal(email);
+            }
+        }
+    }
+
+    private void putLocal(String normalized) {
+        BloomFilter current = emails;
+        if (current != null) {
+            current.put(normalized);
+        }
+        BloomFilter next = growing;
+        if (next != null) {
+            next.put(normalized);
+        }
+    }
+
+    /**
+     * False means the email is definitely not registered
+     */
+    public boolean mightBeRegistered(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        return emails.mightContain(normalize(email));
+    }
+
+    /**
+     * Registration-time existence check: filter first, database only for possible hits
+     */
+    public boolean isEmailRegistered(String email) {
+        return mightBeRegistered(email) && userRepository.existsByEmail(email);
+    }
+
+    // MySQL compares emails case-insensitively, so the filter must as well
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
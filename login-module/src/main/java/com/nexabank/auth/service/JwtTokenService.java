@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Set;
 import java.util.UUID;
@@ -19,12 +20,17 @@ import java.util.stream.Collectors;
 @Service
 public class JwtTokenService {
 
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
     @Value("${app.jwt.secret:mySecretKeyThatShouldBeAtLeast32CharactersLongForSecurity}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
     private long jwtExpiration;
 
+    @Value("${app.jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
     @Autowired
     private RedisSessionService redisSessionService;
 
@@ -53,6 +59,7 @@ public class JwtTokenService {
                 .claim("userId", userId)
                 .claim("userType", userType)
                 .claim("roles", rolesString)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime()) // iat only has whole seconds
                 .issuedAt(now)
                 .expiration(expiration)
                 .signWith(getSigningKey())
@@ -71,20 +78,34 @@ public class JwtTokenService {
                     .parseSignedClaims(token)
                     .getPayload();
                     
-            // Check if token is on denylist (blacklisted)
+            // Check if token is on denylist (blacklisted) or predates a status/role change of its user
             String jti = claims.getId();
-            if (jti != null && redisSessionService.isTokenDenylisted(jti)) {
-                System.out.println("Token rejected: JWT ID " + jti + " is on denylist");
+            String userId = claims.get("userId", String.class);
+            if (redisSessionService.isTokenRevoked(jti, userId, issuedAtMillis(claims))) {
+                System.out.println("Token rejected: JWT ID " + jti + " is on denylist or predates a security change of its user");
                 return false;
             }
             
-            return true; // Token is valid and not denylisted
+            return true; // Token is valid and not revoked
         } catch (Exception e) {
             System.err.println("Token validation failed: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Millisecond issue time; tokens issued before the iatMs claim existed fall back to the
+     * start of their iat second, so a change in that same second still revokes them
+     */
+    private static long issuedAtMillis(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return issuedAtMillis;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : 0;
+    }
+
     public String extractUsername(String token) {
         try {
             Claims claims = Jwts.parser()
@@ -194,6 +215,16 @@ public class JwtTokenService {
         }
     }
 
+    /**
+     * Reject the tokens the users were issued before the current second; call once a status or
+     * role change is committed
+     */
+    public boolean invalidateUserTokens(Collection<String> userIds) {
+        // Kept as long as the longest-lived token issued before the change
+        long ttlSeconds = Math.max(jwtExpiration, refreshExpiration) / 1000;
+        return redisSessionService.invalidateUserSecurity(userIds, ttlSeconds);
+    }
+
     /**
      * Check if token is on denylist
      */
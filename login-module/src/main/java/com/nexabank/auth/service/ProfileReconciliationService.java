@@ -0,0 +1,308 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.repository.SchedulerLeaseRepository;
+import com.nexabank.auth.repository.UserRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Finds users without a customer profile (registration only logs a failed profile creation)
+ * and profiles without a user, and re-creates the missing profiles.
+ *
+ * Both sides are read as keyset pages in userId order, auth_users by primary key and the
+ * profiles through customer-module's GET /api/profiles/user-ids, and compared with a merge
+ * join, so only one page of each side is in memory however many users there are. userIds are
+ * generated UUIDs, so the databases' order and String order agree. Missing profiles are
+ * created with the userId and email known here, repair-batch-size per call to
+ * POST /api/profiles/batch; orphaned profiles are counted and sampled but not deleted. Only
+ * the node holding the scheduler lease reconciles.
+ */
+@Service
+public class ProfileReconciliationService implements DisposableBean {
+
+    private static final String LEASE_NAME = "profile-reconciler";
+    private static final int MAX_SAMPLES = 100;
+    // customer-module's largest userId page
+    private static final int MAX_PAGE_SIZE = 10000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    @Autowired
+    private CustomerProfileClient customerProfileClient;
+
+    @Autowired
+    private CustomerRegistrationService customerRegistrationService;
+
+    @Value("${app.reconcile.profiles.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reconcile.profiles.repair:true}")
+    private boolean repairByDefault;
+
+    @Value("${app.reconcile.profiles.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.reconcile.profiles.repair-batch-size:200}")
+    private int repairBatchSize;
+
+    @Value("${app.reconcile.profiles.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedWithoutLease = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong profiles = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong missingProfiles = new AtomicLong();
+    private final AtomicLong orphanedProfiles = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong alreadyExisted = new AtomicLong();
+    private final AtomicLong repairFailed = new AtomicLong();
+    private volatile List<String> missingSample = List.of();
+    private volatile List<String> orphanedSample = List.of();
+    private volatile boolean lastRunRepaired;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunDurationMs;
+    private volatile String lastError;
+
+    @Scheduled(cron = "${app.reconcile.profiles.cron:0 30 4 * * *}")
+    public void scheduledRun() {
+        if (enabled && running.compareAndSet(false, true)) {
+            try {
+                runWithLease(repairByDefault);
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    /**
+     * Start a run in the background; false when one is already running on this node
+     */
+    public boolean trigger(Boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        boolean repairMissing = repair != null ? repair : repairByDefault;
+        runner.execute(() -> {
+            try {
+                runWithLease(repairMissing);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void runWithLease(boolean repair) {
+        if (leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+            skippedWithoutLease.incrementAndGet();
+            return;
+        }
+        long start = System.currentTimeMillis();
+        lastRunStartedAt = LocalDateTime.now();
+        lastRunRepaired = repair;
+        for (AtomicLong counter : List.of(users, profiles, matched, missingProfiles, orphanedProfiles, created, alreadyExisted, repairFailed)) {
+            counter.set(0);
+        }
+        try {
+            reconcile(repair);
+            lastError = null;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            System.err.println("Profile reconciliation failed: " + e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunDurationMs = System.currentTimeMillis() - start;
+            lastRunFinishedAt = LocalDateTime.now();
+            leaseRepository.release(LEASE_NAME, nodeId);
+        }
+        System.out.println("Profile reconciliation: " + users.get() + " users, " + profiles.get() + " profiles, "
+            + missingProfiles.get() + " missing profiles (" + created.get() + " created), "
+            + orphanedProfiles.get() + " orphaned profiles, " + lastRunDurationMs + " ms");
+    }
+
+    /**
+     * Merge join of the two userId streams
+     */
+    private void reconcile(boolean repair) {
+        int size = Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+        KeysetCursor<Object[]> userCursor = new KeysetCursor<>(
+            after -> userRepository.findEmailsAfter(after, PageRequest.of(0, size)), row -> (String) row[0], size);
+        KeysetCursor<String> profileCursor = new KeysetCursor<>(
+            after -> customerProfileClient.getUserIdsAfter(after, size), userId -> userId, size);
+        List<String> missing = new ArrayList<>();
+        List<String> orphaned = new ArrayList<>();
+        Map<String, String> repairBatch = new LinkedHashMap<>();
+        long steps = 0;
+
+        while (true) {
+            Object[] user = userCursor.peek();
+            String profileUserId = profileCursor.peek();
+            if (user == null && profileUserId == null) {
+                break;
+            }
+            int order = user == null ? 1 : profileUserId == null ? -1 : ((String) user[0]).compareTo(profileUserId);
+            if (order == 0) {
+                matched.incrementAndGet();
+                users.incrementAndGet();
+                profiles.incrementAndGet();
+                userCursor.next();
+                profileCursor.next();
+            } else if (order < 0) {
+                String userId = (String) user[0];
+                missingProfiles.incrementAndGet();
+                users.incrementAndGet();
+                if (missing.size() < MAX_SAMPLES) {
+                    missing.add(userId);
+                }
+                if (repair) {
+                    repairBatch.put(userId, (String) user[1]);
+                    if (repairBatch.size() >= repairBatchSize) {
+                        repair(repairBatch);
+                    }
+                }
+                userCursor.next();
+            } else {
+                orphanedProfiles.incrementAndGet();
+                profiles.incrementAndGet();
+                if (orphaned.size() < MAX_SAMPLES) {
+                    orphaned.add(profileUserId);
+                }
+                profileCursor.next();
+            }
+
+            // Renew the lease as the run progresses; stop if another node has taken over
+            if (++steps % size == 0 && leaseRepository.tryAcquire(LEASE_NAME, nodeId, leaseSeconds) == 0) {
+                throw new IllegalStateException("Lease lost after " + steps + " userIds");
+            }
+        }
+        if (!repairBatch.isEmpty()) {
+            repair(repairBatch);
+        }
+        missingSample = missing;
+        orphanedSample = orphaned;
+    }
+
+    private void repair(Map<String, String> batch) {
+        try {
+            Map<String, String> statuses = customerRegistrationService.createProfiles(batch);
+            for (String userId : batch.keySet()) {
+                String status = statuses.get(userId);
+                if ("CREATED".equals(status)) {
+                    created.incrementAndGet();
+                } else if ("EXISTS".equals(status)) {
+                    // Created since the page was read, e.g. by a registration in flight
+                    alreadyExisted.incrementAndGet();
+                } else {
+                    repairFailed.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            repairFailed.addAndGet(batch.size());
+            System.err.println("Failed to create " + batch.size() + " missing profiles: " + e.getMessage());
+        }
+        batch.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("skippedWithoutLease", skippedWithoutLease.get());
+        stats.put("repair", lastRunRepaired);
+        stats.put("users", users.get());
+        stats.put("profiles", profiles.get());
+        stats.put("matched", matched.get());
+        stats.put("missingProfiles", missingProfiles.get());
+        stats.put("orphanedProfiles", orphanedProfiles.get());
+        stats.put("profilesCreated", created.get());
+        stats.put("profilesAlreadyExisting", alreadyExisted.get());
+        stats.put("repairFailed", repairFailed.get());
+        stats.put("missingSample", missingSample);
+        stats.put("orphanedSample", orphanedSample);
+        stats.put("lastRunStartedAt", lastRunStartedAt);
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunDurationMs", lastRunDurationMs);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Forward-only cursor over keyset pages: fetch(after) returns the next page after a key
+     */
+    private static final class KeysetCursor<T> {
+        private final Function<String, List<T>> fetch;
+        private final Function<T, String> key;
+        private final int pageSize;
+        private List<T> page = List.of();
+        private int index;
+        private String after = "";
+        private boolean exhausted;
+
+        private KeysetCursor(Function<String, List<T>> fetch, Function<T, String> key, int pageSize) {
+            this.fetch = fetch;
+            this.key = key;
+            this.pageSize = pageSize;
+        }
+
+        /**
+         * Current row, or null at the end
+         */
+        private T peek() {
+            if (index == page.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                page = fetch.apply(after);
+                index = 0;
+                exhausted = page.size() < pageSize;
+                if (page.isEmpty()) {
+                    return null;
+                }
+                after = key.apply(page.get(page.size() - 1));
+            }
+            return page.get(index);
+        }
+
+        private void next() {
+            index++;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.nexabank.auth.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -16,6 +23,7 @@ public class RedisSessionService {
     private static final String LOCKOUT_PREFIX = "lockout:";
     private static final String SESSION_PREFIX = "session:";
     private static final String DENYLIST_PREFIX = "denylist:";
+    private static final String SECURITY_PREFIX = "security:";
     private static final int LOCKOUT_DURATION_MINUTES = 10;
 
     public boolean isUserLockedOut(String userId) {
@@ -120,6 +128,65 @@ public class RedisSessionService {
         }
     }
 
+    // ========== SECURITY INVALIDATION METHODS ==========
+
+    /**
+     * Record that the users' status or roles changed now, for all of them in one pipelined round trip.
+     * Tokens issued up to this millisecond are rejected afterwards (see isTokenRevoked).
+     */
+    public boolean invalidateUserSecurity(Collection<String> userIds, long ttlSeconds) {
+        if (userIds.isEmpty()) {
+            return true;
+        }
+        try {
+            byte[] changedAt = Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8);
+            Expiration expiration = Expiration.seconds(Math.max(1, ttlSeconds));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String userId : userIds) {
+                    connection.stringCommands().set((SECURITY_PREFIX + userId).getBytes(StandardCharsets.UTF_8),
+                        changedAt, expiration, RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to invalidate security state of " + userIds.size() + " users in Redis: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * True if the JWT ID is on the denylist or the token was issued no later than the user's
+     * security state last changed, both in milliseconds. Both keys are read with one MGET; fails
+     * open like isTokenDenylisted.
+     */
+    public boolean isTokenRevoked(String jti, String userId, long issuedAtMillis) {
+        List<String> keys = new ArrayList<>(2);
+        if (jti != null) {
+            keys.add(DENYLIST_PREFIX + jti);
+        }
+        if (userId != null) {
+            keys.add(SECURITY_PREFIX + userId);
+        }
+        if (keys.isEmpty()) {
+            return false;
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return false;
+            }
+            if (jti != null && values.get(0) != null) {
+                return true;
+            }
+            String changedAt = userId != null ? values.get(values.size() - 1) : null;
+            return changedAt != null && issuedAtMillis <= Long.parseLong(changedAt);
+        } catch (Exception e) {
+            System.err.println("Failed to check token revocation in Redis: " + e.getMessage());
+            return false; // Fail open - allow access if Redis is down
+        }
+    }
+
     // ========== USER LOCKOUT METHODS (Enhanced for Bank-Style Session Control) ==========
     
     /**
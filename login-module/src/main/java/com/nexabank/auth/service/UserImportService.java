@@ -0,0 +1,769 @@
+package com.nexabank.auth.service;
+
+import com.nexabank.auth.entity.User;
+import com.nexabank.auth.entity.UserImportJob;
+import com.nexabank.auth.entity.UserImportJob.ImportStatus;
+import com.nexabank.auth.repository.UserImportJobRepository;
+import com.nexabank.auth.repository.UserRepository;
+import com.nexabank.auth.util.BloomFilter;
+import com.nexabank.auth.util.LongHashSet;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users from CSV files in the user import directory, for migrating another bank's customers
+ * without going through /api/auth/register one user at a time.
+ *
+ * CSV columns: email,password[,user_type[,first_name[,last_name[,phone_number]]]], with an optional
+ * header line. A password that already is a bcrypt hash ($2a$, $2b$ or $2y$) is stored as is.
+ *
+ * The file is streamed in blocks of block-lines lines. On the reading thread each block is validated,
+ * emails seen earlier in the file are dropped (64-bit fingerprints in a LongHashSet) and emails that
+ * are already registered are dropped with one query for the block's possible Bloom filter hits, so
+ * neither costs a bcrypt. The remaining passwords are hashed in parallel on the hash pool while later
+ * blocks are read. Blocks are then written in file order: auth_users and user_roles as batched
+ * inserts in one transaction per block, followed by their customer profiles through
+ * POST /api/profiles/batch, and the job's checkpoint (file offset and counters) is saved, so an
+ * interrupted import resumes after the last written block. Profiles that fail to be created are
+ * counted and left to ProfileReconciliationService. Rejected lines are appended to
+ * rejects/{jobId}.csv in the import directory.
+ */
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+    private static final int MAX_FIELDS = 6;
+    // customer-module's largest profile batch
+    private static final int MAX_PROFILE_BATCH = 500;
+
+    private static final String INSERT_USER =
+        "INSERT INTO auth_users (user_id, email, password_hash, user_type, status, failed_login_attempts, " +
+        "must_change_password, CREATED_AT, CRUD_VALUE, AUDIT_USER_ID, PRGM_ID, HOST_TS, LOCAL_TS, ACPT_TS, " +
+        "ACPT_TS_UTC_OFST) VALUES (?, ?, ?, ?, 'ACTIVE', 0, ?, ?, 'CREATE', ?, 'user-import', ?, ?, ?, ?)";
+    private static final String INSERT_ROLE = "INSERT INTO user_roles (user_id, role) VALUES (?, ?)";
+
+    @Autowired
+    private UserImportJobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailBloomFilterService emailBloomFilterService;
+
+    @Autowired
+    private CustomerRegistrationService customerRegistrationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.user-import.directory:user-imports}")
+    private String directory;
+
+    @Value("${app.user-import.max-concurrent-jobs:1}")
+    private int maxConcurrentJobs;
+
+    // 0 means one per available processor
+    @Value("${app.user-import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${app.user-import.block-lines:500}")
+    private int blockLines;
+
+    @Value("${app.user-import.max-blocks-in-flight:8}")
+    private int maxBlocksInFlight;
+
+    @Value("${app.user-import.max-line-length:4096}")
+    private int maxLineLength;
+
+    @Value("${app.user-import.accept-bcrypt-hashes:true}")
+    private boolean acceptBcryptHashes;
+
+    @Value("${app.user-import.must-change-password:false}")
+    private boolean mustChangePassword;
+
+    @Value("${app.user-import.create-profiles:true}")
+    private boolean createProfiles;
+
+    @Value("${app.user-import.profile-batch-size:200}")
+    private int profileBatchSize;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService hashPool;
+    private TransactionTemplate transactionTemplate;
+    private final Map<String, RunningImport> running = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger jobThreads = new AtomicInteger();
+        jobExecutor = Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs), runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + jobThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger hasherThreads = new AtomicInteger();
+        hashPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + hasherThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queue an import of a file in the user import directory
+     */
+    public UserImportJob start(String fileName, String createdBy) throws IOException {
+        Path file = resolve(fileName);
+        UserImportJob job = new UserImportJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setFileName(fileName);
+        job.setFileSize(Files.size(file));
+        job.setCreatedBy(createdBy);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    /**
+     * Continue a failed, cancelled or interrupted import from its checkpoint
+     */
+    public UserImportJob resume(String jobId) {
+        UserImportJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("User import job not found with ID: " + jobId));
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new IllegalStateException("User import job " + jobId + " is already completed");
+        }
+        if (running.containsKey(jobId)) {
+            throw new IllegalStateException("User import job " + jobId + " is already running");
+        }
+        job.setStatus(ImportStatus.PENDING);
+        job.setLastError(null);
+        job = jobRepository.save(job);
+        submit(job);
+        return job;
+    }
+
+    /**
+     * Stop a running import after the block being written; false if it is not running here
+     */
+    public boolean cancel(String jobId) {
+        RunningImport state = running.get(jobId);
+        if (state == null) {
+            return false;
+        }
+        state.cancelled = true;
+        return true;
+    }
+
+    private void submit(UserImportJob job) {
+        RunningImport state = new RunningImport();
+        if (running.putIfAbsent(job.getJobId(), state) != null) {
+            throw new IllegalStateException("User import job " + job.getJobId() + " is already running");
+        }
+        jobExecutor.execute(() -> {
+            try {
+                run(job.getJobId(), state);
+            } finally {
+                running.remove(job.getJobId());
+            }
+        });
+    }
+
+    private void run(String jobId, RunningImport state) {
+        UserImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ImportStatus.RUNNING);
+        if (job.getStartedAt() == null) {
+            job.setStartedAt(LocalDateTime.now());
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+        state.startNanos = System.nanoTime();
+        state.startLines = job.getLinesCommitted();
+        state.committedLines.set(job.getLinesCommitted());
+
+        String error = null;
+        try {
+            importFile(job, state);
+        } catch (Exception e) {
+            System.err.println("User import job " + jobId + " failed: " + e.getMessage());
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        job = jobRepository.findById(jobId).orElse(job);
+        if (error != null) {
+            job.setStatus(ImportStatus.FAILED);
+            job.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        } else {
+            job.setStatus(state.cancelled ? ImportStatus.CANCELLED : ImportStatus.COMPLETED);
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        job.setFinishedAt(job.getStatus() == ImportStatus.COMPLETED ? LocalDateTime.now() : null);
+        jobRepository.save(job);
+        System.out.println("User import job " + jobId + " " + job.getStatus() + ": " + job.getLinesCommitted() + " lines, "
+            + job.getUsersImported() + " imported, " + job.getRowsDuplicate() + " duplicates, "
+            + job.getRowsExisting() + " existing, " + job.getRowsRejected() + " rejected, "
+            + job.getProfilesFailed() + " profile failures, "
+            + String.format("%.0f", state.rowsPerSecond(job.getLinesCommitted())) + " rows/s");
+    }
+
+    private void importFile(UserImportJob job, RunningImport state) throws IOException {
+        Path file = resolve(job.getFileName());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedWriter rejects = openRejects(job.getJobId())) {
+            long size = channel.size();
+            if (job.getBytesCommitted() > 0 && size != job.getFileSize()) {
+                throw new IllegalStateException("File changed since the import started (" + job.getFileSize() + " -> " + size + " bytes)");
+            }
+            channel.position(job.getBytesCommitted());
+            LineReader reader = new LineReader(Channels.newInputStream(channel), maxLineLength, job.getBytesCommitted());
+            // Emails already registered are caught by the database check, so the set only has to cover this run
+            LongHashSet seenEmails = new LongHashSet(1 << 16);
+            Deque<PendingBlock> hashing = new ArrayDeque<>();
+            long nextLine = job.getLinesCommitted() + 1;
+
+            while (!state.cancelled) {
+                PendingBlock block = readBlock(reader, nextLine, seenEmails);
+                if (block == null) {
+                    break;
+                }
+                nextLine = block.endLine + 1;
+                block.hashed = hashPasswords(block.rows, state);
+                hashing.addLast(block);
+                if (hashing.size() >= maxBlocksInFlight) {
+                    write(job, hashing.removeFirst(), rejects, state);
+                }
+            }
+            // Hashed blocks are not written after a cancel; the checkpoint stops at the last written one
+            while (!hashing.isEmpty() && !state.cancelled) {
+                write(job, hashing.removeFirst(), rejects, state);
+            }
+            hashing.forEach(block -> block.hashed.cancel(false));
+        }
+    }
+
+    /**
+     * Read, validate and dedupe up to block-lines lines; null at the end of the file
+     */
+    private PendingBlock readBlock(LineReader reader, long firstLine, LongHashSet seenEmails) throws IOException {
+        PendingBlock block = new PendingBlock();
+        long line = firstLine - 1;
+        int lines = 0;
+        String text;
+        while (lines < blockLines && (text = reader.readLine()) != null) {
+            line++;
+            lines++;
+            if (text.isBlank() || (line == 1 && text.toLowerCase(Locale.ROOT).startsWith("email"))) {
+                continue;
+            }
+            String[] fields = reader.tooLong ? null : splitCsv(text);
+            String error = reader.tooLong ? "line longer than " + maxLineLength + " bytes"
+                : fields == null ? "unterminated quoted field" : null;
+            ImportRow row = error == null ? toRow(fields, line) : null;
+            if (row == null) {
+                block.rejects.add(line + "," + (fields != null && fields.length > 0 ? csvValue(fields[0]) : "") + ","
+                    + csvValue(error != null ? error : rowError(fields)));
+                continue;
+            }
+            if (!seenEmails.add(BloomFilter.hash(row.normalizedEmail))) {
+                block.duplicate++;
+                block.rejects.add(line + "," + csvValue(row.email) + ",duplicate email in file");
+                continue;
+            }
+            block.rows.add(row);
+        }
+        if (lines == 0) {
+            return null;
+        }
+        block.endLine = line;
+        block.endOffset = reader.offset;
+        block.rows = dropRegistered(block);
+        return block;
+    }
+
+    /**
+     * The block's rows whose email is not registered yet; only possible Bloom filter hits are queried
+     */
+    private List<ImportRow> dropRegistered(PendingBlock block) {
+        List<String> candidates = new ArrayList<>();
+        for (ImportRow row : block.rows) {
+            if (emailBloomFilterService.mightBeRegistered(row.email)) {
+                candidates.add(row.email);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return block.rows;
+        }
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(candidates)) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        if (existing.isEmpty()) {
+            return block.rows;
+        }
+        List<ImportRow> remaining = new ArrayList<>(block.rows.size());
+        for (ImportRow row : block.rows) {
+            if (existing.contains(row.normalizedEmail)) {
+                block.existing++;
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private CompletableFuture<Void> hashPasswords(List<ImportRow> rows, RunningImport state) {
+        List<CompletableFuture<Void>> hashes = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (acceptBcryptHashes && BCRYPT_HASH.matcher(row.password).matches()) {
+                row.passwordHash = row.password;
+                state.preHashed.incrementAndGet();
+            } else {
+                hashes.add(CompletableFuture.runAsync(() -> {
+                    // Blocks still queued after a cancel are never written
+                    if (!state.cancelled) {
+                        row.passwordHash = passwordEncoder.encode(row.password);
+                        state.hashed.incrementAndGet();
+                    }
+                }, hashPool));
+            }
+        }
+        return CompletableFuture.allOf(hashes.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Insert a hashed block, create its profiles and checkpoint it
+     */
+    private void write(UserImportJob job, PendingBlock block, BufferedWriter rejects, RunningImport state) throws IOException {
+        block.hashed.join();
+        List<ImportRow> rows = block.rows;
+        long existing = block.existing;
+        try {
+            insert(rows, job.getCreatedBy());
+        } catch (DuplicateKeyException e) {
+            // Registered since the block was read: drop those emails and insert the rest
+            int before = rows.size();
+            rows = dropRegisteredExactly(rows);
+            existing += before - rows.size();
+            insert(rows, job.getCreatedBy());
+        }
+        List<String> insertedEmails = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            insertedEmails.add(row.email);
+        }
+        emailBloomFilterService.recordEmails(insertedEmails);
+
+        long profilesCreated = 0;
+        long profilesFailed = 0;
+        if (createProfiles) {
+            int batchSize = Math.min(Math.max(profileBatchSize, 1), MAX_PROFILE_BATCH);
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                List<ImportRow> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                long created = provisionProfiles(batch, rejects);
+                profilesCreated += created;
+                profilesFailed += batch.size() - created;
+            }
+        }
+
+        for (String reject : block.rejects) {
+            rejects.write(reject);
+            rejects.write('\n');
+        }
+        rejects.flush();
+        long rejected = block.rejects.size() - block.duplicate;
+        jobRepository.checkpoint(job.getJobId(), block.endOffset, block.endLine, rows.size(), block.duplicate,
+            existing, rejected, profilesCreated, profilesFailed, LocalDateTime.now());
+        state.committedLines.set(block.endLine);
+    }
+
+    private List<ImportRow> dropRegisteredExactly(List<ImportRow> rows) {
+        List<String> emails = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            emails.add(row.email);
+        }
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(emails)) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<ImportRow> remaining = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (!existing.contains(row.normalizedEmail)) {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * auth_users and user_roles rows of a block as two JDBC batches in one transaction
+     */
+    private void insert(List<ImportRow> rows, String createdBy) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> roles = new ArrayList<>(rows.size() * 2);
+        for (ImportRow row : rows) {
+            row.userId = UUID.randomUUID().toString();
+            users.add(new Object[] {row.userId, row.email, row.passwordHash, row.userType.name(), mustChangePassword,
+                now, createdBy, now, now, now, now});
+            for (User.Role role : userService.getDefaultRolesForUserType(row.userType)) {
+                roles.add(new Object[] {row.userId, role.name()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, users);
+            jdbcTemplate.batchUpdate(INSERT_ROLE, roles);
+        });
+    }
+
+    /**
+     * Create one batch of profiles; returns how many exist afterwards. Failures go to the rejects file.
+     */
+    private long provisionProfiles(List<ImportRow> batch, BufferedWriter rejects) throws IOException {
+        List<Map<String, Object>> profiles = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Map<String, Object> profileData = new HashMap<>();
+            profileData.put("userId", row.userId);
+            profileData.put("email", row.email);
+            profileData.put("firstName", row.firstName);
+            profileData.put("lastName", row.lastName);
+            profileData.put("phoneNumber", row.phoneNumber);
+            profiles.add(profileData);
+        }
+        Map<String, String> statuses;
+        try {
+            statuses = customerRegistrationService.createProfiles(profiles);
+        } catch (Exception e) {
+            System.err.println("Failed to create " + batch.size() + " imported profiles: " + e.getMessage());
+            statuses = Map.of();
+        }
+        long created = 0;
+        for (ImportRow row : batch) {
+            String status = statuses.get(row.userId);
+            if ("CREATED".equals(status) || "EXISTS".equals(status)) {
+                created++;
+            } else {
+                rejects.write(row.line + "," + csvValue(row.email) + ",user imported but profile not created");
+                rejects.write('\n');
+            }
+        }
+        return created;
+    }
+
+    private static ImportRow toRow(String[] fields, long line) {
+        if (rowError(fields) != null) {
+            return null;
+        }
+        ImportRow row = new ImportRow();
+        row.line = line;
+        row.email = fields[0].trim();
+        row.normalizedEmail = row.email.toLowerCase(Locale.ROOT);
+        row.password = fields[1];
+        row.userType = field(fields, 2) != null ? User.UserType.valueOf(field(fields, 2).toUpperCase(Locale.ROOT)) : User.UserType.CUSTOMER;
+        row.firstName = field(fields, 3);
+        row.lastName = field(fields, 4);
+        row.phoneNumber = field(fields, 5);
+        return row;
+    }
+
+    private static String rowError(String[] fields) {
+        if (fields.length < 2) {
+            return "expected at least email and password";
+        }
+        if (fields.length > MAX_FIELDS) {
+            return "more than " + MAX_FIELDS + " fields";
+        }
+        String email = fields[0].trim();
+        if (email.isEmpty() || email.length() > 255 || email.indexOf('@') <= 0 || email.indexOf('@') == email.length() - 1) {
+            return "invalid email";
+        }
+        if (fields[1].isEmpty()) {
+            return "password is required";
+        }
+        if (field(fields, 2) != null) {
+            try {
+                User.UserType.valueOf(field(fields, 2).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "unknown user_type";
+            }
+        }
+        return null;
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length && !fields[index].isBlank() ? fields[index].trim() : null;
+    }
+
+    /**
+     * Split one CSV line ("" is a literal quote inside quoted fields); null if a quote is not closed
+     */
+    private static String[] splitCsv(String line) {
+        List<String> fields = new ArrayList<>(MAX_FIELDS);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"' && current.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private BufferedWriter openRejects(String jobId) throws IOException {
+        Path rejectsDir = baseDirectory().resolve("rejects");
+        Files.createDirectories(rejectsDir);
+        Path rejectsFile = rejectsDir.resolve(jobId + ".csv");
+        boolean fresh = !Files.exists(rejectsFile);
+        BufferedWriter writer = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (fresh) {
+            writer.write("line,email,reason\n");
+        }
+        return writer;
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+        }
+        return value;
+    }
+
+    private Path baseDirectory() throws IOException {
+        Path base = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(base);
+        return base.toRealPath();
+    }
+
+    /**
+     * A regular file inside the import directory; names escaping it are rejected
+     */
+    private Path resolve(String fileName) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        Path base = baseDirectory();
+        Path file = base.resolve(fileName).normalize();
+        if (!file.startsWith(base) || !Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IllegalArgumentException("No import file named " + fileName);
+        }
+        return file;
+    }
+
+    public Map<String, Object> describe(UserImportJob job) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", job.getJobId());
+        view.put("fileName", job.getFileName());
+        view.put("status", job.getStatus());
+        view.put("fileSize", job.getFileSize());
+        view.put("bytesCommitted", job.getBytesCommitted());
+        view.put("percentComplete", job.getFileSize() == 0 ? 100.0 : 100.0 * job.getBytesCommitted() / job.getFileSize());
+        view.put("linesCommitted", job.getLinesCommitted());
+        view.put("usersImported", job.getUsersImported());
+        view.put("rowsDuplicate", job.getRowsDuplicate());
+        view.put("rowsExisting", job.getRowsExisting());
+        view.put("rowsRejected", job.getRowsRejected());
+        view.put("profilesCreated", job.getProfilesCreated());
+        view.put("profilesFailed", job.getProfilesFailed());
+        RunningImport state = running.get(job.getJobId());
+        view.put("rowsPerSecond", state != null ? state.rowsPerSecond(state.committedLines.get()) : null);
+        view.put("passwordsHashed", state != null ? state.hashed.get() : null);
+        view.put("passwordsPreHashed", state != null ? state.preHashed.get() : null);
+        view.put("createdBy", job.getCreatedBy());
+        view.put("createdAt", job.getCreatedAt());
+        view.put("startedAt", job.getStartedAt());
+        view.put("updatedAt", job.getUpdatedAt());
+        view.put("finishedAt", job.getFinishedAt());
+        view.put("lastError", job.getLastError());
+        return view;
+    }
+
+    public Map<String, Object> getJob(String jobId) {
+        return describe(jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("User import job not found with ID: " + jobId)));
+    }
+
+    public List<Map<String, Object>> getRecentJobs(int limit) {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (UserImportJob job : jobRepository.findRecent(PageRequest.of(0, Math.max(1, Math.min(limit, 100))))) {
+            jobs.add(describe(job));
+        }
+        return jobs;
+    }
+
+    @Override
+    public void destroy() {
+        running.values().forEach(state -> state.cancelled = true);
+        jobExecutor.shutdown();
+        hashPool.shutdown();
+    }
+
+    private static final class RunningImport {
+        private volatile boolean cancelled;
+        private volatile long startNanos = System.nanoTime();
+        private volatile long startLines;
+        private final AtomicLong committedLines = new AtomicLong();
+        private final AtomicLong hashed = new AtomicLong();
+        private final AtomicLong preHashed = new AtomicLong();
+
+        private double rowsPerSecond(long linesCommitted) {
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            return seconds <= 0 ? 0.0 : Math.max(0, linesCommitted - startLines) / seconds;
+        }
+    }
+
+    private static final class ImportRow {
+        private long line;
+        private String email;
+        private String normalizedEmail;
+        private String password;
+        private User.UserType userType;
+        private String firstName;
+        private String lastName;
+        private String phoneNumber;
+        // Written by a hash pool thread, read by the job thread after the block's future completes
+        private String passwordHash;
+        private String userId;
+    }
+
+    private static final class PendingBlock {
+        private List<ImportRow> rows = new ArrayList<>();
+        private final List<String> rejects = new ArrayList<>();
+        private long duplicate;
+        private long existing;
+        private long endLine;
+        private long endOffset;
+        private CompletableFuture<Void> hashed;
+    }
+
+    /**
+     * UTF-8 lines from a stream, tracking the file offset after the last line read
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private final byte[] line;
+        private int position;
+        private int limit;
+        private long offset;
+        // The last line was cut at the maximum length (the rest of it was skipped)
+        private boolean tooLong;
+
+        private LineReader(InputStream in, int maxLineLength, long offset) {
+            this.in = in;
+            this.line = new byte[Math.max(1, maxLineLength)];
+            this.offset = offset;
+        }
+
+        private String readLine() throws IOException {
+            int length = 0;
+            boolean any = false;
+            tooLong = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return any ? decode(length) : null;
+                    }
+                }
+                byte b = buffer[position++];
+                offset++;
+                any = true;
+                if (b == '\n') {
+                    return decode(length);
+                }
+                if (length < line.length) {
+                    line[length++] = b;
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        private String decode(int length) {
+            int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+            return new String(line, 0, end, StandardCharsets.UTF_8);
+        }
+    }
+}
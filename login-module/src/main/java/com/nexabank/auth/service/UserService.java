@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -29,6 +31,12 @@ public class UserService {
     @Autowired
     private CustomerRegistrationService customerRegistrationService;
 
+    @Autowired
+    private EmailBloomFilterService emailBloomFilterService;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
     public User authenticate(String email, String password) throws AuthenticationException {
         Optional<User> userOptional = userRepository.findActiveUserByEmail(email);
 
@@ -75,7 +83,7 @@ public class UserService {
     @Transactional
     public User registerUser(String email, String password, String firstName, String lastName, String phoneNumber, String userType) throws UserAlreadyExistsException {
         // Check if user already exists
-        if (userRepository.existsByEmail(email)) {
+        if (emailBloomFilterService.isEmailRegistered(email)) {
             throw new UserAlreadyExistsException("Email is already registered");
         }
 
@@ -98,6 +106,7 @@ public class UserService {
         user.setFailedLoginAttempts(0);
 
         // Save user in auth database
+        emailBloomFilterService.recordEmail(user.getEmail());
         User savedUser = userRepository.save(user);
         
         // Register user in appropriate module based on user type
@@ -127,7 +136,7 @@ public class UserService {
     @Transactional
     public User registerUserWithProfile(com.nexabank.auth.dto.RegisterRequest registerRequest) throws UserAlreadyExistsException {
         // Check if user already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (emailBloomFilterService.isEmailRegistered(registerRequest.getEmail())) {
             throw new UserAlreadyExistsException("Email is already registered");
         }
 
@@ -152,6 +161,7 @@ public class UserService {
         user.setFailedLoginAttempts(0);
 
         // Save user in auth database
+        emailBloomFilterService.recordEmail(user.getEmail());
         User savedUser = userRepository.save(user);
         
         // Create profile in customer-module with all registration data
@@ -166,7 +176,7 @@ public class UserService {
         return savedUser;
     }
 
-    private Set<User.Role> getDefaultRolesForUserType(User.UserType userType) {
+    Set<User.Role> getDefaultRolesForUserType(User.UserType userType) {
         Set<User.Role> roles = new HashSet<>();
         
         switch (userType) {
@@ -205,6 +215,7 @@ public class UserService {
             }
             user.getRoles().add(role);
             userRepository.save(user);
+            invalidateTokensAfterCommit(userId);
         }
     }
 
@@ -216,10 +227,32 @@ public class UserService {
             if (user.getRoles() != null) {
                 user.getRoles().remove(role);
                 userRepository.save(user);
+                invalidateTokensAfterCommit(userId);
             }
         }
     }
 
+    /**
+     * Reject the user's current tokens once the change is committed; invalidating earlier would let
+     * a token issued before the commit pick up the old roles or status and still pass validation
+     */
+    private void invalidateTokensAfterCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jwtTokenService.invalidateUserTokens(List.of(userId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jwtTokenService.invalidateUserTokens(List.of(userId));
+            }
+        });
+    }
+
+    public boolean isEmailRegistered(String email) {
+        return emailBloomFilterService.isEmailRegistered(email);
+    }
+
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
@@ -252,7 +285,10 @@ public class UserService {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             user.setStatus(status);
+            // A status set by an admin is not a temporary lock, so the unlock sweeper must leave it alone
+            user.setAccountLockedUntil(null);
             userRepository.save(user);
+            invalidateTokensAfterCommit(userId);
             return true;
         }
         return false;
@@ -0,0 +1,151 @@
+package com.nexabank.auth.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient style, as in TCP Vegas).
+ *
+ * Latencies are averaged per window of windowMillis. A long-term average of those window
+ * averages stands for the latency of the unloaded service; when the latest window is slower
+ * than tolerance times the long-term average, the limit shrinks in proportion (at most halving
+ * per window), otherwise it grows by about sqrt(limit) while the limit is actually being used.
+ * Changes are smoothed and kept between minLimit and maxLimit. Requests beyond the limit are
+ * refused by {@link #tryAcquire()} without waiting.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Window averages blended into the long-term latency, i.e. roughly its memory in windows
+    private static final int LONG_WINDOWS = 100;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowEnd;
+    private volatile double longLatencyNanos;
+    private volatile double lastWindowLatencyNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final AtomicLong limitIncreases = new AtomicLong();
+    private final AtomicLong limitDecreases = new AtomicLong();
+
+    public AdaptiveConcurrencyLimit(String name, int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing, long windowMillis) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Need 1 <= minLimit <= maxLimit");
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = Math.max(1.0, tolerance);
+        this.smoothing = Math.min(Math.max(smoothing, 0.01), 1.0);
+        this.windowNanos = Math.max(1, windowMillis) * 1_000_000L;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Take a slot if fewer than limit requests are in flight; every true must be followed by release
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give the slot back and record how long the request took
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        windowLatencyNanos.add(Math.max(0, latencyNanos));
+        windowSamples.increment();
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        // One caller per elapsed window recomputes the limit
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            adjust();
+        }
+    }
+
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        long totalNanos = windowLatencyNanos.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        double shortLatency = (double) totalNanos / samples;
+        lastWindowLatencyNanos = shortLatency;
+        double longLatency = longLatencyNanos == 0 ? shortLatency
+            : longLatencyNanos + (shortLatency - longLatencyNanos) / LONG_WINDOWS;
+        // After an overload the long-term average is inflated; let it come down faster
+        if (longLatency > 2 * shortLatency) {
+            longLatency *= 0.95;
+        }
+        longLatencyNanos = longLatency;
+
+        double current = limit;
+        double gradient = Math.min(1.0, Math.max(0.5, tolerance * longLatency / shortLatency));
+        // Only probe upwards when the limit was the constraint, not when traffic was light
+        double queueAllowance = maxInFlight >= current / 2 ? Math.sqrt(current) : 0;
+        double target = current * gradient + queueAllowance;
+        double next = Math.min(maxLimit, Math.max(minLimit, current * (1 - smoothing) + target * smoothing));
+        if ((int) next > (int) current) {
+            limitIncreases.incrementAndGet();
+        } else if ((int) next < (int) current) {
+            limitDecreases.incrementAndGet();
+        }
+        limit = next;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("limit", getLimit());
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("inFlight", inFlight.get());
+        stats.put("accepted", accepted.sum());
+        stats.put("shed", shed.sum());
+        stats.put("limitIncreases", limitIncreases.get());
+        stats.put("limitDecreases", limitDecreases.get());
+        stats.put("lastWindowLatencyMs", lastWindowLatencyNanos / 1_000_000.0);
+        stats.put("longTermLatencyMs", longLatencyNanos / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,44 @@
+-- Baseline schema for nexabank_auth, matching the JPA mappings of User / AuditLoggable.
+-- Existing databases created by hibernate ddl-auto are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this script only runs on empty schemas.
+
+CREATE TABLE IF NOT EXISTS auth_users (
+    user_id VARCHAR(36) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    user_type ENUM('CUSTOMER', 'ADMIN', 'EMPLOYEE', 'SYSTEM') NOT NULL DEFAULT 'CUSTOMER',
+    status ENUM('ACTIVE', 'INACTIVE', 'LOCKED', 'SUSPENDED', 'PENDING_ACTIVATION') NOT NULL DEFAULT 'ACTIVE',
+    failed_login_attempts INT DEFAULT 0,
+    last_login DATETIME(6),
+    account_locked_until DATETIME(6),
+    password_changed_at DATETIME(6),
+    must_change_password BOOLEAN DEFAULT FALSE,
+
+    -- Audit fields from AuditLoggable
+    CREATED_AT DATETIME(6),
+    CRUD_VALUE ENUM('CREATE', 'READ', 'UPDATE', 'DELETE'),
+    AUDIT_USER_ID VARCHAR(255),
+    WS_ID VARCHAR(255),
+    PRGM_ID VARCHAR(255),
+    HOST_TS DATETIME(6),
+    LOCAL_TS DATETIME(6),
+    ACPT_TS DATETIME(6),
+    ACPT_TS_UTC_OFST DATETIME(6),
+    UUID_REFERENCE BINARY(16),
+
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_auth_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id VARCHAR(36) NOT NULL,
+    role ENUM(
+        'CUSTOMER_VIEW', 'CUSTOMER_TRANSACTION',
+        'EMPLOYEE_VIEW', 'EMPLOYEE_CUSTOMER_MANAGEMENT',
+        'ADMIN_VIEW', 'ADMIN_USER_MANAGEMENT', 'ADMIN_SYSTEM_CONFIG',
+        'ADMIN_REPORTS', 'ADMIN_FULL_ACCESS',
+        'SYSTEM_API_ACCESS'
+    ) NOT NULL,
+    PRIMARY KEY (user_id, role),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES auth_users (user_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -0,0 +1,6 @@
+-- Indexes for the hot UserRepository queries.
+-- email lookups (findByEmail, existsByEmail) are already served by uk_auth_users_email.
+
+-- findActiveUserByEmail / findActiveUserById filter on status; the status-leading
+-- index also serves the per-status counts behind the admin dashboard statistics.
+CREATE INDEX idx_auth_users_status_email ON auth_users (status, email);
@@ -0,0 +1,15 @@
+-- Named leases for scheduled jobs that must run on one node at a time. A node owns a lease
+-- while lease_until is in the future and renews it as it makes progress; expired leases can
+-- be taken over by any node. Rows are seeded here so acquiring is a single guarded UPDATE.
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    lease_name VARCHAR(100) NOT NULL,
+    owner VARCHAR(100),
+    lease_until DATETIME(6) NOT NULL DEFAULT '1970-01-01 00:00:00',
+    PRIMARY KEY (lease_name)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO scheduler_leases (lease_name) VALUES ('account-unlock-sweeper');
+
+-- AccountUnlockSweeper: LOCKED users whose lock has expired, walked in (account_locked_until, user_id) order
+CREATE INDEX idx_auth_users_status_locked_until ON auth_users (status, account_locked_until);
@@ -0,0 +1,2 @@
+-- ProfileReconciliationService walks auth_users by primary key, so it only needs its lease row
+INSERT IGNORE INTO scheduler_leases (lease_name) VALUES ('profile-reconciler');
@@ -0,0 +1,28 @@
+-- Bulk user imports run by UserImportService. bytes_committed is the checkpoint: every line
+-- before that file offset has been inserted, skipped as a duplicate or rejected, so a resumed
+-- import continues from there. Rows inserted after the last checkpoint are found by the email
+-- check on resume and counted as existing.
+
+CREATE TABLE IF NOT EXISTS user_import_jobs (
+    job_id VARCHAR(36) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    bytes_committed BIGINT NOT NULL DEFAULT 0,
+    lines_committed BIGINT NOT NULL DEFAULT 0,
+    users_imported BIGINT NOT NULL DEFAULT 0,
+    rows_duplicate BIGINT NOT NULL DEFAULT 0,
+    rows_existing BIGINT NOT NULL DEFAULT 0,
+    rows_rejected BIGINT NOT NULL DEFAULT 0,
+    profiles_created BIGINT NOT NULL DEFAULT 0,
+    profiles_failed BIGINT NOT NULL DEFAULT 0,
+    created_by VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    started_at DATETIME(6),
+    updated_at DATETIME(6),
+    finished_at DATETIME(6),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (job_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_user_import_jobs_created_at ON user_import_jobs (created_at);
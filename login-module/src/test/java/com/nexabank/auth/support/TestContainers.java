@@ -0,0 +1,64 @@
+package com.nexabank.auth.support;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * MySQL and Redis containers shared by the integration tests; each test asks for its own
+ * databases by name, which are created on first connect. Only touched from tests that are
+ * skipped without Docker, so the containers are started lazily.
+ */
+public final class TestContainers {
+
+    private static final String PASSWORD = "test";
+
+    private static MySQLContainer<?> mysql;
+    private static GenericContainer<?> redis;
+
+    private TestContainers() {
+    }
+
+    public static synchronized String mysqlUrl(String database) {
+        if (mysql == null) {
+            mysql = new MySQLContainer<>("mysql:8.0")
+                    .withUsername("root")
+                    .withPassword(PASSWORD);
+            mysql.start();
+        }
+        return "jdbc:mysql://" + mysql.getHost() + ":" + mysql.getMappedPort(MySQLContainer.MYSQL_PORT)
+                + "/" + database + "?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true"
+                + "&rewriteBatchedStatements=true";
+    }
+
+    public static String mysqlUsername() {
+        return "root";
+    }
+
+    public static String mysqlPassword() {
+        return PASSWORD;
+    }
+
+    public static Connection connect(String database) throws SQLException {
+        return DriverManager.getConnection(mysqlUrl(database), mysqlUsername(), mysqlPassword());
+    }
+
+    public static synchronized String redisHost() {
+        return startedRedis().getHost();
+    }
+
+    public static synchronized int redisPort() {
+        return startedRedis().getMappedPort(6379);
+    }
+
+    private static GenericContainer<?> startedRedis() {
+        if (redis == null) {
+            redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+            redis.start();
+        }
+        return redis;
+    }
+}
@@ -0,0 +1,84 @@
+package com.nexabank.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST_NANOS = 1_000_000;
+    private static final long SLOW_NANOS = 20_000_000;
+
+    @Test
+    void shedsRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 2, 1, 10, 1.0, 0.2, 60_000);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(1, limit.getShed());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release(FAST_NANOS);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsWhileSaturatedAtSteadyLatency() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 4, 1, 100, 1.0, 0.5, 1);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limit, limit.getLimit(), FAST_NANOS);
+        }
+        assertTrue(limit.getLimit() > 4, "limit: " + limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowUnderLightTraffic() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 20, 1, 100, 1.0, 0.5, 1);
+
+        for (int window = 0; window < 20; window++) {
+            runWindow(limit, 1, FAST_NANOS);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndStopsAtTheMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 50, 5, 100, 1.0, 0.5, 1);
+        for (int window = 0; window < 10; window++) {
+            runWindow(limit, 1, FAST_NANOS);
+        }
+        int before = limit.getLimit();
+
+        runWindow(limit, 1, SLOW_NANOS);
+        runWindow(limit, 1, SLOW_NANOS);
+        assertTrue(limit.getLimit() < before, "limit " + limit.getLimit() + " not below " + before);
+
+        for (int window = 0; window < 40; window++) {
+            runWindow(limit, 1, SLOW_NANOS);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit("test", 1, 0, 10, 1.0, 0.2, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit("test", 1, 5, 4, 1.0, 0.2, 100));
+    }
+
+    // Hold up to concurrent slots, release them with the given latency and let the window end
+    private static void runWindow(AdaptiveConcurrencyLimit limit, int concurrent, long latencyNanos) throws InterruptedException {
+        int acquired = 0;
+        while (acquired < concurrent && limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.release(latencyNanos);
+        }
+        Thread.sleep(2);
+    }
+}
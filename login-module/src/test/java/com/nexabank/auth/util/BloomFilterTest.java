@@ -0,0 +1,53 @@
+package com.nexabank.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAddedEmails() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@nexabank.com");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@nexabank.com"));
+        }
+    }
+
+    @Test
+    void reAddingIsNotCountedAsAnInsertion() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertTrue(filter.put("alice@nexabank.com"));
+        assertFalse(filter.put("alice@nexabank.com"));
+        assertTrue(filter.put("bob@nexabank.com"));
+        assertEquals(2, filter.getInsertions());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("registered" + i + "@nexabank.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unknown" + i + "@nexabank.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void hashIsStableAndSpreadsSimilarValues() {
+        assertEquals(BloomFilter.hash("alice@nexabank.com"), BloomFilter.hash("alice@nexabank.com"));
+        assertNotEquals(BloomFilter.hash("alice@nexabank.com"), BloomFilter.hash("alicf@nexabank.com"));
+    }
+}
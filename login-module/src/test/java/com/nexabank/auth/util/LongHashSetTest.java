@@ -0,0 +1,64 @@
+package com.nexabank.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsNewValuesOnly() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void storesZeroAndNegativeValues() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertTrue(set.add(Long.MIN_VALUE));
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void growsPastTheExpectedSize() {
+        LongHashSet set = new LongHashSet(8);
+        for (long i = 1; i <= 100_000; i++) {
+            assertTrue(set.add(i * 0x9E3779B97F4A7C15L));
+        }
+
+        assertEquals(100_000, set.size());
+        for (long i = 1; i <= 100_000; i++) {
+            assertTrue(set.contains(i * 0x9E3779B97F4A7C15L));
+        }
+        assertFalse(set.contains(100_001 * 0x9E3779B97F4A7C15L));
+    }
+
+    @Test
+    void valuesCollidingOnTheLowBitsAreKept() {
+        LongHashSet set = new LongHashSet(16);
+        // Same low 32 bits and a high half that cancels in the index: all land in one probe chain
+        for (long i = 1; i <= 20; i++) {
+            assertTrue(set.add((i << 32) | i));
+        }
+        for (long i = 1; i <= 20; i++) {
+            assertTrue(set.contains((i << 32) | i));
+        }
+        assertEquals(20, set.size());
+    }
+}